@@ -0,0 +1,200 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.SpdxModelFactory;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.library.model.v2.SpdxElement;
+import org.spdx.library.model.v2.SpdxFile;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v2.SpdxPackage;
+import org.spdx.library.model.v2.SpdxSnippet;
+import org.spdx.library.model.v2.license.ExtractedLicenseInfo;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tagvaluestore.benchmarks.BenchmarkStores;
+import org.spdx.tagvaluestore.benchmarks.CountingOutputStream;
+
+/**
+ * Throughput of the individual <code>CommonCode</code> printing routines for pre-populated stores of 
+ * different shapes.
+ * <p>
+ * Each invocation prints every element of one kind.  The <code>elements</code> counter is reported 
+ * per second so the routines can be compared.  <code>printPackage</code> includes the files of the
+ * package.  This class is in the <code>org.spdx.tag</code> package to call the package-private printers.
+ * 
+ * @author Gary O'Neall
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class CommonCodeBenchmark {
+	
+	/**
+	 * Bytes and elements printed, reported as rates
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public double megabytes;
+		public long elements;
+	}
+	
+	/**
+	 * Number of packages and files per package
+	 */
+	@Param({"1000x10", "1x10000"})
+	public String layout;
+	
+	/**
+	 * Number of relationships from each file
+	 */
+	@Param({"0", "4"})
+	public int relationshipsPerFile;
+	
+	/**
+	 * Probability that an element has an annotation
+	 */
+	@Param({"0", "1"})
+	public double annotationRatio;
+	
+	private InMemSpdxStore store;
+	private Properties constants;
+	private String documentUri;
+	private List<SpdxPackage> packages;
+	private List<SpdxFile> files;
+	private List<SpdxSnippet> snippets;
+	private List<ExtractedLicenseInfo> licenses;
+	private List<SpdxElement> elements;
+	private final CountingOutputStream out = new CountingOutputStream();
+	private PrintWriter writer;
+	
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+		constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		store = new InMemSpdxStore();
+		SyntheticDocumentGenerator generator = BenchmarkStores.generator(layout);
+		generator.setRelationshipsPerFile(relationshipsPerFile);
+		generator.setAnnotationRatio(annotationRatio);
+		SpdxDocument doc = BenchmarkStores.populate(store, BenchmarkStores.generate(generator));
+		documentUri = doc.getDocumentUri();
+		packages = (List<SpdxPackage>)SpdxModelFactory.getSpdxObjects(store, null, 
+				SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, null, null).collect(Collectors.toList());
+		files = (List<SpdxFile>)SpdxModelFactory.getSpdxObjects(store, null, 
+				SpdxConstantsCompatV2.CLASS_SPDX_FILE, null, null).collect(Collectors.toList());
+		snippets = (List<SpdxSnippet>)SpdxModelFactory.getSpdxObjects(store, null, 
+				SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET, null, null).collect(Collectors.toList());
+		licenses = new ArrayList<>(doc.getExtractedLicenseInfos());
+		elements = new ArrayList<>();
+		elements.add(doc);
+		elements.addAll(packages);
+		elements.addAll(files);
+		elements.addAll(snippets);
+		writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		store.close();
+	}
+	
+	private long finish(Counters counters, int count) {
+		writer.flush();
+		counters.megabytes += out.getCount() / 1_000_000.0;
+		counters.elements += count;
+		long retval = out.getCount();
+		out.reset();
+		return retval;
+	}
+	
+	@Benchmark
+	public long printPackage(Counters counters) throws InvalidSPDXAnalysisException {
+		for (SpdxPackage pkg:packages) {
+			CommonCode.printPackage(pkg, writer, constants, documentUri, null);
+		}
+		return finish(counters, packages.size());
+	}
+	
+	@Benchmark
+	public long printFile(Counters counters) throws InvalidSPDXAnalysisException {
+		for (SpdxFile file:files) {
+			CommonCode.printFile(file, writer, constants);
+		}
+		return finish(counters, files.size());
+	}
+	
+	@Benchmark
+	public long printSnippet(Counters counters) throws InvalidSPDXAnalysisException {
+		for (SpdxSnippet snippet:snippets) {
+			CommonCode.printSnippet(snippet, writer, constants);
+		}
+		return finish(counters, snippets.size());
+	}
+	
+	@Benchmark
+	public long printLicense(Counters counters) throws InvalidSPDXAnalysisException {
+		for (ExtractedLicenseInfo license:licenses) {
+			CommonCode.printLicense(license, writer, constants);
+		}
+		return finish(counters, licenses.size());
+	}
+	
+	@Benchmark
+	public long printAnnotationsRelationships(Counters counters) throws InvalidSPDXAnalysisException {
+		for (SpdxElement element:elements) {
+			CommonCode.printElementAnnotationsRelationships(element, writer, constants, null);
+		}
+		return finish(counters, elements.size());
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spdx.tagvaluestore.benchmarks.BenchmarkStores;
+
+/**
+ * Throughput and allocation of reading and splitting the lines of a document into tags and values
+ * without building the elements.
+ * <p>
+ * The <code>lines</code> counter is reported per second.  Run with <code>-prof gc</code> and divide
+ * <code>gc.alloc.rate.norm</code> by the lines in the document for the bytes allocated per line, which
+ * should be little more than the value strings.
+ * 
+ * @author Gary O'Neall
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class LineParseBenchmark {
+	
+	/**
+	 * Lines read, reported as a rate
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public long lines;
+	}
+	
+	/**
+	 * Number of files in the generated document
+	 */
+	@Param({"1000", "100000"})
+	public int fileCount;
+	
+	/**
+	 * Number of lines in the notice, description and extracted license text blocks
+	 */
+	@Param({"0", "10"})
+	public int textLines;
+	
+	private byte[] document;
+	private int lineCount;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		SyntheticDocumentGenerator generator = BenchmarkStores.generator("1x" + fileCount);
+		generator.setTextBlockLines(textLines);
+		generator.setRelationshipsPerFile(0);
+		document = BenchmarkStores.generate(generator);
+		try (NoCommentInputStream input = new NoCommentInputStream(new ByteArrayInputStream(document))) {
+			while (input.readLine() != null) {
+				lineCount++;
+			}
+		}
+	}
+	
+	@Benchmark
+	public void parse(Counters counters, Blackhole blackhole) throws Exception {
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream(document)));
+		parser.setBehavior(new TagValueBehavior() {
+
+			@Override
+			public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+				blackhole.consume(tag);
+				blackhole.consume(value);
+			}
+
+			@Override
+			public void enter() throws Exception {
+				// nothing to build
+			}
+
+			@Override
+			public void exit() throws Exception {
+				// nothing to build
+			}
+		});
+		parser.data();
+		counters.lines += lineCount;
+	}
+}
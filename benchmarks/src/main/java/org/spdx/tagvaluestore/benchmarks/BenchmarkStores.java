@@ -0,0 +1,89 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.storage.IModelStore;
+import org.spdx.tag.SyntheticDocumentGenerator;
+import org.spdx.tagvaluestore.TagValueStore;
+
+/**
+ * Generates the SPDX documents used by the benchmarks and populates model stores with them.
+ * <p>
+ * Documents are written by <code>SyntheticDocumentGenerator</code> with a fixed seed, so the content
+ * is deterministic for a given shape and results are comparable between runs.
+ * 
+ * @author Gary O'Neall
+ */
+public class BenchmarkStores {
+	
+	/**
+	 * Seed for all generated benchmark documents
+	 */
+	public static final long SEED = 0x5bd1e995L;
+	
+	private BenchmarkStores() {
+		// static methods only
+	}
+	
+	/**
+	 * @param layout packages and files per package in the form <code>packages x files</code>, e.g. <code>100x1000</code>
+	 * @return generator for the layout with one snippet for every ten files and ten extracted licenses
+	 */
+	public static SyntheticDocumentGenerator generator(String layout) {
+		String[] parts = layout.split("x");
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("Invalid layout "+layout+" - expected packages x files");
+		}
+		SyntheticDocumentGenerator generator = new SyntheticDocumentGenerator(SEED);
+		generator.setPackageCount(Integer.parseInt(parts[0].trim()));
+		generator.setFilesPerPackage(Integer.parseInt(parts[1].trim()));
+		generator.setSnippetRatio(0.1);
+		generator.setExtractedLicenseCount(10);
+		return generator;
+	}
+	
+	/**
+	 * @param generator generator for the document
+	 * @return UTF-8 encoded tag/value document
+	 * @throws IOException on errors generating the document
+	 */
+	public static byte[] generate(SyntheticDocumentGenerator generator) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.generate(out);
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Deserialize a generated document into a model store
+	 * @param modelStore store to populate
+	 * @param document tag/value document from <code>generate</code>
+	 * @return the document
+	 * @throws InvalidSPDXAnalysisException on errors creating the document
+	 * @throws IOException on errors reading the document
+	 */
+	public static SpdxDocument populate(IModelStore modelStore, byte[] document) throws InvalidSPDXAnalysisException, IOException {
+		return new TagValueStore(modelStore).deSerialize(new ByteArrayInputStream(document), false);
+	}
+}
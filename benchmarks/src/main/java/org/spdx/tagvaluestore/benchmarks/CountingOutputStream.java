@@ -0,0 +1,55 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * Output stream which discards the output counting the bytes written
+ * 
+ * @author Gary O'Neall
+ */
+public class CountingOutputStream extends OutputStream {
+	
+	private long count = 0;
+
+	@Override
+	public void write(int b) {
+		count++;
+	}
+	
+	@Override
+	public void write(byte[] b, int off, int len) {
+		count += len;
+	}
+	
+	/**
+	 * @return number of bytes written
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Reset the number of bytes written to zero
+	 */
+	public void reset() {
+		count = 0;
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.SyntheticDocumentGenerator;
+import org.spdx.tagvaluestore.TagValueStore;
+
+/**
+ * Throughput of <code>TagValueStore.deSerialize</code> by document size, text block density and 
+ * relationship count.
+ * <p>
+ * The <code>megabytes</code> and <code>elements</code> counters are reported per second.  Run with 
+ * <code>-prof gc</code> for the allocation rate.
+ * 
+ * @author Gary O'Neall
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class DeserializeBenchmark {
+	
+	/**
+	 * Bytes and elements deserialized, reported as rates
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public double megabytes;
+		public long elements;
+	}
+	
+	/**
+	 * Number of files in the generated document
+	 */
+	@Param({"1", "1000", "100000", "1000000"})
+	public int fileCount;
+	
+	/**
+	 * Number of lines in the notice, description and extracted license text blocks
+	 */
+	@Param({"0", "10"})
+	public int textLines;
+	
+	/**
+	 * Number of relationships from each file
+	 */
+	@Param({"0", "4"})
+	public int relationshipsPerFile;
+	
+	private byte[] document;
+	private long elementCount;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+		SyntheticDocumentGenerator generator = BenchmarkStores.generator("1x" + fileCount);
+		generator.setTextBlockLines(textLines);
+		generator.setRelationshipsPerFile(relationshipsPerFile);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		elementCount = generator.generate(out);
+		document = out.toByteArray();
+	}
+	
+	@Benchmark
+	public void deSerialize(Counters counters, Blackhole blackhole) throws Exception {
+		try (TagValueStore store = new TagValueStore(new InMemSpdxStore())) {
+			blackhole.consume(store.deSerialize(new ByteArrayInputStream(document), false));
+		}
+		counters.megabytes += document.length / 1_000_000.0;
+		counters.elements += elementCount;
+	}
+}
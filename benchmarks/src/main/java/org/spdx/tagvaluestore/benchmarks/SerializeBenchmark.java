@@ -0,0 +1,123 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.SyntheticDocumentGenerator;
+import org.spdx.tagvaluestore.TagValueStore;
+
+/**
+ * Throughput of <code>TagValueStore.serialize</code> for pre-populated stores of different shapes.
+ * <p>
+ * The <code>megabytes</code> and <code>elements</code> counters are reported per second.  Run with 
+ * <code>-prof gc</code> for the allocation rate.
+ * 
+ * @author Gary O'Neall
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class SerializeBenchmark {
+	
+	/**
+	 * Bytes and elements serialized, reported as rates
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public double megabytes;
+		public long elements;
+	}
+	
+	/**
+	 * Number of packages and files per package
+	 */
+	@Param({"1000x10", "100x100", "1x10000", "1x100000"})
+	public String layout;
+	
+	/**
+	 * Number of relationships from each file
+	 */
+	@Param({"0", "4"})
+	public int relationshipsPerFile;
+	
+	/**
+	 * Probability that an element has an annotation
+	 */
+	@Param({"0", "1"})
+	public double annotationRatio;
+	
+	private TagValueStore store;
+	private long elementCount;
+	private final CountingOutputStream out = new CountingOutputStream();
+	
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+		SyntheticDocumentGenerator generator = BenchmarkStores.generator(layout);
+		generator.setRelationshipsPerFile(relationshipsPerFile);
+		generator.setAnnotationRatio(annotationRatio);
+		ByteArrayOutputStream document = new ByteArrayOutputStream();
+		elementCount = generator.generate(document);
+		store = new TagValueStore(new InMemSpdxStore());
+		store.deSerialize(new ByteArrayInputStream(document.toByteArray()), false);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		store.close();
+	}
+	
+	@Benchmark
+	public long serialize(Counters counters) throws Exception {
+		out.reset();
+		store.serialize(out);
+		counters.megabytes += out.getCount() / 1_000_000.0;
+		counters.elements += elementCount;
+		return out.getCount();
+	}
+}
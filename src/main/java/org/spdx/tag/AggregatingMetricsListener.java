@@ -0,0 +1,230 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics listener which aggregates the metrics in memory.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @author Gary O'Neall
+ */
+public class AggregatingMetricsListener implements TagValueMetricsListener {
+	
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder lines = new LongAdder();
+	private final LongAdder licenseExpressions = new LongAdder();
+	private final LongAdder warnings = new LongAdder();
+	private final LongAccumulator peakStaged = new LongAccumulator(Long::max, 0);
+	private final ConcurrentMap<String, LongAdder> tags = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> elements = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LongAdder> cacheHits = new ConcurrentHashMap<>();
+	private final LongAdder[] phaseNanos = new LongAdder[TagValuePhase.values().length];
+	private final LongAdder[] phaseCounts = new LongAdder[TagValuePhase.values().length];
+	
+	public AggregatingMetricsListener() {
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] = new LongAdder();
+			phaseCounts[i] = new LongAdder();
+		}
+	}
+
+	@Override
+	public void bytesRead(long bytes) {
+		this.bytes.add(bytes);
+	}
+
+	@Override
+	public void linesRead(long lines) {
+		this.lines.add(lines);
+	}
+
+	@Override
+	public void tagProcessed(String tag) {
+		increment(tags, tag);
+	}
+
+	@Override
+	public void elementCreated(String kind) {
+		increment(elements, kind);
+	}
+
+	@Override
+	public void licenseExpressionParsed() {
+		licenseExpressions.increment();
+	}
+
+	@Override
+	public void cacheHit(String cache) {
+		increment(cacheHits, cache);
+	}
+
+	@Override
+	public void warningEmitted(String warning) {
+		warnings.increment();
+	}
+
+	@Override
+	public void objectsStaged(long count) {
+		peakStaged.accumulate(count);
+	}
+
+	@Override
+	public void phaseCompleted(TagValuePhase phase, long nanos) {
+		phaseNanos[phase.ordinal()].add(nanos);
+		phaseCounts[phase.ordinal()].increment();
+	}
+	
+	private static void increment(ConcurrentMap<String, LongAdder> counts, String key) {
+		LongAdder count = counts.get(key);
+		if (count == null) {
+			count = counts.computeIfAbsent(key, k -> new LongAdder());
+		}
+		count.increment();
+	}
+	
+	private static Map<String, Long> snapshot(ConcurrentMap<String, LongAdder> counts) {
+		Map<String, Long> retval = new TreeMap<>();
+		counts.forEach((key, count) -> retval.put(key, count.sum()));
+		return Collections.unmodifiableMap(retval);
+	}
+	
+	/**
+	 * @return number of bytes of tag/value content read
+	 */
+	public long getBytesRead() {
+		return bytes.sum();
+	}
+	
+	/**
+	 * @return number of lines of tag/value content read
+	 */
+	public long getLinesRead() {
+		return lines.sum();
+	}
+	
+	/**
+	 * @return number of times each tag was processed sorted by tag
+	 */
+	public Map<String, Long> getTagCounts() {
+		return snapshot(tags);
+	}
+	
+	/**
+	 * @return number of elements created by SPDX class name
+	 */
+	public Map<String, Long> getElementCounts() {
+		return snapshot(elements);
+	}
+	
+	/**
+	 * @return number of license expressions parsed
+	 */
+	public long getLicenseExpressionCount() {
+		return licenseExpressions.sum();
+	}
+	
+	/**
+	 * @return number of hits by cache name
+	 */
+	public Map<String, Long> getCacheHits() {
+		return snapshot(cacheHits);
+	}
+	
+	/**
+	 * @return number of warnings reported
+	 */
+	public long getWarningCount() {
+		return warnings.sum();
+	}
+	
+	/**
+	 * @return largest number of objects held until all elements of a document were defined
+	 */
+	public long getPeakStagedObjects() {
+		return peakStaged.get();
+	}
+	
+	/**
+	 * @param phase processing phase
+	 * @return total time spent in the phase in nanoseconds
+	 */
+	public long getPhaseNanos(TagValuePhase phase) {
+		return phaseNanos[phase.ordinal()].sum();
+	}
+	
+	/**
+	 * @param phase processing phase
+	 * @return number of times the phase completed
+	 */
+	public long getPhaseCount(TagValuePhase phase) {
+		return phaseCounts[phase.ordinal()].sum();
+	}
+	
+	/**
+	 * Reset all metrics to zero
+	 */
+	public void reset() {
+		bytes.reset();
+		lines.reset();
+		licenseExpressions.reset();
+		warnings.reset();
+		peakStaged.reset();
+		tags.clear();
+		elements.clear();
+		cacheHits.clear();
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i].reset();
+			phaseCounts[i].reset();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("bytes=");
+		sb.append(getBytesRead());
+		sb.append(", lines=");
+		sb.append(getLinesRead());
+		sb.append(", elements=");
+		sb.append(getElementCounts());
+		sb.append(", licenseExpressions=");
+		sb.append(getLicenseExpressionCount());
+		sb.append(", cacheHits=");
+		sb.append(getCacheHits());
+		sb.append(", warnings=");
+		sb.append(getWarningCount());
+		sb.append(", peakStagedObjects=");
+		sb.append(getPeakStagedObjects());
+		for (TagValuePhase phase:TagValuePhase.values()) {
+			sb.append(", ");
+			sb.append(phase.name().toLowerCase());
+			sb.append("Millis=");
+			sb.append(getPhaseNanos(phase) / 1000000);
+		}
+		return sb.toString();
+	}
+}
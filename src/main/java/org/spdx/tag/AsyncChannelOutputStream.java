@@ -0,0 +1,403 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Output stream which writes to an asynchronous channel without waiting on the channel.
+ * <p>
+ * Output is spooled into direct buffers until the spool memory limit is reached, after which it is
+ * spooled to a temporary file.  Each completed channel write starts the write of the next spooled
+ * buffer from its completion handler, so only one write is outstanding on the channel at a time and
+ * the writer is never held by a slow channel.  Closing the stream does not wait for the channel - the
+ * future returned by <code>closeAsync</code> completes once all output has been written.  The temporary
+ * file is deleted once all output has been written.  The channel is not closed when the stream is closed.
+ *
+ * @author Gary O'Neall
+ */
+public class AsyncChannelOutputStream extends OutputStream {
+	
+	/**
+	 * Issues an asynchronous write of a buffer to the channel
+	 */
+	@FunctionalInterface
+	interface AsyncWrite {
+		void write(PendingWrite pending, CompletionHandler<Integer, PendingWrite> handler);
+	}
+	
+	/**
+	 * Buffer being written along with the channel position for the remaining data
+	 */
+	static class PendingWrite {
+		final ByteBuffer buffer;
+		long position;
+		
+		PendingWrite(ByteBuffer buffer, long position) {
+			this.buffer = buffer;
+			this.position = position;
+		}
+	}
+	
+	/**
+	 * Default number of bytes spooled in memory before spooling to a temporary file
+	 */
+	static final int DEFAULT_SPOOL_MEMORY = 1024 * 1024;
+	
+	private final AsyncWrite asyncWrite;
+	private final int bufferSize;
+	private final int maxMemoryBuffers;
+	private final File tempDirectory;
+	private final AtomicLong bytesWritten = new AtomicLong(0);
+	private final CompletableFuture<Long> completion = new CompletableFuture<>();
+	
+	// the buffer being filled is only used by the writing thread
+	private ByteBuffer current;
+	private boolean closed = false;
+	
+	// the spool state is guarded by the spool lock
+	private final Object spoolLock = new Object();
+	private final Deque<ByteBuffer> memorySpool = new ArrayDeque<>();
+	private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+	private FileChannel fileSpool = null;
+	private long fileReadPosition = 0;
+	private long fileWritePosition = 0;
+	private ByteBuffer fileBuffer = null;
+	private boolean writing = false;
+	private boolean finished = false;
+	private long channelPosition;
+	private volatile Throwable error = null;
+	
+	private final CompletionHandler<Integer, PendingWrite> handler = new CompletionHandler<Integer, PendingWrite>() {
+
+		@Override
+		public void completed(Integer result, PendingWrite pending) {
+			bytesWritten.addAndGet(result);
+			pending.position += result;
+			if (pending.buffer.hasRemaining() && error == null) {
+				// partial write - continue from where the channel left off
+				start(pending);
+			} else {
+				writeNext(pending.buffer);
+			}
+		}
+
+		@Override
+		public void failed(Throwable exc, PendingWrite pending) {
+			error = exc;
+			writeNext(pending.buffer);
+		}
+		
+	};
+	
+	/**
+	 * @param channel channel to write to
+	 * @param tempDirectory directory for the temporary spool file - if null, the system temporary directory is used
+	 * @return stream writing to the channel
+	 */
+	public static AsyncChannelOutputStream forChannel(AsynchronousByteChannel channel, @Nullable File tempDirectory) {
+		return new AsyncChannelOutputStream((PendingWrite pending, CompletionHandler<Integer, PendingWrite> handler) -> 
+				channel.write(pending.buffer, pending, handler), ChannelOutputStream.DEFAULT_BUFFER_SIZE, 
+				DEFAULT_SPOOL_MEMORY, 0, tempDirectory);
+	}
+	
+	/**
+	 * @param channel file channel to write to
+	 * @param position file position to start writing at
+	 * @param tempDirectory directory for the temporary spool file - if null, the system temporary directory is used
+	 * @return stream writing to the file channel
+	 */
+	public static AsyncChannelOutputStream forFile(AsynchronousFileChannel channel, long position, 
+			@Nullable File tempDirectory) {
+		return new AsyncChannelOutputStream((PendingWrite pending, CompletionHandler<Integer, PendingWrite> handler) -> 
+				channel.write(pending.buffer, pending.position, pending, handler),
+				ChannelOutputStream.DEFAULT_BUFFER_SIZE, DEFAULT_SPOOL_MEMORY, position, tempDirectory);
+	}
+	
+	AsyncChannelOutputStream(AsyncWrite asyncWrite, int bufferSize, int spoolMemory, long startPosition, 
+			@Nullable File tempDirectory) {
+		this.asyncWrite = asyncWrite;
+		this.bufferSize = bufferSize;
+		this.maxMemoryBuffers = Math.max(1, spoolMemory / bufferSize);
+		this.channelPosition = startPosition;
+		this.tempDirectory = tempDirectory;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureBuffer();
+		current.put((byte)b);
+		if (!current.hasRemaining()) {
+			submit();
+		}
+	}
+	
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			ensureBuffer();
+			int count = Math.min(len, current.remaining());
+			current.put(b, off, count);
+			off += count;
+			len -= count;
+			if (!current.hasRemaining()) {
+				submit();
+			}
+		}
+	}
+	
+	/**
+	 * Spools any buffered data to be written.  The data may not be written to the channel when this method returns.
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkError();
+		if (current != null && current.position() > 0) {
+			submit();
+		}
+	}
+	
+	/**
+	 * Spools any buffered data and returns without waiting for the channel
+	 * @return future completed with the number of bytes written once all output has been written to the channel
+	 */
+	public CompletableFuture<Long> closeAsync() {
+		if (!closed) {
+			closed = true;
+			if (error == null && current != null && current.position() > 0) {
+				try {
+					submit();
+				} catch (IOException e) {
+					error = e;
+				}
+			}
+			current = null;
+			boolean done;
+			synchronized (spoolLock) {
+				done = !writing;
+			}
+			if (done) {
+				finish();
+			}
+		}
+		return completion;
+	}
+	
+	/**
+	 * Spools any buffered data and returns without waiting for the channel.  Use <code>closeAsync</code> to
+	 * wait for the writes to complete.
+	 * @throws IOException if a write to the channel has already failed
+	 */
+	@Override
+	public void close() throws IOException {
+		closeAsync();
+		checkError();
+	}
+	
+	/**
+	 * @return number of bytes written to the channel
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+	
+	private void ensureBuffer() throws IOException {
+		checkError();
+		if (closed) {
+			throw new IOException("Stream is closed");
+		}
+		if (current == null) {
+			synchronized (spoolLock) {
+				current = freeBuffers.pollFirst();
+			}
+			if (current == null) {
+				current = ByteBuffer.allocateDirect(bufferSize);
+			}
+		}
+	}
+	
+	/**
+	 * Spool the current buffer to be written, starting a write if the channel is idle
+	 */
+	private void submit() throws IOException {
+		ByteBuffer buffer = current;
+		buffer.flip();
+		boolean startWrite;
+		synchronized (spoolLock) {
+			if (fileSpool == null && memorySpool.size() < maxMemoryBuffers) {
+				memorySpool.addLast(buffer);
+				current = freeBuffers.pollFirst();
+			} else {
+				// the memory spool is full or data is already spooled to the file - keep the output in order
+				spoolToFile(buffer);
+				buffer.clear();
+			}
+			startWrite = !writing;
+			writing = true;
+		}
+		if (startWrite) {
+			writeNext(null);
+		}
+	}
+	
+	private void spoolToFile(ByteBuffer buffer) throws IOException {
+		if (fileSpool == null) {
+			Path spoolPath = tempDirectory == null ? Files.createTempFile("spdx-spool", ".tmp") :
+				Files.createTempFile(tempDirectory.toPath(), "spdx-spool", ".tmp");
+			fileSpool = FileChannel.open(spoolPath, StandardOpenOption.READ, StandardOpenOption.WRITE, 
+					StandardOpenOption.DELETE_ON_CLOSE);
+		}
+		while (buffer.hasRemaining()) {
+			fileWritePosition += fileSpool.write(buffer, fileWritePosition);
+		}
+	}
+	
+	/**
+	 * Start the write of the next spooled buffer.  Called by the completion handler of the previous write.
+	 * @param completed buffer of the completed write - null if there is no completed write
+	 */
+	private void writeNext(@Nullable ByteBuffer completed) {
+		PendingWrite next = null;
+		boolean done = false;
+		synchronized (spoolLock) {
+			if (completed != null && completed != fileBuffer) {
+				completed.clear();
+				freeBuffers.addLast(completed);
+			}
+			if (error != null) {
+				while (!memorySpool.isEmpty()) {
+					ByteBuffer dropped = memorySpool.pollFirst();
+					dropped.clear();
+					freeBuffers.addLast(dropped);
+				}
+				fileReadPosition = fileWritePosition;
+			}
+			ByteBuffer buffer = memorySpool.pollFirst();
+			if (buffer == null && fileReadPosition < fileWritePosition) {
+				try {
+					buffer = readFileSpool();
+				} catch (IOException e) {
+					error = e;
+				}
+			}
+			if (buffer != null) {
+				next = new PendingWrite(buffer, channelPosition);
+				channelPosition += buffer.remaining();
+			} else {
+				writing = false;
+				done = closed;
+			}
+		}
+		if (next != null) {
+			start(next);
+		} else if (done) {
+			finish();
+		}
+	}
+	
+	private ByteBuffer readFileSpool() throws IOException {
+		if (fileBuffer == null) {
+			fileBuffer = ByteBuffer.allocateDirect(bufferSize);
+		}
+		fileBuffer.clear();
+		fileBuffer.limit((int)Math.min(bufferSize, fileWritePosition - fileReadPosition));
+		while (fileBuffer.hasRemaining()) {
+			int read = fileSpool.read(fileBuffer, fileReadPosition);
+			if (read < 0) {
+				throw new IOException("Unexpected end of the spool file");
+			}
+			fileReadPosition += read;
+		}
+		fileBuffer.flip();
+		if (fileReadPosition == fileWritePosition) {
+			// the file is drained - reuse it from the start
+			fileReadPosition = 0;
+			fileWritePosition = 0;
+		}
+		return fileBuffer;
+	}
+	
+	private void start(PendingWrite pending) {
+		try {
+			asyncWrite.write(pending, handler);
+		} catch (RuntimeException e) {
+			error = e;
+			writeNext(pending.buffer);
+		}
+	}
+	
+	/**
+	 * Release the spool and complete the stream once the last write has completed
+	 */
+	private void finish() {
+		FileChannel toClose;
+		synchronized (spoolLock) {
+			if (finished) {
+				return;
+			}
+			finished = true;
+			toClose = fileSpool;
+			fileSpool = null;
+			memorySpool.clear();
+			freeBuffers.clear();
+		}
+		if (toClose != null) {
+			try {
+				toClose.close();
+			} catch (IOException e) {
+				if (error == null) {
+					error = e;
+				}
+			}
+		}
+		Throwable e = error;
+		if (e != null) {
+			completion.completeExceptionally(e);
+		} else {
+			completion.complete(bytesWritten.get());
+		}
+	}
+	
+	private void checkError() throws IOException {
+		Throwable e = error;
+		if (e != null) {
+			if (e instanceof IOException) {
+				throw (IOException)e;
+			} else {
+				throw new IOException("Error writing to the channel", e);
+			}
+		}
+	}
+}
@@ -32,11 +32,14 @@ import java.util.Optional;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import org.spdx.core.InvalidSPDXAnalysisException;
 import org.spdx.library.LicenseInfoFactory;
 import org.spdx.library.ModelCopyManager;
@@ -84,6 +87,28 @@ import org.spdx.storage.compatv2.CompatibleModelStoreWrapper;
  * @author Rana Rahal, Protecode Inc.
  */
 public class BuildDocument implements TagValueBehavior {
+	
+	/**
+	 * Resolves elements referenced by a document fragment which are defined elsewhere in the document
+	 */
+	public interface ElementResolver {
+		/**
+		 * @param id SPDX ID of an element which is not in the model store
+		 * @return the type of the element if it is defined elsewhere in the document
+		 */
+		Optional<String> getElementType(String id);
+	}
+	
+	/**
+	 * Notified when the definition of a package, file or snippet is complete
+	 */
+	public interface ElementListener {
+		/**
+		 * @param element package, file or snippet
+		 * @throws InvalidSPDXAnalysisException
+		 */
+		void elementAdded(SpdxElement element) throws InvalidSPDXAnalysisException;
+	}
 
 	private class AnnotationWithId {
 		private Annotation annotation;
@@ -205,23 +230,27 @@ public class BuildDocument implements TagValueBehavior {
 	/**
 	 * Tags used in the definition of an annotation
 	 */
-	private Set<String> ANNOTATION_TAGS = new HashSet<>();
+	private final Set<String> ANNOTATION_TAGS;
 	/**
 	 * Tags used in the definition of a file
 	 */
-	private Set<String> FILE_TAGS = new HashSet<>();
+	private final Set<String> FILE_TAGS;
 	/**
 	 * Tags used in the definition of a Snippet
 	 */
-	private Set<String> SNIPPET_TAGS = new HashSet<>();
+	private final Set<String> SNIPPET_TAGS;
 	/**
 	 * Tags used in the definition of a package
 	 */
 	/**
 	 * Tags used in the definition of an extracted license
 	 */
-	private Set<String> EXTRACTED_LICENSE_TAGS = new HashSet<>();
-	private Set<String> PACKAGE_TAGS = new HashSet<>();
+	private final Set<String> EXTRACTED_LICENSE_TAGS;
+	private final Set<String> PACKAGE_TAGS;
+	/**
+	 * Tags whose values are pooled - limited to tags with few distinct values across documents
+	 */
+	private final Set<String> POOLED_TAGS;
 	private Properties constants;
 	private SpdxDocument analysis;
 
@@ -279,6 +308,21 @@ public class BuildDocument implements TagValueBehavior {
 	private ModelCopyManager copyManager = new ModelCopyManager();	// used for licenses
 
 	List<String> warningMessages;
+	
+	/**
+	 * Maximum number of distinct tags whose form followed by a space is cached
+	 */
+	private static final int MAX_CACHED_TAGS = 256;
+	
+	/**
+	 * Tags followed by a space keyed by the tag
+	 */
+	private final Map<String, String> tagsWithSpace = new HashMap<>();
+	
+	/**
+	 * Index of the warning messages used to avoid adding duplicate warnings
+	 */
+	private final WarningIndex warningIndex;
 
 	/**
 	 * True if we have started defining a package in the tag/value file
@@ -318,98 +362,223 @@ public class BuildDocument implements TagValueBehavior {
 	private CompatibleModelStoreWrapper modelStore;
 	private String lastFileId = null;
 	private String lastPackageId = null;
+	/**
+	 * Notified with the document namespace before any elements are created in the namespace
+	 */
+	private Consumer<String> namespaceListener = null;
+	/**
+	 * Resolves elements defined outside of the fragment being parsed - null if a complete document is parsed
+	 */
+	private ElementResolver elementResolver = null;
+	/**
+	 * IDs of the elements whose relationships and annotations are added when parsing a fragment
+	 */
+	private Set<String> fragmentSourceIds = null;
+	/**
+	 * Notified when the definition of each package, file or snippet is complete - may be null
+	 */
+	private ElementListener elementListener = null;
+	/**
+	 * Pool used to share equal values across documents - null if values are not pooled
+	 */
+	private StringPool stringPool = null;
+	/**
+	 * Receives the tag, element and phase metrics
+	 */
+	private TagValueMetricsListener metricsListener = TagValueMetricsListener.NO_OP;
+	/**
+	 * Number of elements, licenses, annotations and relationships created
+	 */
+	private long elementCount = 0;
+	/**
+	 * Element count at the start of the current exit phase
+	 */
+	private long sectionElementStart = 0;
+	/**
+	 * Notified of the exit phases and elements processed and checked for cancellation
+	 */
+	private ProgressMonitor progressMonitor = ProgressMonitor.NONE;
+	/**
+	 * Limits on the element count and estimated retained size
+	 */
+	private ParserLimits limits = new ParserLimits();
+	/**
+	 * Number of tags processed
+	 */
+	private long tagCount = 0;
+	/**
+	 * Total number of characters in the values processed
+	 */
+	private long valueChars = 0;
 
 	public BuildDocument(IModelStore modelStore, Properties constants, List<String> warnings) {
 		this.constants = constants;
 		this.warningMessages = warnings;
+		this.warningIndex = new WarningIndex(warnings);
 		this.modelStore = new CompatibleModelStoreWrapper(modelStore);
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.ANNOTATION_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+		this.ANNOTATION_TAGS = annotationTags(constants);
+		this.FILE_TAGS = fileTags(constants);
+		this.SNIPPET_TAGS = snippetTags(constants);
+		this.PACKAGE_TAGS = packageTags(constants);
+		this.EXTRACTED_LICENSE_TAGS = extractedLicenseTags(constants);
+		this.POOLED_TAGS = pooledTags(constants);
+	}
 
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_TYPE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_LICENSE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_COPYRIGHT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_CHECKSUM").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_SEEN_LICENSE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_LIC_COMMENTS").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_COMMENT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_DEPENDENCY").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_CONTRIBUTOR").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_NOTICE_TEXT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ELEMENT_ID").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_PROJECT_NAME").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_PROJECT_HOMEPAGE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_PROJECT_URI").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_DOCUMENT_NAMESPACE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
-		this.FILE_TAGS.add(constants.getProperty("PROP_FILE_ATTRIBUTION_TEXT").trim()+" ");
+	/**
+	 * @param constants tag/value constants
+	 * @return tags used in the definition of an annotation
+	 */
+	static Set<String> annotationTags(Properties constants) {
+		Set<String> tags = new HashSet<>();
+		tags.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+		return tags;
+	}
 
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_FROM_FILE_ID").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_BYTE_RANGE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_LINE_RANGE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_CONCLUDED_LICENSE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_LIC_COMMENTS").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_COPYRIGHT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_COMMENT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_NAME").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_SNIPPET_SEEN_LICENSE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_DOCUMENT_NAMESPACE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.SNIPPET_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+	/**
+	 * @param constants tag/value constants
+	 * @return tags used in the definition of a file
+	 */
+	static Set<String> fileTags(Properties constants) {
+		Set<String> tags = new HashSet<>();
+		tags.add(constants.getProperty("PROP_FILE_TYPE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_COPYRIGHT").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_CHECKSUM").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_SEEN_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_LIC_COMMENTS").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_DEPENDENCY").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_CONTRIBUTOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_NOTICE_TEXT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ELEMENT_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_PROJECT_NAME").trim()+" ");
+		tags.add(constants.getProperty("PROP_PROJECT_HOMEPAGE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PROJECT_URI").trim()+" ");
+		tags.add(constants.getProperty("PROP_DOCUMENT_NAMESPACE").trim()+" ");
+		tags.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
+		tags.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_ATTRIBUTION_TEXT").trim()+" ");
+		return tags;
+	}
 
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_FILE_NAME").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_CHECKSUM").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DOWNLOAD_URL").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_SOURCE_INFO").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DECLARED_LICENSE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_CONCLUDED_LICENSE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DECLARED_COPYRIGHT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_SHORT_DESC").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_DESCRIPTION").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_VERIFICATION_CODE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_LICENSE_INFO_FROM_FILES").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_LICENSE_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_VERSION_INFO").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_ORIGINATOR").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_SUPPLIER").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_HOMEPAGE_URL").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ELEMENT_ID").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_FILE_NAME").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_EXTERNAL_REFERENCE").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_EXTERNAL_REFERENCE_COMMENT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_FILES_ANALYZED").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_ATTRIBUTION_TEXT").trim()+" ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PRIMARY_PACKAGE_PURPOSE").trim() + " ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_BUILT_DATE").trim() + " ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_RELEASE_DATE").trim() + " ");
-		this.PACKAGE_TAGS.add(constants.getProperty("PROP_PACKAGE_VALID_UNTIL_DATE").trim() + " ");
+	/**
+	 * @param constants tag/value constants
+	 * @return tags used in the definition of a snippet
+	 */
+	static Set<String> snippetTags(Properties constants) {
+		Set<String> tags = new HashSet<>();
+		tags.add(constants.getProperty("PROP_SNIPPET_FROM_FILE_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_BYTE_RANGE").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_LINE_RANGE").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_CONCLUDED_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_LIC_COMMENTS").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_COPYRIGHT").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_NAME").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_SEEN_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_DOCUMENT_NAMESPACE").trim()+" ");
+		tags.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
+		tags.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+		return tags;
+	}
+
+	/**
+	 * @param constants tag/value constants
+	 * @return tags used in the definition of a package
+	 */
+	static Set<String> packageTags(Properties constants) {
+		Set<String> tags = new HashSet<>();
+		tags.add(constants.getProperty("PROP_PACKAGE_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_FILE_NAME").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_CHECKSUM").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_DOWNLOAD_URL").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_SOURCE_INFO").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_DECLARED_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_CONCLUDED_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_DECLARED_COPYRIGHT").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_SHORT_DESC").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_DESCRIPTION").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_VERIFICATION_CODE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_LICENSE_INFO_FROM_FILES").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_LICENSE_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_VERSION_INFO").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_ORIGINATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_SUPPLIER").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_HOMEPAGE_URL").trim()+" ");
+		tags.add(constants.getProperty("PROP_ELEMENT_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_NAME").trim()+" ");
+		tags.add(constants.getProperty("PROP_RELATIONSHIP").trim()+" ");
+		tags.add(constants.getProperty("PROP_RELATIONSHIP_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_DATE").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_ID").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+		tags.add(constants.getProperty("PROP_EXTERNAL_REFERENCE").trim()+" ");
+		tags.add(constants.getProperty("PROP_EXTERNAL_REFERENCE_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_FILES_ANALYZED").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_ATTRIBUTION_TEXT").trim()+" ");
+		tags.add(constants.getProperty("PROP_PRIMARY_PACKAGE_PURPOSE").trim() + " ");
+		tags.add(constants.getProperty("PROP_PACKAGE_BUILT_DATE").trim() + " ");
+		tags.add(constants.getProperty("PROP_PACKAGE_RELEASE_DATE").trim() + " ");
+		tags.add(constants.getProperty("PROP_PACKAGE_VALID_UNTIL_DATE").trim() + " ");
+		return tags;
+	}
 
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_LICENSE_TEXT").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_EXTRACTED_TEXT").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_LICENSE_COMMENT").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_LICENSE_NAME").trim()+" ");
-		this.EXTRACTED_LICENSE_TAGS.add(constants.getProperty("PROP_SOURCE_URLS").trim()+" ");
+	/**
+	 * @param constants tag/value constants
+	 * @return tags used in the definition of an extracted license
+	 */
+	static Set<String> extractedLicenseTags(Properties constants) {
+		Set<String> tags = new HashSet<>();
+		tags.add(constants.getProperty("PROP_LICENSE_TEXT").trim()+" ");
+		tags.add(constants.getProperty("PROP_EXTRACTED_TEXT").trim()+" ");
+		tags.add(constants.getProperty("PROP_LICENSE_COMMENT").trim()+" ");
+		tags.add(constants.getProperty("PROP_LICENSE_NAME").trim()+" ");
+		tags.add(constants.getProperty("PROP_SOURCE_URLS").trim()+" ");
+		return tags;
+	}
+
+	/**
+	 * @param constants tag/value constants
+	 * @return tags whose values are likely to repeat across documents such as creators, suppliers,
+	 * license expressions and enumerated values
+	 */
+	static Set<String> pooledTags(Properties constants) {
+		Set<String> tags = new HashSet<>();
+		tags.add(constants.getProperty("PROP_SPDX_VERSION").trim()+" ");
+		tags.add(constants.getProperty("PROP_SPDX_DATA_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_CREATION_CREATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_LICENSE_LIST_VERSION").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_ANNOTATION_TYPE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_SUPPLIER").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_ORIGINATOR").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_DOWNLOAD_URL").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_DECLARED_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_CONCLUDED_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_LICENSE_INFO_FROM_FILES").trim()+" ");
+		tags.add(constants.getProperty("PROP_PACKAGE_FILES_ANALYZED").trim()+" ");
+		tags.add(constants.getProperty("PROP_PRIMARY_PACKAGE_PURPOSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_TYPE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_FILE_SEEN_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_CONCLUDED_LICENSE").trim()+" ");
+		tags.add(constants.getProperty("PROP_SNIPPET_SEEN_LICENSE").trim()+" ");
+		return tags;
 	}
 
 	@Override
@@ -419,8 +588,20 @@ public class BuildDocument implements TagValueBehavior {
 
 	@Override
 	public void buildDocument(String tag, String value, int lineNumber) throws Exception {
-		tag = tag.trim()+" ";
-		value = trim(value.trim());
+		tag = tag.trim();
+		metricsListener.tagProcessed(tag);
+		tag = tagWithSpace(tag);
+		value = trim(value);
+		tagCount++;
+		valueChars += value.length();
+		checkRetainedBytes();
+		if (Objects.nonNull(stringPool) && POOLED_TAGS.contains(tag)) {
+			String pooled = stringPool.intern(value);
+			if (pooled != value) {
+				metricsListener.cacheHit("stringPool");
+			}
+			value = pooled;
+		}
 		if (this.inAnnotation && ANNOTATION_TAGS.contains(tag)) {
 			buildAnnotation(tag, value, lastAnnotation);
 		} else if (this.inFileDefinition && FILE_TAGS.contains(tag)) {
@@ -476,7 +657,7 @@ public class BuildDocument implements TagValueBehavior {
 		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_LINE_RANGE"))) {
 			snippetLineRangeMap.put(snippet, value);
 		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_CONCLUDED_LICENSE"))) {
-			snippet.setLicenseConcluded(LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager));
+			snippet.setLicenseConcluded(parseLicense(value));
 			// can not verify any licenses at this point since the extracted license infos may not be set
 		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_LIC_COMMENTS"))) {
 			snippet.setLicenseComments(value);
@@ -487,7 +668,7 @@ public class BuildDocument implements TagValueBehavior {
 		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_NAME"))) {
 			snippet.setName(value);
 		} else if (tag.equals(constants.getProperty("PROP_SNIPPET_SEEN_LICENSE"))) {
-			snippet.getLicenseInfoFromFiles().add(LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager));
+			snippet.getLicenseInfoFromFiles().add(parseLicense(value));
 			// can not verify any licenses at this point since the extracted license infos may not be set
 		} else if (tag.equals(constants.getProperty("PROP_ANNOTATOR"))) {
 			if (lastAnnotation != null) {
@@ -530,6 +711,16 @@ public class BuildDocument implements TagValueBehavior {
 		}
 	}
 
+	/**
+	 * @param value license expression
+	 * @return the parsed license
+	 * @throws InvalidSPDXAnalysisException on invalid license expressions
+	 */
+	private AnyLicenseInfo parseLicense(String value) throws InvalidSPDXAnalysisException {
+		metricsListener.licenseExpressionParsed();
+		return LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
+	}
+
 	private void verifyElement(List<String> verify, String prefix, int lineNumber) {
 		verifyElement(verify, prefix, lineNumber, false);
 	}
@@ -545,15 +736,8 @@ public class BuildDocument implements TagValueBehavior {
 		if (!verify.isEmpty()) {
 			for (String verMsg:verify) {
 				if (!ignoreMissingLicenseText || !verMsg.contains("Missing required license text")) {
-					boolean found = false;
 					String newWarning = prefix + " at line "+lineNumber+" invalid: "+verMsg;
-					for (String existingWarn:this.warningMessages) {
-						if (existingWarn.equals(newWarning)) {
-							found = true;
-							break;
-						}
-					}
-					if (!found) {
+					if (!warningIndex.contains(newWarning)) {
 						this.warningMessages.add(newWarning);
 					}
 				}
@@ -625,6 +809,9 @@ public class BuildDocument implements TagValueBehavior {
 				throw(new InvalidSpdxTagFileException("More than one document namespace was specified at line number "+lineNumber));
 			}
 			this.documentNamespace = value;
+			if (this.namespaceListener != null) {
+				this.namespaceListener.accept(value);
+			}
 			this.analysis = new SpdxDocument(modelStore, documentNamespace, copyManager, true);
 			if (this.specVersion != null) {
 				this.analysis.setSpecVersion(this.specVersion);
@@ -738,6 +925,7 @@ public class BuildDocument implements TagValueBehavior {
 			} else {
 				lastExtractedLicense = new ExtractedLicenseInfo(modelStore, documentNamespace, value, copyManager, true);
 				lastExtractedLicenseLineNumber = lineNumber;
+				elementCreated(SpdxConstantsCompatV2.CLASS_SPDX_EXTRACTED_LICENSING_INFO);
 			}
 			if (!analysis.addExtractedLicenseInfos(lastExtractedLicense)) {
 				this.warningMessages.add("Duplicate extracted license ID: "+value);
@@ -800,6 +988,10 @@ public class BuildDocument implements TagValueBehavior {
 			modelStore.delete(documentNamespace, lastPackage.getId());
 			this.lastPackage = newPkg;
 			elementIdLineNumberMap.put(lastPackageId, lastPackageLineNumber);
+			elementCreated(SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE);
+			if (Objects.nonNull(elementListener)) {
+				elementListener.elementAdded(newPkg);
+			}
 			lastPackageId = null;
 			this.lastPackage = null;
 		}
@@ -827,6 +1019,10 @@ public class BuildDocument implements TagValueBehavior {
 				addToRelationships(new RelationshipWithId(lastPackageId, lastFileId, RelationshipType.CONTAINS, this.lastFileLineNumber));
 			}
 			elementIdLineNumberMap.put(lastFileId,lastFileLineNumber);
+			elementCreated(SpdxConstantsCompatV2.CLASS_SPDX_FILE);
+			if (Objects.nonNull(elementListener)) {
+				elementListener.elementAdded(newFile);
+			}
 			lastFileDependencies.clear();
 			lastFileId = null;
 		}
@@ -841,6 +1037,10 @@ public class BuildDocument implements TagValueBehavior {
 	private void addLastSnippet() throws InvalidSPDXAnalysisException {
 		if (this.lastSnippet != null) {
 			elementIdLineNumberMap.put(lastSnippet.getId(), lastSnippetLineNumber);
+			elementCreated(SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET);
+			if (Objects.nonNull(elementListener)) {
+				elementListener.elementAdded(lastSnippet);
+			}
 		}
 		this.lastSnippet = null;
 	}
@@ -1000,15 +1200,15 @@ public class BuildDocument implements TagValueBehavior {
 		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_VALID_UNTIL_DATE"))) {
 			pkg.setValidUntilDate(value);
 		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_CONCLUDED_LICENSE"))) {
-			AnyLicenseInfo licenseSet = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
+			AnyLicenseInfo licenseSet = parseLicense(value);
 			// can not verify any licenses at this point since the extracted license infos may not be set
 			pkg.setLicenseConcluded(licenseSet);
 		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_LICENSE_INFO_FROM_FILES"))) {
-			AnyLicenseInfo license = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
+			AnyLicenseInfo license = parseLicense(value);
 			// can not verify any licenses at this point since the extracted license infos may not be set
 			pkg.getLicenseInfoFromFiles().add(license);
 		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_DECLARED_LICENSE"))) {
-			AnyLicenseInfo licenseSet = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
+			AnyLicenseInfo licenseSet = parseLicense(value);
 			// can not verify any licenses at this point since the extracted license infos may not be set
 			pkg.setLicenseDeclared(licenseSet);
 		} else if (tag.equals(constants.getProperty("PROP_PACKAGE_LICENSE_COMMENT"))) {
@@ -1208,11 +1408,11 @@ public class BuildDocument implements TagValueBehavior {
 		} else if (constants.getProperty("PROP_FILE_CHECKSUM").startsWith(tag)) {
 			file.addChecksum(parseChecksum(value, lineNumber, analysis));
 		} else if (tag.equals(constants.getProperty("PROP_FILE_LICENSE"))) {
-			AnyLicenseInfo licenseSet = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
+			AnyLicenseInfo licenseSet = parseLicense(value);
 			// can not verify any licenses at this point since the extracted license infos may not be set
 			file.setLicenseConcluded(licenseSet);
 		} else if (tag.equals(constants.getProperty("PROP_FILE_SEEN_LICENSE"))) {
-			AnyLicenseInfo fileLicense = LicenseInfoFactory.parseSPDXLicenseStringCompatV2(value, modelStore, documentNamespace, copyManager);
+			AnyLicenseInfo fileLicense = parseLicense(value);
 			// can not verify any licenses at this point since the extracted license infos may not be set
 			file.getLicenseInfoFromFiles().add(fileLicense);
 		} else if (tag.equals(constants.getProperty("PROP_FILE_LIC_COMMENTS"))) {
@@ -1294,28 +1494,73 @@ public class BuildDocument implements TagValueBehavior {
 		}
 	}
 
+	/**
+	 * @param tag tag including the colon
+	 * @return the tag followed by a space as used in the constants - reused for tags which were seen before
+	 */
+	private String tagWithSpace(String tag) {
+		String retval = tagsWithSpace.get(tag);
+		if (retval == null) {
+			retval = tag + " ";
+			if (tagsWithSpace.size() < MAX_CACHED_TAGS) {
+				tagsWithSpace.put(tag, retval);
+			}
+		}
+		return retval;
+	}
+
 	private static String trim(String value) {
-		value = value.replaceAll("\u00A0", " ");
+		if (value.indexOf('\u00A0') < 0 && value.indexOf('<') < 0) {
+			// nothing to replace - trim only creates a new string if there is white space to remove
+			return value.trim();
+		}
 		value = value.trim();
-		value = value.replaceAll("<text>", "").replaceAll("</text>", "");
+		value = value.replace("\u00A0", " ");
+		value = value.trim();
+		value = value.replace("<text>", "").replace("</text>", "");
 		return value;
 	}
 
 	@Override
 	public void exit() throws Exception {
+		if (Objects.nonNull(elementResolver)) {
+			exitFragment();
+			return;
+		}
 		if (inExtractedLicenseDefinition && lastExtractedLicense != null) {
 			verifyElement(lastExtractedLicense.verify(), "Extracted License", lastExtractedLicenseLineNumber, false);
 		}
 		addLastFile();
+		addLastSnippet();
 		addLastPackage();
 		if (this.lastPackage != null) {
 			elementIdLineNumberMap.put(this.lastPackage.getId(), this.lastPackageLineNumber);
 		}
+		metricsListener.objectsStaged(stagedObjectCount());
+		long start = System.nanoTime();
+		sectionElementStart = elementCount;
+		progressMonitor.phaseStarted(TagValuePhase.DEPENDENCY_FIXUP);
+		Object section = TagValueEvents.get().beginSection();
 		fixFileAndSnippetDependencies();
+		start = phaseCompleted(TagValuePhase.DEPENDENCY_FIXUP, start, section);
+		progressMonitor.phaseStarted(TagValuePhase.RELATIONSHIPS);
+		section = TagValueEvents.get().beginSection();
 		addRelationships();
+		start = phaseCompleted(TagValuePhase.RELATIONSHIPS, start, section);
+		progressMonitor.phaseStarted(TagValuePhase.SINGLE_PACKAGE_DEFAULT);
+		section = TagValueEvents.get().beginSection();
 		checkSinglePackageDefault();
+		start = phaseCompleted(TagValuePhase.SINGLE_PACKAGE_DEFAULT, start, section);
+		progressMonitor.phaseStarted(TagValuePhase.ANNOTATIONS);
+		section = TagValueEvents.get().beginSection();
 		addAnnotations();
+		start = phaseCompleted(TagValuePhase.ANNOTATIONS, start, section);
+		progressMonitor.phaseStarted(TagValuePhase.VERIFICATION);
+		Object verify = TagValueEvents.get().beginVerify();
 		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE).forEach(element -> {
+			if (progressMonitor.isCancelled()) {
+				return;
+			}
 			if (modelStore.isAnon(element.getObjectUri())) {
 				this.warningMessages.add("Anonymous type was found for package");
 			}
@@ -1334,6 +1579,9 @@ public class BuildDocument implements TagValueBehavior {
 			}
 		});
 		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET).forEach(element -> {
+			if (progressMonitor.isCancelled()) {
+				return;
+			}
 			String id;
 			try {
 				id = CompatibleModelStoreWrapper.objectUriToId(modelStore, element.getObjectUri(), documentNamespace);
@@ -1349,6 +1597,9 @@ public class BuildDocument implements TagValueBehavior {
 			}
 		});
 		modelStore.getAllItems(documentNamespace, SpdxConstantsCompatV2.CLASS_SPDX_FILE).forEach(element -> {
+			if (progressMonitor.isCancelled()) {
+				return;
+			}
 			String id;
 			try {
 				id = CompatibleModelStoreWrapper.objectUriToId(modelStore, element.getObjectUri(), documentNamespace);
@@ -1363,21 +1614,127 @@ public class BuildDocument implements TagValueBehavior {
 				}
 			}
 		});
-		
+		// the verification of the remaining elements is skipped once cancelled
+		progressMonitor.checkCancelled();
+		start = phaseCompleted(TagValuePhase.VERIFICATION, start, null);
+		progressMonitor.phaseStarted(TagValuePhase.DOCUMENT_VERIFICATION);
 		List<String> analysisVerify = analysis.verify();
 		for (String analysisVerifyMsg:analysisVerify) {
 			// add any missing messages
-			boolean found = false;
-			for (String warningMsg:warningMessages) {
-				if (warningMsg.contains(analysisVerifyMsg)) {
-					found = true;
-					break;
-				}
-			}
-			if (!found) {
+			if (!warningIndex.containsSubstring(analysisVerifyMsg)) {
 				warningMessages.add(analysisVerifyMsg);
 			}
 		}
+		phaseCompleted(TagValuePhase.DOCUMENT_VERIFICATION, start, null);
+		TagValueEvents.get().endVerify(verify, documentNamespace, elementCount, warningMessages.size());
+	}
+	
+	/**
+	 * Report the time for a completed phase
+	 * @param phase phase which completed
+	 * @param start start time of the phase from <code>System.nanoTime()</code>
+	 * @param section section event for the phase or null if the event is not recorded
+	 * @return the end time of the phase which is the start of the next phase
+	 */
+	private long phaseCompleted(TagValuePhase phase, long start, @Nullable Object section) {
+		long end = System.nanoTime();
+		metricsListener.phaseCompleted(phase, end - start);
+		TagValueEvents.get().endSection(section, documentNamespace, phase, 0, elementCount - sectionElementStart);
+		sectionElementStart = elementCount;
+		return end;
+	}
+	
+	/**
+	 * @return number of relationships, annotations, file dependencies and snippet ranges held until all elements are defined
+	 */
+	private long stagedObjectCount() {
+		long count = annotations.size() + snippetByteRangeMap.size() + snippetLineRangeMap.size();
+		if (lastAnnotation != null) {
+			count++;
+		}
+		for (Map<String, List<RelationshipWithId>> relatedRelationships:relationships.values()) {
+			for (List<RelationshipWithId> relationshipsForRelatedId:relatedRelationships.values()) {
+				count += relationshipsForRelatedId.size();
+			}
+		}
+		for (List<SpdxFile> dependencies:fileDependencyMap.values()) {
+			count += dependencies.size();
+		}
+		for (List<SpdxSnippet> snippets:snippetDependencyMap.values()) {
+			count += snippets.size();
+		}
+		return count;
+	}
+	
+	/**
+	 * Count and report a created element
+	 * @param kind SPDX class name of the element, license, annotation or relationship
+	 */
+	private void elementCreated(String kind) throws ParserLimitExceededException {
+		elementCount++;
+		metricsListener.elementCreated(kind);
+		if (elementCount > limits.getMaxElementCount()) {
+			throw new ParserLimitExceededException("Document exceeds the maximum element count of " + limits.getMaxElementCount());
+		}
+		checkRetainedBytes();
+	}
+	
+	/**
+	 * @throws ParserLimitExceededException if the estimated retained size exceeds the maximum
+	 */
+	private void checkRetainedBytes() throws ParserLimitExceededException {
+		long retained = FootprintEstimator.estimateRetainedBytes(tagCount, elementCount, valueChars);
+		if (retained > limits.getMaxRetainedBytes()) {
+			throw new ParserLimitExceededException("Estimated retained size of " + retained + 
+					" bytes exceeds the maximum of " + limits.getMaxRetainedBytes() + " bytes");
+		}
+	}
+
+	/**
+	 * Completes a document fragment.  The document level checks and element verification are skipped since 
+	 * the fragment does not contain the complete document.
+	 * @throws Exception
+	 */
+	private void exitFragment() throws Exception {
+		if (inExtractedLicenseDefinition && lastExtractedLicense != null) {
+			verifyElement(lastExtractedLicense.verify(), "Extracted License", lastExtractedLicenseLineNumber, false);
+		}
+		addLastFile();
+		addLastSnippet();
+		addLastPackage();
+		metricsListener.objectsStaged(stagedObjectCount());
+		long start = System.nanoTime();
+		sectionElementStart = elementCount;
+		Object section = TagValueEvents.get().beginSection();
+		if (!fileDependencyMap.isEmpty() || !snippetDependencyMap.isEmpty()) {
+			for (String fileId:snippetDependencyMap.keySet()) {
+				getElement(fileId);
+			}
+			fixFileAndSnippetDependencies();
+		}
+		start = phaseCompleted(TagValuePhase.DEPENDENCY_FIXUP, start, section);
+		section = TagValueEvents.get().beginSection();
+		addRelationships();
+		start = phaseCompleted(TagValuePhase.RELATIONSHIPS, start, section);
+		section = TagValueEvents.get().beginSection();
+		addAnnotations();
+		phaseCompleted(TagValuePhase.ANNOTATIONS, start, section);
+	}
+	
+	/**
+	 * @param id SPDX ID of the element
+	 * @return the element - if parsing a fragment, elements defined elsewhere in the document are created without properties
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private Optional<ModelObjectV2> getElement(String id) throws InvalidSPDXAnalysisException {
+		Optional<ModelObjectV2> mo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, id,  copyManager);
+		if (!mo.isPresent() && Objects.nonNull(elementResolver)) {
+			Optional<String> type = elementResolver.getElementType(id);
+			if (type.isPresent()) {
+				mo = Optional.of(SpdxModelFactoryCompatV2.createModelObjectV2(modelStore, documentNamespace, id, type.get(), copyManager));
+			}
+		}
+		return mo;
 	}
 
 	/**
@@ -1407,6 +1764,7 @@ public class BuildDocument implements TagValueBehavior {
 		Relationship describesRelationship = analysis.createRelationship(pkgs.get(0), RelationshipType.DESCRIBES, 
 				"This describes relationship was added as a default relationship by the SPDX Tools Tag parser.");
 		this.analysis.addRelationship(describesRelationship);
+		elementCreated(SpdxConstantsCompatV2.CLASS_RELATIONSHIP);
 	}
 
 	/**
@@ -1419,13 +1777,17 @@ public class BuildDocument implements TagValueBehavior {
 			lastAnnotation = null;
 		}
 		for (int i = 0; i < annotations.size(); i++) {
+			progressMonitor.elementProcessed();
 			String id = annotations.get(i).getId();
 			if (id == null) {
 				this.warningMessages.add("missing SPDXREF: tag in annotation " + annotations.get(i).getAnnotation().getComment() +
 						" at line number "+annotations.get(i).getLineNumber());
 				continue;
 			}
-			Optional<ModelObjectV2> mo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, id,  copyManager);
+			if (Objects.nonNull(fragmentSourceIds) && !fragmentSourceIds.contains(id)) {
+				continue;
+			}
+			Optional<ModelObjectV2> mo = getElement(id);
 			if (!mo.isPresent()) {
 				this.warningMessages.add("Invalid element reference in annotation: " + id + " at line number "+annotations.get(i).getLineNumber());
 				continue;
@@ -1439,6 +1801,7 @@ public class BuildDocument implements TagValueBehavior {
 			}
 			verifyElement(annotations.get(i).getAnnotation().verify(), "Annotation", annotations.get(i).getLineNumber());
 			element.getAnnotations().add(annotations.get(i).getAnnotation());
+			elementCreated(SpdxConstantsCompatV2.CLASS_ANNOTATION);
 		}
 	}
 
@@ -1454,8 +1817,12 @@ public class BuildDocument implements TagValueBehavior {
 		}
 		Map<Integer, Relationship> lineNumberToRelationship = new HashMap<>();
 		for (Entry<String, Map<String, List<RelationshipWithId>>> entry : this.relationships.entrySet()) {
+			progressMonitor.elementProcessed();
 			String id = entry.getKey();
-			Optional<ModelObjectV2> mo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, id,  copyManager);
+			if (Objects.nonNull(fragmentSourceIds) && !fragmentSourceIds.contains(id)) {
+				continue;
+			}
+			Optional<ModelObjectV2> mo = getElement(id);
 			if (!mo.isPresent()) {
 				this.warningMessages.add("Invalid element reference in relationship: " + id + ".  The element itself was not defined in the SPDX document.");
 				continue;
@@ -1485,7 +1852,7 @@ public class BuildDocument implements TagValueBehavior {
 				} else if (SpdxConstantsCompatV2.NOASSERTION_VALUE.equals(relatedElementId)) {
 					relatedElement = new SpdxNoAssertionElement(modelStore, getDocumentUri());
 				} else {
-					Optional<ModelObjectV2> relatedMo = SpdxModelFactoryCompatV2.getModelObjectV2(modelStore, documentNamespace, relatedElementId,  copyManager);
+					Optional<ModelObjectV2> relatedMo = getElement(relatedElementId);
 					if (!relatedMo.isPresent()) {
 						this.warningMessages.add("Invalid related element reference in relationship: " + relatedElementId);
 						continue;
@@ -1506,12 +1873,18 @@ public class BuildDocument implements TagValueBehavior {
 							relwId.getComment());
 					lineNumberToRelationship.put(relwId.getLineNumber(), newRelationship);
 					element.addRelationship(newRelationship);
+					elementCreated(SpdxConstantsCompatV2.CLASS_RELATIONSHIP);
 				}
 			}
 		}
+		if (Objects.nonNull(elementResolver)) {
+			// related elements defined outside of the fragment may not have any properties yet
+			return;
+		}
 		// We need to verify after all relationships are added since missing relationships may cause a
 		// verification error
 		for (Entry<Integer, Relationship> entry:lineNumberToRelationship.entrySet()) {
+			progressMonitor.elementProcessed();
 			verifyElement(entry.getValue().verify(), "Relationship", entry.getKey());
 		}
 	}
@@ -1552,6 +1925,7 @@ public class BuildDocument implements TagValueBehavior {
 		
 		// fill in the filesWithDependencies map
 		for (int i = 0;i < allFiles.size(); i++) {
+			progressMonitor.elementProcessed();
 		    Optional<String> fileName = allFiles.get(i).getName();
 		    String name;
 		    if (fileName.isPresent()) {
@@ -1669,4 +2043,60 @@ public class BuildDocument implements TagValueBehavior {
 	public String getDocumentUri() {
 		return this.documentNamespace;
 	}
+
+	/**
+	 * @param namespaceListener notified with the document namespace once it is parsed and before any 
+	 * elements are created in the namespace
+	 */
+	public void setNamespaceListener(Consumer<String> namespaceListener) {
+		this.namespaceListener = namespaceListener;
+	}
+	
+	/**
+	 * @param elementListener notified when the definition of each package, file or snippet is complete
+	 */
+	public void setElementListener(ElementListener elementListener) {
+		this.elementListener = elementListener;
+	}
+	
+	/**
+	 * @param stringPool pool used to share equal values with other documents - if null, values are not pooled
+	 */
+	public void setStringPool(StringPool stringPool) {
+		this.stringPool = stringPool;
+	}
+	
+	/**
+	 * @param limits limits on the element count and estimated retained size
+	 */
+	public void setLimits(ParserLimits limits) {
+		this.limits = limits;
+	}
+	
+	/**
+	 * @param progressMonitor monitor notified of the exit phases and checked for cancellation
+	 */
+	public void setProgressMonitor(ProgressMonitor progressMonitor) {
+		this.progressMonitor = progressMonitor;
+	}
+	
+	/**
+	 * @param metricsListener listener for the tags processed, elements created, license expressions parsed and exit phase timings
+	 */
+	public void setMetricsListener(TagValueMetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+	}
+	
+	/**
+	 * Parse a fragment of a document whose remaining elements are defined elsewhere.  The fragment must
+	 * start with the document namespace of a document which already exists in the model store.
+	 * Relationships and annotations are only added for the source IDs.  Referenced elements which are not in the
+	 * model store are created without any properties if the resolver provides their type.
+	 * @param sourceIds IDs of the elements whose relationships and annotations are to be added
+	 * @param resolver resolves the types of elements defined elsewhere in the document
+	 */
+	public void setFragment(Set<String> sourceIds, ElementResolver resolver) {
+		this.fragmentSourceIds = sourceIds;
+		this.elementResolver = resolver;
+	}
 }
@@ -0,0 +1,46 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Token used to cancel a tag/value deserialization from another thread.
+ * <p>
+ * The parser and the document build phases check the token periodically and throw a
+ * <code>TagValueCancelledException</code> once it is cancelled.
+ * 
+ * @author Gary O'Neall
+ */
+public class CancellationToken {
+	
+	private volatile boolean cancelled = false;
+	
+	/**
+	 * Request cancellation.  Any deserialization using this token stops at its next check.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+	
+	/**
+	 * @return true if cancellation has been requested
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
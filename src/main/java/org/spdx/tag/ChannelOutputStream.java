@@ -0,0 +1,177 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output stream which writes to a <code>WritableByteChannel</code> through a direct buffer.
+ * <p>
+ * If the channel is a selectable channel in non-blocking mode and can not accept more data, the stream
+ * waits on a selector until the channel is ready for writing.  The channel is not closed
+ * when the stream is closed.
+ *
+ * @author Gary O'Neall
+ */
+public class ChannelOutputStream extends OutputStream {
+	
+	static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	private long bytesWritten = 0;
+	private IOException error = null;
+	private boolean closed = false;
+	private Selector selector = null;
+
+	/**
+	 * @param channel channel to write to
+	 */
+	public ChannelOutputStream(WritableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+	
+	/**
+	 * @param channel channel to write to
+	 * @param bufferSize size of the direct buffer
+	 */
+	public ChannelOutputStream(WritableByteChannel channel, int bufferSize) {
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		checkOpen();
+		if (!buffer.hasRemaining()) {
+			drain();
+		}
+		buffer.put((byte)b);
+	}
+	
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		checkOpen();
+		while (len > 0) {
+			if (!buffer.hasRemaining()) {
+				drain();
+			}
+			int count = Math.min(len, buffer.remaining());
+			buffer.put(b, off, count);
+			off += count;
+			len -= count;
+		}
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		checkOpen();
+		drain();
+	}
+	
+	/**
+	 * Flushes any buffered data to the channel.  The channel itself is not closed.
+	 * @throws IOException if any write to the channel failed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed && error == null) {
+			try {
+				drain();
+			} catch (IOException e) {
+				// reported below
+			}
+		}
+		closed = true;
+		if (selector != null) {
+			// closing the selector cancels the channel registration
+			selector.close();
+			selector = null;
+		}
+		if (error != null) {
+			throw error;
+		}
+	}
+	
+	/**
+	 * @return number of bytes written to the channel
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+	
+	private void checkOpen() throws IOException {
+		if (error != null) {
+			throw error;
+		}
+		if (closed) {
+			throw new IOException("Stream is closed");
+		}
+	}
+
+	/**
+	 * Write the buffer contents to the channel, waiting for the channel to be ready if it does not accept data
+	 * @throws IOException
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		try {
+			while (buffer.hasRemaining()) {
+				int written = channel.write(buffer);
+				if (written > 0) {
+					bytesWritten += written;
+				} else {
+					awaitWritable();
+				}
+			}
+		} catch (IOException e) {
+			error = e;
+			throw e;
+		} finally {
+			buffer.clear();
+		}
+	}
+	
+	/**
+	 * Wait until a non-blocking channel is ready for writing
+	 * @throws IOException
+	 */
+	private void awaitWritable() throws IOException {
+		if (!(channel instanceof SelectableChannel) || ((SelectableChannel)channel).isBlocking()) {
+			// a blocking channel which accepted no data - retry the write
+			return;
+		}
+		if (selector == null) {
+			selector = Selector.open();
+			((SelectableChannel)channel).register(selector, SelectionKey.OP_WRITE);
+		}
+		selector.select();
+		selector.selectedKeys().clear();
+		if (Thread.currentThread().isInterrupted()) {
+			throw new InterruptedIOException("Interrupted waiting for the channel");
+		}
+	}
+}
@@ -19,21 +19,31 @@
  */
 package org.spdx.tag;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import org.spdx.core.InvalidSPDXAnalysisException;
 import org.spdx.library.SpdxModelFactory;
 import org.spdx.library.model.v2.Annotation;
@@ -41,12 +51,15 @@ import org.spdx.library.model.v2.Checksum;
 import org.spdx.library.model.v2.ExternalDocumentRef;
 import org.spdx.library.model.v2.ExternalRef;
 import org.spdx.library.model.v2.ExternalSpdxElement;
+import org.spdx.library.model.v2.ModelObjectV2;
 import org.spdx.library.model.v2.Relationship;
 import org.spdx.library.model.v2.SpdxConstantsCompatV2;
 import org.spdx.library.model.v2.SpdxCreatorInformation;
 import org.spdx.library.model.v2.SpdxDocument;
 import org.spdx.library.model.v2.SpdxElement;
 import org.spdx.library.model.v2.SpdxFile;
+import org.spdx.library.model.v2.SpdxNoAssertionElement;
+import org.spdx.library.model.v2.SpdxNoneElement;
 import org.spdx.library.model.v2.SpdxPackage;
 import org.spdx.library.model.v2.SpdxPackageVerificationCode;
 import org.spdx.library.model.v2.SpdxSnippet;
@@ -54,9 +67,13 @@ import org.spdx.library.model.v2.enumerations.FileType;
 import org.spdx.library.model.v2.enumerations.Purpose;
 import org.spdx.library.model.v2.license.AnyLicenseInfo;
 import org.spdx.library.model.v2.license.ExtractedLicenseInfo;
+import org.spdx.library.model.v2.license.LicenseSet;
+import org.spdx.library.model.v2.license.OrLaterOperator;
 import org.spdx.library.model.v2.license.SimpleLicensingInfo;
+import org.spdx.library.model.v2.license.WithExceptionOperator;
 import org.spdx.library.model.v2.pointer.ByteOffsetPointer;
 import org.spdx.library.model.v2.pointer.LineCharPointer;
+import org.spdx.library.model.v2.pointer.SinglePointer;
 import org.spdx.library.model.v2.pointer.StartEndPointer;
 import org.spdx.library.referencetype.ListedReferenceTypes;
 import org.spdx.storage.compatv2.CompatibleModelStoreWrapper;
@@ -69,6 +86,13 @@ import org.spdx.storage.compatv2.CompatibleModelStoreWrapper;
  */
 public class CommonCode {
 	
+	static final Comparator<String> NATURAL_ORDER = Comparator.naturalOrder();
+	
+	/**
+	 * Maximum number of external sorters holding entries at the same time when printing a document
+	 */
+	static final int MAX_LIVE_SORTERS = 3;
+	
 	static final Comparator<AnyLicenseInfo> LICENSE_COMPARATOR = new Comparator<AnyLicenseInfo>() {
 
 		@Override
@@ -128,10 +152,351 @@ public class CommonCode {
 	 */
 	public static void printDoc(SpdxDocument doc, PrintWriter out,
 			Properties constants) throws InvalidSPDXAnalysisException {
+		printDoc(doc, out, constants, null);
+	}
+	
+	/**
+	 * @param doc
+	 * @param out
+	 * @param constants
+	 * @param cache if not null, output for unchanged files, snippets, packages and licenses will be taken from the cache
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static void printDoc(SpdxDocument doc, PrintWriter out,
+			Properties constants, @Nullable ElementOutputCache cache) throws InvalidSPDXAnalysisException {
+		if (doc == null) {
+			println(out, "Warning: No document to print");
+			return;
+		}
+		try (ElementOutputCache.DocumentScope scope = cache == null ? null : cache.openDocument(doc)) {
+			printDocument(doc, out, constants, scope);
+		}
+	}
+	
+	private static void printDocument(SpdxDocument doc, PrintWriter out,
+			Properties constants, @Nullable ElementOutputCache.DocumentScope scope) throws InvalidSPDXAnalysisException {
+		printDocumentHeader(doc, out, constants);
+		printElementAnnotationsRelationships(doc, out, constants, "PROP_DOCUMENT_NAME", "PROP_SPDX_COMMENT");
+		println(out, "");
+		// Print the elements - need to print non-associated snippets, files before packages
+		Set<SpdxFile> filesRemaining = new HashSet<>(); // files remaining to be printed
+		try(@SuppressWarnings("unchecked")
+		Stream<SpdxFile> allFilesStream = (Stream<SpdxFile>)SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
+				SpdxConstantsCompatV2.CLASS_SPDX_FILE, doc.getDocumentUri(), doc.getDocumentUri() + "#")) {
+		    allFilesStream.forEach((SpdxFile file) -> filesRemaining.add(file));
+		}
+		Set<SpdxSnippet> snippetsRemaining = new HashSet<>();
+		try(@SuppressWarnings("unchecked")
+	    Stream<SpdxSnippet> allSnippetssStream = (Stream<SpdxSnippet>)SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
+				SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET, doc.getDocumentUri(), doc.getDocumentUri() + "#")) {
+			allSnippetssStream.forEach((SpdxSnippet snippet) -> snippetsRemaining.add(snippet));
+		}
+		Set<SpdxPackage> allPackages = new HashSet<>();
+		try(@SuppressWarnings("unchecked")
+            Stream<SpdxPackage> allPackagesStream = (Stream<SpdxPackage>)SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
+    				SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, doc.getDocumentUri(), doc.getDocumentUri() + "#")) {
+		    allPackagesStream.forEach((SpdxPackage pkg) -> {
+		    		allPackages.add(pkg);
+		    		// we need to remove any files that will be included in the packages
+		    		try {
+						pkg.getFiles().forEach((SpdxFile file) -> filesRemaining.remove(file));
+					} catch (InvalidSPDXAnalysisException e) {
+						throw new RuntimeException("Error getting files for a package", e);
+					}
+		    });
+		}
+		// first print out any described files or snippets
+		List<SpdxElement> describedItems = new ArrayList<>(doc.getDocumentDescribes());
+		Collections.sort(describedItems, ELEMENT_COMPARATOR);
+		for (SpdxElement item:describedItems) {
+			if (item instanceof SpdxFile) {
+				printCached(scope, item, out, (PrintWriter o) -> printFile((SpdxFile)item, o, constants));
+				filesRemaining.remove((SpdxFile)item);
+			} else if (describedItems instanceof SpdxSnippet) {
+				printCached(scope, item, out, (PrintWriter o) -> printSnippet((SpdxSnippet)item, o, constants));
+				snippetsRemaining.remove((SpdxSnippet)item);
+			}
+		}
+		// print any files which are not included package and not described
+		ArrayList<SpdxFile> remainingFiles = new ArrayList<>(filesRemaining);
+		Collections.sort(remainingFiles);
+		remainingFiles.forEach((SpdxFile file) -> {
+			try {
+				printCached(scope, file, out, (PrintWriter o) -> printFile(file, o, constants));
+			} catch (InvalidSPDXAnalysisException e) {
+				out.println("Error printing file: "+e.getMessage());
+			}
+		});
+		// Print any snippets not described
+		ArrayList<SpdxSnippet> remainingSnippets = new ArrayList<>(snippetsRemaining);
+		Collections.sort(remainingSnippets);
+		remainingSnippets.forEach((SpdxSnippet snippet) -> {
+            try {
+                printCached(scope, snippet, out, (PrintWriter o) -> printSnippet(snippet, o, constants));
+            } catch (InvalidSPDXAnalysisException e) {
+                out.println("Error printing package: "+e.getMessage());
+            }
+        });
+		// print any described packages
+		for (SpdxElement item:describedItems) {
+			if (item instanceof SpdxPackage) {
+				printPackage((SpdxPackage)item, out, constants, doc.getDocumentUri(), scope);
+			}
+		}
+		// print remaining packages
+		Set<String> describedUris = new HashSet<>();
+		for (SpdxElement item:describedItems) {
+			describedUris.add(item.getObjectUri());
+		}
+		ArrayList<SpdxPackage> remainingPackages = new ArrayList<>();
+		allPackages.forEach((SpdxPackage pkg) -> {
+			if (!describedUris.contains(pkg.getObjectUri())) {
+				remainingPackages.add(pkg);
+			}
+		});
+		Collections.sort(remainingPackages);
+		remainingPackages.forEach((SpdxPackage pkg) -> {
+			try {
+				printPackage(pkg, out, constants, doc.getDocumentUri(), scope);
+			} catch (InvalidSPDXAnalysisException e) {
+				out.println("Error printing package: "+e.getMessage());
+			}
+		});
+		
+		// Extracted license infos
+		println(out, "");
+		List<ExtractedLicenseInfo> extractedLicenseInfos = new ArrayList<>(doc.getExtractedLicenseInfos());
+		if (!extractedLicenseInfos.isEmpty()) {
+			Collections.sort(extractedLicenseInfos);
+			println(out, constants.getProperty("LICENSE_INFO_HEADER"));
+			for (ExtractedLicenseInfo extractedLicenseInfo:extractedLicenseInfos) {
+				printCached(scope, extractedLicenseInfo, out, (PrintWriter o) -> printLicense(extractedLicenseInfo, o, constants));
+			}
+		}
+	}
+	
+	/**
+	 * Print a document using a bounded amount of memory for sorting the elements.  The element keys are
+	 * sorted using an external merge sort and each element is read from the model store only when it is written.
+	 * @param doc
+	 * @param out
+	 * @param constants
+	 * @param cache if not null, output for unchanged files, snippets, packages and licenses will be taken from the cache
+	 * @param memoryBudget estimated number of bytes used for sorting element keys before writing sorted runs to disk
+	 * @param tempDirectory directory for the sorted runs - if null, the system temporary directory is used
+	 * @throws InvalidSPDXAnalysisException
+	 * @throws IOException on errors reading or writing the sorted runs
+	 */
+	public static void printDocBounded(SpdxDocument doc, PrintWriter out, Properties constants, 
+			@Nullable ElementOutputCache cache, long memoryBudget, @Nullable File tempDirectory) throws InvalidSPDXAnalysisException, IOException {
 		if (doc == null) {
 			println(out, "Warning: No document to print");
 			return;
 		}
+		try (ElementOutputCache.DocumentScope scope = cache == null ? null : cache.openDocument(doc)) {
+			printDocumentBounded(doc, out, constants, scope, memoryBudget, tempDirectory);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	private static void printDocumentBounded(SpdxDocument doc, PrintWriter out, Properties constants, 
+			@Nullable ElementOutputCache.DocumentScope scope, long memoryBudget, 
+			@Nullable File tempDirectory) throws InvalidSPDXAnalysisException, IOException {
+		printDocumentHeader(doc, out, constants);
+		printElementAnnotationsRelationships(doc, out, constants, "PROP_DOCUMENT_NAME", "PROP_SPDX_COMMENT");
+		println(out, "");
+		String documentUri = doc.getDocumentUri();
+		// the budget is shared by the sorters which hold entries at the same time - the remaining, contained
+		// and all files while the remaining files are found, and the packages with the files of one package
+		long sorterBudget = Math.max(1, memoryBudget / MAX_LIVE_SORTERS);
+		List<SpdxElement> describedItems = new ArrayList<>(doc.getDocumentDescribes());
+		Collections.sort(describedItems, ELEMENT_COMPARATOR);
+		Set<String> describedUris = new HashSet<>();
+		for (SpdxElement item:describedItems) {
+			describedUris.add(item.getObjectUri());
+		}
+		// Print the elements - need to print non-associated snippets, files before packages
+		try (ExternalSorter remainingFiles = new ExternalSorter(NATURAL_ORDER, sorterBudget, tempDirectory)) {
+			// the files remaining to be printed are all files less any files in packages or described
+			try (ExternalSorter containedFiles = new ExternalSorter(NATURAL_ORDER, sorterBudget, tempDirectory);
+					ExternalSorter allFiles = new ExternalSorter(NATURAL_ORDER, sorterBudget, tempDirectory)) {
+				try (Stream<?> packages = getElements(doc, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE)) {
+					Iterator<?> iter = packages.iterator();
+					while (iter.hasNext()) {
+						for (SpdxFile file:((SpdxPackage)iter.next()).getFiles()) {
+							containedFiles.add(file.getObjectUri(), "");
+						}
+					}
+				}
+				for (SpdxElement item:describedItems) {
+					if (item instanceof SpdxFile) {
+						containedFiles.add(item.getObjectUri(), "");
+					}
+				}
+				try (Stream<?> files = getElements(doc, SpdxConstantsCompatV2.CLASS_SPDX_FILE)) {
+					Iterator<?> iter = files.iterator();
+					while (iter.hasNext()) {
+						allFiles.add(((SpdxFile)iter.next()).getObjectUri(), "");
+					}
+				}
+				Iterator<ExternalSorter.Entry> containedIter = containedFiles.sorted();
+				String nextContained = containedIter.hasNext() ? containedIter.next().getKey() : null;
+				Iterator<ExternalSorter.Entry> allIter = allFiles.sorted();
+				while (allIter.hasNext()) {
+					String fileUri = allIter.next().getKey();
+					while (nextContained != null && nextContained.compareTo(fileUri) < 0) {
+						nextContained = containedIter.hasNext() ? containedIter.next().getKey() : null;
+					}
+					if (!fileUri.equals(nextContained)) {
+						SpdxFile file = new SpdxFile(doc.getModelStore(), documentUri, 
+								fileUri.substring(documentUri.length() + 1), doc.getCopyManager(), false);
+						remainingFiles.add(file.getName().orElse(""), fileUri);
+					}
+				}
+			}
+			// first print out any described files
+			for (SpdxElement item:describedItems) {
+				if (item instanceof SpdxFile) {
+					printCached(scope, item, out, (PrintWriter o) -> printFile((SpdxFile)item, o, constants));
+				}
+			}
+			// print any files which are not included package and not described
+			Iterator<ExternalSorter.Entry> iter = remainingFiles.sorted();
+			while (iter.hasNext()) {
+				String fileUri = iter.next().getValue();
+				SpdxFile file = new SpdxFile(doc.getModelStore(), documentUri, 
+						fileUri.substring(documentUri.length() + 1), doc.getCopyManager(), false);
+				printCached(scope, file, out, (PrintWriter o) -> printFile(file, o, constants));
+			}
+		}
+		// Print the snippets
+		try (ExternalSorter snippets = new ExternalSorter(NATURAL_ORDER, sorterBudget, tempDirectory)) {
+			try (Stream<?> allSnippets = getElements(doc, SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET)) {
+				Iterator<?> iter = allSnippets.iterator();
+				while (iter.hasNext()) {
+					SpdxSnippet snippet = (SpdxSnippet)iter.next();
+					snippets.add(snippetSortKey(snippet), snippet.getObjectUri());
+				}
+			}
+			Iterator<ExternalSorter.Entry> iter = snippets.sorted();
+			while (iter.hasNext()) {
+				String snippetUri = iter.next().getValue();
+				SpdxSnippet snippet = new SpdxSnippet(doc.getModelStore(), documentUri, 
+						snippetUri.substring(documentUri.length() + 1), doc.getCopyManager(), false);
+				printCached(scope, snippet, out, (PrintWriter o) -> printSnippet(snippet, o, constants));
+			}
+		}
+		// print any described packages
+		for (SpdxElement item:describedItems) {
+			if (item instanceof SpdxPackage) {
+				printPackageBounded((SpdxPackage)item, out, constants, documentUri, scope, sorterBudget, tempDirectory);
+			}
+		}
+		// print remaining packages - packages are ordered by name and version ignoring case
+		try (ExternalSorter packages = new ExternalSorter(String.CASE_INSENSITIVE_ORDER, sorterBudget, tempDirectory)) {
+			try (Stream<?> allPackages = getElements(doc, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE)) {
+				Iterator<?> iter = allPackages.iterator();
+				while (iter.hasNext()) {
+					SpdxPackage pkg = (SpdxPackage)iter.next();
+					if (!describedUris.contains(pkg.getObjectUri())) {
+						packages.add(pkg.getName().orElse("") + pkg.getVersionInfo().orElse(""), pkg.getObjectUri());
+					}
+				}
+			}
+			Iterator<ExternalSorter.Entry> iter = packages.sorted();
+			while (iter.hasNext()) {
+				String packageUri = iter.next().getValue();
+				SpdxPackage pkg = new SpdxPackage(doc.getModelStore(), documentUri, 
+						packageUri.substring(documentUri.length() + 1), doc.getCopyManager(), false);
+				printPackageBounded(pkg, out, constants, documentUri, scope, sorterBudget, tempDirectory);
+			}
+		}
+		// Extracted license infos
+		println(out, "");
+		try (ExternalSorter licenses = new ExternalSorter(String.CASE_INSENSITIVE_ORDER, sorterBudget, tempDirectory)) {
+			for (ExtractedLicenseInfo extractedLicenseInfo:doc.getExtractedLicenseInfos()) {
+				licenses.add(extractedLicenseInfo.getLicenseId(), extractedLicenseInfo.getLicenseId());
+			}
+			if (licenses.size() > 0) {
+				println(out, constants.getProperty("LICENSE_INFO_HEADER"));
+				Iterator<ExternalSorter.Entry> iter = licenses.sorted();
+				while (iter.hasNext()) {
+					ExtractedLicenseInfo extractedLicenseInfo = new ExtractedLicenseInfo(doc.getModelStore(), documentUri,
+							iter.next().getValue(), doc.getCopyManager(), false);
+					printCached(scope, extractedLicenseInfo, out, (PrintWriter o) -> printLicense(extractedLicenseInfo, o, constants));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Print a package sorting the package files using a bounded amount of memory
+	 */
+	private static void printPackageBounded(SpdxPackage pkg, PrintWriter out, Properties constants, 
+			String documentNamespace, @Nullable ElementOutputCache.DocumentScope scope, 
+			long memoryBudget, @Nullable File tempDirectory) throws InvalidSPDXAnalysisException, IOException {
+		printCached(scope, pkg, out, (PrintWriter o) -> printPackageProperties(pkg, o, constants, documentNamespace, null));
+		try (ExternalSorter files = new ExternalSorter(NATURAL_ORDER, memoryBudget, tempDirectory)) {
+			for (SpdxFile file:pkg.getFiles()) {
+				files.add(file.getName().orElse(""), file.getId());
+			}
+			if (files.size() > 0) {
+				println(out, "");
+				println(out, constants.getProperty("FILE_INFO_HEADER"));
+				Iterator<ExternalSorter.Entry> iter = files.sorted();
+				while (iter.hasNext()) {
+					SpdxFile file = new SpdxFile(pkg.getModelStore(), documentNamespace, iter.next().getValue(), 
+							pkg.getCopyManager(), false);
+					printCached(scope, file, out, (PrintWriter o) -> printFile(file, o, constants));
+					println(out, "");
+				}
+			} else {
+				println(out, "");
+			}
+		}
+	}
+	
+	/**
+	 * @param snippet snippet
+	 * @return key which orders snippets the same as <code>SpdxSnippet.compareTo</code> - by name, then from file
+	 * name, then byte range start offset
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	static String snippetSortKey(SpdxSnippet snippet) throws InvalidSPDXAnalysisException {
+		StringBuilder sb = new StringBuilder(snippet.getName().orElse(""));
+		sb.append('\u0000');
+		SpdxFile fromFile = snippet.getSnippetFromFile();
+		if (fromFile != null) {
+			sb.append(fromFile.getName().orElse(""));
+		}
+		sb.append('\u0000');
+		StartEndPointer byteRange = snippet.getByteRange();
+		SinglePointer start = byteRange == null ? null : byteRange.getStartPointer();
+		if (start instanceof ByteOffsetPointer) {
+			// zero padded so the offsets compare numerically
+			sb.append(String.format("%010d", ((ByteOffsetPointer)start).getOffset()));
+		} else {
+			// snippets without a byte range follow those with one
+			sb.append('\uffff');
+		}
+		return sb.toString();
+	}
+	
+	private static Stream<?> getElements(SpdxDocument doc, String type) throws InvalidSPDXAnalysisException {
+		return SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
+				type, doc.getDocumentUri(), doc.getDocumentUri() + "#");
+	}
+	
+	/**
+	 * Print the document version, namespace, external document references and creation information
+	 * @param doc
+	 * @param out
+	 * @param constants
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static void printDocumentHeader(SpdxDocument doc, PrintWriter out,
+			Properties constants) throws InvalidSPDXAnalysisException {
 		// version
 		String spdxVersion = "";
 		if (doc.getSpecVersion() != null
@@ -205,92 +570,112 @@ public class CommonCode {
 				        licenseListVersion.get());
 			}
 		}
-		printElementAnnotationsRelationships(doc, out, constants, "PROP_DOCUMENT_NAME", "PROP_SPDX_COMMENT");
-		println(out, "");
-		// Print the elements - need to print non-associated snippets, files before packages
-		Set<SpdxFile> filesRemaining = new HashSet<>(); // files remaining to be printed
-		try(@SuppressWarnings("unchecked")
-		Stream<SpdxFile> allFilesStream = (Stream<SpdxFile>)SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
-				SpdxConstantsCompatV2.CLASS_SPDX_FILE, doc.getDocumentUri(), doc.getDocumentUri() + "#")) {
-		    allFilesStream.forEach((SpdxFile file) -> filesRemaining.add(file));
-		}
-		Set<SpdxSnippet> snippetsRemaining = new HashSet<>();
-		try(@SuppressWarnings("unchecked")
-	    Stream<SpdxSnippet> allSnippetssStream = (Stream<SpdxSnippet>)SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
-				SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET, doc.getDocumentUri(), doc.getDocumentUri() + "#")) {
-			allSnippetssStream.forEach((SpdxSnippet snippet) -> snippetsRemaining.add(snippet));
-		}
-		Set<SpdxPackage> allPackages = new HashSet<>();
-		try(@SuppressWarnings("unchecked")
-            Stream<SpdxPackage> allPackagesStream = (Stream<SpdxPackage>)SpdxModelFactory.getSpdxObjects(doc.getModelStore(), doc.getCopyManager(), 
-    				SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, doc.getDocumentUri(), doc.getDocumentUri() + "#")) {
-		    allPackagesStream.forEach((SpdxPackage pkg) -> {
-		    		allPackages.add(pkg);
-		    		// we need to remove any files that will be included in the packages
-		    		try {
-						pkg.getFiles().forEach((SpdxFile file) -> filesRemaining.remove(file));
-					} catch (InvalidSPDXAnalysisException e) {
-						throw new RuntimeException("Error getting files for a package", e);
-					}
-		    });
+	}
+	
+	/**
+	 * Print a subset of a document containing the selected packages and the elements reachable from them - the
+	 * files of included packages, the elements related to included elements and the snippets of included files -
+	 * along with the relationships between the included elements and the extracted licenses they reference.
+	 * Only the included elements and the snippet files are read from the model store.
+	 * @param doc document containing the packages
+	 * @param packages packages to include
+	 * @param out
+	 * @param constants
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	public static void printDocSubset(SpdxDocument doc, Collection<SpdxPackage> packages, PrintWriter out,
+			Properties constants) throws InvalidSPDXAnalysisException {
+		if (doc == null) {
+			println(out, "Warning: No document to print");
+			return;
 		}
-		// first print out any described files or snippets
-		List<SpdxElement> describedItems = new ArrayList<>(doc.getDocumentDescribes());
-		Collections.sort(describedItems, ELEMENT_COMPARATOR);
-		for (SpdxElement item:describedItems) {
-			if (item instanceof SpdxFile) {
-				printFile((SpdxFile)item, out, constants);
-				filesRemaining.remove((SpdxFile)item);
-			} else if (describedItems instanceof SpdxSnippet) {
-				printSnippet((SpdxSnippet)item, out, constants);
-				snippetsRemaining.remove((SpdxSnippet)item);
+		String documentUri = doc.getDocumentUri();
+		// snippets can only be found from their files through the snippets
+		Map<String, List<SpdxSnippet>> snippetsByFile = new HashMap<>();
+		try (Stream<?> allSnippets = getElements(doc, SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET)) {
+			Iterator<?> iter = allSnippets.iterator();
+			while (iter.hasNext()) {
+				SpdxSnippet snippet = (SpdxSnippet)iter.next();
+				SpdxFile fromFile = snippet.getSnippetFromFile();
+				if (fromFile != null) {
+					snippetsByFile.computeIfAbsent(fromFile.getId(), id -> new ArrayList<>()).add(snippet);
+				}
 			}
 		}
-		// print any files which are not included package and not described
-		ArrayList<SpdxFile> remainingFiles = new ArrayList<>(filesRemaining);
-		Collections.sort(remainingFiles);
-		remainingFiles.forEach((SpdxFile file) -> {
-			try {
-				printFile(file, out, constants);
-			} catch (InvalidSPDXAnalysisException e) {
-				out.println("Error printing file: "+e.getMessage());
+		Set<String> includedIds = new HashSet<>();
+		includedIds.add(doc.getId());
+		List<SpdxPackage> includedPackages = new ArrayList<>();
+		List<SpdxFile> includedFiles = new ArrayList<>();
+		List<SpdxSnippet> includedSnippets = new ArrayList<>();
+		Set<String> packageFileIds = new HashSet<>();
+		Map<String, ExtractedLicenseInfo> referencedLicenses = new HashMap<>();
+		Deque<SpdxElement> toVisit = new ArrayDeque<>(packages);
+		while (!toVisit.isEmpty()) {
+			SpdxElement element = toVisit.removeFirst();
+			if (!documentUri.equals(element.getDocumentUri()) || !(element instanceof SpdxPackage || 
+					element instanceof SpdxFile || element instanceof SpdxSnippet) || !includedIds.add(element.getId())) {
+				continue;
 			}
-		});
-		// Print any snippets not described
-		ArrayList<SpdxSnippet> remainingSnippets = new ArrayList<>(snippetsRemaining);
-		Collections.sort(remainingSnippets);
-		remainingSnippets.forEach((SpdxSnippet snippet) -> {
-            try {
-                printSnippet(snippet, out, constants);
-            } catch (InvalidSPDXAnalysisException e) {
-                out.println("Error printing package: "+e.getMessage());
-            }
-        });
-		// print any described packages
-		for (SpdxElement item:describedItems) {
-			if (item instanceof SpdxPackage) {
-				printPackage((SpdxPackage)item, out, constants, doc.getDocumentUri());
+			if (element instanceof SpdxPackage) {
+				SpdxPackage pkg = (SpdxPackage)element;
+				includedPackages.add(pkg);
+				collectExtractedLicenses(pkg.getLicenseConcluded(), referencedLicenses);
+				collectExtractedLicenses(pkg.getLicenseDeclared(), referencedLicenses);
+				for (AnyLicenseInfo license:pkg.getLicenseInfoFromFiles()) {
+					collectExtractedLicenses(license, referencedLicenses);
+				}
+				for (SpdxFile file:pkg.getFiles()) {
+					packageFileIds.add(file.getId());
+					toVisit.addLast(file);
+				}
+			} else if (element instanceof SpdxFile) {
+				SpdxFile file = (SpdxFile)element;
+				includedFiles.add(file);
+				collectExtractedLicenses(file.getLicenseConcluded(), referencedLicenses);
+				for (AnyLicenseInfo license:file.getLicenseInfoFromFiles()) {
+					collectExtractedLicenses(license, referencedLicenses);
+				}
+				List<SpdxSnippet> fileSnippets = snippetsByFile.get(file.getId());
+				if (fileSnippets != null) {
+					toVisit.addAll(fileSnippets);
+				}
+			} else {
+				SpdxSnippet snippet = (SpdxSnippet)element;
+				includedSnippets.add(snippet);
+				collectExtractedLicenses(snippet.getLicenseConcluded(), referencedLicenses);
+				for (AnyLicenseInfo license:snippet.getLicenseInfoFromFiles()) {
+					collectExtractedLicenses(license, referencedLicenses);
+				}
+				toVisit.addLast(snippet.getSnippetFromFile());
 			}
-		}
-		// print remaining packages
-		ArrayList<SpdxPackage> remainingPackages = new ArrayList<>();
-		allPackages.forEach((SpdxPackage pkg) -> {
-			if (!describedItems.contains(pkg)) {
-				remainingPackages.add(pkg);
+			for (Relationship relationship:element.getRelationships()) {
+				Optional<SpdxElement> relatedElement = relationship.getRelatedSpdxElement();
+				if (relatedElement.isPresent()) {
+					toVisit.addLast(relatedElement.get());
+				}
 			}
-		});
-		Collections.sort(remainingPackages);
-		remainingPackages.forEach((SpdxPackage pkg) -> {
-			try {
-				printPackage(pkg, out, constants, doc.getDocumentUri());
-			} catch (InvalidSPDXAnalysisException e) {
-				out.println("Error printing package: "+e.getMessage());
+		}
+		printDocumentHeader(doc, out, constants);
+		printElementAnnotationsRelationships(doc, out, constants, includedIds);
+		println(out, "");
+		// files which are not in an included package and the snippets are printed before the packages
+		Collections.sort(includedFiles);
+		for (SpdxFile file:includedFiles) {
+			if (!packageFileIds.contains(file.getId())) {
+				printFile(file, out, constants, includedIds);
 			}
-		});
-		
-		// Extracted license infos
+		}
+		Collections.sort(includedSnippets);
+		for (SpdxSnippet snippet:includedSnippets) {
+			printSnippet(snippet, out, constants);
+		}
+		Collections.sort(includedPackages);
+		for (SpdxPackage pkg:includedPackages) {
+			printPackageProperties(pkg, out, constants, documentUri, includedIds);
+			printPackageFiles(pkg, out, constants, null, includedIds);
+		}
 		println(out, "");
-		List<ExtractedLicenseInfo> extractedLicenseInfos = new ArrayList<>(doc.getExtractedLicenseInfos());
+		List<ExtractedLicenseInfo> extractedLicenseInfos = new ArrayList<>(referencedLicenses.values());
 		if (!extractedLicenseInfos.isEmpty()) {
 			Collections.sort(extractedLicenseInfos);
 			println(out, constants.getProperty("LICENSE_INFO_HEADER"));
@@ -299,6 +684,44 @@ public class CommonCode {
 			}
 		}
 	}
+	
+	/**
+	 * Collect all extracted licenses referenced in a license expression
+	 * @param license license expression
+	 * @param extractedLicenses map of license ID to extracted licenses to add any referenced extracted licenses to
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	static void collectExtractedLicenses(@Nullable AnyLicenseInfo license, 
+			Map<String, ExtractedLicenseInfo> extractedLicenses) throws InvalidSPDXAnalysisException {
+		if (license instanceof ExtractedLicenseInfo) {
+			extractedLicenses.put(((ExtractedLicenseInfo)license).getLicenseId(), (ExtractedLicenseInfo)license);
+		} else if (license instanceof LicenseSet) {
+			for (AnyLicenseInfo member:((LicenseSet)license).getMembers()) {
+				collectExtractedLicenses(member, extractedLicenses);
+			}
+		} else if (license instanceof WithExceptionOperator) {
+			collectExtractedLicenses(((WithExceptionOperator)license).getLicense(), extractedLicenses);
+		} else if (license instanceof OrLaterOperator) {
+			collectExtractedLicenses(((OrLaterOperator)license).getLicense(), extractedLicenses);
+		}
+	}
+	
+	/**
+	 * Print an element using the cached output if a document scope is available
+	 * @param scope document scope for the output cache - if null, the element is always printed
+	 * @param element element to print
+	 * @param out writer to print to
+	 * @param printer renders the element
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static void printCached(@Nullable ElementOutputCache.DocumentScope scope, ModelObjectV2 element,
+			PrintWriter out, ElementOutputCache.ElementPrinter printer) throws InvalidSPDXAnalysisException {
+		if (scope == null) {
+			printer.print(out);
+		} else {
+			scope.print(element, out, printer);
+		}
+	}
 
 	/**
 	 * @param spdxSnippet
@@ -306,7 +729,7 @@ public class CommonCode {
 	 * @param constants
 	 * @throws InvalidSPDXAnalysisException 
 	 */
-	private static void printSnippet(SpdxSnippet spdxSnippet, PrintWriter out,
+	static void printSnippet(SpdxSnippet spdxSnippet, PrintWriter out,
 			Properties constants) throws InvalidSPDXAnalysisException {
 		println(out, constants.getProperty("SNIPPET_HEADER"));
 		// NOTE: We can't call the print element properties since the order for tag/value is different for snippets
@@ -441,6 +864,18 @@ public class CommonCode {
 	private static void printElementAnnotationsRelationships(SpdxElement element,
 			PrintWriter out, Properties constants, String nameProperty,
 			String commentProperty) throws InvalidSPDXAnalysisException {
+		printElementAnnotationsRelationships(element, out, constants, null);
+	}
+	
+	/**
+	 * @param element
+	 * @param out
+	 * @param constants
+	 * @param includedIds if not null, only relationships to elements with these IDs or to external elements are printed
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	static void printElementAnnotationsRelationships(SpdxElement element,
+			PrintWriter out, Properties constants, @Nullable Set<String> includedIds) throws InvalidSPDXAnalysisException {
 		List<Annotation> annotations = new ArrayList<>(element.getAnnotations());
 		if (!annotations.isEmpty()) {
 			Collections.sort(annotations);
@@ -449,7 +884,12 @@ public class CommonCode {
 				printAnnotation(annotation, element.getId(), out, constants);
 			}
 		}
-		List<Relationship> relationships = new ArrayList<>(element.getRelationships());
+		List<Relationship> relationships = new ArrayList<>();
+		for (Relationship relationship:element.getRelationships()) {
+			if (includedIds == null || isRelatedElementIncluded(relationship, includedIds)) {
+				relationships.add(relationship);
+			}
+		}
 		if (!relationships.isEmpty()) {
 		Collections.sort(relationships);
 			println(out, constants.getProperty("RELATIONSHIP_HEADER"));
@@ -459,7 +899,21 @@ public class CommonCode {
 		}
 	}
 
-	private static void printRelationship(Relationship relationship,
+	/**
+	 * @param relationship relationship
+	 * @param includedIds IDs of the elements included in the output
+	 * @return true if the related element is included in the output or is not an element of the document
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static boolean isRelatedElementIncluded(Relationship relationship, Set<String> includedIds) throws InvalidSPDXAnalysisException {
+		Optional<SpdxElement> relatedElement = relationship.getRelatedSpdxElement();
+		return !relatedElement.isPresent() || relatedElement.get() instanceof ExternalSpdxElement ||
+				relatedElement.get() instanceof SpdxNoneElement ||
+				relatedElement.get() instanceof SpdxNoAssertionElement ||
+				includedIds.contains(relatedElement.get().getId());
+	}
+
+	static void printRelationship(Relationship relationship,
 			String elementId, PrintWriter out, Properties constants) throws InvalidSPDXAnalysisException {
 		String relatedElementId = "[MISSING]";
 		Optional<SpdxElement> relatedElement = relationship.getRelatedSpdxElement();
@@ -490,7 +944,7 @@ public class CommonCode {
 	 * @param constants
 	 * @throws InvalidSPDXAnalysisException 
 	 */
-	private static void printAnnotation(Annotation annotation, String id,
+	static void printAnnotation(Annotation annotation, String id,
 			PrintWriter out, Properties constants) throws InvalidSPDXAnalysisException {
 		out.println(constants.getProperty("PROP_ANNOTATOR")+annotation.getAnnotator());
 		out.println(constants.getProperty("PROP_ANNOTATION_DATE")+annotation.getAnnotationDate());
@@ -507,7 +961,7 @@ public class CommonCode {
 	 * @param license
 	 * @throws InvalidSPDXAnalysisException 
 	 */
-	private static void printLicense(ExtractedLicenseInfo license,
+	static void printLicense(ExtractedLicenseInfo license,
 			PrintWriter out, Properties constants) throws InvalidSPDXAnalysisException {
 		// id
 		if (license.getLicenseId() != null && !license.getLicenseId().isEmpty()) {
@@ -550,8 +1004,42 @@ public class CommonCode {
 	}
 
 
-	private static void printPackage(SpdxPackage pkg, PrintWriter out,
-			Properties constants, String documentNamespace) throws InvalidSPDXAnalysisException {
+	static void printPackage(SpdxPackage pkg, PrintWriter out,
+			Properties constants, String documentNamespace,
+			@Nullable ElementOutputCache.DocumentScope scope) throws InvalidSPDXAnalysisException {
+		// the package files are cached separately since the package properties only reference the files
+		printCached(scope, pkg, out, (PrintWriter o) -> printPackageProperties(pkg, o, constants, documentNamespace, null));
+		printPackageFiles(pkg, out, constants, scope, null);
+	}
+	
+	/**
+	 * Print the files contained in a package
+	 * @param pkg
+	 * @param out
+	 * @param constants
+	 * @param scope document scope for the output cache - if null, the files are always printed
+	 * @param includedIds if not null, only relationships to elements with these IDs are printed
+	 * @throws InvalidSPDXAnalysisException
+	 */
+	private static void printPackageFiles(SpdxPackage pkg, PrintWriter out, Properties constants,
+			@Nullable ElementOutputCache.DocumentScope scope, @Nullable Set<String> includedIds) throws InvalidSPDXAnalysisException {
+		List<SpdxFile> files = new ArrayList<>(pkg.getFiles());
+		if (!files.isEmpty()) {
+            Collections.sort(files);                    
+            println(out, "");
+			println(out, constants.getProperty("FILE_INFO_HEADER"));
+                        /* Print out sorted files */
+			for (SpdxFile file : files) {
+				printCached(scope, file, out, (PrintWriter o) -> printFile(file, o, constants, includedIds));
+				println(out, "");
+			}
+		} else {
+			println(out, "");
+		}
+	}
+
+	private static void printPackageProperties(SpdxPackage pkg, PrintWriter out,
+			Properties constants, String documentNamespace, @Nullable Set<String> includedIds) throws InvalidSPDXAnalysisException {
 		println(out, constants.getProperty("PACKAGE_INFO_HEADER"));
 		printElementProperties(pkg, out, constants,"PROP_PACKAGE_DECLARED_NAME",
 				"PROP_PACKAGE_COMMENT");
@@ -731,21 +1219,7 @@ public class CommonCode {
 			// Only print if not the default
 			println(out, constants.getProperty("PROP_PACKAGE_FILES_ANALYZED") + "false");
 		}
-		printElementAnnotationsRelationships(pkg, out, constants,"PROP_PACKAGE_DECLARED_NAME",
-				"PROP_PACKAGE_COMMENT");
-		List<SpdxFile> files = new ArrayList<>(pkg.getFiles());
-		if (!files.isEmpty()) {
-            Collections.sort(files);                    
-            println(out, "");
-			println(out, constants.getProperty("FILE_INFO_HEADER"));
-                        /* Print out sorted files */
-			for (SpdxFile file : files) {
-				printFile(file, out, constants);
-				println(out, "");
-			}
-		} else {
-			println(out, "");
-		}
+		printElementAnnotationsRelationships(pkg, out, constants, includedIds);
 	}
 
 	/**
@@ -831,9 +1305,19 @@ public class CommonCode {
 	 * @param file
 	 * @throws InvalidSPDXAnalysisException 
 	 */
+	static void printFile(SpdxFile file, PrintWriter out,
+			Properties constants) throws InvalidSPDXAnalysisException {
+		printFile(file, out, constants, null);
+	}
+	
+	/**
+	 * @param file
+	 * @param includedIds if not null, only relationships to elements with these IDs are printed
+	 * @throws InvalidSPDXAnalysisException 
+	 */
 	@SuppressWarnings("deprecation")
 	private static void printFile(SpdxFile file, PrintWriter out,
-			Properties constants) throws InvalidSPDXAnalysisException {
+			Properties constants, @Nullable Set<String> includedIds) throws InvalidSPDXAnalysisException {
 		printElementProperties(file, out, constants, "PROP_FILE_NAME", 
 				"PROP_FILE_COMMENT");
 		// type
@@ -917,8 +1401,7 @@ public class CommonCode {
 		    }
 			println(out, constants.getProperty("PROP_FILE_DEPENDENCY") + depFileName);
 		}
-		printElementAnnotationsRelationships(file, out, constants, "PROP_FILE_NAME", 
-				"PROP_FILE_COMMENT");
+		printElementAnnotationsRelationships(file, out, constants, includedIds);
 	}
 
 	private static void println(PrintWriter out, String output) {
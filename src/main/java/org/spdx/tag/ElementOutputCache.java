@@ -0,0 +1,410 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.spdx.core.IndividualUriValue;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.TypedValue;
+import org.spdx.library.model.v2.ExternalDocumentRef;
+import org.spdx.library.model.v2.ModelObjectV2;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.PropertyDescriptor;
+
+/**
+ * Cache of the tag/value output for individual SPDX elements.
+ * <p>
+ * Each entry holds the rendered text for an element together with a stamp computed
+ * from the element's properties in the model store.  When the element is printed again
+ * and the stamp has not changed, the cached text is copied to the output rather than
+ * re-rendering the element.
+ * <p>
+ * The stamp is a SHA-256 digest over the element's property values.  Anonymous values
+ * (e.g. checksums, relationships, license sets) are included by content.  References
+ * to other elements are included by ID and name since those are the only
+ * properties of a referenced element used in the tag/value output.
+ * <p>
+ * The output is cached separately for each document.  If the model store is a <code>VersionedModelStore</code>
+ * and neither the document namespace nor any item outside a document namespace has been modified since the
+ * document was last printed, the cached output is used without computing the stamps.
+ *
+ * @author Gary O'Neall
+ */
+public class ElementOutputCache {
+
+	/**
+	 * Renders an element to a writer
+	 */
+	@FunctionalInterface
+	public interface ElementPrinter {
+		void print(PrintWriter out) throws InvalidSPDXAnalysisException;
+	}
+
+	private static class CachedOutput {
+		final byte[] stamp;
+		final String output;
+
+		CachedOutput(byte[] stamp, String output) {
+			this.stamp = stamp;
+			this.output = output;
+		}
+	}
+	
+	/**
+	 * Output for the elements of a document printed in the same scope
+	 */
+	private static class DocumentOutput {
+		final Map<String, CachedOutput> elements;
+		final long namespaceVersion;
+		final long sharedVersion;
+		
+		DocumentOutput(Map<String, CachedOutput> elements, long namespaceVersion, long sharedVersion) {
+			this.elements = elements;
+			this.namespaceVersion = namespaceVersion;
+			this.sharedVersion = sharedVersion;
+		}
+	}
+
+	static final Comparator<PropertyDescriptor> PROPERTY_COMPARATOR = new Comparator<PropertyDescriptor>() {
+
+		@Override
+		public int compare(PropertyDescriptor o1, PropertyDescriptor o2) {
+			int retval = o1.getName().compareTo(o2.getName());
+			if (retval == 0) {
+				retval = o1.getNameSpace().compareTo(o2.getNameSpace());
+			}
+			return retval;
+		}
+
+	};
+
+	static final Comparator<byte[]> DIGEST_COMPARATOR = new Comparator<byte[]>() {
+
+		@Override
+		public int compare(byte[] o1, byte[] o2) {
+			int len = Math.min(o1.length, o2.length);
+			for (int i = 0; i < len; i++) {
+				int retval = Byte.compare(o1[i], o2[i]);
+				if (retval != 0) {
+					return retval;
+				}
+			}
+			return Integer.compare(o1.length, o2.length);
+		}
+
+	};
+
+	private final Map<String, DocumentOutput> documents = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong(0);
+	private final AtomicLong misses = new AtomicLong(0);
+
+	/**
+	 * Output for a single SPDX document being printed.  Entries for elements in the document which
+	 * were not printed are removed from the cache when the scope is closed.  A scope is used by a single thread.
+	 */
+	public class DocumentScope implements AutoCloseable {
+
+		private final String documentUri;
+		private final byte[] context;
+		private final IModelStore modelStore;
+		private final Map<String, CachedOutput> previous;
+		private final Map<String, CachedOutput> printed = new HashMap<>();
+		private final long namespaceVersion;
+		private final long sharedVersion;
+		/**
+		 * True if nothing the output depends on has been modified since the document was last printed
+		 */
+		private final boolean unmodified;
+
+		private DocumentScope(SpdxDocument document) throws InvalidSPDXAnalysisException {
+			this.documentUri = document.getDocumentUri();
+			this.modelStore = document.getModelStore();
+			// the versions are read before the elements so that concurrent modifications are detected next time
+			if (modelStore instanceof VersionedModelStore) {
+				namespaceVersion = ((VersionedModelStore)modelStore).getNamespaceVersion(documentUri);
+				sharedVersion = ((VersionedModelStore)modelStore).getSharedVersion();
+			} else {
+				namespaceVersion = -1;
+				sharedVersion = -1;
+			}
+			DocumentOutput last = documents.get(documentUri);
+			this.previous = last == null ? Collections.emptyMap() : last.elements;
+			this.unmodified = last != null && namespaceVersion >= 0 && 
+					last.namespaceVersion == namespaceVersion && last.sharedVersion == sharedVersion;
+			// External document references are used when printing references to external elements
+			MessageDigest digest = newDigest();
+			List<String> refs = new ArrayList<>();
+			for (ExternalDocumentRef ref:document.getExternalDocumentRefs()) {
+				refs.add(ref.getId() + " " + ref.getSpdxDocumentNamespace());
+			}
+			Collections.sort(refs);
+			for (String ref:refs) {
+				updateString(digest, ref);
+			}
+			this.context = digest.digest();
+		}
+
+		/**
+		 * Print an element using the cached output if the element is unchanged
+		 * @param element element to print
+		 * @param out writer to print to
+		 * @param printer renders the element if it is not in the cache or has changed
+		 * @throws InvalidSPDXAnalysisException on any error reading the element properties
+		 */
+		public void print(ModelObjectV2 element, PrintWriter out, ElementPrinter printer) throws InvalidSPDXAnalysisException {
+			String objectUri = element.getObjectUri();
+			CachedOutput cached = previous.get(objectUri);
+			if (cached != null && unmodified) {
+				hits.incrementAndGet();
+				printed.put(objectUri, cached);
+				out.print(cached.output);
+				return;
+			}
+			MessageDigest digest = newDigest();
+			digest.update(context);
+			updateItem(digest, modelStore, objectUri, documentUri, new HashSet<>());
+			byte[] stamp = digest.digest();
+			if (cached != null && Arrays.equals(cached.stamp, stamp)) {
+				hits.incrementAndGet();
+				printed.put(objectUri, cached);
+				out.print(cached.output);
+				return;
+			}
+			misses.incrementAndGet();
+			StringWriter sw = new StringWriter();
+			PrintWriter pw = new PrintWriter(sw);
+			printer.print(pw);
+			pw.flush();
+			String output = sw.toString();
+			printed.put(objectUri, new CachedOutput(stamp, output));
+			out.print(output);
+		}
+
+		/**
+		 * Replaces the cached output for the document with the output for the elements printed in this scope
+		 */
+		@Override
+		public void close() {
+			documents.put(documentUri, new DocumentOutput(printed, namespaceVersion, sharedVersion));
+		}
+	}
+
+	/**
+	 * @param document document to be printed
+	 * @return a scope to be used for printing the elements of the document
+	 * @throws InvalidSPDXAnalysisException on errors reading the document
+	 */
+	public DocumentScope openDocument(SpdxDocument document) throws InvalidSPDXAnalysisException {
+		return new DocumentScope(document);
+	}
+
+	/**
+	 * @return number of elements printed from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of elements rendered since they were not in the cache or had changed
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return number of elements in the cache
+	 */
+	public int size() {
+		int size = 0;
+		for (DocumentOutput document:documents.values()) {
+			size += document.elements.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Remove all cached output
+	 */
+	public void clear() {
+		documents.clear();
+	}
+
+	/**
+	 * Compute a stamp for the properties of an element.  The stamp does not depend on the
+	 * document namespace or the IDs of anonymous values, so it can be compared across
+	 * model stores and document versions.
+	 * @param modelStore store containing the element
+	 * @param objectUri object URI of the element
+	 * @param documentUri namespace for the document containing the element
+	 * @return SHA-256 digest of the element properties
+	 * @throws InvalidSPDXAnalysisException on errors reading the properties
+	 */
+	public static byte[] computeStamp(IModelStore modelStore, String objectUri, String documentUri) throws InvalidSPDXAnalysisException {
+		MessageDigest digest = newDigest();
+		updateItem(digest, modelStore, objectUri, documentUri, new HashSet<>());
+		return digest.digest();
+	}
+
+	/**
+	 * Compute a stamp for a single property of an element
+	 * @param modelStore store containing the element
+	 * @param objectUri object URI of the element
+	 * @param property property to compute the stamp for
+	 * @param documentUri namespace for the document containing the element
+	 * @return SHA-256 digest of the property value(s)
+	 * @throws InvalidSPDXAnalysisException on errors reading the property
+	 */
+	public static byte[] computePropertyStamp(IModelStore modelStore, String objectUri,
+			PropertyDescriptor property, String documentUri) throws InvalidSPDXAnalysisException {
+		MessageDigest digest = newDigest();
+		updateProperty(digest, modelStore, objectUri, property, documentUri, new HashSet<>());
+		return digest.digest();
+	}
+
+	static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-256 is not supported by this JVM", e);
+		}
+	}
+
+	private static void updateString(MessageDigest digest, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		updateInt(digest, bytes.length);
+		digest.update(bytes);
+	}
+
+	private static void updateInt(MessageDigest digest, int value) {
+		digest.update((byte)(value >>> 24));
+		digest.update((byte)(value >>> 16));
+		digest.update((byte)(value >>> 8));
+		digest.update((byte)value);
+	}
+
+	private static void updateItem(MessageDigest digest, IModelStore modelStore, String objectUri,
+			String documentUri, Set<String> visiting) throws InvalidSPDXAnalysisException {
+		if (!visiting.add(objectUri)) {
+			// circular reference through anonymous values - just include the marker
+			digest.update((byte)'C');
+			return;
+		}
+		Optional<TypedValue> typedValue = modelStore.getTypedValue(objectUri);
+		updateString(digest, typedValue.isPresent() ? typedValue.get().getType() : "");
+		List<PropertyDescriptor> properties = new ArrayList<>(modelStore.getPropertyValueDescriptors(objectUri));
+		Collections.sort(properties, PROPERTY_COMPARATOR);
+		for (PropertyDescriptor property:properties) {
+			updateString(digest, property.getName());
+			updateProperty(digest, modelStore, objectUri, property, documentUri, visiting);
+		}
+		visiting.remove(objectUri);
+	}
+
+	private static void updateProperty(MessageDigest digest, IModelStore modelStore, String objectUri,
+			PropertyDescriptor property, String documentUri, Set<String> visiting) throws InvalidSPDXAnalysisException {
+		if (modelStore.isCollectionProperty(objectUri, property)) {
+			// collections are unordered - combine the sorted digests of the members
+			List<byte[]> memberDigests = new ArrayList<>();
+			Iterator<Object> iter = modelStore.listValues(objectUri, property);
+			while (iter.hasNext()) {
+				MessageDigest memberDigest = newDigest();
+				updateValue(memberDigest, modelStore, iter.next(), documentUri, visiting);
+				memberDigests.add(memberDigest.digest());
+			}
+			Collections.sort(memberDigests, DIGEST_COMPARATOR);
+			digest.update((byte)'L');
+			updateInt(digest, memberDigests.size());
+			for (byte[] memberDigest:memberDigests) {
+				digest.update(memberDigest);
+			}
+		} else {
+			Optional<Object> value = modelStore.getValue(objectUri, property);
+			if (value.isPresent()) {
+				updateValue(digest, modelStore, value.get(), documentUri, visiting);
+			} else {
+				digest.update((byte)'N');
+			}
+		}
+	}
+
+	private static void updateValue(MessageDigest digest, IModelStore modelStore, Object value,
+			String documentUri, Set<String> visiting) throws InvalidSPDXAnalysisException {
+		if (value instanceof TypedValue) {
+			String uri = ((TypedValue)value).getObjectUri();
+			if (modelStore.isAnon(uri)) {
+				digest.update((byte)'A');
+				updateItem(digest, modelStore, uri, documentUri, visiting);
+			} else {
+				// Only the ID and name of referenced elements are used in the tag/value output
+				digest.update((byte)'R');
+				updateString(digest, relativeUri(uri, documentUri));
+				for (PropertyDescriptor nameProperty:new PropertyDescriptor[] {
+						SpdxConstantsCompatV2.PROP_NAME, SpdxConstantsCompatV2.PROP_FILE_NAME}) {
+					Optional<Object> name = modelStore.getValue(uri, nameProperty);
+					if (name.isPresent()) {
+						updateString(digest, name.get().toString());
+					}
+				}
+			}
+		} else if (value instanceof IndividualUriValue) {
+			digest.update((byte)'U');
+			updateString(digest, relativeUri(((IndividualUriValue)value).getIndividualURI(), documentUri));
+		} else if (value instanceof String) {
+			digest.update((byte)'S');
+			updateString(digest, (String)value);
+		} else {
+			digest.update((byte)'O');
+			updateString(digest, value.getClass().getSimpleName() + ":" + value.toString());
+		}
+	}
+
+	/**
+	 * @param uri URI
+	 * @param documentUri document namespace
+	 * @return the URI without the document namespace if it is in the document namespace
+	 */
+	private static String relativeUri(String uri, String documentUri) {
+		if (documentUri != null && uri.startsWith(documentUri + "#")) {
+			return uri.substring(documentUri.length());
+		} else {
+			return uri;
+		}
+	}
+}
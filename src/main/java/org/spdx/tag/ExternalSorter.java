@@ -0,0 +1,342 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sorts key/value string pairs using a bounded amount of memory.
+ * <p>
+ * Entries are buffered in memory until the estimated size of the buffer exceeds the memory budget.
+ * The buffer is then sorted and written to a temporary file as a run once it holds at least
+ * <code>MIN_RUN_SIZE</code> entries.  The sorted entries are returned by merging the runs.  Runs consumed
+ * by an intermediate merge pass are deleted after the pass, the remaining temporary files are deleted when
+ * the sorter is closed.
+ * <p>
+ * Entries are ordered by key using the key comparator, then by value.
+ *
+ * @author Gary O'Neall
+ */
+public class ExternalSorter implements Closeable {
+
+	/**
+	 * Maximum number of runs merged at one time
+	 */
+	static final int MAX_FAN_IN = 64;
+
+	/**
+	 * Estimated memory overhead for each entry in addition to the string characters
+	 */
+	static final int ENTRY_OVERHEAD = 96;
+
+	/**
+	 * Minimum number of entries written in a run - avoids a run per entry for very small memory budgets
+	 */
+	static final int MIN_RUN_SIZE = 1024;
+
+	private static final int RUN_BUFFER_SIZE = 8192;
+
+	/**
+	 * Sorted key/value pair
+	 */
+	public static class Entry {
+		private final String key;
+		private final String value;
+
+		Entry(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		/**
+		 * @return the key
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * @return the value
+		 */
+		public String getValue() {
+			return value;
+		}
+	}
+
+	/**
+	 * Reads the entries from a run file
+	 */
+	private static class RunReader implements Closeable {
+		private final DataInputStream in;
+		private Entry current;
+
+		RunReader(File runFile) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(runFile), RUN_BUFFER_SIZE));
+			advance();
+		}
+
+		void advance() throws IOException {
+			try {
+				String key = readString(in);
+				String value = readString(in);
+				current = new Entry(key, value);
+			} catch (EOFException e) {
+				current = null;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	private final Comparator<Entry> entryComparator;
+	private final long memoryBudget;
+	private final File tempDirectory;
+	private List<Entry> buffer = new ArrayList<>();
+	private long bufferSize = 0;
+	private final List<File> runs = new ArrayList<>();
+	private final List<Closeable> openReaders = new ArrayList<>();
+	private long count = 0;
+	private boolean sorted = false;
+
+	/**
+	 * @param keyComparator comparator used to order the keys
+	 * @param memoryBudget estimated number of bytes of entries to buffer in memory before writing a run to disk
+	 * @param tempDirectory directory for the run files - if null, the system temporary directory is used
+	 */
+	public ExternalSorter(Comparator<String> keyComparator, long memoryBudget, @Nullable File tempDirectory) {
+		this.entryComparator = new Comparator<Entry>() {
+
+			@Override
+			public int compare(Entry o1, Entry o2) {
+				int retval = keyComparator.compare(o1.key, o2.key);
+				if (retval == 0) {
+					retval = o1.value.compareTo(o2.value);
+				}
+				return retval;
+			}
+
+		};
+		this.memoryBudget = memoryBudget;
+		this.tempDirectory = tempDirectory;
+	}
+
+	/**
+	 * Add an entry to be sorted
+	 * @param key key used for ordering the entry
+	 * @param value value for the entry
+	 * @throws IOException on errors writing a run to disk
+	 */
+	public void add(String key, String value) throws IOException {
+		if (sorted) {
+			throw new IllegalStateException("Can not add entries once the entries are sorted");
+		}
+		buffer.add(new Entry(key, value));
+		bufferSize += ENTRY_OVERHEAD + 2L * (key.length() + value.length());
+		count++;
+		if (bufferSize > memoryBudget && buffer.size() >= MIN_RUN_SIZE) {
+			spill();
+		}
+	}
+
+	/**
+	 * @return number of entries added
+	 */
+	public long size() {
+		return count;
+	}
+
+	/**
+	 * @return number of run files currently on disk
+	 */
+	public int getRunCount() {
+		return runs.size();
+	}
+
+	/**
+	 * Returns the sorted entries.  No entries can be added once this method is called.  IO errors
+	 * reading the runs are thrown as <code>UncheckedIOException</code> by the iterator.
+	 * @return iterator over the entries in sorted order
+	 * @throws IOException on errors merging the runs
+	 */
+	public Iterator<Entry> sorted() throws IOException {
+		if (sorted) {
+			throw new IllegalStateException("Entries have already been sorted");
+		}
+		sorted = true;
+		if (runs.isEmpty()) {
+			Collections.sort(buffer, entryComparator);
+			List<Entry> result = buffer;
+			buffer = new ArrayList<>();
+			bufferSize = 0;
+			return result.iterator();
+		}
+		if (!buffer.isEmpty()) {
+			spill();
+		}
+		List<File> toMerge = new ArrayList<>(runs);
+		while (toMerge.size() > MAX_FAN_IN) {
+			List<File> merged = new ArrayList<>();
+			for (int i = 0; i < toMerge.size(); i += MAX_FAN_IN) {
+				List<File> group = toMerge.subList(i, Math.min(i + MAX_FAN_IN, toMerge.size()));
+				File runFile = newRunFile();
+				try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+						new FileOutputStream(runFile), RUN_BUFFER_SIZE))) {
+					Iterator<Entry> iter = merge(group);
+					while (iter.hasNext()) {
+						Entry entry = iter.next();
+						writeString(out, entry.key);
+						writeString(out, entry.value);
+					}
+				} catch (UncheckedIOException e) {
+					throw e.getCause();
+				}
+				closeReaders();
+				deleteRuns(group);
+				merged.add(runFile);
+			}
+			toMerge = merged;
+		}
+		return merge(toMerge);
+	}
+
+	private Iterator<Entry> merge(List<File> runFiles) throws IOException {
+		PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runFiles.size()),
+				(RunReader r1, RunReader r2) -> entryComparator.compare(r1.current, r2.current));
+		for (File runFile:runFiles) {
+			RunReader reader = new RunReader(runFile);
+			openReaders.add(reader);
+			if (reader.current != null) {
+				queue.add(reader);
+			}
+		}
+		return new Iterator<Entry>() {
+
+			@Override
+			public boolean hasNext() {
+				return !queue.isEmpty();
+			}
+
+			@Override
+			public Entry next() {
+				RunReader reader = queue.poll();
+				if (reader == null) {
+					throw new NoSuchElementException();
+				}
+				Entry retval = reader.current;
+				try {
+					reader.advance();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				if (reader.current != null) {
+					queue.add(reader);
+				}
+				return retval;
+			}
+		};
+	}
+
+	private void spill() throws IOException {
+		Collections.sort(buffer, entryComparator);
+		File runFile = newRunFile();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(runFile), RUN_BUFFER_SIZE))) {
+			for (Entry entry:buffer) {
+				writeString(out, entry.key);
+				writeString(out, entry.value);
+			}
+		}
+		buffer = new ArrayList<>();
+		bufferSize = 0;
+	}
+
+	private File newRunFile() throws IOException {
+		File runFile = File.createTempFile("spdx-sort", ".run", tempDirectory);
+		runs.add(runFile);
+		return runFile;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int len = in.readInt();
+		byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void closeReaders() {
+		for (Closeable reader:openReaders) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				// ignore - the run file will be deleted
+			}
+		}
+		openReaders.clear();
+	}
+
+	private void deleteRuns(List<File> toDelete) {
+		for (File run:toDelete) {
+			if (!run.delete()) {
+				run.deleteOnExit();
+			}
+		}
+		runs.removeAll(new HashSet<>(toDelete));
+	}
+
+	/**
+	 * Close any open runs and delete the temporary files
+	 */
+	@Override
+	public void close() {
+		closeReaders();
+		deleteRuns(new ArrayList<>(runs));
+		buffer = new ArrayList<>();
+		bufferSize = 0;
+	}
+}
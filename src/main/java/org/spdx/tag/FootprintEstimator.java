@@ -0,0 +1,164 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+
+/**
+ * Estimates the memory retained by the model for a tag/value document from a quick scan of the input.
+ * <p>
+ * The scan splits the input into tags and values in the same way as the parser but does not create
+ * any elements.  The retained size is estimated from the number of tags, the number of elements,
+ * relationships and annotations, and the length of the values.  The estimate is calibrated against
+ * documents loaded into an <code>InMemSpdxStore</code>.  The result is roughly ten bytes per byte of
+ * input, but it varies with the shape of the document.
+ * 
+ * @author Gary O'Neall
+ */
+public class FootprintEstimator implements TagValueBehavior {
+	
+	/**
+	 * Estimated bytes retained for each tag in addition to the value characters
+	 */
+	static final long TAG_BYTES = 340;
+	
+	/**
+	 * Estimated bytes retained for each element, extracted license, relationship or annotation
+	 */
+	static final long ELEMENT_BYTES = 560;
+	
+	/**
+	 * Tags which create an element, extracted license, relationship or annotation
+	 */
+	static final Set<String> ELEMENT_TAGS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"SPDXVersion:", "PackageName:", "FileName:", "SnippetSPDXID:", "LicenseID:", "Relationship:", "Annotator:")));
+	
+	private long lines = 0;
+	private long tags = 0;
+	private long elements = 0;
+	private long valueChars = 0;
+	
+	/**
+	 * Scan a tag/value document
+	 * @param stream stream containing the tag/value document - the stream is closed once scanned
+	 * @param limits line and text block limits applied while scanning
+	 * @return the estimator containing the counts for the document
+	 * @throws ParserLimitExceededException if the document exceeds one of the limits
+	 * @throws InvalidSPDXAnalysisException on invalid tag/value documents
+	 * @throws IOException on errors reading the stream
+	 */
+	public static FootprintEstimator scan(InputStream stream, ParserLimits limits) throws InvalidSPDXAnalysisException, IOException {
+		FootprintEstimator estimator = new FootprintEstimator();
+		NoCommentInputStream nci;
+		try {
+			nci = new NoCommentInputStream(stream, limits.getMaxLineLength());
+		} catch (LineTooLongException e) {
+			stream.close();
+			throw new ParserLimitExceededException(e.getMessage(), e);
+		}
+		HandBuiltParser parser = new HandBuiltParser(nci);
+		parser.setLimits(limits);
+		parser.setBehavior(estimator);
+		try {
+			parser.data();
+		} catch (InvalidSPDXAnalysisException | IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new InvalidSPDXAnalysisException("Error scanning tag/value document: " + e.getMessage(), e);
+		}
+		estimator.lines = nci.getCurrentLineNo();
+		return estimator;
+	}
+	
+	/**
+	 * Estimate the bytes retained by the model
+	 * @param tags number of tags
+	 * @param elements number of elements, extracted licenses, relationships and annotations
+	 * @param valueChars total number of characters in the values
+	 * @return estimated number of bytes retained
+	 */
+	static long estimateRetainedBytes(long tags, long elements, long valueChars) {
+		return tags * TAG_BYTES + elements * ELEMENT_BYTES + valueChars;
+	}
+	
+	private FootprintEstimator() {
+		// use scan
+	}
+
+	@Override
+	public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+		tags++;
+		valueChars += value.length();
+		if (ELEMENT_TAGS.contains(tag)) {
+			elements++;
+		}
+	}
+
+	@Override
+	public void enter() throws Exception {
+		// nothing to prepare
+	}
+
+	@Override
+	public void exit() throws Exception {
+		// nothing to complete
+	}
+	
+	/**
+	 * @return number of lines read
+	 */
+	public long getLineCount() {
+		return lines;
+	}
+	
+	/**
+	 * @return number of tags
+	 */
+	public long getTagCount() {
+		return tags;
+	}
+	
+	/**
+	 * @return number of elements, extracted licenses, relationships and annotations which will be created
+	 */
+	public long getElementCount() {
+		return elements;
+	}
+	
+	/**
+	 * @return total number of characters in the values
+	 */
+	public long getValueChars() {
+		return valueChars;
+	}
+	
+	/**
+	 * @return estimated number of bytes retained by the model for the document
+	 */
+	public long getEstimatedRetainedBytes() {
+		return estimateRetainedBytes(tags, elements, valueChars);
+	}
+}
@@ -18,8 +18,7 @@
  */
 package org.spdx.tag;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
  * I'm hoping this is a temporary solution.  This is a hand built parser to parse
@@ -35,9 +34,24 @@ public class HandBuiltParser {
 
 	private static final String END_TEXT = "</text>";
 	private static final String START_TEXT = "<text>";
-	Pattern tagPattern = Pattern.compile("^\\w+:");
+	/**
+	 * Number of slots for the tags reused across lines - larger than the number of SPDX tags
+	 */
+	private static final int TAG_CACHE_SIZE = 256;
+	private final String[] tagCache = new String[TAG_CACHE_SIZE];
 	private TagValueBehavior buildDocument;
 	private NoCommentInputStream textInput;
+	private TagValueMetricsListener metricsListener = TagValueMetricsListener.NO_OP;
+	private ProgressMonitor progressMonitor = ProgressMonitor.NONE;
+	private ParserLimits limits = new ParserLimits();
+	/**
+	 * Only one in this many tags is timed when splitting the time between the lex and build phases
+	 */
+	static final int BUILD_TIMING_SAMPLE = 64;
+	private boolean timed = false;
+	private long buildCount = 0;
+	private long sampledBuildNanos = 0;
+	private long sampledBuildCount = 0;
 
 	/**
 	 * Creates a parser for an Input stream.
@@ -55,64 +69,231 @@ public class HandBuiltParser {
 		this.buildDocument = buildDocument;
 	}
 
+	/**
+	 * @param metricsListener listener for the lines read and the lex and build phase timings
+	 */
+	public void setMetricsListener(TagValueMetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+	}
+
+	/**
+	 * @param progressMonitor monitor notified of each line read and checked for cancellation
+	 */
+	public void setProgressMonitor(ProgressMonitor progressMonitor) {
+		this.progressMonitor = progressMonitor;
+	}
+
+	/**
+	 * The maximum line length is enforced by the <code>NoCommentInputStream</code>
+	 * @param limits limits on the text block length
+	 */
+	public void setLimits(ParserLimits limits) {
+		this.limits = limits;
+	}
+
+	/**
+	 * @return false at the end of the input
+	 * @throws ParserLimitExceededException if the line exceeds the maximum line length
+	 * @throws IOException
+	 */
+	private boolean nextLine() throws ParserLimitExceededException, IOException {
+		try {
+			return textInput.nextLine();
+		} catch (LineTooLongException e) {
+			throw new ParserLimitExceededException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Equivalent to matching <code>^\w+:</code> at the start of the line
+	 * @param line characters of the line
+	 * @param length number of characters in the line
+	 * @return length of the tag including the colon or 0 if the line does not start with a tag
+	 */
+	private static int tagLength(char[] line, int length) {
+		int i = 0;
+		while (i < length && isWordChar(line[i])) {
+			i++;
+		}
+		return i > 0 && i < length && line[i] == ':' ? i + 1 : 0;
+	}
+
+	private static boolean isWordChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
+
+	/**
+	 * @param line characters of the line
+	 * @param length length of the tag
+	 * @return the tag as a string reusing the string for a previously seen tag
+	 */
+	private String tag(char[] line, int length) {
+		int hash = 0;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + line[i];
+		}
+		for (int probe = 0; probe < TAG_CACHE_SIZE; probe++) {
+			int slot = (hash + probe) & (TAG_CACHE_SIZE - 1);
+			String cached = tagCache[slot];
+			if (cached == null) {
+				cached = new String(line, 0, length);
+				tagCache[slot] = cached;
+				return cached;
+			}
+			if (regionEquals(cached, line, length)) {
+				return cached;
+			}
+		}
+		// the cache is full of other tags
+		return new String(line, 0, length);
+	}
+
+	private static boolean regionEquals(String s, char[] line, int length) {
+		if (s.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (s.charAt(i) != line[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the characters from start to end with any leading and trailing white space removed as in <code>String.trim()</code>
+	 */
+	private static String trimmed(char[] line, int start, int end) {
+		start = trimStart(line, start, end);
+		end = trimEnd(line, start, end);
+		return start == end ? "" : new String(line, start, end - start);
+	}
+
+	private static int trimStart(char[] line, int start, int end) {
+		while (start < end && line[start] <= ' ') {
+			start++;
+		}
+		return start;
+	}
+
+	private static int trimEnd(char[] line, int start, int end) {
+		while (end > start && line[end - 1] <= ' ') {
+			end--;
+		}
+		return end;
+	}
+
+	/**
+	 * @param length length of the text block including the next line
+	 * @param tag tag for the text block
+	 * @param startLine line number where the text block starts
+	 * @throws ParserLimitExceededException if the text block exceeds the maximum length
+	 */
+	private void checkTextBlockLength(int length, String tag, int startLine) throws ParserLimitExceededException {
+		if (length > limits.getMaxTextBlockLength()) {
+			throw new ParserLimitExceededException("Text block for " + tag + " starting at line " + startLine + 
+					" exceeds the maximum text block length of " + limits.getMaxTextBlockLength() + " characters");
+		}
+	}
+
+	/**
+	 * Pass a tag and value to the behavior, timing a sample of the tags when the phases are timed
+	 */
+	private void build(String tag, String value, int lineNumber) throws Exception {
+		if (timed && buildCount++ % BUILD_TIMING_SAMPLE == 0) {
+			long start = System.nanoTime();
+			this.buildDocument.buildDocument(tag, value, lineNumber);
+			sampledBuildNanos += System.nanoTime() - start;
+			sampledBuildCount++;
+		} else {
+			this.buildDocument.buildDocument(tag, value, lineNumber);
+		}
+	}
+
 	/**
 	 * parses the data
 	 * @throws Exception
 	 */
 	public void data() throws Exception {
 		try {
+			timed = metricsListener != TagValueMetricsListener.NO_OP;
+			buildCount = 0;
+			sampledBuildNanos = 0;
+			sampledBuildCount = 0;
+			long start = timed ? System.nanoTime() : 0;
+			Object section = TagValueEvents.get().beginSection();
+			progressMonitor.phaseStarted(TagValuePhase.BUILD);
 			boolean inTextBlock = false;
 			String tag = "";
 			String value = "";
-			String nextLine = textInput.readLine();
-			while (nextLine != null) {
+			// text blocks are accumulated in a builder to avoid copying the block for every line
+			StringBuilder textBlock = new StringBuilder();
+			int textStartLine = 0;
+			// the lines are scanned in the reusable line buffer so that only the values are created as strings
+			while (nextLine()) {
+				char[] line = textInput.getLine();
+				int length = textInput.getLineLength();
+				progressMonitor.lineRead(textInput.getCurrentLineNo());
 				if (inTextBlock) {
-					if (nextLine.indexOf(START_TEXT)>0){
+					if (NoCommentInputStream.indexOf(line, length, START_TEXT) > 0) {
 						throw(new RecognitionException("Found a text block inside another text block at line " +
 									(textInput.getCurrentLineNo()) + ".  Expecting "+END_TEXT));
 					}
-					int endText = nextLine.indexOf(END_TEXT);
+					int endText = NoCommentInputStream.indexOf(line, length, END_TEXT);
+					checkTextBlockLength(textBlock.length() + 1 + (endText >= 0 ? endText : length), tag, textStartLine);
+					textBlock.append('\n');
 					if (endText >= 0) {
-						value = value + "\n" + nextLine.substring(0, endText).trim();
+						int textStart = trimStart(line, 0, endText);
+						textBlock.append(line, textStart, trimEnd(line, textStart, endText) - textStart);
 						inTextBlock = false;	//NOTE: we are skipping any text after the </text>
-						this.buildDocument.buildDocument(tag, value, textInput.getCurrentLineNo());
+						build(tag, textBlock.toString(), textInput.getCurrentLineNo());
 						tag = "";
-						value = "";
+						textBlock.setLength(0);
 					} else {
-						value = value + "\n" + nextLine;
+						textBlock.append(line, 0, length);
 					}
 				} else {
 					// not in a text block
-					Matcher tagMatcher = this.tagPattern.matcher(nextLine);
-					if (tagMatcher.find()) {
-						tag = tagMatcher.group();
-						int startText = nextLine.indexOf(START_TEXT);
+					int tagLength = tagLength(line, length);
+					if (tagLength > 0) {
+						tag = tag(line, tagLength);
+						int startText = NoCommentInputStream.indexOf(line, length, START_TEXT);
 						if (startText > 0) {
-							value = nextLine.substring(startText + START_TEXT.length()).trim();
+							value = trimmed(line, startText + START_TEXT.length(), length);
+							textStartLine = textInput.getCurrentLineNo();
+							checkTextBlockLength(value.length(), tag, textStartLine);
 							if (value.contains(END_TEXT)) {
 								value = value.substring(0, value.indexOf(END_TEXT)).trim();
-								this.buildDocument.buildDocument(tag, value, textInput.getCurrentLineNo());
+								build(tag, value, textInput.getCurrentLineNo());
 								tag = "";
 								value = "";
 							} else {
+								textBlock.append(value);
+								value = "";
 								inTextBlock = true;
 							}
 						} else {
-							value = nextLine.substring(tag.length()).trim();
-							this.buildDocument.buildDocument(tag, value, textInput.getCurrentLineNo());
+							build(tag, trimmed(line, tagLength, length), textInput.getCurrentLineNo());
 							tag = "";
-							value = "";
-
 						}
 					} else {
 						// note - we just ignore any lines that do not start with a tag
 					}
 				}
-				nextLine = textInput.readLine();
 			}
 			if (inTextBlock) {
 				throw(new RecognitionException("Unterminated text block at line " + (textInput.getCurrentLineNo()) + " Expecting "+END_TEXT ));
 			}
+			metricsListener.linesRead(textInput.getCurrentLineNo());
+			TagValueEvents.get().endSection(section, null, TagValuePhase.BUILD, textInput.getCurrentLineNo(), 0);
+			if (timed) {
+				// the build time is estimated from the sampled tags and the lex time is the remainder
+				long totalNanos = System.nanoTime() - start;
+				long buildNanos = sampledBuildCount == 0 ? 0 : 
+					Math.min(totalNanos, (long)((double)sampledBuildNanos * buildCount / sampledBuildCount));
+				metricsListener.phaseCompleted(TagValuePhase.LEX, totalNanos - buildNanos);
+				metricsListener.phaseCompleted(TagValuePhase.BUILD, buildNanos);
+			}
 			this.buildDocument.exit();
 		} finally {
 			textInput.close();
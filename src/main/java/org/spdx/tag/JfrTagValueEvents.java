@@ -0,0 +1,288 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import javax.annotation.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder implementation of the tag/value events.  This class is only loaded by 
+ * <code>TagValueEvents</code> when the <code>jdk.jfr</code> module is available.
+ * 
+ * @author Gary O'Neall
+ */
+final class JfrTagValueEvents extends TagValueEvents {
+	
+	@Name("org.spdx.TagValueDeserialize")
+	@Label("Tag/Value Deserialize")
+	@Category({"SPDX", "Tag/Value"})
+	@Description("Deserialization of a tag/value document")
+	static final class DeserializeEvent extends Event {
+		@Label("Document URI")
+		String documentUri;
+		
+		@Label("Bytes Read")
+		@DataAmount
+		long bytesRead;
+		
+		@Label("Lines Read")
+		long linesRead;
+		
+		@Label("Elements")
+		@Description("Elements, licenses, annotations and relationships created")
+		long elements;
+		
+		@Label("Warnings")
+		int warnings;
+		
+		@Label("Cached")
+		@Description("Document was returned from the document cache or a snapshot")
+		boolean cached;
+	}
+	
+	@Name("org.spdx.TagValueSection")
+	@Label("Tag/Value Section")
+	@Category({"SPDX", "Tag/Value"})
+	@Description("Phase of processing a tag/value document - the BUILD section includes reading the lines")
+	@StackTrace(false)
+	static final class SectionEvent extends Event {
+		@Label("Document URI")
+		String documentUri;
+		
+		@Label("Phase")
+		String phase;
+		
+		@Label("Lines Read")
+		long lines;
+		
+		@Label("Elements")
+		@Description("Elements, licenses, annotations and relationships created - not counted for the BUILD section")
+		long elements;
+	}
+	
+	@Name("org.spdx.TagValueVerify")
+	@Label("Tag/Value Verify")
+	@Category({"SPDX", "Tag/Value"})
+	@Description("Verification of a deserialized tag/value document")
+	@StackTrace(false)
+	static final class VerifyEvent extends Event {
+		@Label("Document URI")
+		String documentUri;
+		
+		@Label("Elements")
+		long elements;
+		
+		@Label("Warnings")
+		int warnings;
+	}
+	
+	@Name("org.spdx.TagValueSerialize")
+	@Label("Tag/Value Serialize")
+	@Category({"SPDX", "Tag/Value"})
+	@Description("Serialization of tag/value documents")
+	static final class SerializeEvent extends Event {
+		@Label("Document URI")
+		@Description("Document serialized - empty if all documents in the store were serialized")
+		String documentUri;
+		
+		@Label("Bytes Written")
+		@DataAmount
+		long bytesWritten;
+		
+		@Label("Documents")
+		int documents;
+	}
+	
+	/**
+	 * Passes the metrics on to the application listener while counting the values for a deserialize event
+	 */
+	private static final class DeserializeRecording implements TagValueMetricsListener {
+		private final TagValueMetricsListener delegate;
+		private final DeserializeEvent event;
+		
+		DeserializeRecording(TagValueMetricsListener delegate, DeserializeEvent event) {
+			this.delegate = delegate;
+			this.event = event;
+		}
+
+		@Override
+		public void bytesRead(long bytes) {
+			event.bytesRead += bytes;
+			delegate.bytesRead(bytes);
+		}
+
+		@Override
+		public void linesRead(long lines) {
+			event.linesRead += lines;
+			delegate.linesRead(lines);
+		}
+
+		@Override
+		public void tagProcessed(String tag) {
+			delegate.tagProcessed(tag);
+		}
+
+		@Override
+		public void elementCreated(String kind) {
+			event.elements++;
+			delegate.elementCreated(kind);
+		}
+
+		@Override
+		public void licenseExpressionParsed() {
+			delegate.licenseExpressionParsed();
+		}
+
+		@Override
+		public void cacheHit(String cache) {
+			if ("document".equals(cache) || "snapshot".equals(cache)) {
+				event.cached = true;
+			}
+			delegate.cacheHit(cache);
+		}
+
+		@Override
+		public void warningEmitted(String warning) {
+			event.warnings++;
+			delegate.warningEmitted(warning);
+		}
+
+		@Override
+		public void objectsStaged(long count) {
+			delegate.objectsStaged(count);
+		}
+
+		@Override
+		public void phaseCompleted(TagValuePhase phase, long nanos) {
+			delegate.phaseCompleted(phase, nanos);
+		}
+	}
+	
+	JfrTagValueEvents() {
+		// created by TagValueEvents
+	}
+	
+	@Override
+	public boolean isAvailable() {
+		return true;
+	}
+	
+	@Override
+	public TagValueMetricsListener beginDeserialize(TagValueMetricsListener metrics) {
+		DeserializeEvent event = new DeserializeEvent();
+		if (!event.isEnabled()) {
+			return metrics;
+		}
+		event.begin();
+		return new DeserializeRecording(metrics, event);
+	}
+	
+	@Override
+	public void endDeserialize(TagValueMetricsListener metrics, @Nullable String documentUri) {
+		if (metrics instanceof DeserializeRecording) {
+			DeserializeEvent event = ((DeserializeRecording)metrics).event;
+			event.end();
+			if (event.shouldCommit()) {
+				event.documentUri = documentUri;
+				event.commit();
+			}
+		}
+	}
+	
+	@Override
+	public @Nullable Object beginSection() {
+		SectionEvent event = new SectionEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endSection(@Nullable Object event, @Nullable String documentUri, TagValuePhase phase,
+			long lines, long elements) {
+		if (event instanceof SectionEvent) {
+			SectionEvent section = (SectionEvent)event;
+			section.end();
+			if (section.shouldCommit()) {
+				section.documentUri = documentUri;
+				section.phase = phase.name();
+				section.lines = lines;
+				section.elements = elements;
+				section.commit();
+			}
+		}
+	}
+	
+	@Override
+	public @Nullable Object beginVerify() {
+		VerifyEvent event = new VerifyEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endVerify(@Nullable Object event, @Nullable String documentUri, long elements, int warnings) {
+		if (event instanceof VerifyEvent) {
+			VerifyEvent verify = (VerifyEvent)event;
+			verify.end();
+			if (verify.shouldCommit()) {
+				verify.documentUri = documentUri;
+				verify.elements = elements;
+				verify.warnings = warnings;
+				verify.commit();
+			}
+		}
+	}
+	
+	@Override
+	public @Nullable Object beginSerialize() {
+		SerializeEvent event = new SerializeEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void endSerialize(@Nullable Object event, @Nullable String documentUri, long bytesWritten, int documents) {
+		if (event instanceof SerializeEvent) {
+			SerializeEvent serialize = (SerializeEvent)event;
+			serialize.end();
+			if (serialize.shouldCommit()) {
+				serialize.documentUri = documentUri;
+				serialize.bytesWritten = bytesWritten;
+				serialize.documents = documents;
+				serialize.commit();
+			}
+		}
+	}
+}
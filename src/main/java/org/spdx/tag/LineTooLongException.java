@@ -0,0 +1,40 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+
+/**
+ * Thrown by <code>NoCommentInputStream</code> when a line exceeds the maximum line length.  The line
+ * is not read into memory.
+ *
+ * @author Gary O'Neall
+ */
+public class LineTooLongException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @param lineNumber number of the line
+	 * @param maxLineLength maximum number of characters in a line
+	 */
+	public LineTooLongException(int lineNumber, int maxLineLength) {
+		super("Line " + lineNumber + " exceeds the maximum line length of " + maxLineLength + " characters");
+	}
+}
@@ -18,10 +18,10 @@
  */
 package org.spdx.tag;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,12 +39,34 @@ public class NoCommentInputStream extends InputStream {
 	private static final CharSequence START_TEXT_TAG = "<text>";
 	private static final CharSequence END_TEXT_TAG = "</text>";
 	private static final char COMMENT_CHAR = '#';
+	private static final int CHAR_BUFFER_SIZE = 8192;
+	private static final int INITIAL_LINE_SIZE = 256;
 	private InputStream inputStream;
 	private InputStreamReader reader;
-	private BufferedReader bufferedReader;
+	private final int maxLineLength;
+	private final char[] charBuffer = new char[CHAR_BUFFER_SIZE];
+	private int charPos = 0;
+	private int charLimit = 0;
+	private boolean skipLineFeed = false;
+	/**
+	 * Characters of the current line - reused for every line
+	 */
+	private char[] line = new char[INITIAL_LINE_SIZE];
+	private int lineLength = 0;
+	private boolean endOfStream = false;
+	/**
+	 * The current line as a string - only created when requested
+	 */
 	private String currentLine;
-	private int bytesIndex;
+	/**
+	 * The current line encoded as UTF-8 - only created when read as bytes
+	 */
 	private byte[] currentBytes;
+	private int bytesIndex;
+	/**
+	 * True if the current line has been returned by <code>readLine</code> or <code>nextLine</code>
+	 */
+	private boolean lineConsumed = false;
 	boolean inText = false;
 	private int currentLineNo = 0;
 
@@ -53,37 +75,142 @@ public class NoCommentInputStream extends InputStream {
 	 * @throws IOException
 	 */
 	public NoCommentInputStream(InputStream in) throws IOException {
+		this(in, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param in Input stream containing the commented data
+	 * @param maxLineLength maximum number of characters in a line
+	 * @throws LineTooLongException if a line is longer than <code>maxLineLength</code>
+	 * @throws IOException
+	 */
+	public NoCommentInputStream(InputStream in, int maxLineLength) throws IOException {
 		this.inputStream = in;
 		this.reader = new InputStreamReader(inputStream, "UTF-8");
-		this.bufferedReader = new BufferedReader(reader);
+		this.maxLineLength = maxLineLength;
 		readNextLine();
 	}
 
+	/**
+	 * Reads a line terminated by a line feed, a carriage return or a carriage return followed by a line feed
+	 * in the same way as <code>BufferedReader.readLine()</code> into the line buffer, failing once the line 
+	 * exceeds the maximum length
+	 * @return false at the end of the stream
+	 * @throws LineTooLongException if the line is longer than the maximum line length
+	 * @throws IOException
+	 */
+	private boolean readPhysicalLine() throws IOException {
+		lineLength = 0;
+		while (true) {
+			if (charPos >= charLimit) {
+				charLimit = reader.read(charBuffer, 0, charBuffer.length);
+				charPos = 0;
+				if (charLimit <= 0) {
+					charLimit = 0;
+					return lineLength > 0;
+				}
+			}
+			if (skipLineFeed) {
+				skipLineFeed = false;
+				if (charBuffer[charPos] == '\n') {
+					charPos++;
+					continue;
+				}
+			}
+			int start = charPos;
+			while (charPos < charLimit && charBuffer[charPos] != '\n' && charBuffer[charPos] != '\r') {
+				charPos++;
+			}
+			int length = charPos - start;
+			if (lineLength + length > maxLineLength) {
+				throw new LineTooLongException(currentLineNo + 1, maxLineLength);
+			}
+			if (lineLength + length > line.length) {
+				line = Arrays.copyOf(line, Math.max(lineLength + length, 2 * line.length));
+			}
+			System.arraycopy(charBuffer, start, line, lineLength, length);
+			lineLength += length;
+			if (charPos < charLimit) {
+				// end of line
+				skipLineFeed = charBuffer[charPos++] == '\r';
+				return true;
+			}
+		}
+	}
+
 	/**
 	 * Reads the next line in the input stream, skipping empty lines and comments as necessary.
 	 * @throws IOException
 	 */
 	private void readNextLine() throws IOException {
+		currentLine = null;
+		currentBytes = null;
+		bytesIndex = 0;
+		lineConsumed = false;
 		do {
-			currentLine = bufferedReader.readLine();
-			if (currentLine == null) {
+			if (!readPhysicalLine()) {
+				endOfStream = true;
 				return;
 			}
 			currentLineNo++;
-		} while (!inText && (currentLine.length() == 0 || currentLine.charAt(0) == COMMENT_CHAR));
+		} while (!inText && (lineLength == 0 || line[0] == COMMENT_CHAR));
 
 		if (inText) {
-			if (currentLine.contains(END_TEXT_TAG)) {
+			if (indexOf(line, lineLength, END_TEXT_TAG) >= 0) {
 				inText = false;
 			}
 		} else {
-			if (currentLine.contains(START_TEXT_TAG) && !currentLine.contains(END_TEXT_TAG)) {
+			if (indexOf(line, lineLength, START_TEXT_TAG) >= 0 && indexOf(line, lineLength, END_TEXT_TAG) < 0) {
 				inText = true;
 			}
 		}
+	}
 
-		bytesIndex = 0;
-		currentBytes = currentLine.getBytes("UTF-8");
+	/**
+	 * @param chars characters to search
+	 * @param length number of characters to search
+	 * @param target text to search for
+	 * @return index of the first occurrence of the target in the characters or -1 if not found
+	 */
+	static int indexOf(char[] chars, int length, CharSequence target) {
+		int last = length - target.length();
+		char first = target.charAt(0);
+		for (int i = 0; i <= last; i++) {
+			if (chars[i] == first) {
+				int j = 1;
+				while (j < target.length() && chars[i + j] == target.charAt(j)) {
+					j++;
+				}
+				if (j == target.length()) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the current line as a string
+	 */
+	private String currentLine() {
+		if (currentLine == null) {
+			currentLine = new String(line, 0, lineLength);
+		}
+		return currentLine;
+	}
+
+	/**
+	 * @return true if all of the current line has been read
+	 * @throws IOException
+	 */
+	private boolean lineExhausted() throws IOException {
+		if (lineConsumed) {
+			return true;
+		}
+		if (currentBytes == null) {
+			currentBytes = currentLine().getBytes("UTF-8");
+		}
+		return bytesIndex >= currentBytes.length;
 	}
 
 	/* (non-Javadoc)
@@ -92,14 +219,14 @@ public class NoCommentInputStream extends InputStream {
 	@Override
 	public int read() throws IOException {
 		// Exit early on EOF.
-		if (currentLine == null) {
+		if (endOfStream) {
 			return -1;
 		}
 
 		// Fill the buffer if we ran out of bytes.
-		if (bytesIndex >= currentBytes.length) {
+		if (lineExhausted()) {
 			readNextLine();
-			if (currentLine == null) {
+			if (endOfStream) {
 				return -1;
 			} else {
 				// Before returning bytes from the newly filled buffer, return the new
@@ -114,13 +241,6 @@ public class NoCommentInputStream extends InputStream {
 
 	@Override
 	public void close() {
-		if (this.bufferedReader != null) {
-			try {
-				this.bufferedReader.close();
-			} catch (IOException e) {
-				logger.error("IO Error closing buffered reader: "+e.getMessage());
-			}
-		}
 		if (this.reader != null) {
 			try {
 				this.reader.close();
@@ -145,15 +265,47 @@ public class NoCommentInputStream extends InputStream {
 	}
 
 	public String readLine() throws IOException {
-		if (bytesIndex >= currentBytes.length) {
+		if (lineExhausted()) {
 			readNextLine();
 		}
-		if (currentLine == null) {
+		if (endOfStream) {
 			return null;
 		}
-		String retval = currentLine.substring(bytesIndex);
-		bytesIndex = currentBytes.length;
+		String retval = currentLine().substring(bytesIndex);
+		lineConsumed = true;
 		return retval;
 	}
 
+	/**
+	 * Advance to the next line without creating a string for the line.  The characters of the line are
+	 * available from <code>getLine()</code> until the next line is read.  Must not be mixed with reading
+	 * part of a line as bytes.
+	 * @return false at the end of the stream
+	 * @throws IOException
+	 */
+	boolean nextLine() throws IOException {
+		if (lineConsumed || lineLength == 0) {
+			readNextLine();
+		}
+		if (endOfStream) {
+			return false;
+		}
+		lineConsumed = true;
+		return true;
+	}
+
+	/**
+	 * @return buffer containing the characters of the current line - reused for the following lines
+	 */
+	char[] getLine() {
+		return line;
+	}
+
+	/**
+	 * @return number of characters in the current line
+	 */
+	int getLineLength() {
+		return lineLength;
+	}
+
 }
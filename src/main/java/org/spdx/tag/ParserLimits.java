@@ -0,0 +1,102 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Limits on the tag/value input accepted by the parser.  When a limit is exceeded the parser stops
+ * with a <code>ParserLimitExceededException</code> before the input can exhaust the heap.
+ * <p>
+ * All limits are unlimited by default.  The retained size is estimated using the same model as
+ * <code>FootprintEstimator</code>.
+ * 
+ * @author Gary O'Neall
+ */
+public class ParserLimits {
+	
+	private int maxLineLength = Integer.MAX_VALUE;
+	private int maxTextBlockLength = Integer.MAX_VALUE;
+	private long maxElementCount = Long.MAX_VALUE;
+	private long maxRetainedBytes = Long.MAX_VALUE;
+	
+	/**
+	 * @param maxLineLength maximum number of characters in a line
+	 */
+	public void setMaxLineLength(int maxLineLength) {
+		checkPositive(maxLineLength, "Maximum line length");
+		this.maxLineLength = maxLineLength;
+	}
+	
+	/**
+	 * @return maximum number of characters in a line
+	 */
+	public int getMaxLineLength() {
+		return maxLineLength;
+	}
+	
+	/**
+	 * @param maxTextBlockLength maximum number of characters in a <code>&lt;text&gt;</code> block
+	 */
+	public void setMaxTextBlockLength(int maxTextBlockLength) {
+		checkPositive(maxTextBlockLength, "Maximum text block length");
+		this.maxTextBlockLength = maxTextBlockLength;
+	}
+	
+	/**
+	 * @return maximum number of characters in a <code>&lt;text&gt;</code> block
+	 */
+	public int getMaxTextBlockLength() {
+		return maxTextBlockLength;
+	}
+	
+	/**
+	 * @param maxElementCount maximum number of elements, extracted licenses, relationships and annotations created
+	 */
+	public void setMaxElementCount(long maxElementCount) {
+		checkPositive(maxElementCount, "Maximum element count");
+		this.maxElementCount = maxElementCount;
+	}
+	
+	/**
+	 * @return maximum number of elements, extracted licenses, relationships and annotations created
+	 */
+	public long getMaxElementCount() {
+		return maxElementCount;
+	}
+	
+	/**
+	 * @param maxRetainedBytes maximum estimated number of bytes retained by the model for the document
+	 */
+	public void setMaxRetainedBytes(long maxRetainedBytes) {
+		checkPositive(maxRetainedBytes, "Maximum retained bytes");
+		this.maxRetainedBytes = maxRetainedBytes;
+	}
+	
+	/**
+	 * @return maximum estimated number of bytes retained by the model for the document
+	 */
+	public long getMaxRetainedBytes() {
+		return maxRetainedBytes;
+	}
+	
+	private static void checkPositive(long value, String name) {
+		if (value <= 0) {
+			throw new IllegalArgumentException(name + " must be positive");
+		}
+	}
+}
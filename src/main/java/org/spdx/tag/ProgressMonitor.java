@@ -0,0 +1,163 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Reports the progress of a tag/value deserialization and checks for cancellation.
+ * <p>
+ * The parser calls <code>lineRead</code> for each line and <code>BuildDocument</code> calls
+ * <code>phaseStarted</code> and <code>elementProcessed</code> while completing the document.  Progress is
+ * reported and the cancellation token checked at the start of each phase and every <code>CHECK_INTERVAL</code>
+ * lines or elements.
+ * 
+ * @author Gary O'Neall
+ */
+public class ProgressMonitor {
+	
+	/**
+	 * Monitor which reports nothing and is never cancelled
+	 */
+	public static final ProgressMonitor NONE = new ProgressMonitor(null, null, -1);
+	
+	/**
+	 * Number of lines or elements processed between checks
+	 */
+	static final int CHECK_INTERVAL = 1024;
+	
+	private final @Nullable TagValueProgressListener listener;
+	private final @Nullable CancellationToken cancellation;
+	private final LongSupplier bytesRead;
+	private final long totalBytes;
+	/**
+	 * False if there is nothing to report or check, in which case no state is kept
+	 */
+	private final boolean active;
+	private TagValuePhase phase = TagValuePhase.BUILD;
+	private int lineNumber = 0;
+	private int sinceCheck = 0;
+
+	/**
+	 * @param listener listener for the progress or null if progress is not reported
+	 * @param cancellation token checked for cancellation or null if the deserialization can not be cancelled
+	 * @param totalBytes total number of bytes of tag/value content or -1 if not known
+	 */
+	public ProgressMonitor(@Nullable TagValueProgressListener listener, @Nullable CancellationToken cancellation,
+			long totalBytes) {
+		this(listener, cancellation, () -> 0, totalBytes);
+	}
+	
+	private ProgressMonitor(@Nullable TagValueProgressListener listener, @Nullable CancellationToken cancellation,
+			LongSupplier bytesRead, long totalBytes) {
+		this.listener = listener;
+		this.cancellation = cancellation;
+		this.bytesRead = bytesRead;
+		this.totalBytes = totalBytes;
+		this.active = Objects.nonNull(listener) || Objects.nonNull(cancellation);
+	}
+	
+	/**
+	 * @param bytesRead supplies the number of bytes of the input read so far
+	 * @return a monitor with the same listener and cancellation token reporting the bytes read from the input
+	 */
+	public ProgressMonitor forInput(LongSupplier bytesRead) {
+		return active ? new ProgressMonitor(listener, cancellation, bytesRead, totalBytes) : this;
+	}
+	
+	/**
+	 * Called by the parser for each line read
+	 * @param lineNumber number of lines read
+	 * @throws TagValueCancelledException if the deserialization has been cancelled
+	 */
+	public void lineRead(int lineNumber) throws TagValueCancelledException {
+		if (!active) {
+			return;
+		}
+		this.lineNumber = lineNumber;
+		if (++sinceCheck >= CHECK_INTERVAL) {
+			check();
+		}
+	}
+	
+	/**
+	 * Called at the start of each phase
+	 * @param phase phase starting
+	 * @throws TagValueCancelledException if the deserialization has been cancelled
+	 */
+	public void phaseStarted(TagValuePhase phase) throws TagValueCancelledException {
+		if (!active) {
+			return;
+		}
+		this.phase = phase;
+		check();
+	}
+	
+	/**
+	 * Called for each block of content read before the content is parsed
+	 * @throws TagValueCancelledException if the deserialization has been cancelled
+	 */
+	public void contentRead() throws TagValueCancelledException {
+		if (active) {
+			check();
+		}
+	}
+	
+	/**
+	 * Called for each element, relationship or annotation processed after the lines are read
+	 * @throws TagValueCancelledException if the deserialization has been cancelled
+	 */
+	public void elementProcessed() throws TagValueCancelledException {
+		if (active && ++sinceCheck >= CHECK_INTERVAL) {
+			check();
+		}
+	}
+	
+	/**
+	 * @return true if the deserialization has been cancelled - used where the exception can not be thrown
+	 */
+	public boolean isCancelled() {
+		return Objects.nonNull(cancellation) && cancellation.isCancelled();
+	}
+	
+	/**
+	 * Check for cancellation without reporting progress
+	 * @throws TagValueCancelledException if the deserialization has been cancelled
+	 */
+	public void checkCancelled() throws TagValueCancelledException {
+		if (isCancelled()) {
+			throw new TagValueCancelledException("Deserialization cancelled at line " + lineNumber + " during " + phase);
+		}
+	}
+	
+	/**
+	 * Report the progress and check for cancellation
+	 * @throws TagValueCancelledException if the deserialization has been cancelled
+	 */
+	private void check() throws TagValueCancelledException {
+		sinceCheck = 0;
+		if (Objects.nonNull(listener)) {
+			listener.progress(bytesRead.getAsLong(), totalBytes, lineNumber, phase);
+		}
+		checkCancelled();
+	}
+}
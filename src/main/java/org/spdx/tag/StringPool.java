@@ -0,0 +1,196 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of weakly referenced strings used to share a single instance of equal values across
+ * deserialized documents.
+ * <p>
+ * The pool is a fixed size table where each string may be held in one of two slots selected by its hash.
+ * A string which is not found replaces a slot, so the pool never grows and never blocks.
+ * Pooled strings are only weakly referenced and are reclaimed once no document uses them.
+ * Strings longer than the maximum length are not pooled since long values rarely repeat.
+ * The bytes saved are estimated assuming compact strings, where Latin-1 strings use one byte per character.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @author Gary O'Neall
+ */
+public class StringPool {
+	
+	/**
+	 * Default number of slots in the pool
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	
+	/**
+	 * Default maximum length of a pooled string
+	 */
+	public static final int DEFAULT_MAX_LENGTH = 256;
+	
+	/**
+	 * Estimated bytes of a string object and its character array excluding the characters
+	 */
+	static final int STRING_OVERHEAD = 40;
+	
+	private static volatile StringPool globalPool = null;
+	
+	private final AtomicReferenceArray<WeakReference<String>> slots;
+	private final int mask;
+	private final int maxLength;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder bytesSaved = new LongAdder();
+	
+	/**
+	 * @return a pool with the default capacity shared by all users in the process
+	 */
+	public static StringPool getGlobal() {
+		StringPool retval = globalPool;
+		if (retval == null) {
+			synchronized (StringPool.class) {
+				retval = globalPool;
+				if (retval == null) {
+					retval = new StringPool(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+					globalPool = retval;
+				}
+			}
+		}
+		return retval;
+	}
+	
+	/**
+	 * @param capacity number of slots in the pool - rounded up to a power of two
+	 * @param maxLength strings longer than this are not pooled
+	 */
+	public StringPool(int capacity, int maxLength) {
+		if (capacity < 2 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("Invalid string pool capacity " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+		this.maxLength = maxLength;
+	}
+	
+	/**
+	 * @param s string value - may be null
+	 * @return an equal pooled instance if one exists, otherwise <code>s</code> which is added to the pool
+	 */
+	public String intern(String s) {
+		if (s == null || s.length() > maxLength) {
+			return s;
+		}
+		int hash = s.hashCode();
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		int first = hash & mask;
+		int second = first ^ 1;
+		String pooled = get(first);
+		if (s.equals(pooled)) {
+			return hit(s, pooled);
+		}
+		String pooledSecond = get(second);
+		if (s.equals(pooledSecond)) {
+			return hit(s, pooledSecond);
+		}
+		misses.increment();
+		// prefer a slot whose string has been reclaimed
+		slots.set(pooled != null && pooledSecond == null ? second : first, new WeakReference<>(s));
+		return s;
+	}
+	
+	private String get(int slot) {
+		WeakReference<String> ref = slots.get(slot);
+		return ref == null ? null : ref.get();
+	}
+	
+	private String hit(String s, String pooled) {
+		hits.increment();
+		if (s != pooled) {
+			bytesSaved.add(STRING_OVERHEAD + (isLatin1(s) ? 1L : 2L) * s.length());
+		}
+		return pooled;
+	}
+	
+	/**
+	 * @param s string value
+	 * @return true if every character is Latin-1 and the string is stored with one byte per character
+	 */
+	private static boolean isLatin1(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) > 0xff) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return number of strings which were found in the pool
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+	
+	/**
+	 * @return number of strings which were not found in the pool
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+	
+	/**
+	 * @return estimated number of bytes saved by returning a pooled instance in place of a duplicate string
+	 */
+	public long getBytesSaved() {
+		return bytesSaved.sum();
+	}
+	
+	/**
+	 * @return number of slots in the pool
+	 */
+	public int getCapacity() {
+		return mask + 1;
+	}
+	
+	/**
+	 * @return maximum length of a pooled string
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+	
+	/**
+	 * Remove all strings from the pool and reset the counts
+	 */
+	public void clear() {
+		for (int i = 0; i < slots.length(); i++) {
+			slots.set(i, null);
+		}
+		hits.reset();
+		misses.reset();
+		bytesSaved.reset();
+	}
+}
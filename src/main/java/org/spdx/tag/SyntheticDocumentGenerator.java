@@ -0,0 +1,492 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates valid SPDX 2.3 tag/value documents of a requested shape for scale and soak testing.
+ * <p>
+ * The output depends only on the seed and the shape, so the same document can be regenerated
+ * from its parameters.  The document is written as it is generated and nothing proportional to the
+ * document size is held in memory, so multi-gigabyte documents can be produced.
+ * <p>
+ * Relationships from files target every <code>ANCHOR_INTERVAL</code>th file of the same package.  The
+ * anchor files have no relationships of their own since verification follows relationship chains recursively.
+ * 
+ * @author Gary O'Neall
+ */
+public class SyntheticDocumentGenerator {
+	
+	/**
+	 * Interval between the files which are targets of the generated relationships
+	 */
+	public static final int ANCHOR_INTERVAL = 100;
+	
+	static final String[] LISTED_LICENSES = new String[] {"Apache-2.0", "MIT", "BSD-3-Clause", 
+			"GPL-2.0-only", "LGPL-2.1-or-later", "EPL-2.0", "MPL-2.0", "ISC"};
+	
+	static final String[] FILE_TYPES = new String[] {"SOURCE", "SOURCE", "SOURCE", "BINARY", "TEXT", 
+			"DOCUMENTATION", "ARCHIVE", "OTHER"};
+	
+	static final String[] EXTENSIONS = new String[] {".c", ".java", ".h", ".so", ".txt", ".md", ".jar", ".dat"};
+	
+	static final String[] RELATIONSHIP_TYPES = new String[] {"DEPENDS_ON", "GENERATED_FROM", 
+			"STATIC_LINK", "DYNAMIC_LINK", "TEST_OF", "OTHER"};
+	
+	static final String[] WORDS = new String[] {"the", "software", "license", "copyright", "holder", "source", 
+			"binary", "distribution", "notice", "permission", "warranty", "provided", "without", "modification", 
+			"conditions", "following", "retain", "above", "contributors", "express", "implied", "merchantability", 
+			"fitness", "purpose", "liability", "damages", "package", "component", "version", "release"};
+	
+	static final String CREATED = "2010-01-29T18:30:22Z";
+	
+	private final long seed;
+	private int packageCount = 1;
+	private int filesPerPackage = 10;
+	private int relationshipsPerFile = 1;
+	private double snippetRatio = 0.1;
+	private int textBlockLines = 3;
+	private int extractedLicenseCount = 5;
+	private double annotationRatio = 0.05;
+	private double commentRatio = 0.5;
+	
+	private Random random;
+	private long elementCount;
+	
+	/**
+	 * @param seed seed for the generated content
+	 */
+	public SyntheticDocumentGenerator(long seed) {
+		this.seed = seed;
+	}
+	
+	/**
+	 * @return the seed for the generated content
+	 */
+	public long getSeed() {
+		return seed;
+	}
+	
+	/**
+	 * @param packageCount number of packages
+	 */
+	public void setPackageCount(int packageCount) {
+		checkNotNegative(packageCount, "Package count");
+		this.packageCount = packageCount;
+	}
+	
+	/**
+	 * @return number of packages
+	 */
+	public int getPackageCount() {
+		return packageCount;
+	}
+	
+	/**
+	 * @param filesPerPackage number of files in each package
+	 */
+	public void setFilesPerPackage(int filesPerPackage) {
+		checkNotNegative(filesPerPackage, "Files per package");
+		this.filesPerPackage = filesPerPackage;
+	}
+	
+	/**
+	 * @return number of files in each package
+	 */
+	public int getFilesPerPackage() {
+		return filesPerPackage;
+	}
+	
+	/**
+	 * @param relationshipsPerFile number of relationships from each file which is not an anchor file
+	 */
+	public void setRelationshipsPerFile(int relationshipsPerFile) {
+		checkNotNegative(relationshipsPerFile, "Relationships per file");
+		this.relationshipsPerFile = relationshipsPerFile;
+	}
+	
+	/**
+	 * @return number of relationships from each file which is not an anchor file
+	 */
+	public int getRelationshipsPerFile() {
+		return relationshipsPerFile;
+	}
+	
+	/**
+	 * @param snippetRatio probability between 0 and 1 that a file has a snippet
+	 */
+	public void setSnippetRatio(double snippetRatio) {
+		checkRatio(snippetRatio, "Snippet ratio");
+		this.snippetRatio = snippetRatio;
+	}
+	
+	/**
+	 * @return probability that a file has a snippet
+	 */
+	public double getSnippetRatio() {
+		return snippetRatio;
+	}
+	
+	/**
+	 * @param textBlockLines number of lines in the notice, description and extracted license text blocks - 0 for no notices or descriptions
+	 */
+	public void setTextBlockLines(int textBlockLines) {
+		checkNotNegative(textBlockLines, "Text block lines");
+		this.textBlockLines = textBlockLines;
+	}
+	
+	/**
+	 * @return number of lines in the notice, description and extracted license text blocks
+	 */
+	public int getTextBlockLines() {
+		return textBlockLines;
+	}
+	
+	/**
+	 * @param extractedLicenseCount number of extracted licenses referenced by the packages, files and snippets
+	 */
+	public void setExtractedLicenseCount(int extractedLicenseCount) {
+		checkNotNegative(extractedLicenseCount, "Extracted license count");
+		this.extractedLicenseCount = extractedLicenseCount;
+	}
+	
+	/**
+	 * @return number of extracted licenses
+	 */
+	public int getExtractedLicenseCount() {
+		return extractedLicenseCount;
+	}
+	
+	/**
+	 * @param annotationRatio probability between 0 and 1 that an element has an annotation
+	 */
+	public void setAnnotationRatio(double annotationRatio) {
+		checkRatio(annotationRatio, "Annotation ratio");
+		this.annotationRatio = annotationRatio;
+	}
+	
+	/**
+	 * @return probability that an element has an annotation
+	 */
+	public double getAnnotationRatio() {
+		return annotationRatio;
+	}
+	
+	/**
+	 * @param commentRatio probability between 0 and 1 that an element or license has a comment
+	 */
+	public void setCommentRatio(double commentRatio) {
+		checkRatio(commentRatio, "Comment ratio");
+		this.commentRatio = commentRatio;
+	}
+	
+	/**
+	 * @return probability that an element or license has a comment
+	 */
+	public double getCommentRatio() {
+		return commentRatio;
+	}
+	
+	private static void checkNotNegative(int value, String name) {
+		if (value < 0) {
+			throw new IllegalArgumentException(name + " can not be negative");
+		}
+	}
+	
+	private static void checkRatio(double value, String name) {
+		if (!(value >= 0 && value <= 1)) {
+			throw new IllegalArgumentException(name + " must be between 0 and 1");
+		}
+	}
+	
+	/**
+	 * @return the namespace of the generated document
+	 */
+	public String getDocumentUri() {
+		return "https://spdx.org/spdxdocs/synthetic-" + Long.toHexString(seed) + "-" + packageCount + "x" + filesPerPackage;
+	}
+	
+	/**
+	 * Write the document as UTF-8.  The stream is flushed but not closed.
+	 * @param stream stream to write the document to
+	 * @return number of SPDX elements, including the document, in the generated document
+	 * @throws IOException on errors writing to the stream
+	 */
+	public long generate(OutputStream stream) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 65536);
+		long retval = generate(writer);
+		writer.flush();
+		return retval;
+	}
+	
+	/**
+	 * Write the document.  The writer is flushed but not closed.
+	 * @param out writer to write the document to
+	 * @return number of SPDX elements, including the document, in the generated document
+	 * @throws IOException on errors writing to the writer
+	 */
+	public synchronized long generate(Writer out) throws IOException {
+		random = new Random(seed);
+		elementCount = 1;
+		printDocument(out);
+		for (int p = 0; p < packageCount; p++) {
+			printPackage(out, p);
+			for (int f = 0; f < filesPerPackage; f++) {
+				printFile(out, p, f);
+			}
+		}
+		// snippets follow the packages so they are not taken as part of the last package
+		for (int p = 0; p < packageCount; p++) {
+			for (int f = 0; f < filesPerPackage; f++) {
+				if (hasSnippet(p, f)) {
+					printSnippet(out, p, f);
+				}
+			}
+		}
+		for (int i = 0; i < extractedLicenseCount; i++) {
+			printExtractedLicense(out, i);
+		}
+		out.flush();
+		return elementCount;
+	}
+	
+	/**
+	 * @param p package index
+	 * @param f file index within the package
+	 * @return true if the file has a snippet - independent of the order the files are visited
+	 */
+	private boolean hasSnippet(int p, int f) {
+		if (snippetRatio <= 0) {
+			return false;
+		}
+		long h = seed ^ ((long)p * 0x9E3779B97F4A7C15L) ^ ((long)f * 0xC2B2AE3D27D4EB4FL);
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return (h >>> 11) * 0x1.0p-53 < snippetRatio;
+	}
+	
+	private void printDocument(Writer out) throws IOException {
+		out.write("SPDXVersion: SPDX-2.3\n");
+		out.write("DataLicense: CC0-1.0\n");
+		out.write("DocumentNamespace: " + getDocumentUri() + "\n");
+		out.write("DocumentName: synthetic-" + packageCount + "x" + filesPerPackage + "\n");
+		out.write("SPDXID: SPDXRef-DOCUMENT\n");
+		printComment(out, "DocumentComment");
+		out.write("## Creation Information\n");
+		out.write("Creator: Tool: spdx-tagvalue-store-synthetic\n");
+		out.write("Created: " + CREATED + "\n");
+		printAnnotation(out, "SPDXRef-DOCUMENT");
+		out.write("## Relationships\n");
+		for (int p = 0; p < packageCount; p++) {
+			out.write("Relationship: SPDXRef-DOCUMENT DESCRIBES " + packageId(p) + "\n");
+		}
+		out.write("\n");
+	}
+	
+	private void printPackage(Writer out, int p) throws IOException {
+		elementCount++;
+		out.write("## Package Information\n");
+		out.write("PackageName: package-" + p + "\n");
+		out.write("SPDXID: " + packageId(p) + "\n");
+		out.write("PackageVersion: " + (1 + random.nextInt(9)) + "." + random.nextInt(20) + "." + random.nextInt(100) + "\n");
+		out.write("PackageFileName: package-" + p + ".tar.gz\n");
+		out.write("PackageSupplier: Organization: Supplier " + random.nextInt(1000) + "\n");
+		out.write("PackageDownloadLocation: https://example.com/packages/package-" + p + ".tar.gz\n");
+		if (filesPerPackage > 0) {
+			out.write("FilesAnalyzed: true\n");
+			out.write("PackageVerificationCode: " + hex(40) + "\n");
+		} else {
+			out.write("FilesAnalyzed: false\n");
+		}
+		out.write("PackageChecksum: SHA1: " + hex(40) + "\n");
+		out.write("PackageChecksum: SHA256: " + hex(64) + "\n");
+		out.write("PackageHomePage: https://example.com/package-" + p + "\n");
+		out.write("PackageLicenseConcluded: " + licenseExpression() + "\n");
+		if (filesPerPackage > 0) {
+			out.write("PackageLicenseInfoFromFiles: " + license() + "\n");
+		}
+		out.write("PackageLicenseDeclared: " + licenseExpression() + "\n");
+		out.write("PackageCopyrightText: " + copyright() + "\n");
+		if (textBlockLines > 0) {
+			out.write("PackageDescription: " + textBlock(textBlockLines) + "\n");
+		}
+		printComment(out, "PackageComment");
+		out.write("ExternalRef: PACKAGE-MANAGER purl pkg:generic/package-" + p + "@1.0\n");
+		printAnnotation(out, packageId(p));
+		out.write("\n");
+	}
+	
+	private void printFile(Writer out, int p, int f) throws IOException {
+		elementCount++;
+		String id = fileId(p, f);
+		int kind = random.nextInt(FILE_TYPES.length);
+		out.write("## File Information\n");
+		out.write("FileName: ./package-" + p + "/dir" + f / 50 + "/file" + f + EXTENSIONS[kind] + "\n");
+		out.write("SPDXID: " + id + "\n");
+		out.write("FileType: " + FILE_TYPES[kind] + "\n");
+		out.write("FileChecksum: SHA1: " + hex(40) + "\n");
+		out.write("LicenseConcluded: " + licenseExpression() + "\n");
+		out.write("LicenseInfoInFile: " + license() + "\n");
+		out.write("FileCopyrightText: " + copyright() + "\n");
+		if (textBlockLines > 0 && random.nextInt(4) == 0) {
+			out.write("FileNotice: " + textBlock(textBlockLines) + "\n");
+		}
+		printComment(out, "FileComment");
+		printAnnotation(out, id);
+		if (f % ANCHOR_INTERVAL != 0 && relationshipsPerFile > 0) {
+			out.write("## Relationships\n");
+			int anchor = f - f % ANCHOR_INTERVAL;
+			for (int r = 0; r < relationshipsPerFile; r++) {
+				int target = Math.max(0, anchor - r * ANCHOR_INTERVAL);
+				out.write("Relationship: " + id + " " + RELATIONSHIP_TYPES[r % RELATIONSHIP_TYPES.length] + " " + 
+						fileId(p, target) + "\n");
+			}
+		}
+		out.write("\n");
+	}
+	
+	private void printSnippet(Writer out, int p, int f) throws IOException {
+		elementCount++;
+		String id = "SPDXRef-Snippet-" + p + "-" + f;
+		int start = 1 + random.nextInt(10000);
+		int startLine = 1 + random.nextInt(500);
+		out.write("## Snippet Information\n");
+		out.write("SnippetSPDXID: " + id + "\n");
+		out.write("SnippetFromFileSPDXID: " + fileId(p, f) + "\n");
+		out.write("SnippetByteRange: " + start + ":" + (start + 1 + random.nextInt(2000)) + "\n");
+		out.write("SnippetLineRange: " + startLine + ":" + (startLine + 1 + random.nextInt(50)) + "\n");
+		out.write("SnippetLicenseConcluded: " + licenseExpression() + "\n");
+		out.write("LicenseInfoInSnippet: " + license() + "\n");
+		out.write("SnippetCopyrightText: " + copyright() + "\n");
+		printComment(out, "SnippetComment");
+		out.write("SnippetName: snippet-" + p + "-" + f + "\n");
+		printAnnotation(out, id);
+		out.write("\n");
+	}
+	
+	private void printExtractedLicense(Writer out, int i) throws IOException {
+		out.write("## License Information\n");
+		out.write("LicenseID: " + extractedLicenseId(i) + "\n");
+		out.write("ExtractedText: " + textBlock(Math.max(1, textBlockLines)) + "\n");
+		out.write("LicenseName: Synthetic License " + i + "\n");
+		out.write("LicenseCrossReference: https://example.com/licenses/" + i + "\n");
+		printComment(out, "LicenseComment");
+		out.write("\n");
+	}
+	
+	private void printComment(Writer out, String tag) throws IOException {
+		if (random.nextDouble() < commentRatio) {
+			out.write(tag + ": " + textBlock(1 + random.nextInt(3)) + "\n");
+		}
+	}
+	
+	private void printAnnotation(Writer out, String id) throws IOException {
+		if (random.nextDouble() < annotationRatio) {
+			out.write("## Annotations\n");
+			out.write("Annotator: Tool: spdx-tagvalue-store-synthetic\n");
+			out.write("AnnotationDate: " + CREATED + "\n");
+			out.write("AnnotationComment: " + textBlock(1) + "\n");
+			out.write("AnnotationType: " + (random.nextBoolean() ? "REVIEW" : "OTHER") + "\n");
+			out.write("SPDXREF: " + id + "\n");
+		}
+	}
+	
+	private static String packageId(int p) {
+		return "SPDXRef-Package-" + p;
+	}
+	
+	private static String fileId(int p, int f) {
+		return "SPDXRef-File-" + p + "-" + f;
+	}
+	
+	private static String extractedLicenseId(int i) {
+		return "LicenseRef-synthetic-" + i;
+	}
+	
+	/**
+	 * @return a single listed or extracted license ID
+	 */
+	private String license() {
+		if (extractedLicenseCount > 0 && random.nextInt(5) == 0) {
+			return extractedLicenseId(random.nextInt(extractedLicenseCount));
+		}
+		return LISTED_LICENSES[random.nextInt(LISTED_LICENSES.length)];
+	}
+	
+	/**
+	 * @return a license ID or a disjunctive or conjunctive expression of two licenses
+	 */
+	private String licenseExpression() {
+		switch (random.nextInt(6)) {
+			case 0: return "(" + license() + " OR " + license() + ")";
+			case 1: return "(" + license() + " AND " + license() + ")";
+			case 2: return "NOASSERTION";
+			default: return license();
+		}
+	}
+	
+	private String copyright() {
+		if (random.nextInt(8) == 0) {
+			return "NOASSERTION";
+		}
+		return "<text>Copyright (c) " + (1990 + random.nextInt(35)) + " Contributor " + random.nextInt(10000) + "</text>";
+	}
+	
+	/**
+	 * @param lines number of lines
+	 * @return a text block of random words
+	 */
+	private String textBlock(int lines) {
+		StringBuilder sb = new StringBuilder("<text>");
+		for (int line = 0; line < lines; line++) {
+			if (line > 0) {
+				sb.append('\n');
+			}
+			int words = 4 + random.nextInt(10);
+			for (int w = 0; w < words; w++) {
+				if (w > 0) {
+					sb.append(' ');
+				}
+				sb.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+		}
+		sb.append("</text>");
+		return sb.toString();
+	}
+	
+	/**
+	 * @param digits number of hex digits
+	 * @return random lower case hex string
+	 */
+	private String hex(int digits) {
+		StringBuilder sb = new StringBuilder(digits);
+		for (int i = 0; i < digits; i++) {
+			sb.append(Character.forDigit(random.nextInt(16), 16));
+		}
+		return sb.toString();
+	}
+}
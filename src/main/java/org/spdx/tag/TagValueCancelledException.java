@@ -0,0 +1,38 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+
+/**
+ * Thrown when a tag/value deserialization is cancelled through a <code>CancellationToken</code>
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueCancelledException extends InvalidSPDXAnalysisException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @param msg message
+	 */
+	public TagValueCancelledException(String msg) {
+		super(msg);
+	}
+}
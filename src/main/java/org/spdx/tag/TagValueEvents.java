@@ -0,0 +1,146 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import javax.annotation.Nullable;
+
+/**
+ * JDK Flight Recorder events for tag/value processing.
+ * <p>
+ * The events are <code>org.spdx.TagValueDeserialize</code>, <code>org.spdx.TagValueSection</code>, 
+ * <code>org.spdx.TagValueVerify</code> and <code>org.spdx.TagValueSerialize</code>.  They are recorded
+ * when the JVM includes the <code>jdk.jfr</code> module and the events are enabled in a recording.
+ * Otherwise this no-op implementation is used so the library still runs on JVMs without Flight Recorder.
+ * <p>
+ * The <code>begin</code> methods return null when the event is not enabled, and the <code>end</code>
+ * methods ignore a null event, so a disabled event costs a single check.
+ * 
+ * @author Gary O'Neall
+ */
+public class TagValueEvents {
+	
+	private static final String JFR_EVENTS_CLASS = "org.spdx.tag.JfrTagValueEvents";
+	
+	private static final TagValueEvents INSTANCE = load();
+	
+	/**
+	 * @return the Flight Recorder events if available, otherwise events which are never recorded
+	 */
+	private static TagValueEvents load() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (TagValueEvents)Class.forName(JFR_EVENTS_CLASS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return new TagValueEvents();
+		}
+	}
+	
+	/**
+	 * @return the events for this JVM
+	 */
+	public static TagValueEvents get() {
+		return INSTANCE;
+	}
+	
+	TagValueEvents() {
+		// use get()
+	}
+	
+	/**
+	 * @return true if the events can be recorded on this JVM
+	 */
+	public boolean isAvailable() {
+		return false;
+	}
+	
+	/**
+	 * Begin a deserialize event.  The returned listener counts the elements created, warnings and
+	 * cache hits for the event and passes all metrics on to <code>metrics</code>.
+	 * @param metrics listener for the deserialization metrics
+	 * @return listener to use for the deserialization - <code>metrics</code> if the event is not enabled
+	 */
+	public TagValueMetricsListener beginDeserialize(TagValueMetricsListener metrics) {
+		return metrics;
+	}
+	
+	/**
+	 * Commit a deserialize event begun with <code>beginDeserialize</code>
+	 * @param metrics listener returned by <code>beginDeserialize</code>
+	 * @param documentUri namespace of the document deserialized or null if the deserialization failed
+	 */
+	public void endDeserialize(TagValueMetricsListener metrics, @Nullable String documentUri) {
+		// not recorded
+	}
+	
+	/**
+	 * @return a section event or null if the event is not enabled
+	 */
+	public @Nullable Object beginSection() {
+		return null;
+	}
+	
+	/**
+	 * Commit a section event
+	 * @param event event returned by <code>beginSection</code>
+	 * @param documentUri namespace of the document or null if not known
+	 * @param phase phase of the section
+	 * @param lines number of lines read in the section
+	 * @param elements number of elements created in the section
+	 */
+	public void endSection(@Nullable Object event, @Nullable String documentUri, TagValuePhase phase,
+			long lines, long elements) {
+		// not recorded
+	}
+	
+	/**
+	 * @return a verify event or null if the event is not enabled
+	 */
+	public @Nullable Object beginVerify() {
+		return null;
+	}
+	
+	/**
+	 * Commit a verify event
+	 * @param event event returned by <code>beginVerify</code>
+	 * @param documentUri namespace of the document
+	 * @param elements number of elements created for the document
+	 * @param warnings number of warnings for the document
+	 */
+	public void endVerify(@Nullable Object event, @Nullable String documentUri, long elements, int warnings) {
+		// not recorded
+	}
+	
+	/**
+	 * @return a serialize event or null if the event is not enabled
+	 */
+	public @Nullable Object beginSerialize() {
+		return null;
+	}
+	
+	/**
+	 * Commit a serialize event
+	 * @param event event returned by <code>beginSerialize</code>
+	 * @param documentUri namespace of the document or null if all documents in the store were serialized
+	 * @param bytesWritten number of bytes of tag/value content written
+	 * @param documents number of documents serialized
+	 */
+	public void endSerialize(@Nullable Object event, @Nullable String documentUri, long bytesWritten, int documents) {
+		// not recorded
+	}
+}
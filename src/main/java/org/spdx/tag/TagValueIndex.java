@@ -0,0 +1,630 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+
+/**
+ * Index of the byte ranges for the elements in a tag/value file.
+ * <p>
+ * The file is scanned once without parsing any property values.  Each package, file and snippet
+ * definition is recorded as a section identified by its SPDX ID.  The document level properties,
+ * extracted licenses and any elements without an SPDX ID make up the header.  Relationships and annotations
+ * are also recorded by the ID of their source element so that they can be included with the element
+ * wherever they appear in the file.
+ * <p>
+ * The header and the elements can then be read as separate tag/value fragments and parsed
+ * using <code>BuildDocument</code> in fragment mode.
+ *
+ * @author Gary O'Neall
+ */
+public class TagValueIndex implements Closeable {
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final byte[] START_TEXT = "<text>".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] END_TEXT = "</text>".getBytes(StandardCharsets.US_ASCII);
+	static final String DEFAULT_DESCRIBES_COMMENT = "This describes relationship was added as a default relationship by the SPDX Tools Tag parser.";
+	
+	/**
+	 * Byte range of a package, file or snippet definition
+	 */
+	private static class Section {
+		final String type;
+		String id = null;
+		final long start;
+		long end;
+		/**
+		 * IDs of the files following a package definition which are contained in the package
+		 */
+		List<String> containedFileIds = null;
+		/**
+		 * Another definition using the same SPDX ID
+		 */
+		Section duplicate = null;
+		
+		Section(String type, long start, long end) {
+			this.type = type;
+			this.start = start;
+			this.end = end;
+		}
+	}
+	
+	/**
+	 * Byte range of a relationship or annotation
+	 */
+	private static class Statement {
+		final long start;
+		long end;
+		/**
+		 * Section containing the statement - null if the statement is in the header
+		 */
+		final Section container;
+		
+		Statement(long start, long end, Section container) {
+			this.start = start;
+			this.end = end;
+			this.container = container;
+		}
+	}
+	
+	/**
+	 * A tag and its value, including any multi-line text
+	 */
+	private static class Item {
+		String tag;
+		String value;
+		long start;
+		long end;
+	}
+	
+	/**
+	 * Reads lines from the file keeping track of the byte offsets
+	 */
+	private static class LineReader {
+		private final InputStream in;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private int pos = 0;
+		private int limit = 0;
+		private long position = 0;
+		byte[] line = new byte[256];
+		int lineLength = 0;
+		long lineStart = 0;
+		
+		LineReader(InputStream in) {
+			this.in = in;
+		}
+		
+		/**
+		 * Read the next line excluding the line terminator
+		 * @return false at the end of the file
+		 * @throws IOException
+		 */
+		boolean next() throws IOException {
+			lineStart = position;
+			lineLength = 0;
+			boolean found = false;
+			while (true) {
+				if (pos >= limit) {
+					limit = in.read(buffer, 0, buffer.length);
+					pos = 0;
+					if (limit <= 0) {
+						limit = 0;
+						break;
+					}
+				}
+				byte b = buffer[pos++];
+				position++;
+				found = true;
+				if (b == '\n') {
+					break;
+				}
+				if (lineLength == line.length) {
+					byte[] newLine = new byte[line.length * 2];
+					System.arraycopy(line, 0, newLine, 0, lineLength);
+					line = newLine;
+				}
+				line[lineLength++] = b;
+			}
+			if (lineLength > 0 && line[lineLength - 1] == '\r') {
+				lineLength--;
+			}
+			return found;
+		}
+		
+		/**
+		 * @return offset following the current line
+		 */
+		long getLineEnd() {
+			return position;
+		}
+		
+		/**
+		 * @param target bytes to find
+		 * @param from starting index in the line
+		 * @return index of the target in the current line or -1 if not found
+		 */
+		int indexOf(byte[] target, int from) {
+			for (int i = from; i <= lineLength - target.length; i++) {
+				int j = 0;
+				while (j < target.length && line[i + j] == target[j]) {
+					j++;
+				}
+				if (j == target.length) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		
+		/**
+		 * @return length of the tag at the start of the line including the colon or 0 if the line does not start with a tag
+		 */
+		int tagLength() {
+			int i = 0;
+			while (i < lineLength && isWordByte(line[i])) {
+				i++;
+			}
+			return i > 0 && i < lineLength && line[i] == ':' ? i + 1 : 0;
+		}
+		
+		private static boolean isWordByte(byte b) {
+			return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_';
+		}
+	}
+	
+	private final FileChannel channel;
+	private final boolean endsWithNewLine;
+	private String documentNamespace = null;
+	private final List<long[]> headerRanges = new ArrayList<>();
+	private final Map<String, Section> sections = new LinkedHashMap<>();
+	private final Map<String, List<Statement>> statements = new HashMap<>();
+	private String firstPackageId = null;
+	private boolean hasDocumentDescribes = false;
+	
+	private final String packageNameTag;
+	private final String fileNameTag;
+	private final String snippetIdTag;
+	private final String licenseIdTag;
+	private final String elementIdTag;
+	private final String namespaceTag;
+	private final String relationshipTag;
+	private final String relationshipCommentTag;
+	private final String annotatorTag;
+	private final String annotationIdTag;
+	private final Set<String> annotationTags;
+	private final Set<String> packageTags;
+	private final Set<String> fileTags;
+	private final Set<String> snippetTags;
+	private final Set<String> extractedLicenseTags;
+	
+	/**
+	 * Index a tag/value file.  The file remains open until the index is closed.
+	 * @param file tag/value file
+	 * @param constants tag/value constants
+	 * @throws IOException on errors reading the file
+	 * @throws InvalidSpdxTagFileException if the file is missing a document namespace or is otherwise not a valid tag/value file
+	 */
+	public TagValueIndex(File file, Properties constants) throws IOException, InvalidSpdxTagFileException {
+		this.packageNameTag = constants.getProperty("PROP_PACKAGE_DECLARED_NAME");
+		this.fileNameTag = constants.getProperty("PROP_FILE_NAME");
+		this.snippetIdTag = constants.getProperty("PROP_SNIPPET_SPDX_ID");
+		this.licenseIdTag = constants.getProperty("PROP_LICENSE_ID");
+		this.elementIdTag = constants.getProperty("PROP_ELEMENT_ID");
+		this.namespaceTag = constants.getProperty("PROP_DOCUMENT_NAMESPACE");
+		this.relationshipTag = constants.getProperty("PROP_RELATIONSHIP");
+		this.relationshipCommentTag = constants.getProperty("PROP_RELATIONSHIP_COMMENT");
+		this.annotatorTag = constants.getProperty("PROP_ANNOTATOR");
+		this.annotationIdTag = constants.getProperty("PROP_ANNOTATION_ID");
+		this.annotationTags = BuildDocument.annotationTags(constants);
+		this.packageTags = BuildDocument.packageTags(constants);
+		this.fileTags = BuildDocument.fileTags(constants);
+		this.snippetTags = BuildDocument.snippetTags(constants);
+		this.extractedLicenseTags = BuildDocument.extractedLicenseTags(constants);
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		boolean success = false;
+		try {
+			scan();
+			if (Objects.isNull(documentNamespace)) {
+				throw new InvalidSpdxTagFileException("Missing document namespace");
+			}
+			if (!hasDocumentDescribes && Objects.isNull(firstPackageId)) {
+				throw new InvalidSpdxTagFileException("Missing describes relationship and there is no package to create a default - see SPDX specification relationship section under DESCRIBES relationship description for more information");
+			}
+			ByteBuffer last = ByteBuffer.allocate(1);
+			endsWithNewLine = channel.size() == 0 || (channel.read(last, channel.size() - 1) == 1 && last.get(0) == '\n');
+			success = true;
+		} finally {
+			if (!success) {
+				channel.close();
+			}
+		}
+	}
+	
+	private void scan() throws IOException, InvalidSpdxTagFileException {
+		LineReader reader = new LineReader(new ChannelInput(channel));
+		Section currentSection = null;
+		boolean inExtractedLicense = false;
+		Section currentPackage = null;
+		Statement currentRelationship = null;
+		Statement currentAnnotation = null;
+		Item item = new Item();
+		while (nextItem(reader, item)) {
+			String tag = item.tag;
+			Statement continuedStatement = null;
+			if (tag.equals(relationshipTag)) {
+				continuedStatement = addRelationship(item, currentSection);
+				currentRelationship = continuedStatement;
+			} else if (tag.equals(relationshipCommentTag) && Objects.nonNull(currentRelationship)) {
+				currentRelationship.end = item.end;
+				continuedStatement = currentRelationship;
+			} else if (tag.equals(annotatorTag)) {
+				currentAnnotation = new Statement(item.start, item.end, currentSection);
+				addStatement(null, currentAnnotation);
+				continuedStatement = currentAnnotation;
+			} else if (annotationTags.contains(tag) && Objects.nonNull(currentAnnotation)) {
+				currentAnnotation.end = item.end;
+				if (tag.equals(annotationIdTag)) {
+					moveStatement(currentAnnotation, item.value);
+				}
+				continuedStatement = currentAnnotation;
+			}
+			if (continuedStatement != currentRelationship) {
+				currentRelationship = null;
+			}
+			if (continuedStatement != currentAnnotation) {
+				currentAnnotation = null;
+			}
+			
+			if (tag.equals(packageNameTag)) {
+				currentSection = new Section(SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, item.start, item.end);
+				currentPackage = currentSection;
+				inExtractedLicense = false;
+			} else if (tag.equals(fileNameTag)) {
+				currentSection = new Section(SpdxConstantsCompatV2.CLASS_SPDX_FILE, item.start, item.end);
+				if (Objects.nonNull(currentPackage)) {
+					currentSection.containedFileIds = Collections.emptyList();	// marks the file as contained in the current package
+				}
+				inExtractedLicense = false;
+			} else if (tag.equals(snippetIdTag)) {
+				currentSection = new Section(SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET, item.start, item.end);
+				addSection(currentSection, item.value, currentPackage);
+				inExtractedLicense = false;
+			} else if (Objects.nonNull(currentSection) && sectionTags(currentSection).contains(tag)) {
+				currentSection.end = item.end;
+				if (tag.equals(elementIdTag) && Objects.isNull(currentSection.id)) {
+					addSection(currentSection, item.value, currentPackage);
+				}
+			} else {
+				if (Objects.nonNull(currentSection) && Objects.isNull(currentSection.id)) {
+					// elements without an ID are parsed with the header
+					addHeaderRange(currentSection.start, currentSection.end);
+				}
+				currentSection = null;
+				if (tag.equals(licenseIdTag)) {
+					inExtractedLicense = true;
+				} else if (!inExtractedLicense || !extractedLicenseTags.contains(tag)) {
+					inExtractedLicense = false;
+				}
+				if (tag.equals(namespaceTag)) {
+					if (Objects.nonNull(documentNamespace)) {
+						throw new InvalidSpdxTagFileException("More than one document namespace was specified");
+					}
+					documentNamespace = item.value;
+				}
+				addHeaderRange(item.start, item.end);
+			}
+		}
+		if (Objects.nonNull(currentSection) && Objects.isNull(currentSection.id)) {
+			addHeaderRange(currentSection.start, currentSection.end);
+		}
+	}
+	
+	/**
+	 * @param section section
+	 * @return tags which continue the section
+	 */
+	private Set<String> sectionTags(Section section) {
+		switch (section.type) {
+			case SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE: return packageTags;
+			case SpdxConstantsCompatV2.CLASS_SPDX_FILE: return fileTags;
+			default: return snippetTags;
+		}
+	}
+	
+	/**
+	 * Add a section once its ID is known
+	 * @param section section
+	 * @param id SPDX ID of the element
+	 * @param currentPackage package preceding the section
+	 */
+	private void addSection(Section section, String id, Section currentPackage) {
+		section.id = id;
+		if (SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE.equals(section.type) && Objects.isNull(firstPackageId)) {
+			firstPackageId = id;
+		}
+		if (Objects.nonNull(section.containedFileIds)) {
+			section.containedFileIds = null;
+			if (Objects.nonNull(currentPackage) && Objects.nonNull(currentPackage.id)) {
+				if (Objects.isNull(currentPackage.containedFileIds)) {
+					currentPackage.containedFileIds = new ArrayList<>();
+				}
+				currentPackage.containedFileIds.add(id);
+			}
+		}
+		Section existing = sections.putIfAbsent(id, section);
+		if (Objects.nonNull(existing)) {
+			while (Objects.nonNull(existing.duplicate)) {
+				existing = existing.duplicate;
+			}
+			existing.duplicate = section;
+		}
+	}
+	
+	private Statement addRelationship(Item item, Section container) {
+		Statement statement = new Statement(item.start, item.end, container);
+		String[] parts = item.value.trim().split("\\s+");
+		addStatement(parts[0], statement);
+		if (parts.length > 1 && SpdxConstantsCompatV2.SPDX_DOCUMENT_ID.equals(parts[0]) && "DESCRIBES".equals(parts[1])) {
+			hasDocumentDescribes = true;
+		}
+		return statement;
+	}
+	
+	/**
+	 * @param sourceId ID of the source element - null if not yet known
+	 * @param statement statement
+	 */
+	private void addStatement(String sourceId, Statement statement) {
+		List<Statement> sourceStatements = statements.get(sourceId);
+		if (Objects.isNull(sourceStatements)) {
+			sourceStatements = new ArrayList<>(1);
+			statements.put(sourceId, sourceStatements);
+		}
+		sourceStatements.add(statement);
+	}
+	
+	/**
+	 * Move an annotation to its source once the source ID is known
+	 * @param statement annotation
+	 * @param sourceId source element ID
+	 */
+	private void moveStatement(Statement statement, String sourceId) {
+		List<Statement> unknown = statements.get(null);
+		if (Objects.nonNull(unknown) && unknown.remove(statement)) {
+			if (unknown.isEmpty()) {
+				statements.remove(null);
+			}
+			addStatement(sourceId, statement);
+		}
+	}
+	
+	private void addHeaderRange(long start, long end) {
+		if (!headerRanges.isEmpty()) {
+			long[] last = headerRanges.get(headerRanges.size() - 1);
+			if (last[1] == start) {
+				last[1] = end;
+				return;
+			}
+		}
+		headerRanges.add(new long[] {start, end});
+	}
+	
+	/**
+	 * Read the next tag and value skipping comments and any lines which do not start with a tag
+	 * @param reader line reader
+	 * @param item updated with the next item
+	 * @return false if there are no more items
+	 * @throws IOException
+	 */
+	private boolean nextItem(LineReader reader, Item item) throws IOException {
+		while (reader.next()) {
+			if (reader.lineLength == 0 || reader.line[0] == '#') {
+				continue;
+			}
+			int tagLength = reader.tagLength();
+			if (tagLength == 0) {
+				continue;
+			}
+			item.tag = new String(reader.line, 0, tagLength, StandardCharsets.US_ASCII) + " ";
+			item.start = reader.lineStart;
+			int startText = reader.indexOf(START_TEXT, 0);
+			if (startText > 0 && reader.indexOf(END_TEXT, startText) < 0) {
+				// multi-line text - the value is only needed for single line values
+				item.value = "";
+				while (reader.next() && reader.indexOf(END_TEXT, 0) < 0) {
+					// skip to the end of the text
+				}
+			} else {
+				item.value = new String(reader.line, tagLength, reader.lineLength - tagLength, StandardCharsets.UTF_8).trim();
+			}
+			item.end = reader.getLineEnd();
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return the document namespace
+	 */
+	public String getDocumentNamespace() {
+		return documentNamespace;
+	}
+	
+	/**
+	 * @return the SPDX IDs of the indexed elements in the order they are defined
+	 */
+	public Set<String> getElementIds() {
+		return Collections.unmodifiableSet(sections.keySet());
+	}
+	
+	/**
+	 * @param id SPDX ID of an element
+	 * @return the type of the element if it is defined in the file
+	 */
+	public Optional<String> getElementType(String id) {
+		Section section = sections.get(id);
+		return Objects.isNull(section) ? Optional.empty() : Optional.of(section.type);
+	}
+	
+	/**
+	 * @return number of indexed elements
+	 */
+	public int size() {
+		return sections.size();
+	}
+	
+	/**
+	 * The header contains the document properties, extracted licenses and any elements without an SPDX ID
+	 * along with the relationships and annotations for the document.  A default describes relationship
+	 * is added if the document does not describe any element.
+	 * @return tag/value fragment for the document header
+	 * @throws IOException on errors reading the file
+	 */
+	public InputStream openHeader() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (long[] range:headerRanges) {
+			copy(range[0], range[1], out);
+		}
+		copyStatements(SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, null, out);
+		copyStatements(null, null, out);
+		if (!hasDocumentDescribes) {
+			write(relationshipTag + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID + " DESCRIBES " + firstPackageId + "\n", out);
+			write(relationshipCommentTag + "<text>" + DEFAULT_DESCRIBES_COMMENT + "</text>\n", out);
+		}
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+	
+	/**
+	 * The fragment contains the document namespace followed by the element definition and any relationships
+	 * and annotations for the element defined elsewhere in the file
+	 * @param id SPDX ID of the element
+	 * @return tag/value fragment for the element
+	 * @throws IOException on errors reading the file
+	 */
+	public InputStream openElement(String id) throws IOException {
+		Section section = sections.get(id);
+		if (Objects.isNull(section)) {
+			throw new IOException("Element "+id+" is not defined in "+documentNamespace);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write(namespaceTag + documentNamespace + "\n", out);
+		for (Section s = section; Objects.nonNull(s); s = s.duplicate) {
+			copy(s.start, s.end, out);
+			copyStatements(id, s, out);
+			if (Objects.nonNull(s.containedFileIds)) {
+				for (String fileId:s.containedFileIds) {
+					write(relationshipTag + id + " CONTAINS " + fileId + "\n", out);
+				}
+			}
+		}
+		return new ByteArrayInputStream(out.toByteArray());
+	}
+	
+	/**
+	 * Copy the statements for a source element which are not in the element's section
+	 * @param sourceId ID of the source element
+	 * @param section section already copied - null for the header
+	 * @param out output
+	 * @throws IOException
+	 */
+	private void copyStatements(String sourceId, Section section, ByteArrayOutputStream out) throws IOException {
+		List<Statement> sourceStatements = statements.get(sourceId);
+		if (Objects.nonNull(sourceStatements)) {
+			for (Statement statement:sourceStatements) {
+				if (statement.container != section) {
+					copy(statement.start, statement.end, out);
+				}
+			}
+		}
+	}
+	
+	private void copy(long start, long end, ByteArrayOutputStream out) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int)(end - start));
+		long position = start;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("Unexpected end of file at "+position);
+			}
+			position += read;
+		}
+		out.write(buffer.array(), 0, buffer.position());
+		if (!endsWithNewLine && end == channel.size()) {
+			out.write('\n');
+		}
+	}
+	
+	private static void write(String s, ByteArrayOutputStream out) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.write(bytes, 0, bytes.length);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+	/**
+	 * Sequential input from a file channel which does not change the channel position
+	 */
+	private static class ChannelInput extends InputStream {
+		private final FileChannel channel;
+		private long position = 0;
+		
+		ChannelInput(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = channel.read(ByteBuffer.wrap(b, off, len), position);
+			if (read > 0) {
+				position += read;
+			}
+			return read;
+		}
+	}
+}
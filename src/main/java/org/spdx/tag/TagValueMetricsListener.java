@@ -0,0 +1,102 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Receives metrics for parsing and serializing tag/value documents.
+ * <p>
+ * All methods have empty default implementations so listeners only implement the metrics they need.
+ * Methods may be called concurrently when documents are processed in parallel and must not throw exceptions.
+ * Phase timings are only measured when a listener other than <code>NO_OP</code> is set.  <code>TagValueStore</code> 
+ * always sets a listener when deserializing to collect the <code>LoadStats</code>.
+ * 
+ * @author Gary O'Neall
+ */
+public interface TagValueMetricsListener {
+	
+	/**
+	 * Listener which ignores all metrics
+	 */
+	TagValueMetricsListener NO_OP = new TagValueMetricsListener() {};
+	
+	/**
+	 * @param bytes number of bytes of tag/value content read
+	 */
+	default void bytesRead(long bytes) {
+		// default - ignore
+	}
+	
+	/**
+	 * @param lines number of lines of tag/value content read
+	 */
+	default void linesRead(long lines) {
+		// default - ignore
+	}
+	
+	/**
+	 * @param tag tag including the trailing colon which was processed
+	 */
+	default void tagProcessed(String tag) {
+		// default - ignore
+	}
+	
+	/**
+	 * @param kind SPDX class name of the element, license, annotation or relationship created
+	 */
+	default void elementCreated(String kind) {
+		// default - ignore
+	}
+	
+	/**
+	 * Called each time a license expression is parsed
+	 */
+	default void licenseExpressionParsed() {
+		// default - ignore
+	}
+	
+	/**
+	 * @param cache name of the cache which returned a value, e.g. <code>document</code>, <code>snapshot</code> or <code>stringPool</code>
+	 */
+	default void cacheHit(String cache) {
+		// default - ignore
+	}
+	
+	/**
+	 * @param warning warning message reported for a deserialized document
+	 */
+	default void warningEmitted(String warning) {
+		// default - ignore
+	}
+	
+	/**
+	 * Called once all elements of a document are defined
+	 * @param count number of relationships, annotations, file dependencies and snippet ranges held until all elements are defined
+	 */
+	default void objectsStaged(long count) {
+		// default - ignore
+	}
+	
+	/**
+	 * @param phase phase which completed
+	 * @param nanos elapsed time for the phase in nanoseconds
+	 */
+	default void phaseCompleted(TagValuePhase phase, long nanos) {
+		// default - ignore
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Phases of tag/value processing reported to a <code>TagValueMetricsListener</code>
+ * 
+ * @author Gary O'Neall
+ */
+public enum TagValuePhase {
+	/**
+	 * Reading the content to compute its digest before parsing when the document cache or snapshots are enabled
+	 */
+	SPOOL,
+	/**
+	 * Reading lines and splitting them into tags and values
+	 */
+	LEX,
+	/**
+	 * Creating the elements and properties for each tag - estimated from a sample of the tags
+	 */
+	BUILD,
+	/**
+	 * Resolving file dependencies and snippet files once all elements are defined
+	 */
+	DEPENDENCY_FIXUP,
+	/**
+	 * Adding the relationships to their elements
+	 */
+	RELATIONSHIPS,
+	/**
+	 * Adding a document describes relationship for the only package when the document does not describe any element
+	 */
+	SINGLE_PACKAGE_DEFAULT,
+	/**
+	 * Adding the annotations to their elements
+	 */
+	ANNOTATIONS,
+	/**
+	 * Verifying the packages, files and snippets
+	 */
+	VERIFICATION,
+	/**
+	 * Verifying the document and the elements it references
+	 */
+	DOCUMENT_VERIFICATION,
+	/**
+	 * Printing a document in tag/value format
+	 */
+	PRINT
+}
@@ -0,0 +1,37 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Receives the progress of a tag/value deserialization.  Progress is reported at the start of each
+ * phase and periodically while lines are read and elements are processed.
+ * 
+ * @author Gary O'Neall
+ */
+@FunctionalInterface
+public interface TagValueProgressListener {
+	
+	/**
+	 * @param bytesRead number of bytes of tag/value content read so far
+	 * @param totalBytes total number of bytes of tag/value content or -1 if not known
+	 * @param lineNumber number of lines read so far
+	 * @param phase current phase
+	 */
+	void progress(long bytesRead, long totalBytes, int lineNumber, TagValuePhase phase);
+}
@@ -0,0 +1,42 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+/**
+ * Model store which counts the modifications to each document namespace.
+ * <p>
+ * An <code>ElementOutputCache</code> uses the counts to reuse the output for a document without
+ * computing the element stamps when nothing the document output depends on has been modified.
+ * 
+ * @author Gary O'Neall
+ */
+public interface VersionedModelStore {
+	
+	/**
+	 * @param documentUri document namespace
+	 * @return a count which changes whenever an item in the namespace is modified
+	 */
+	long getNamespaceVersion(String documentUri);
+	
+	/**
+	 * @return a count which changes whenever an item outside any document namespace, such as an anonymous
+	 * value or a listed license, is modified
+	 */
+	long getSharedVersion();
+}
@@ -0,0 +1,110 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index over a list of warning messages supporting exact and substring lookups without scanning every warning.
+ * <p>
+ * The list is only ever appended to while a document is built.  Warnings added to the list since the
+ * last lookup are indexed at the start of the next lookup.
+ * <p>
+ * Substring lookups use the words separated by spaces.  Every word of the target other than the first and the last
+ * must appear as a complete word in any warning containing the target, so only the warnings containing the least 
+ * common of these words are checked.  Targets with fewer than three words are checked against every warning.
+ * 
+ * @author Gary O'Neall
+ */
+class WarningIndex {
+	
+	private final List<String> warnings;
+	private final Set<String> exact = new HashSet<>();
+	private int exactIndexed = 0;
+	private final Map<String, List<Integer>> words = new HashMap<>();
+	private int wordsIndexed = 0;
+	
+	/**
+	 * @param warnings warning messages to index
+	 */
+	WarningIndex(List<String> warnings) {
+		this.warnings = warnings;
+	}
+	
+	/**
+	 * @param target warning message
+	 * @return true if the target equals any warning
+	 */
+	boolean contains(String target) {
+		while (exactIndexed < warnings.size()) {
+			exact.add(warnings.get(exactIndexed++));
+		}
+		return exact.contains(target);
+	}
+	
+	/**
+	 * @param target text to search for
+	 * @return true if any warning contains the target
+	 */
+	boolean containsSubstring(String target) {
+		if (contains(target)) {
+			return true;
+		}
+		while (wordsIndexed < warnings.size()) {
+			String warning = warnings.get(wordsIndexed);
+			for (String word:warning.split(" ", -1)) {
+				List<Integer> postings = words.computeIfAbsent(word, w -> new ArrayList<>());
+				if (postings.isEmpty() || postings.get(postings.size() - 1) != wordsIndexed) {
+					postings.add(wordsIndexed);
+				}
+			}
+			wordsIndexed++;
+		}
+		String[] targetWords = target.split(" ", -1);
+		List<Integer> candidates = null;
+		for (int i = 1; i < targetWords.length - 1; i++) {
+			List<Integer> postings = words.get(targetWords[i]);
+			if (postings == null) {
+				return false;
+			}
+			if (candidates == null || postings.size() < candidates.size()) {
+				candidates = postings;
+			}
+		}
+		if (candidates == null) {
+			for (String warning:warnings) {
+				if (warning.contains(target)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		for (Integer candidate:candidates) {
+			if (warnings.get(candidate).contains(target)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
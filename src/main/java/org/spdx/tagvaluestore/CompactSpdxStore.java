@@ -0,0 +1,1373 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spdx.core.CoreModelObject;
+import org.spdx.core.DuplicateSpdxIdException;
+import org.spdx.core.IndividualUriValue;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.ModelCollection;
+import org.spdx.core.ModelRegistry;
+import org.spdx.core.SimpleUriValue;
+import org.spdx.core.SpdxIdInUseException;
+import org.spdx.core.SpdxIdNotFoundException;
+import org.spdx.core.SpdxInvalidTypeException;
+import org.spdx.core.TypedValue;
+import org.spdx.library.LicenseInfoFactory;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.PropertyDescriptor;
+
+/**
+ * Memory optimized model store for SPDX documents.
+ * <p>
+ * Items of the same type and spec version are stored as rows of a table with one primitive
+ * <code>long</code> column per property, so there is no map or boxed value per property.  Each value
+ * is encoded in the column as a tag and a payload:
+ * <ul>
+ * <li>strings are interned in a dictionary shared by all items and stored as the dictionary ID</li>
+ * <li>references to other items are stored as the integer ID of the referenced item</li>
+ * <li>individual URI values such as enumerations are stored as the dictionary ID of the URI</li>
+ * <li>hexadecimal strings such as checksum values are packed two digits per byte</li>
+ * <li>integers and booleans are stored directly in the payload</li>
+ * </ul>
+ * Object URIs are split into the document namespace and the local ID and generated anonymous IDs are
+ * stored as numbers.  Strings longer than {@link #MAX_INTERNED_LENGTH} are stored individually.
+ * <p>
+ * Large text values such as extracted license texts and notices can optionally be stored outside of the
+ * Java heap in an {@link OffHeapTextArena}.  Only a handle is held for each text, which is decoded when
+ * the value is read.
+ * <p>
+ * Interned strings and packed hexadecimal values are not reclaimed when a value is replaced or an item is
+ * deleted, so this store is intended for documents which are loaded and read rather than frequently edited.
+ * Object URIs are case insensitive and collections preserve the order values were added.
+ * All operations are thread safe; updates are serialized by a store level lock.
+ *
+ * @author Gary O'Neall
+ */
+public class CompactSpdxStore implements IModelStore {
+	
+	static final Logger logger = LoggerFactory.getLogger(CompactSpdxStore.class);
+	
+	/**
+	 * Strings longer than this are stored individually rather than in the string dictionary
+	 */
+	public static final int MAX_INTERNED_LENGTH = 256;
+	
+	static final String ANON_PREFIX = "__anon__gnrtd";
+	static final Pattern LICENSE_ID_PATTERN_GENERATED = 
+			Pattern.compile(".*" + SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM + "gnrtd(\\d+)$");
+	static final Pattern DOCUMENT_ID_PATTERN_GENERATED = 
+			Pattern.compile(".*" + SpdxConstantsCompatV2.EXTERNAL_DOC_REF_PRENUM + "gnrtd(\\d+)$");
+	static final Pattern SPDX_ID_PATTERN_GENERATED = 
+			Pattern.compile(".*" + SpdxConstantsCompatV2.SPDX_ELEMENT_REF_PRENUM + "gnrtd(\\d+)$");
+	static final Pattern ANON_ID_PATTERN_GENERATED = Pattern.compile(ANON_PREFIX + "(\\d+)$");
+	
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	/**
+	 * Namespace value for an object URI without a namespace
+	 */
+	private static final int NO_NAMESPACE = -1;
+	
+	/**
+	 * Namespace value for a generated anonymous ID stored as a number
+	 */
+	private static final int ANON_NAMESPACE = -2;
+	
+	/**
+	 * Item table value for a deleted item
+	 */
+	private static final int DELETED = -1;
+	
+	/**
+	 * URI slot value for a deleted item
+	 */
+	private static final int TOMBSTONE = -1;
+	
+	private static final int TAG_SHIFT = 60;
+	private static final long PAYLOAD_MASK = (1L << TAG_SHIFT) - 1;
+	private static final int TAG_NONE = 0;
+	private static final int TAG_STRING = 1;
+	private static final int TAG_OBJECT = 2;
+	private static final int TAG_INTEGER = 3;
+	private static final int TAG_BOOLEAN = 4;
+	private static final int TAG_REFERENCE = 5;
+	private static final int TAG_URI = 6;
+	private static final int TAG_HEX = 7;
+	private static final int TAG_COLLECTION = 8;
+	private static final int TAG_TEXT = 9;
+	
+	private static final int HEX_LENGTH_BITS = 16;
+	private static final int MAX_HEX_BYTES = (1 << HEX_LENGTH_BITS) - 1;
+	private static final char[] LOWER_HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final char[] UPPER_HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	
+	/**
+	 * Rows for all the items of a single type and spec version with a column for each property in use
+	 */
+	private static class TypeTable {
+		final int index;
+		final String type;
+		final String specVersion;
+		int[] rowItem = new int[16];
+		int rowCount = 0;
+		int[] freeRows = new int[16];
+		int freeRowCount = 0;
+		/**
+		 * Column index + 1 indexed by the store property ID, 0 if there is no column for the property
+		 */
+		int[] columnIndex = new int[0];
+		int[] columnProperty = new int[0];
+		long[][] columns = new long[0][];
+		
+		TypeTable(int index, String type, String specVersion) {
+			this.index = index;
+			this.type = type;
+			this.specVersion = specVersion;
+		}
+		
+		int addRow(int item) {
+			int row;
+			if (freeRowCount > 0) {
+				row = freeRows[--freeRowCount];
+			} else {
+				if (rowCount == rowItem.length) {
+					int capacity = rowItem.length * 2;
+					rowItem = Arrays.copyOf(rowItem, capacity);
+					for (int i = 0; i < columns.length; i++) {
+						columns[i] = Arrays.copyOf(columns[i], capacity);
+					}
+				}
+				row = rowCount++;
+			}
+			rowItem[row] = item;
+			return row;
+		}
+		
+		void removeRow(int row) {
+			for (long[] column:columns) {
+				column[row] = 0;
+			}
+			rowItem[row] = DELETED;
+			if (freeRowCount == freeRows.length) {
+				freeRows = Arrays.copyOf(freeRows, freeRows.length * 2);
+			}
+			freeRows[freeRowCount++] = row;
+		}
+		
+		/**
+		 * @param propertyId store property ID
+		 * @return the column for the property or null if no value has been stored for the property
+		 */
+		long[] getColumn(int propertyId) {
+			if (propertyId < 0 || propertyId >= columnIndex.length || columnIndex[propertyId] == 0) {
+				return null;
+			}
+			return columns[columnIndex[propertyId] - 1];
+		}
+		
+		long[] getOrAddColumn(int propertyId) {
+			long[] column = getColumn(propertyId);
+			if (column == null) {
+				if (propertyId >= columnIndex.length) {
+					columnIndex = Arrays.copyOf(columnIndex, propertyId + 1);
+				}
+				column = new long[rowItem.length];
+				columns = Arrays.copyOf(columns, columns.length + 1);
+				columns[columns.length - 1] = column;
+				columnProperty = Arrays.copyOf(columnProperty, columnProperty.length + 1);
+				columnProperty[columnProperty.length - 1] = propertyId;
+				columnIndex[propertyId] = columns.length;
+			}
+			return column;
+		}
+	}
+	
+	private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+	private final ReadWriteLock transactionLock = new ReentrantReadWriteLock();
+	private final IModelStoreLock readLock = () -> transactionLock.readLock().unlock();
+	private final IModelStoreLock writeLock = () -> transactionLock.writeLock().unlock();
+	
+	private StringDictionary strings;
+	private Map<PropertyDescriptor, Integer> propertyIds;
+	private List<PropertyDescriptor> properties;
+	private Map<String, TypeTable> tablesByKey;
+	private List<TypeTable> tables;
+	
+	// item columns indexed by item ID
+	private int[] itemNamespace;
+	private int[] itemLocalId;
+	private int[] itemHash;
+	private int[] itemTable;
+	private int[] itemRow;
+	private int[] itemReferences;
+	private int itemCount;
+	private int liveItemCount;
+	
+	/**
+	 * Open addressing table of item ID + 1 keyed by the case insensitive object URI
+	 */
+	private int[] uriSlots;
+	private int usedUriSlots;
+	
+	// collection values indexed by collection ID
+	private long[][] collections;
+	private int[] collectionSizes;
+	private int collectionCount;
+	private int[] freeCollections;
+	private int freeCollectionCount;
+	
+	// values which are not encoded in the payload indexed by object ID
+	private Object[] objects;
+	private int objectCount;
+	private int[] freeObjects;
+	private int freeObjectCount;
+	
+	private byte[] hexBytes;
+	private int hexLength;
+	
+	private int nextLicenseId;
+	private int nextDocumentId;
+	private int nextSpdxId;
+	private int nextAnonId;
+	
+	private final int offHeapTextThreshold;
+	private final OffHeapTextArena textArena;
+	
+	/**
+	 * Create a store holding all values on the Java heap
+	 */
+	public CompactSpdxStore() {
+		this(0, null);
+	}
+	
+	/**
+	 * Create a store holding large text values outside of the Java heap
+	 * @param offHeapTextThreshold strings with at least this number of characters are stored off heap - if 0 or less, all values are stored on the heap
+	 * @param arenaDirectory directory for a memory mapped arena file - if null, direct buffers are used
+	 */
+	public CompactSpdxStore(int offHeapTextThreshold, @Nullable File arenaDirectory) {
+		this.offHeapTextThreshold = offHeapTextThreshold;
+		this.textArena = offHeapTextThreshold > 0 ? new OffHeapTextArena(arenaDirectory) : null;
+		clear();
+	}
+	
+	/**
+	 * @return the arena holding the off heap text values or null if all values are stored on the heap
+	 */
+	public @Nullable OffHeapTextArena getTextArena() {
+		return textArena;
+	}
+	
+	/**
+	 * Remove all items from the store
+	 */
+	public void clear() {
+		storeLock.writeLock().lock();
+		try {
+			if (textArena != null) {
+				textArena.close();
+			}
+			strings = new StringDictionary();
+			propertyIds = new HashMap<>();
+			properties = new ArrayList<>();
+			tablesByKey = new HashMap<>();
+			tables = new ArrayList<>();
+			itemNamespace = new int[INITIAL_CAPACITY];
+			itemLocalId = new int[INITIAL_CAPACITY];
+			itemHash = new int[INITIAL_CAPACITY];
+			itemTable = new int[INITIAL_CAPACITY];
+			itemRow = new int[INITIAL_CAPACITY];
+			itemReferences = new int[INITIAL_CAPACITY];
+			itemCount = 0;
+			liveItemCount = 0;
+			uriSlots = new int[INITIAL_CAPACITY * 2];
+			usedUriSlots = 0;
+			collections = new long[INITIAL_CAPACITY][];
+			collectionSizes = new int[INITIAL_CAPACITY];
+			collectionCount = 0;
+			freeCollections = new int[16];
+			freeCollectionCount = 0;
+			objects = new Object[INITIAL_CAPACITY];
+			objectCount = 0;
+			freeObjects = new int[16];
+			freeObjectCount = 0;
+			hexBytes = new byte[INITIAL_CAPACITY * 16];
+			hexLength = 0;
+			nextLicenseId = 0;
+			nextDocumentId = 0;
+			nextSpdxId = 0;
+			nextAnonId = 0;
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * @return number of items in the store
+	 */
+	public int size() {
+		storeLock.readLock().lock();
+		try {
+			return liveItemCount;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+	
+	/**
+	 * @return number of distinct strings in the string dictionary
+	 */
+	public int getDictionarySize() {
+		storeLock.readLock().lock();
+		try {
+			return strings.size();
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean exists(String objectUri) {
+		storeLock.readLock().lock();
+		try {
+			return findItem(objectUri) >= 0;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void create(TypedValue typedValue) throws InvalidSPDXAnalysisException {
+		String objectUri = typedValue.getObjectUri();
+		storeLock.writeLock().lock();
+		try {
+			if (findItem(objectUri) >= 0) {
+				throw new DuplicateSpdxIdException("Object URI " + objectUri + " already exists.");
+			}
+			String key = typedValue.getSpecVersion() + " " + typedValue.getType();
+			TypeTable table = tablesByKey.get(key);
+			if (table == null) {
+				table = new TypeTable(tables.size(), typedValue.getType(), typedValue.getSpecVersion());
+				tablesByKey.put(key, table);
+				tables.add(table);
+			}
+			addItem(objectUri, table);
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+		updateNextIds(objectUri);
+	}
+
+	@Override
+	public List<PropertyDescriptor> getPropertyValueDescriptors(String objectUri) throws InvalidSPDXAnalysisException {
+		storeLock.readLock().lock();
+		try {
+			int item = getItem(objectUri);
+			TypeTable table = tables.get(itemTable[item]);
+			int row = itemRow[item];
+			List<PropertyDescriptor> retval = new ArrayList<>();
+			for (int i = 0; i < table.columns.length; i++) {
+				if (table.columns[i][row] != 0) {
+					retval.add(properties.get(table.columnProperty[i]));
+				}
+			}
+			return retval;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		Objects.requireNonNull(value, "Value can not be null");
+		if (value instanceof Collection) {
+			throw new SpdxInvalidTypeException("Can not store list values directly.  Use addValueToCollection.");
+		}
+		storeLock.writeLock().lock();
+		try {
+			int item = getItem(objectUri);
+			long[] column = tables.get(itemTable[item]).getOrAddColumn(getOrAddPropertyId(propertyDescriptor));
+			long encoded = encodeValue(value);
+			long previous = column[itemRow[item]];
+			column[itemRow[item]] = encoded;
+			release(previous);
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Optional<Object> getValue(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		String specVersion;
+		storeLock.readLock().lock();
+		try {
+			int item = getItem(objectUri);
+			long value = getStoredValue(item, propertyDescriptor);
+			if (tag(value) != TAG_COLLECTION) {
+				return Optional.ofNullable(decodeValue(value));
+			}
+			specVersion = tables.get(itemTable[item]).specVersion;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+		logger.warn("Returning a collection for a getValue call for property {}", propertyDescriptor.getName());
+		return Optional.of(new ModelCollection<>(this, objectUri, propertyDescriptor, null, null, specVersion, null));
+	}
+
+	@Override
+	public synchronized String getNextId(IdType idType) throws InvalidSPDXAnalysisException {
+		switch (idType) {
+			case Anonymous: return ANON_PREFIX + nextAnonId++;
+			case LicenseRef: return SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM + "gnrtd" + nextLicenseId++;
+			case DocumentRef: return SpdxConstantsCompatV2.EXTERNAL_DOC_REF_PRENUM + "gnrtd" + nextDocumentId++;
+			case SpdxId: return SpdxConstantsCompatV2.SPDX_ELEMENT_REF_PRENUM + "gnrtd" + nextSpdxId++;
+			case ListedLicense: throw new InvalidSPDXAnalysisException("Can not generate a license ID for a Listed License");
+			default: throw new InvalidSPDXAnalysisException("Unknown ID type for next ID: " + idType.toString());
+		}
+	}
+	
+	/**
+	 * Make sure the generated IDs do not collide with an ID created by the caller
+	 * @param objectUri object URI of a created item
+	 */
+	private synchronized void updateNextIds(String objectUri) {
+		Matcher matcher = LICENSE_ID_PATTERN_GENERATED.matcher(objectUri);
+		if (matcher.matches()) {
+			nextLicenseId = Math.max(nextLicenseId, Integer.parseInt(matcher.group(1)) + 1);
+		}
+		matcher = DOCUMENT_ID_PATTERN_GENERATED.matcher(objectUri);
+		if (matcher.matches()) {
+			nextDocumentId = Math.max(nextDocumentId, Integer.parseInt(matcher.group(1)) + 1);
+		}
+		matcher = SPDX_ID_PATTERN_GENERATED.matcher(objectUri);
+		if (matcher.matches()) {
+			nextSpdxId = Math.max(nextSpdxId, Integer.parseInt(matcher.group(1)) + 1);
+		}
+		matcher = ANON_ID_PATTERN_GENERATED.matcher(objectUri);
+		if (matcher.matches()) {
+			nextAnonId = Math.max(nextAnonId, Integer.parseInt(matcher.group(1)) + 1);
+		}
+	}
+
+	@Override
+	public void removeProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		storeLock.writeLock().lock();
+		try {
+			int item = getItem(objectUri);
+			long[] column = getColumn(item, propertyDescriptor);
+			if (column != null) {
+				long previous = column[itemRow[item]];
+				column[itemRow[item]] = 0;
+				release(previous);
+			}
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Stream<TypedValue> getAllItems(String nameSpace, String typeFilter) throws InvalidSPDXAnalysisException {
+		List<TypedValue> retval = new ArrayList<>();
+		storeLock.readLock().lock();
+		try {
+			for (int item = 0; item < itemCount; item++) {
+				if (itemTable[item] == DELETED) {
+					continue;
+				}
+				TypeTable table = tables.get(itemTable[item]);
+				if ((Objects.isNull(typeFilter) || typeFilter.equals(table.type)) && 
+						(Objects.isNull(nameSpace) || uriStartsWith(item, nameSpace))) {
+					retval.add(toTypedValue(item));
+				}
+			}
+		} finally {
+			storeLock.readLock().unlock();
+		}
+		return Collections.unmodifiableList(retval).stream();
+	}
+
+	@Override
+	public IModelStoreLock enterCriticalSection(boolean readLockRequested) throws InvalidSPDXAnalysisException {
+		if (readLockRequested) {
+			transactionLock.readLock().lock();
+			return readLock;
+		} else {
+			transactionLock.writeLock().lock();
+			return writeLock;
+		}
+	}
+
+	@Override
+	public void leaveCriticalSection(IModelStoreLock lock) {
+		lock.unlock();
+	}
+
+	@Override
+	public boolean removeValueFromCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		Objects.requireNonNull(value, "Value can not be null");
+		storeLock.writeLock().lock();
+		try {
+			int item = getItem(objectUri);
+			if (value instanceof TypedValue) {
+				getItem(((TypedValue)value).getObjectUri());
+			}
+			long stored = getStoredValue(item, propertyDescriptor);
+			if (stored == 0) {
+				return false;
+			}
+			if (tag(stored) != TAG_COLLECTION) {
+				throw new SpdxInvalidTypeException("Trying to remove from a list for non list type for property " + propertyDescriptor);
+			}
+			int collection = (int)payload(stored);
+			long[] members = collections[collection];
+			int size = collectionSizes[collection];
+			long probe = encodeProbe(value);
+			for (int i = 0; i < size; i++) {
+				if (matches(members[i], probe, value)) {
+					long removed = members[i];
+					System.arraycopy(members, i + 1, members, i, size - i - 1);
+					members[size - 1] = 0;
+					collectionSizes[collection] = size - 1;
+					release(removed);
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public int collectionSize(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		storeLock.readLock().lock();
+		try {
+			long stored = getStoredValue(getItem(objectUri), propertyDescriptor);
+			if (stored == 0) {
+				return 0;
+			}
+			if (tag(stored) != TAG_COLLECTION) {
+				throw new SpdxInvalidTypeException("Trying to find a collection size for a non collection type for property " + propertyDescriptor);
+			}
+			return collectionSizes[(int)payload(stored)];
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean collectionContains(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		storeLock.readLock().lock();
+		try {
+			long stored = getStoredValue(getItem(objectUri), propertyDescriptor);
+			if (stored == 0) {
+				return false;
+			}
+			if (tag(stored) != TAG_COLLECTION) {
+				throw new SpdxInvalidTypeException("Trying to find contains for non list type for property " + propertyDescriptor);
+			}
+			int collection = (int)payload(stored);
+			long[] members = collections[collection];
+			long probe = encodeProbe(value);
+			for (int i = 0; i < collectionSizes[collection]; i++) {
+				if (matches(members[i], probe, value)) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void clearValueCollection(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		storeLock.writeLock().lock();
+		try {
+			long stored = getStoredValue(getItem(objectUri), propertyDescriptor);
+			if (stored == 0) {
+				return;
+			}
+			if (tag(stored) != TAG_COLLECTION) {
+				throw new SpdxInvalidTypeException("Trying to clear a list for non list type for property " + propertyDescriptor);
+			}
+			int collection = (int)payload(stored);
+			long[] members = collections[collection];
+			for (int i = 0; i < collectionSizes[collection]; i++) {
+				release(members[i]);
+				members[i] = 0;
+			}
+			collectionSizes[collection] = 0;
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean addValueToCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		Objects.requireNonNull(value, "Value can not be null");
+		storeLock.writeLock().lock();
+		try {
+			int item = getItem(objectUri);
+			long[] column = tables.get(itemTable[item]).getOrAddColumn(getOrAddPropertyId(propertyDescriptor));
+			int row = itemRow[item];
+			if (column[row] != 0 && tag(column[row]) != TAG_COLLECTION) {
+				throw new SpdxInvalidTypeException("Trying to add a list for non list type for property " + propertyDescriptor);
+			}
+			long encoded = encodeValue(value);
+			if (column[row] == 0) {
+				column[row] = encode(TAG_COLLECTION, addCollection());
+			}
+			int collection = (int)payload(column[row]);
+			int size = collectionSizes[collection];
+			if (size == collections[collection].length) {
+				collections[collection] = Arrays.copyOf(collections[collection], size * 2);
+			}
+			collections[collection][size] = encoded;
+			collectionSizes[collection] = size + 1;
+			return true;
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Iterator<Object> listValues(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		storeLock.readLock().lock();
+		try {
+			long stored = getStoredValue(getItem(objectUri), propertyDescriptor);
+			if (stored == 0) {
+				return Collections.emptyIterator();
+			}
+			if (tag(stored) != TAG_COLLECTION) {
+				throw new SpdxInvalidTypeException("Trying to get a list for non list type for property " + propertyDescriptor);
+			}
+			int collection = (int)payload(stored);
+			int size = collectionSizes[collection];
+			List<Object> retval = new ArrayList<>(size);
+			long[] members = collections[collection];
+			for (int i = 0; i < size; i++) {
+				retval.add(decodeValue(members[i]));
+			}
+			return retval.iterator();
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean isCollectionMembersAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		Objects.requireNonNull(clazz, "Class can not be null");
+		storeLock.readLock().lock();
+		try {
+			int item = getItem(objectUri);
+			String specVersion = tables.get(itemTable[item]).specVersion;
+			long stored = getStoredValue(item, propertyDescriptor);
+			if (stored == 0) {
+				return true;
+			}
+			if (tag(stored) != TAG_COLLECTION) {
+				logger.warn("Checking collection properties on a non-collection stored item");
+				return false;
+			}
+			int collection = (int)payload(stored);
+			// referenced items of the same type table are only checked once
+			Boolean[] tableAssignable = new Boolean[tables.size()];
+			for (int i = 0; i < collectionSizes[collection]; i++) {
+				long member = collections[collection][i];
+				if (tag(member) == TAG_REFERENCE) {
+					int table = itemTable[(int)payload(member)];
+					if (tableAssignable[table] == null) {
+						tableAssignable[table] = isAssignableTo(decodeValue(member), clazz, specVersion);
+					}
+					if (!tableAssignable[table]) {
+						return false;
+					}
+				} else if (!isAssignableTo(decodeValue(member), clazz, specVersion)) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean isPropertyValueAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz, String specVersion) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		Objects.requireNonNull(clazz, "Class can not be null");
+		Object value;
+		storeLock.readLock().lock();
+		try {
+			long stored = getStoredValue(getItem(objectUri), propertyDescriptor);
+			if (stored == 0 || tag(stored) == TAG_COLLECTION) {
+				return false;
+			}
+			value = decodeValue(stored);
+		} finally {
+			storeLock.readLock().unlock();
+		}
+		return isAssignableTo(value, clazz, specVersion);
+	}
+	
+	/**
+	 * @param value stored value
+	 * @param clazz class to check
+	 * @param specVersion spec version of the item
+	 * @return true if the value can be assigned to the class
+	 */
+	private boolean isAssignableTo(Object value, Class<?> clazz, String specVersion) throws InvalidSPDXAnalysisException {
+		if (clazz.isAssignableFrom(value.getClass())) {
+			return true;
+		}
+		if (value instanceof TypedValue) {
+			try {
+				TypedValue typedValue = (TypedValue)value;
+				Class<?> valueClass = ModelRegistry.getModelRegistry().typeToClass(typedValue.getType(), typedValue.getSpecVersion());
+				return Objects.nonNull(valueClass) && clazz.isAssignableFrom(valueClass);
+			} catch (InvalidSPDXAnalysisException e) {
+				logger.error("Error converting typed value to class", e);
+				return false;
+			}
+		}
+		if (value instanceof IndividualUriValue) {
+			String uri = ((IndividualUriValue)value).getIndividualURI();
+			Enum<?> spdxEnum = ModelRegistry.getModelRegistry().uriToEnum(uri, specVersion);
+			if (Objects.nonNull(spdxEnum)) {
+				return clazz.isAssignableFrom(spdxEnum.getClass());
+			}
+			Object individual = ModelRegistry.getModelRegistry().uriToIndividual(uri, specVersion, clazz);
+			if (Objects.nonNull(individual)) {
+				return clazz.isAssignableFrom(individual.getClass());
+			}
+			return ModelRegistry.getModelRegistry().canBeExternal(clazz, specVersion);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean isCollectionProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(propertyDescriptor, "Property descriptor can not be null");
+		storeLock.readLock().lock();
+		try {
+			return tag(getStoredValue(getItem(objectUri), propertyDescriptor)) == TAG_COLLECTION;
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public IdType getIdType(String objectUri) {
+		Objects.requireNonNull(objectUri, "Object URI can not be null");
+		if (isAnon(objectUri)) {
+			return IdType.Anonymous;
+		}
+		if (objectUri.contains(SpdxConstantsCompatV2.NON_STD_LICENSE_ID_PRENUM)) {
+			return IdType.LicenseRef;
+		}
+		if (objectUri.contains(SpdxConstantsCompatV2.EXTERNAL_DOC_REF_PRENUM)) {
+			return IdType.DocumentRef;
+		}
+		if (objectUri.contains(SpdxConstantsCompatV2.SPDX_ELEMENT_REF_PRENUM)) {
+			return IdType.SpdxId;
+		}
+		if (objectUri.contains("://spdx.org/licenses/") || LicenseInfoFactory.isSpdxListedLicenseId(objectUri) || 
+				LicenseInfoFactory.isSpdxListedExceptionId(objectUri)) {
+			return IdType.ListedLicense;
+		}
+		return IdType.Unknown;
+	}
+	
+	@Override
+	public Optional<String> getCaseSensitiveId(String nameSpace, String caseInsensisitiveId) {
+		Objects.requireNonNull(nameSpace, "Namespace can not be null");
+		Objects.requireNonNull(caseInsensisitiveId, "CaseInsensitiveId can not be null");
+		String objectUri = nameSpace + "#" + caseInsensisitiveId;
+		storeLock.readLock().lock();
+		try {
+			int item = findItem(objectUri);
+			if (item < 0) {
+				return Optional.empty();
+			}
+			return Optional.of(getObjectUri(item).substring(nameSpace.length() + 1));
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public Optional<TypedValue> getTypedValue(String objectUri) throws InvalidSPDXAnalysisException {
+		storeLock.readLock().lock();
+		try {
+			int item = findItem(objectUri);
+			return item < 0 ? Optional.empty() : Optional.of(toTypedValue(item));
+		} finally {
+			storeLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void delete(String objectUri) throws InvalidSPDXAnalysisException {
+		Objects.requireNonNull(objectUri, "Missing object URI");
+		storeLock.writeLock().lock();
+		try {
+			int item = findItem(objectUri);
+			if (item < 0) {
+				return;
+			}
+			if (itemReferences[item] > 0) {
+				logger.error("Can not delete object URI {}.  It is in use", objectUri);
+				throw new SpdxIdInUseException("Can not delete object URI " + objectUri + ".  It is in use");
+			}
+			TypeTable table = tables.get(itemTable[item]);
+			int row = itemRow[item];
+			for (long[] column:table.columns) {
+				release(column[row]);
+			}
+			table.removeRow(row);
+			removeUriSlot(item);
+			itemTable[item] = DELETED;
+			liveItemCount--;
+		} finally {
+			storeLock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean isAnon(String objectUri) {
+		Objects.requireNonNull(objectUri, "Object URI can not be null");
+		return objectUri.startsWith(ANON_PREFIX);
+	}
+
+	@Override
+	public void close() {
+		if (textArena != null) {
+			storeLock.writeLock().lock();
+			try {
+				textArena.close();
+			} finally {
+				storeLock.writeLock().unlock();
+			}
+		}
+	}
+	
+	// Item table
+	
+	/**
+	 * Add an item to the item table and the URI lookup table - the caller must hold the store write lock
+	 * @param objectUri object URI of the item
+	 * @param table type table for the item
+	 */
+	private void addItem(String objectUri, TypeTable table) {
+		if (itemCount == itemTable.length) {
+			int capacity = itemTable.length * 2;
+			itemNamespace = Arrays.copyOf(itemNamespace, capacity);
+			itemLocalId = Arrays.copyOf(itemLocalId, capacity);
+			itemHash = Arrays.copyOf(itemHash, capacity);
+			itemTable = Arrays.copyOf(itemTable, capacity);
+			itemRow = Arrays.copyOf(itemRow, capacity);
+			itemReferences = Arrays.copyOf(itemReferences, capacity);
+		}
+		int item = itemCount++;
+		int anonNumber = parseAnonNumber(objectUri, false);
+		if (anonNumber >= 0 && ANON_PREFIX.length() + digitCount(anonNumber) == objectUri.length()) {
+			itemNamespace[item] = ANON_NAMESPACE;
+			itemLocalId[item] = anonNumber;
+		} else {
+			int separator = objectUri.lastIndexOf('#');
+			if (separator > 0) {
+				itemNamespace[item] = strings.intern(objectUri.substring(0, separator));
+				itemLocalId[item] = strings.intern(objectUri.substring(separator + 1));
+			} else {
+				itemNamespace[item] = NO_NAMESPACE;
+				itemLocalId[item] = strings.intern(objectUri);
+			}
+		}
+		itemHash[item] = uriHash(objectUri);
+		itemTable[item] = table.index;
+		itemRow[item] = table.addRow(item);
+		itemReferences[item] = 0;
+		liveItemCount++;
+		if ((usedUriSlots + 1) * 2 > uriSlots.length) {
+			rehashUris();
+		}
+		int mask = uriSlots.length - 1;
+		int i = StringDictionary.mix(itemHash[item]) & mask;
+		while (uriSlots[i] > 0) {
+			i = (i + 1) & mask;
+		}
+		if (uriSlots[i] == 0) {
+			usedUriSlots++;
+		}
+		uriSlots[i] = item + 1;
+	}
+	
+	private void removeUriSlot(int item) {
+		int mask = uriSlots.length - 1;
+		int i = StringDictionary.mix(itemHash[item]) & mask;
+		while (uriSlots[i] != 0) {
+			if (uriSlots[i] == item + 1) {
+				uriSlots[i] = TOMBSTONE;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+	
+	private void rehashUris() {
+		int capacity = uriSlots.length;
+		if (liveItemCount * 4 > capacity) {
+			capacity *= 2;
+		}
+		int[] newSlots = new int[capacity];
+		int mask = capacity - 1;
+		int used = 0;
+		for (int item = 0; item < itemCount; item++) {
+			if (itemTable[item] != DELETED) {
+				int i = StringDictionary.mix(itemHash[item]) & mask;
+				while (newSlots[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				newSlots[i] = item + 1;
+				used++;
+			}
+		}
+		uriSlots = newSlots;
+		usedUriSlots = used;
+	}
+	
+	/**
+	 * @param objectUri object URI
+	 * @return the item ID for the object URI or -1 if the item does not exist - the caller must hold a store lock
+	 */
+	private int findItem(String objectUri) {
+		int hash = uriHash(objectUri);
+		int mask = uriSlots.length - 1;
+		int i = StringDictionary.mix(hash) & mask;
+		while (uriSlots[i] != 0) {
+			int item = uriSlots[i] - 1;
+			if (item >= 0 && itemHash[item] == hash && uriMatches(item, objectUri)) {
+				return item;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * @param objectUri object URI
+	 * @return the item ID for the object URI - the caller must hold a store lock
+	 * @throws SpdxIdNotFoundException if the item does not exist
+	 */
+	private int getItem(String objectUri) throws SpdxIdNotFoundException {
+		Objects.requireNonNull(objectUri, "Object URI can not be null");
+		int item = findItem(objectUri);
+		if (item < 0) {
+			throw new SpdxIdNotFoundException("Object URI " + objectUri + " not found");
+		}
+		return item;
+	}
+	
+	/**
+	 * @param objectUri object URI
+	 * @return case insensitive hash of the object URI
+	 */
+	private static int uriHash(String objectUri) {
+		int hash = 0;
+		for (int i = 0; i < objectUri.length(); i++) {
+			hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(objectUri.charAt(i)));
+		}
+		return hash;
+	}
+	
+	/**
+	 * @param objectUri object URI
+	 * @param ignoreCase if true, ignore the case of the anonymous ID prefix
+	 * @return the number for a generated anonymous ID or -1 if the URI is not a generated anonymous ID
+	 */
+	private static int parseAnonNumber(String objectUri, boolean ignoreCase) {
+		int start = ANON_PREFIX.length();
+		int length = objectUri.length() - start;
+		if (length <= 0 || length > 9 || !objectUri.regionMatches(ignoreCase, 0, ANON_PREFIX, 0, start)) {
+			return -1;
+		}
+		int number = 0;
+		for (int i = start; i < objectUri.length(); i++) {
+			char ch = objectUri.charAt(i);
+			if (ch < '0' || ch > '9') {
+				return -1;
+			}
+			number = number * 10 + (ch - '0');
+		}
+		return number;
+	}
+	
+	/**
+	 * @param number non-negative number
+	 * @return number of decimal digits in the number
+	 */
+	private static int digitCount(int number) {
+		int count = 1;
+		while (number >= 10) {
+			number /= 10;
+			count++;
+		}
+		return count;
+	}
+	
+	private boolean uriMatches(int item, String objectUri) {
+		int namespace = itemNamespace[item];
+		if (namespace == ANON_NAMESPACE) {
+			return objectUri.length() == ANON_PREFIX.length() + digitCount(itemLocalId[item]) &&
+					parseAnonNumber(objectUri, true) == itemLocalId[item];
+		}
+		String localId = strings.get(itemLocalId[item]);
+		if (namespace == NO_NAMESPACE) {
+			return objectUri.equalsIgnoreCase(localId);
+		}
+		String ns = strings.get(namespace);
+		int nsLength = ns.length();
+		return objectUri.length() == nsLength + 1 + localId.length() && 
+				objectUri.charAt(nsLength) == '#' &&
+				objectUri.regionMatches(true, 0, ns, 0, nsLength) &&
+				objectUri.regionMatches(true, nsLength + 1, localId, 0, localId.length());
+	}
+	
+	private boolean uriStartsWith(int item, String prefix) {
+		int namespace = itemNamespace[item];
+		if (namespace == NO_NAMESPACE) {
+			return strings.get(itemLocalId[item]).startsWith(prefix);
+		}
+		if (namespace == ANON_NAMESPACE) {
+			return getObjectUri(item).startsWith(prefix);
+		}
+		String ns = strings.get(namespace);
+		if (prefix.length() <= ns.length()) {
+			return ns.startsWith(prefix);
+		}
+		String localId = strings.get(itemLocalId[item]);
+		int localLength = prefix.length() - ns.length() - 1;
+		return prefix.startsWith(ns) && prefix.charAt(ns.length()) == '#' && localId.length() >= localLength &&
+				prefix.regionMatches(ns.length() + 1, localId, 0, localLength);
+	}
+	
+	private String getObjectUri(int item) {
+		int namespace = itemNamespace[item];
+		if (namespace == ANON_NAMESPACE) {
+			return ANON_PREFIX + itemLocalId[item];
+		}
+		if (namespace == NO_NAMESPACE) {
+			return strings.get(itemLocalId[item]);
+		}
+		return strings.get(namespace) + "#" + strings.get(itemLocalId[item]);
+	}
+	
+	private TypedValue toTypedValue(int item) throws InvalidSPDXAnalysisException {
+		TypeTable table = tables.get(itemTable[item]);
+		return new TypedValue(getObjectUri(item), table.type, table.specVersion);
+	}
+	
+	// Property columns
+	
+	private int getOrAddPropertyId(PropertyDescriptor propertyDescriptor) {
+		Integer propertyId = propertyIds.get(propertyDescriptor);
+		if (propertyId == null) {
+			propertyId = properties.size();
+			properties.add(propertyDescriptor);
+			propertyIds.put(propertyDescriptor, propertyId);
+		}
+		return propertyId;
+	}
+	
+	/**
+	 * @return the column for the property in the item's table or null if no value has been stored for the property
+	 */
+	private long[] getColumn(int item, PropertyDescriptor propertyDescriptor) {
+		Integer propertyId = propertyIds.get(propertyDescriptor);
+		if (propertyId == null) {
+			return null;
+		}
+		return tables.get(itemTable[item]).getColumn(propertyId);
+	}
+	
+	/**
+	 * @return the encoded value of the property for the item or 0 if there is no value
+	 */
+	private long getStoredValue(int item, PropertyDescriptor propertyDescriptor) {
+		long[] column = getColumn(item, propertyDescriptor);
+		return column == null ? 0 : column[itemRow[item]];
+	}
+	
+	// Value encoding
+	
+	private static long encode(int tag, long payload) {
+		return ((long)tag << TAG_SHIFT) | (payload & PAYLOAD_MASK);
+	}
+	
+	private static int tag(long value) {
+		return (int)(value >>> TAG_SHIFT);
+	}
+	
+	private static long payload(long value) {
+		return value & PAYLOAD_MASK;
+	}
+	
+	/**
+	 * Encode a value, incrementing the reference count for any referenced item - the caller must hold the store write lock
+	 * @param value value to store
+	 * @return the encoded value
+	 * @throws InvalidSPDXAnalysisException if the value can not be stored
+	 */
+	private long encodeValue(Object value) throws InvalidSPDXAnalysisException {
+		if (value instanceof CoreModelObject) {
+			throw new SpdxInvalidTypeException("Can not store Model Object in store.  Convert to TypedValue first");
+		} else if (value instanceof String) {
+			String s = (String)value;
+			long hex = packHex(s);
+			if (hex != 0) {
+				return hex;
+			} else if (textArena != null && s.length() >= offHeapTextThreshold) {
+				try {
+					return encode(TAG_TEXT, textArena.store(s));
+				} catch (IOException e) {
+					throw new InvalidSPDXAnalysisException("I/O error storing text off heap", e);
+				}
+			} else if (s.length() <= MAX_INTERNED_LENGTH) {
+				return encode(TAG_STRING, strings.intern(s));
+			} else {
+				return encode(TAG_OBJECT, addObject(s));
+			}
+		} else if (value instanceof Boolean) {
+			return encode(TAG_BOOLEAN, ((Boolean)value) ? 1 : 0);
+		} else if (value instanceof Integer) {
+			return encode(TAG_INTEGER, ((Integer)value) & 0xFFFFFFFFL);
+		} else if (value instanceof TypedValue) {
+			int item = getItem(((TypedValue)value).getObjectUri());
+			itemReferences[item]++;
+			return encode(TAG_REFERENCE, item);
+		} else if (value instanceof IndividualUriValue) {
+			return encode(TAG_URI, strings.intern(((IndividualUriValue)value).getIndividualURI()));
+		} else if (value instanceof Double || value instanceof Float) {
+			return encode(TAG_OBJECT, addObject(value));
+		} else {
+			throw new SpdxInvalidTypeException(value.getClass() + " is not a supported class to be stored.");
+		}
+	}
+	
+	/**
+	 * @param value encoded value
+	 * @return the decoded value or null if there is no value - the caller must hold a store lock
+	 * @throws InvalidSPDXAnalysisException on errors creating a typed value
+	 */
+	private Object decodeValue(long value) throws InvalidSPDXAnalysisException {
+		switch (tag(value)) {
+			case TAG_NONE: return null;
+			case TAG_STRING: return strings.get((int)payload(value));
+			case TAG_OBJECT: return objects[(int)payload(value)];
+			case TAG_TEXT: return textArena.read(payload(value));
+			case TAG_INTEGER: return Integer.valueOf((int)payload(value));
+			case TAG_BOOLEAN: return Boolean.valueOf(payload(value) != 0);
+			case TAG_REFERENCE: return toTypedValue((int)payload(value));
+			case TAG_URI: return new SimpleUriValue(strings.get((int)payload(value)));
+			case TAG_HEX: return unpackHex(payload(value));
+			default: throw new SpdxInvalidTypeException("Unexpected stored value tag " + tag(value));
+		}
+	}
+	
+	/**
+	 * Encode a reference or URI value for comparison with stored values without adding to the store
+	 * @param value value to compare
+	 * @return the encoded value, -1 if the value is not in the store or 0 if the value must be compared decoded
+	 */
+	private long encodeProbe(Object value) {
+		if (value instanceof TypedValue) {
+			int item = findItem(((TypedValue)value).getObjectUri());
+			return item < 0 ? -1 : encode(TAG_REFERENCE, item);
+		} else if (value instanceof IndividualUriValue) {
+			int uri = strings.find(((IndividualUriValue)value).getIndividualURI());
+			return uri < 0 ? -1 : encode(TAG_URI, uri);
+		} else {
+			return 0;
+		}
+	}
+	
+	/**
+	 * @param stored encoded value
+	 * @param probe value returned by <code>encodeProbe</code>
+	 * @param value value to compare
+	 * @return true if the stored value is equal to the value - the caller must hold a store lock
+	 * @throws InvalidSPDXAnalysisException on errors decoding the stored value
+	 */
+	private boolean matches(long stored, long probe, Object value) throws InvalidSPDXAnalysisException {
+		if (probe != 0) {
+			return stored == probe;
+		}
+		int tag = tag(stored);
+		return tag != TAG_REFERENCE && tag != TAG_URI && Objects.equals(decodeValue(stored), value);
+	}
+	
+	/**
+	 * Release any storage or reference held by a value which is no longer stored - the caller must hold the store write lock
+	 * @param value encoded value
+	 */
+	private void release(long value) {
+		switch (tag(value)) {
+			case TAG_REFERENCE:
+				itemReferences[(int)payload(value)]--;
+				break;
+			case TAG_TEXT:
+				textArena.free(payload(value));
+				break;
+			case TAG_OBJECT:
+				int object = (int)payload(value);
+				objects[object] = null;
+				if (freeObjectCount == freeObjects.length) {
+					freeObjects = Arrays.copyOf(freeObjects, freeObjects.length * 2);
+				}
+				freeObjects[freeObjectCount++] = object;
+				break;
+			case TAG_COLLECTION:
+				int collection = (int)payload(value);
+				for (int i = 0; i < collectionSizes[collection]; i++) {
+					release(collections[collection][i]);
+				}
+				collections[collection] = null;
+				collectionSizes[collection] = 0;
+				if (freeCollectionCount == freeCollections.length) {
+					freeCollections = Arrays.copyOf(freeCollections, freeCollections.length * 2);
+				}
+				freeCollections[freeCollectionCount++] = collection;
+				break;
+			default:
+				break;
+		}
+	}
+	
+	private int addObject(Object value) {
+		int object;
+		if (freeObjectCount > 0) {
+			object = freeObjects[--freeObjectCount];
+		} else {
+			if (objectCount == objects.length) {
+				objects = Arrays.copyOf(objects, objectCount * 2);
+			}
+			object = objectCount++;
+		}
+		objects[object] = value;
+		return object;
+	}
+	
+	private int addCollection() {
+		int collection;
+		if (freeCollectionCount > 0) {
+			collection = freeCollections[--freeCollectionCount];
+		} else {
+			if (collectionCount == collections.length) {
+				collections = Arrays.copyOf(collections, collectionCount * 2);
+				collectionSizes = Arrays.copyOf(collectionSizes, collectionCount * 2);
+			}
+			collection = collectionCount++;
+		}
+		collections[collection] = new long[2];
+		collectionSizes[collection] = 0;
+		return collection;
+	}
+	
+	/**
+	 * Pack a string of hexadecimal digits of a single case two digits per byte
+	 * @param s string
+	 * @return the encoded value or 0 if the string can not be packed - the caller must hold the store write lock
+	 */
+	private long packHex(String s) {
+		int length = s.length();
+		if (length == 0 || (length & 1) != 0 || length / 2 > MAX_HEX_BYTES) {
+			return 0;
+		}
+		boolean lower = false;
+		boolean upper = false;
+		for (int i = 0; i < length; i++) {
+			char ch = s.charAt(i);
+			if (ch >= 'a' && ch <= 'f') {
+				lower = true;
+			} else if (ch >= 'A' && ch <= 'F') {
+				upper = true;
+			} else if (ch < '0' || ch > '9') {
+				return 0;
+			}
+		}
+		if (lower && upper) {
+			return 0;
+		}
+		int byteLength = length / 2;
+		if (hexLength + byteLength > hexBytes.length) {
+			hexBytes = Arrays.copyOf(hexBytes, Math.max(hexBytes.length * 2, hexLength + byteLength));
+		}
+		int offset = hexLength;
+		for (int i = 0; i < byteLength; i++) {
+			hexBytes[offset + i] = (byte)((Character.digit(s.charAt(i * 2), 16) << 4) | Character.digit(s.charAt(i * 2 + 1), 16));
+		}
+		hexLength += byteLength;
+		return encode(TAG_HEX, ((long)offset << (HEX_LENGTH_BITS + 1)) | ((long)byteLength << 1) | (upper ? 1 : 0));
+	}
+	
+	private String unpackHex(long payload) {
+		char[] digits = (payload & 1) == 0 ? LOWER_HEX_DIGITS : UPPER_HEX_DIGITS;
+		int byteLength = (int)((payload >>> 1) & MAX_HEX_BYTES);
+		int offset = (int)(payload >>> (HEX_LENGTH_BITS + 1));
+		char[] chars = new char[byteLength * 2];
+		for (int i = 0; i < byteLength; i++) {
+			int b = hexBytes[offset + i] & 0xFF;
+			chars[i * 2] = digits[b >>> 4];
+			chars[i * 2 + 1] = digits[b & 0xF];
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,77 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream which counts the bytes read from the underlying stream
+ * 
+ * @author Gary O'Neall
+ */
+class CountingInputStream extends FilterInputStream {
+	
+	private long count = 0;
+
+	/**
+	 * @param in underlying stream
+	 */
+	CountingInputStream(InputStream in) {
+		super(in);
+	}
+
+	@Override
+	public int read() throws IOException {
+		int retval = super.read();
+		if (retval >= 0) {
+			count++;
+		}
+		return retval;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int retval = super.read(b, off, len);
+		if (retval > 0) {
+			count += retval;
+		}
+		return retval;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long retval = super.skip(n);
+		count += retval;
+		return retval;
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+	
+	/**
+	 * @return number of bytes read or skipped
+	 */
+	long getCount() {
+		return count;
+	}
+}
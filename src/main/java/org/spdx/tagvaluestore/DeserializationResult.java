@@ -0,0 +1,85 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.spdx.library.model.v2.SpdxDocument;
+
+/**
+ * Result of deserializing a single tag/value document
+ * 
+ * @author Gary O'Neall
+ */
+public class DeserializationResult {
+	
+	private final SpdxDocument document;
+	private final List<String> warnings;
+	private final @Nullable LoadStats loadStats;
+
+	/**
+	 * @param document document deserialized
+	 * @param warnings warnings found while deserializing the document
+	 */
+	public DeserializationResult(SpdxDocument document, List<String> warnings) {
+		this(document, warnings, null);
+	}
+	
+	/**
+	 * @param document document deserialized
+	 * @param warnings warnings found while deserializing the document
+	 * @param loadStats statistics for the deserialization or null if not collected
+	 */
+	public DeserializationResult(SpdxDocument document, List<String> warnings, @Nullable LoadStats loadStats) {
+		this.document = document;
+		this.warnings = Collections.unmodifiableList(warnings);
+		this.loadStats = loadStats;
+	}
+
+	/**
+	 * @return the document deserialized
+	 */
+	public SpdxDocument getDocument() {
+		return document;
+	}
+
+	/**
+	 * @return the warnings found while deserializing the document
+	 */
+	public List<String> getWarnings() {
+		return warnings;
+	}
+	
+	/**
+	 * @return the time and element breakdown for the deserialization or null if not collected
+	 */
+	public @Nullable LoadStats getLoadStats() {
+		return loadStats;
+	}
+	
+	/**
+	 * @return the namespace of the document deserialized
+	 */
+	public String getDocumentUri() {
+		return document.getDocumentUri();
+	}
+}
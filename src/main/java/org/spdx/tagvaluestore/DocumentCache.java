@@ -0,0 +1,202 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of documents deserialized into a <code>TagValueStore</code> keyed by the SHA-256 digest of the 
+ * tag/value content.
+ * <p>
+ * Each entry is weighted by the size of the tag/value content.  When the total weight exceeds the maximum,
+ * the least recently used entries are evicted.  Evicting an entry only removes it from the cache - the
+ * document is left in the store unless the store is set to delete evicted documents.  Modifying any item in the namespace of a cached document removes its entry.
+ * 
+ * @author Gary O'Neall
+ */
+public class DocumentCache {
+	
+	/**
+	 * Cached document
+	 */
+	static class Entry {
+		final String documentUri;
+		final List<String> warnings;
+		final long weight;
+		
+		Entry(String documentUri, List<String> warnings, long weight) {
+			this.documentUri = documentUri;
+			this.warnings = Collections.unmodifiableList(new ArrayList<>(warnings));
+			this.weight = weight;
+		}
+	}
+	
+	private final long maxWeight;
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	
+	/**
+	 * Namespaces of the cached documents - checked without locking the cache since every mutation of the
+	 * store removes the entry for the modified namespace
+	 */
+	private final Set<String> documentUris = ConcurrentHashMap.newKeySet();
+	private long weight = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	
+	/**
+	 * @param maxWeight maximum total size in bytes of the tag/value content for the cached documents
+	 */
+	DocumentCache(long maxWeight) {
+		this.maxWeight = maxWeight;
+	}
+	
+	/**
+	 * @param digest digest of the tag/value content
+	 * @return the cached entry or null if the content is not in the cache
+	 */
+	synchronized Entry get(String digest) {
+		Entry entry = entries.get(digest);
+		if (entry == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Remove an entry whose document is no longer in the store.  The lookup is counted as a miss.
+	 * @param digest digest of the tag/value content
+	 */
+	synchronized void invalidate(String digest) {
+		Entry entry = entries.remove(digest);
+		if (entry != null) {
+			documentUris.remove(entry.documentUri);
+			weight -= entry.weight;
+			hits--;
+			misses++;
+		}
+	}
+	
+	/**
+	 * Remove any entry for a document namespace
+	 * @param documentUri document namespace
+	 */
+	void remove(String documentUri) {
+		if (!documentUris.contains(documentUri)) {
+			return;
+		}
+		synchronized (this) {
+			Iterator<Entry> iter = entries.values().iterator();
+			while (iter.hasNext()) {
+				Entry entry = iter.next();
+				if (entry.documentUri.equals(documentUri)) {
+					weight -= entry.weight;
+					iter.remove();
+				}
+			}
+			documentUris.remove(documentUri);
+		}
+	}
+	
+	/**
+	 * Add a document to the cache replacing any entry for the same document namespace.
+	 * Documents larger than the maximum weight are not cached.
+	 * @param digest digest of the tag/value content
+	 * @param entry cached document
+	 * @return entries evicted to make room for the document
+	 */
+	synchronized List<Entry> put(String digest, Entry entry) {
+		List<Entry> evicted = new ArrayList<>();
+		if (entry.weight > maxWeight) {
+			return evicted;
+		}
+		// content with the same namespace replaces the previously loaded document in the store
+		remove(entry.documentUri);
+		Entry previous = entries.put(digest, entry);
+		if (previous != null) {
+			documentUris.remove(previous.documentUri);
+			weight -= previous.weight;
+		}
+		documentUris.add(entry.documentUri);
+		weight += entry.weight;
+		Iterator<Map.Entry<String, Entry>> iter = entries.entrySet().iterator();
+		while (weight > maxWeight && iter.hasNext()) {
+			Map.Entry<String, Entry> eldest = iter.next();
+			if (eldest.getValue() != entry) {
+				iter.remove();
+				documentUris.remove(eldest.getValue().documentUri);
+				weight -= eldest.getValue().weight;
+				evicted.add(eldest.getValue());
+				evictions++;
+			}
+		}
+		return evicted;
+	}
+	
+	/**
+	 * @return number of deserializations which returned a cached document
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+	
+	/**
+	 * @return number of deserializations which did not find a cached document
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+	
+	/**
+	 * @return number of documents evicted from the cache
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+	
+	/**
+	 * @return total size in bytes of the tag/value content for the cached documents
+	 */
+	public synchronized long getWeight() {
+		return weight;
+	}
+	
+	/**
+	 * @return maximum total size in bytes of the tag/value content for the cached documents
+	 */
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+	
+	/**
+	 * @return number of cached documents
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+}
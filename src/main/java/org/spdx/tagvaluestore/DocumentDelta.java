@@ -0,0 +1,376 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.spdx.core.IndividualUriValue;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.SimpleUriValue;
+import org.spdx.core.SpdxIdInUseException;
+import org.spdx.core.TypedValue;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.IModelStore.IdType;
+import org.spdx.storage.PropertyDescriptor;
+import org.spdx.tag.ElementOutputCache;
+
+/**
+ * Differences between a document in a store and a new version of the document.
+ * <p>
+ * Elements are the items with an SPDX ID in the document namespace - the document itself, packages,
+ * files, snippets, extracted licenses and external document references.  Elements are matched by ID, so
+ * the new version may use a different document namespace.  Each element is compared using the stamp
+ * of its properties, which does not depend on the document namespace or the IDs of anonymous values,
+ * so unchanged elements are detected without comparing the model objects.  The properties of changed
+ * elements are compared using property stamps.
+ * 
+ * @author Gary O'Neall
+ */
+public class DocumentDelta {
+	
+	private final String documentUri;
+	private final String newDocumentUri;
+	private final List<String> addedElements;
+	private final List<String> removedElements;
+	private final Map<String, List<PropertyDescriptor>> changedElements;
+	private final int unchangedCount;
+	private final List<String> warnings;
+	private boolean applied = false;
+	
+	private DocumentDelta(String documentUri, String newDocumentUri, List<String> addedElements, 
+			List<String> removedElements, Map<String, List<PropertyDescriptor>> changedElements, 
+			int unchangedCount, List<String> warnings) {
+		this.documentUri = documentUri;
+		this.newDocumentUri = newDocumentUri;
+		this.addedElements = Collections.unmodifiableList(addedElements);
+		this.removedElements = Collections.unmodifiableList(removedElements);
+		this.changedElements = Collections.unmodifiableMap(changedElements);
+		this.unchangedCount = unchangedCount;
+		this.warnings = Collections.unmodifiableList(new ArrayList<>(warnings));
+	}
+	
+	/**
+	 * @return the namespace of the document in the store
+	 */
+	public String getDocumentUri() {
+		return documentUri;
+	}
+	
+	/**
+	 * @return the namespace of the new version of the document
+	 */
+	public String getNewDocumentUri() {
+		return newDocumentUri;
+	}
+	
+	/**
+	 * @return IDs of the elements only in the new version
+	 */
+	public List<String> getAddedElements() {
+		return addedElements;
+	}
+	
+	/**
+	 * @return IDs of the elements not in the new version
+	 */
+	public List<String> getRemovedElements() {
+		return removedElements;
+	}
+	
+	/**
+	 * @return map of ID to the added, removed or changed properties for each element which has changed
+	 */
+	public Map<String, List<PropertyDescriptor>> getChangedElements() {
+		return changedElements;
+	}
+	
+	/**
+	 * @return number of elements which are the same in both versions
+	 */
+	public int getUnchangedCount() {
+		return unchangedCount;
+	}
+	
+	/**
+	 * @return warnings found while parsing the new version
+	 */
+	public List<String> getWarnings() {
+		return warnings;
+	}
+	
+	/**
+	 * @return true if the new version has been applied to the document in the store
+	 */
+	public boolean isApplied() {
+		return applied;
+	}
+	
+	/**
+	 * @return true if there are no differences between the versions
+	 */
+	public boolean isEmpty() {
+		return addedElements.isEmpty() && removedElements.isEmpty() && changedElements.isEmpty();
+	}
+	
+	/**
+	 * Compute the stamps for the elements of a document
+	 * @param modelStore store containing the document
+	 * @param documentUri namespace of the document
+	 * @return map of element ID to stamp in the order the elements are stored
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	static Map<String, byte[]> computeElementStamps(IModelStore modelStore, String documentUri) throws InvalidSPDXAnalysisException {
+		Map<String, byte[]> stamps = new LinkedHashMap<>();
+		for (String id:getElementIds(modelStore, documentUri)) {
+			stamps.put(id, ElementOutputCache.computeStamp(modelStore, documentUri + "#" + id, documentUri));
+		}
+		return stamps;
+	}
+	
+	/**
+	 * @param modelStore store containing the document
+	 * @param documentUri namespace of the document
+	 * @return IDs of the elements in the document namespace
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	static Set<String> getElementIds(IModelStore modelStore, String documentUri) throws InvalidSPDXAnalysisException {
+		String prefix = documentUri + "#";
+		Set<String> ids = new LinkedHashSet<>();
+		try (Stream<TypedValue> items = modelStore.getAllItems(prefix, null)) {
+			Iterator<TypedValue> iter = items.iterator();
+			while (iter.hasNext()) {
+				String objectUri = iter.next().getObjectUri();
+				if (objectUri.startsWith(prefix)) {
+					ids.add(objectUri.substring(prefix.length()));
+				}
+			}
+		}
+		return ids;
+	}
+	
+	/**
+	 * Compare the elements of two versions of a document
+	 * @param oldStore store containing the existing document
+	 * @param documentUri namespace of the existing document
+	 * @param oldStamps element stamps for the existing document
+	 * @param newStore store containing the new version
+	 * @param newDocumentUri namespace of the new version
+	 * @param newStamps element stamps for the new version
+	 * @param warnings warnings from parsing the new version
+	 * @return the differences between the versions
+	 * @throws InvalidSPDXAnalysisException on errors reading the stores
+	 */
+	static DocumentDelta compute(IModelStore oldStore, String documentUri, Map<String, byte[]> oldStamps, 
+			IModelStore newStore, String newDocumentUri, Map<String, byte[]> newStamps, 
+			List<String> warnings) throws InvalidSPDXAnalysisException {
+		List<String> added = new ArrayList<>();
+		List<String> removed = new ArrayList<>();
+		Map<String, List<PropertyDescriptor>> changed = new LinkedHashMap<>();
+		int unchanged = 0;
+		for (Map.Entry<String, byte[]> newStamp:newStamps.entrySet()) {
+			String id = newStamp.getKey();
+			byte[] oldStamp = oldStamps.get(id);
+			if (oldStamp == null) {
+				added.add(id);
+			} else if (Arrays.equals(oldStamp, newStamp.getValue())) {
+				unchanged++;
+			} else {
+				changed.put(id, Collections.unmodifiableList(changedProperties(oldStore, documentUri + "#" + id, documentUri, 
+						newStore, newDocumentUri + "#" + id, newDocumentUri)));
+			}
+		}
+		for (String id:oldStamps.keySet()) {
+			if (!newStamps.containsKey(id)) {
+				removed.add(id);
+			}
+		}
+		return new DocumentDelta(documentUri, newDocumentUri, added, removed, changed, unchanged, warnings);
+	}
+	
+	private static List<PropertyDescriptor> changedProperties(IModelStore oldStore, String oldUri, String documentUri,
+			IModelStore newStore, String newUri, String newDocumentUri) throws InvalidSPDXAnalysisException {
+		Set<PropertyDescriptor> properties = new LinkedHashSet<>(oldStore.getPropertyValueDescriptors(oldUri));
+		properties.addAll(newStore.getPropertyValueDescriptors(newUri));
+		List<PropertyDescriptor> retval = new ArrayList<>();
+		for (PropertyDescriptor property:properties) {
+			if (!Arrays.equals(ElementOutputCache.computePropertyStamp(oldStore, oldUri, property, documentUri), 
+					ElementOutputCache.computePropertyStamp(newStore, newUri, property, newDocumentUri))) {
+				retval.add(property);
+			}
+		}
+		return retval;
+	}
+	
+	/**
+	 * Update the existing document to match the new version.  Only the added, removed and changed elements are updated.
+	 * @param toStore store containing the existing document
+	 * @param fromStore store containing the new version
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 */
+	void apply(IModelStore toStore, IModelStore fromStore) throws InvalidSPDXAnalysisException {
+		if (applied) {
+			throw new InvalidSPDXAnalysisException("Delta has already been applied");
+		}
+		for (String id:changedElements.keySet()) {
+			Optional<TypedValue> oldType = toStore.getTypedValue(documentUri + "#" + id);
+			Optional<TypedValue> newType = fromStore.getTypedValue(newDocumentUri + "#" + id);
+			if (!oldType.isPresent() || !newType.isPresent() || !oldType.get().getType().equals(newType.get().getType())) {
+				throw new InvalidSPDXAnalysisException("Can not apply a change of type for element "+id);
+			}
+		}
+		// added elements are created first since they may be referenced by the changed elements
+		for (String id:addedElements) {
+			Optional<TypedValue> typedValue = fromStore.getTypedValue(newDocumentUri + "#" + id);
+			if (typedValue.isPresent()) {
+				toStore.create(new TypedValue(documentUri + "#" + id, typedValue.get().getType(), typedValue.get().getSpecVersion()));
+			}
+		}
+		for (String id:addedElements) {
+			String fromUri = newDocumentUri + "#" + id;
+			for (PropertyDescriptor property:fromStore.getPropertyValueDescriptors(fromUri)) {
+				copyProperty(fromStore, fromUri, toStore, documentUri + "#" + id, property);
+			}
+		}
+		for (Map.Entry<String, List<PropertyDescriptor>> change:changedElements.entrySet()) {
+			String toUri = documentUri + "#" + change.getKey();
+			String fromUri = newDocumentUri + "#" + change.getKey();
+			for (PropertyDescriptor property:change.getValue()) {
+				removeProperty(toStore, toUri, property);
+				copyProperty(fromStore, fromUri, toStore, toUri, property);
+			}
+		}
+		// the changed elements no longer reference the removed elements
+		for (String id:removedElements) {
+			String objectUri = documentUri + "#" + id;
+			for (PropertyDescriptor property:toStore.getPropertyValueDescriptors(objectUri)) {
+				removeProperty(toStore, objectUri, property);
+			}
+		}
+		for (String id:removedElements) {
+			try {
+				toStore.delete(documentUri + "#" + id);
+			} catch (SpdxIdInUseException e) {
+				TagValueStore.logger.warn("Removed element "+id+" is still referenced and was not deleted");
+			}
+		}
+		applied = true;
+	}
+	
+	/**
+	 * Remove a property releasing and deleting any anonymous values
+	 * @param modelStore store containing the item
+	 * @param objectUri object URI of the item
+	 * @param property property to remove
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 */
+	private static void removeProperty(IModelStore modelStore, String objectUri, 
+			PropertyDescriptor property) throws InvalidSPDXAnalysisException {
+		List<Object> values = DocumentItems.getValues(modelStore, objectUri, property);
+		if (modelStore.isCollectionProperty(objectUri, property)) {
+			// removing a collection property does not release the references to the collection elements
+			for (Object value:values) {
+				modelStore.removeValueFromCollection(objectUri, property, value);
+			}
+		}
+		modelStore.removeProperty(objectUri, property);
+		for (Object value:values) {
+			if (value instanceof TypedValue && modelStore.isAnon(((TypedValue)value).getObjectUri())) {
+				String anonUri = ((TypedValue)value).getObjectUri();
+				for (PropertyDescriptor anonProperty:modelStore.getPropertyValueDescriptors(anonUri)) {
+					removeProperty(modelStore, anonUri, anonProperty);
+				}
+				try {
+					modelStore.delete(anonUri);
+				} catch (SpdxIdInUseException e) {
+					// still referenced by another item
+				}
+			}
+		}
+	}
+	
+	private void copyProperty(IModelStore fromStore, String fromUri, IModelStore toStore, String toUri, 
+			PropertyDescriptor property) throws InvalidSPDXAnalysisException {
+		if (fromStore.isCollectionProperty(fromUri, property)) {
+			Iterator<Object> iter = fromStore.listValues(fromUri, property);
+			while (iter.hasNext()) {
+				toStore.addValueToCollection(toUri, property, copyValue(fromStore, toStore, iter.next()));
+			}
+		} else {
+			Optional<Object> value = fromStore.getValue(fromUri, property);
+			if (value.isPresent()) {
+				toStore.setValue(toUri, property, copyValue(fromStore, toStore, value.get()));
+			}
+		}
+	}
+	
+	/**
+	 * Copy a property value from the new version.  Anonymous values are copied, references to elements in the
+	 * new version refer to the elements in the existing document and other referenced items such as listed
+	 * licenses are copied if they are not already in the store.
+	 * @param fromStore store containing the new version
+	 * @param toStore store containing the existing document
+	 * @param value value from the new version
+	 * @return value for the existing document
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 */
+	private Object copyValue(IModelStore fromStore, IModelStore toStore, Object value) throws InvalidSPDXAnalysisException {
+		String newPrefix = newDocumentUri + "#";
+		if (value instanceof TypedValue) {
+			TypedValue typedValue = (TypedValue)value;
+			String objectUri = typedValue.getObjectUri();
+			if (fromStore.isAnon(objectUri)) {
+				String anonUri = toStore.getNextId(IdType.Anonymous);
+				toStore.create(new TypedValue(anonUri, typedValue.getType(), typedValue.getSpecVersion()));
+				for (PropertyDescriptor property:fromStore.getPropertyValueDescriptors(objectUri)) {
+					copyProperty(fromStore, objectUri, toStore, anonUri, property);
+				}
+				return new TypedValue(anonUri, typedValue.getType(), typedValue.getSpecVersion());
+			} else if (objectUri.startsWith(newPrefix)) {
+				return new TypedValue(documentUri + "#" + objectUri.substring(newPrefix.length()), 
+						typedValue.getType(), typedValue.getSpecVersion());
+			} else {
+				if (!toStore.exists(objectUri)) {
+					toStore.create(typedValue);
+					for (PropertyDescriptor property:fromStore.getPropertyValueDescriptors(objectUri)) {
+						copyProperty(fromStore, objectUri, toStore, objectUri, property);
+					}
+				}
+				return typedValue;
+			}
+		} else if (value instanceof IndividualUriValue) {
+			String uri = ((IndividualUriValue)value).getIndividualURI();
+			if (uri.startsWith(newPrefix)) {
+				return new SimpleUriValue(documentUri + "#" + uri.substring(newPrefix.length()));
+			}
+			return value;
+		} else {
+			return value;
+		}
+	}
+}
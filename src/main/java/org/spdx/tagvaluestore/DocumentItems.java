@@ -0,0 +1,228 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.SpdxIdInUseException;
+import org.spdx.core.TypedValue;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.PropertyDescriptor;
+
+/**
+ * Static helper methods for the items in a model store belonging to a single SPDX document
+ * 
+ * @author Gary O'Neall
+ */
+class DocumentItems {
+	
+	private DocumentItems() {
+		// static methods only
+	}
+	
+	/**
+	 * Collect the items in the document namespace along with all items they reference directly or indirectly
+	 * @param modelStore store containing the document
+	 * @param documentUri document namespace
+	 * @return map of object URI to typed value for the items in the order they were found
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	static Map<String, TypedValue> collect(IModelStore modelStore, String documentUri) throws InvalidSPDXAnalysisException {
+		Map<String, TypedValue> items = new LinkedHashMap<>();
+		Deque<String> toVisit = new ArrayDeque<>();
+		try (Stream<TypedValue> documentItems = modelStore.getAllItems(documentUri + "#", null)) {
+			Iterator<TypedValue> iter = documentItems.iterator();
+			while (iter.hasNext()) {
+				TypedValue item = iter.next();
+				items.put(item.getObjectUri(), item);
+				toVisit.add(item.getObjectUri());
+			}
+		}
+		while (!toVisit.isEmpty()) {
+			String objectUri = toVisit.removeFirst();
+			for (PropertyDescriptor property:modelStore.getPropertyValueDescriptors(objectUri)) {
+				for (Object value:getValues(modelStore, objectUri, property)) {
+					if (value instanceof TypedValue) {
+						String referencedUri = ((TypedValue)value).getObjectUri();
+						if (!items.containsKey(referencedUri)) {
+							Optional<TypedValue> referenced = modelStore.getTypedValue(referencedUri);
+							if (referenced.isPresent()) {
+								items.put(referencedUri, referenced.get());
+								toVisit.add(referencedUri);
+							}
+						}
+					}
+				}
+			}
+		}
+		return items;
+	}
+	
+	/**
+	 * Delete the items in the document namespace along with any anonymous items they reference.
+	 * Shared items outside the namespace, such as listed licenses, are not deleted.
+	 * @param modelStore store containing the document
+	 * @param documentUri document namespace
+	 * @return number of items deleted
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 */
+	static int delete(IModelStore modelStore, String documentUri) throws InvalidSPDXAnalysisException {
+		String prefix = documentUri + "#";
+		Set<String> toDelete = new LinkedHashSet<>();
+		Deque<String> toVisit = new ArrayDeque<>();
+		try (Stream<TypedValue> documentItems = modelStore.getAllItems(prefix, null)) {
+			Iterator<TypedValue> iter = documentItems.iterator();
+			while (iter.hasNext()) {
+				String objectUri = iter.next().getObjectUri();
+				if (objectUri.startsWith(prefix)) {
+					toDelete.add(objectUri);
+					toVisit.add(objectUri);
+				}
+			}
+		}
+		// anonymous items reachable only through shared items, such as the cross references of a listed license, are kept
+		while (!toVisit.isEmpty()) {
+			String objectUri = toVisit.removeFirst();
+			for (PropertyDescriptor property:modelStore.getPropertyValueDescriptors(objectUri)) {
+				for (Object value:getValues(modelStore, objectUri, property)) {
+					if (value instanceof TypedValue) {
+						String referencedUri = ((TypedValue)value).getObjectUri();
+						if (modelStore.isAnon(referencedUri) && toDelete.add(referencedUri)) {
+							toVisit.add(referencedUri);
+						}
+					}
+				}
+			}
+		}
+		// anonymous items replaced by a later value, such as the default range pointers of a snippet,
+		// are no longer reachable but still hold references to the document items
+		Set<String> orphans = new LinkedHashSet<>();
+		boolean found = true;
+		while (found) {
+			found = false;
+			try (Stream<TypedValue> allItems = modelStore.getAllItems(null, null)) {
+				Iterator<TypedValue> iter = allItems.iterator();
+				while (iter.hasNext()) {
+					String objectUri = iter.next().getObjectUri();
+					if (modelStore.isAnon(objectUri) && !toDelete.contains(objectUri) && !orphans.contains(objectUri) &&
+							referencesAny(modelStore, objectUri, toDelete, orphans)) {
+						orphans.add(objectUri);
+						found = true;
+					}
+				}
+			}
+		}
+		// remove the references first so that no item is in use when it is deleted
+		for (String objectUri:toDelete) {
+			removeProperties(modelStore, objectUri);
+		}
+		int count = toDelete.size();
+		for (String objectUri:orphans) {
+			removeProperties(modelStore, objectUri);
+		}
+		for (String objectUri:orphans) {
+			try {
+				modelStore.delete(objectUri);
+				count++;
+			} catch (SpdxIdInUseException e) {
+				// the replaced value was never released by the store - the item no longer references anything
+			}
+		}
+		for (String objectUri:toDelete) {
+			modelStore.delete(objectUri);
+		}
+		return count;
+	}
+	
+	/**
+	 * @param modelStore store containing the item
+	 * @param objectUri object URI of the item
+	 * @param targets object URIs of the referenced items
+	 * @param moreTargets additional object URIs of the referenced items
+	 * @return true if any property of the item references one of the targets
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	private static boolean referencesAny(IModelStore modelStore, String objectUri, Set<String> targets, 
+			Set<String> moreTargets) throws InvalidSPDXAnalysisException {
+		for (PropertyDescriptor property:modelStore.getPropertyValueDescriptors(objectUri)) {
+			for (Object value:getValues(modelStore, objectUri, property)) {
+				if (value instanceof TypedValue) {
+					String referencedUri = ((TypedValue)value).getObjectUri();
+					if (targets.contains(referencedUri) || moreTargets.contains(referencedUri)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Remove all properties of an item releasing the references to any items
+	 * @param modelStore store containing the item
+	 * @param objectUri object URI of the item
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 */
+	private static void removeProperties(IModelStore modelStore, String objectUri) throws InvalidSPDXAnalysisException {
+		for (PropertyDescriptor property:modelStore.getPropertyValueDescriptors(objectUri)) {
+			if (modelStore.isCollectionProperty(objectUri, property)) {
+				// removing a collection property does not release the references to the collection elements
+				for (Object value:getValues(modelStore, objectUri, property)) {
+					modelStore.removeValueFromCollection(objectUri, property, value);
+				}
+			}
+			modelStore.removeProperty(objectUri, property);
+		}
+	}
+	
+	/**
+	 * @param modelStore store containing the item
+	 * @param objectUri object URI of the item
+	 * @param property property
+	 * @return the value or values of the property
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	static List<Object> getValues(IModelStore modelStore, String objectUri, 
+			PropertyDescriptor property) throws InvalidSPDXAnalysisException {
+		List<Object> values = new ArrayList<>();
+		if (modelStore.isCollectionProperty(objectUri, property)) {
+			Iterator<Object> iter = modelStore.listValues(objectUri, property);
+			while (iter.hasNext()) {
+				values.add(iter.next());
+			}
+		} else {
+			Optional<Object> value = modelStore.getValue(objectUri, property);
+			if (value.isPresent()) {
+				values.add(value.get());
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,413 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.spdx.core.IndividualUriValue;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.SimpleUriValue;
+import org.spdx.core.TypedValue;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.IModelStore.IdType;
+import org.spdx.storage.PropertyDescriptor;
+
+/**
+ * Compact binary snapshot of the items in a model store belonging to a single SPDX document.
+ * <p>
+ * The snapshot contains a record for each item in the document namespace, each anonymous item
+ * referenced from the document and any other items referenced from the document, followed by
+ * the property values for each item and the warnings from parsing the document.  Strings are
+ * stored once in a string table which is defined inline - the first reference to a string is
+ * followed by its value.  A CRC32 of the snapshot is stored at the end.
+ * 
+ * @author Gary O'Neall
+ */
+public class DocumentSnapshot {
+	
+	static final byte[] MAGIC = "SPDXTVS1".getBytes(StandardCharsets.US_ASCII);
+	static final int FORMAT_VERSION = 1;
+	
+	private static final byte VALUE_STRING = 0;
+	private static final byte VALUE_TRUE = 1;
+	private static final byte VALUE_FALSE = 2;
+	private static final byte VALUE_INTEGER = 3;
+	private static final byte VALUE_DOUBLE = 4;
+	private static final byte VALUE_FLOAT = 5;
+	private static final byte VALUE_TYPED = 6;
+	private static final byte VALUE_URI = 7;
+	
+	private static final byte PROPERTY_SINGLE = 0;
+	private static final byte PROPERTY_COLLECTION = 1;
+	
+	private final String documentUri;
+	private final List<String> warnings;
+	private final int itemCount;
+	
+	private DocumentSnapshot(String documentUri, List<String> warnings, int itemCount) {
+		this.documentUri = documentUri;
+		this.warnings = Collections.unmodifiableList(warnings);
+		this.itemCount = itemCount;
+	}
+	
+	/**
+	 * @return the namespace of the document
+	 */
+	public String getDocumentUri() {
+		return documentUri;
+	}
+
+	/**
+	 * @return the warnings from parsing the document
+	 */
+	public List<String> getWarnings() {
+		return warnings;
+	}
+	
+	/**
+	 * @return the number of items in the snapshot
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+	
+	/**
+	 * Writes string references, defining each string on first use
+	 */
+	static class StringTableWriter {
+		private final Map<String, Integer> indexes = new HashMap<>();
+		private final DataOutputStream out;
+		
+		StringTableWriter(DataOutputStream out) {
+			this.out = out;
+		}
+		
+		void write(String s) throws IOException {
+			Integer index = indexes.get(s);
+			if (index == null) {
+				index = indexes.size();
+				indexes.put(s, index);
+				writeVarInt(out, index);
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(out, bytes.length);
+				out.write(bytes);
+			} else {
+				writeVarInt(out, index);
+			}
+		}
+	}
+	
+	/**
+	 * Reads string references, adding strings to the table on first use
+	 */
+	static class StringTableReader {
+		private final List<String> strings = new ArrayList<>();
+		private final DataInputStream in;
+		
+		StringTableReader(DataInputStream in) {
+			this.in = in;
+		}
+		
+		String read() throws IOException {
+			int index = readVarInt(in);
+			if (index < strings.size()) {
+				return strings.get(index);
+			} else if (index == strings.size()) {
+				byte[] bytes = new byte[readVarInt(in)];
+				in.readFully(bytes);
+				String s = new String(bytes, StandardCharsets.UTF_8);
+				strings.add(s);
+				return s;
+			} else {
+				throw new IOException("Invalid string table index "+index);
+			}
+		}
+	}
+	
+	/**
+	 * Write a snapshot of a document
+	 * @param modelStore store containing the document
+	 * @param documentUri namespace of the document
+	 * @param warnings warnings from parsing the document
+	 * @param stream stream to write the snapshot to - the stream is not closed
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 * @throws IOException on errors writing the snapshot
+	 */
+	public static void write(IModelStore modelStore, String documentUri, List<String> warnings, 
+			OutputStream stream) throws InvalidSPDXAnalysisException, IOException {
+		// the document items and everything they reference
+		write(modelStore, documentUri, DocumentItems.collect(modelStore, documentUri), warnings, stream);
+	}
+	
+	/**
+	 * Write a snapshot of a set of items
+	 * @param modelStore store containing the items
+	 * @param documentUri namespace of the document
+	 * @param items map of object URI to typed value for the items to include in the snapshot
+	 * @param warnings warnings from parsing the document
+	 * @param stream stream to write the snapshot to - the stream is not closed
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 * @throws IOException on errors writing the snapshot
+	 */
+	static void write(IModelStore modelStore, String documentUri, Map<String, TypedValue> items, 
+			List<String> warnings, OutputStream stream) throws InvalidSPDXAnalysisException, IOException {
+		CheckedOutputStream checked = new CheckedOutputStream(stream, new CRC32());
+		DataOutputStream out = new DataOutputStream(checked);
+		StringTableWriter strings = new StringTableWriter(out);
+		out.write(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		strings.write(documentUri);
+		writeVarInt(out, items.size());
+		for (TypedValue item:items.values()) {
+			strings.write(item.getObjectUri());
+			strings.write(item.getType());
+			strings.write(item.getSpecVersion());
+		}
+		for (String objectUri:items.keySet()) {
+			List<PropertyDescriptor> properties = modelStore.getPropertyValueDescriptors(objectUri);
+			writeVarInt(out, properties.size());
+			for (PropertyDescriptor property:properties) {
+				strings.write(property.getName());
+				strings.write(property.getNameSpace());
+				out.writeByte(modelStore.isCollectionProperty(objectUri, property) ? PROPERTY_COLLECTION : PROPERTY_SINGLE);
+				List<Object> values = DocumentItems.getValues(modelStore, objectUri, property);
+				writeVarInt(out, values.size());
+				for (Object value:values) {
+					writeValue(out, strings, value);
+				}
+			}
+		}
+		writeVarInt(out, warnings.size());
+		for (String warning:warnings) {
+			strings.write(warning);
+		}
+		out.flush();
+		long crc = checked.getChecksum().getValue();
+		new DataOutputStream(stream).writeLong(crc);
+		stream.flush();
+	}
+	
+	/**
+	 * Read a snapshot into a model store
+	 * @param modelStore store to add the items to
+	 * @param stream stream containing the snapshot
+	 * @param remapAnonIds if true, anonymous items are given new IDs from the model store - if false
+	 * the anonymous IDs in the snapshot are used
+	 * @param namespaceListener if not null, notified with the document namespace before any items are created
+	 * @return the snapshot document URI and warnings
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 * @throws IOException on errors reading the snapshot or if the snapshot format is not supported
+	 */
+	public static DocumentSnapshot read(IModelStore modelStore, InputStream stream, boolean remapAnonIds,
+			@Nullable Consumer<String> namespaceListener) throws InvalidSPDXAnalysisException, IOException {
+		DataInputStream in = new DataInputStream(stream);
+		StringTableReader strings = new StringTableReader(in);
+		readHeader(in);
+		String documentUri = strings.read();
+		if (namespaceListener != null) {
+			namespaceListener.accept(documentUri);
+		}
+		int itemCount = readVarInt(in);
+		Map<String, String> anonIds = new HashMap<>();
+		String[] itemUris = new String[itemCount];
+		Set<String> skippedItems = new HashSet<>();
+		for (int i = 0; i < itemCount; i++) {
+			String objectUri = strings.read();
+			String type = strings.read();
+			String specVersion = strings.read();
+			if (modelStore.isAnon(objectUri)) {
+				if (remapAnonIds) {
+					String newId = modelStore.getNextId(IdType.Anonymous);
+					anonIds.put(objectUri, newId);
+					objectUri = newId;
+				}
+			} else if (!objectUri.startsWith(documentUri + "#") && modelStore.exists(objectUri)) {
+				// shared item such as a listed license which is already in the store
+				skippedItems.add(objectUri);
+				itemUris[i] = objectUri;
+				continue;
+			}
+			modelStore.create(new TypedValue(objectUri, type, specVersion));
+			itemUris[i] = objectUri;
+		}
+		for (int i = 0; i < itemCount; i++) {
+			String objectUri = itemUris[i];
+			boolean skip = skippedItems.contains(objectUri);
+			int propertyCount = readVarInt(in);
+			for (int j = 0; j < propertyCount; j++) {
+				PropertyDescriptor property = new PropertyDescriptor(strings.read(), strings.read());
+				boolean collection = in.readByte() == PROPERTY_COLLECTION;
+				int valueCount = readVarInt(in);
+				for (int k = 0; k < valueCount; k++) {
+					Object value = readValue(in, strings, anonIds);
+					if (skip) {
+						continue;
+					}
+					if (collection) {
+						modelStore.addValueToCollection(objectUri, property, value);
+					} else {
+						modelStore.setValue(objectUri, property, value);
+					}
+				}
+			}
+		}
+		int warningCount = readVarInt(in);
+		List<String> warnings = new ArrayList<>(warningCount);
+		for (int i = 0; i < warningCount; i++) {
+			warnings.add(strings.read());
+		}
+		return new DocumentSnapshot(documentUri, warnings, itemCount);
+	}
+	
+	/**
+	 * Verifies the format and checksum of a snapshot file without reading the content into a store
+	 * @param snapshotFile file containing the snapshot
+	 * @return true if the snapshot file is complete and has a supported format
+	 */
+	public static boolean isValid(File snapshotFile) {
+		long length = snapshotFile.length();
+		if (length < MAGIC.length + 4 + 8) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+			CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+			DataInputStream body = new DataInputStream(checked);
+			readHeader(body);
+			byte[] buffer = new byte[8192];
+			long remaining = length - 8 - MAGIC.length - 4;
+			while (remaining > 0) {
+				int count = body.read(buffer, 0, (int)Math.min(buffer.length, remaining));
+				if (count < 0) {
+					return false;
+				}
+				remaining -= count;
+			}
+			return checked.getChecksum().getValue() == in.readLong();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+	
+	private static void readHeader(DataInputStream in) throws IOException {
+		byte[] magic = new byte[MAGIC.length];
+		in.readFully(magic);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (magic[i] != MAGIC[i]) {
+				throw new IOException("Not a tag/value document snapshot");
+			}
+		}
+		int version = in.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported snapshot format version "+version);
+		}
+	}
+	
+	static void writeValue(DataOutputStream out, StringTableWriter strings, Object value) throws IOException, InvalidSPDXAnalysisException {
+		if (value instanceof String) {
+			out.writeByte(VALUE_STRING);
+			strings.write((String)value);
+		} else if (value instanceof Boolean) {
+			out.writeByte((Boolean)value ? VALUE_TRUE : VALUE_FALSE);
+		} else if (value instanceof Integer) {
+			out.writeByte(VALUE_INTEGER);
+			out.writeInt((Integer)value);
+		} else if (value instanceof Double) {
+			out.writeByte(VALUE_DOUBLE);
+			out.writeDouble((Double)value);
+		} else if (value instanceof Float) {
+			out.writeByte(VALUE_FLOAT);
+			out.writeFloat((Float)value);
+		} else if (value instanceof TypedValue) {
+			TypedValue tv = (TypedValue)value;
+			out.writeByte(VALUE_TYPED);
+			strings.write(tv.getObjectUri());
+			strings.write(tv.getType());
+			strings.write(tv.getSpecVersion());
+		} else if (value instanceof IndividualUriValue) {
+			out.writeByte(VALUE_URI);
+			strings.write(((IndividualUriValue)value).getIndividualURI());
+		} else {
+			throw new InvalidSPDXAnalysisException("Unsupported value type for snapshot: "+value.getClass().getName());
+		}
+	}
+	
+	static Object readValue(DataInputStream in, StringTableReader strings, 
+			Map<String, String> anonIds) throws IOException, InvalidSPDXAnalysisException {
+		byte valueType = in.readByte();
+		switch (valueType) {
+			case VALUE_STRING: return strings.read();
+			case VALUE_TRUE: return Boolean.TRUE;
+			case VALUE_FALSE: return Boolean.FALSE;
+			case VALUE_INTEGER: return in.readInt();
+			case VALUE_DOUBLE: return in.readDouble();
+			case VALUE_FLOAT: return in.readFloat();
+			case VALUE_TYPED: {
+				String objectUri = strings.read();
+				String type = strings.read();
+				String specVersion = strings.read();
+				String mapped = anonIds.get(objectUri);
+				return new TypedValue(mapped == null ? objectUri : mapped, type, specVersion);
+			}
+			case VALUE_URI: return new SimpleUriValue(strings.read());
+			default: throw new IOException("Invalid value type "+valueType+" in snapshot");
+		}
+	}
+	
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+	
+	static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new EOFException("Invalid variable length integer");
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.library.model.v2.Checksum;
+import org.spdx.library.model.v2.ExternalRef;
+import org.spdx.library.model.v2.SpdxElement;
+import org.spdx.library.model.v2.SpdxFile;
+import org.spdx.library.model.v2.SpdxItem;
+import org.spdx.library.model.v2.SpdxPackage;
+import org.spdx.library.model.v2.license.AnyLicenseInfo;
+import org.spdx.library.model.v2.license.LicenseSet;
+import org.spdx.library.model.v2.license.OrLaterOperator;
+import org.spdx.library.model.v2.license.SimpleLicensingInfo;
+import org.spdx.library.model.v2.license.WithExceptionOperator;
+
+/**
+ * Secondary indexes of the packages, files and snippets deserialized into a <code>TagValueStore</code>.
+ * <p>
+ * Elements are indexed by checksum value, license ID, external reference locator and file name
+ * as they are created by the parser.  Each lookup returns the object URIs of the matching elements.
+ * Checksum values and license IDs are matched ignoring case.
+ * <p>
+ * The indexes reflect the elements as they were deserialized - changes made to the elements afterwards are not tracked.
+ * The index entries for each element are also kept by document so that removing a document or element only
+ * visits its own entries.
+ *
+ * @author Gary O'Neall
+ */
+public class ElementIndex {
+	
+	private final Map<String, Set<String>> byChecksum = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> byLicenseId = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> byExternalRefLocator = new ConcurrentHashMap<>();
+	private final Map<String, Set<String>> byFileName = new ConcurrentHashMap<>();
+	
+	/**
+	 * Key of an element in one of the indexes
+	 */
+	private static class Posting {
+		final Map<String, Set<String>> index;
+		final String key;
+		
+		Posting(Map<String, Set<String>> index, String key) {
+			this.index = index;
+			this.key = key;
+		}
+		
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Posting && ((Posting)o).index == index && ((Posting)o).key.equals(key);
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(index) * 31 + key.hashCode();
+		}
+	}
+	
+	/**
+	 * Index entries for each element by document namespace then element object URI
+	 */
+	private final Map<String, Map<String, Set<Posting>>> postingsByDocument = new ConcurrentHashMap<>();
+	
+	ElementIndex() {
+		// created by the TagValueStore
+	}
+	
+	/**
+	 * Index a package, file or snippet
+	 * @param element element to index
+	 * @throws InvalidSPDXAnalysisException on errors reading the element properties
+	 */
+	void addElement(SpdxElement element) throws InvalidSPDXAnalysisException {
+		String objectUri = element.getObjectUri();
+		if (element instanceof SpdxItem) {
+			SpdxItem item = (SpdxItem)element;
+			addLicenses(item.getLicenseConcluded(), objectUri);
+			for (AnyLicenseInfo license:item.getLicenseInfoFromFiles()) {
+				addLicenses(license, objectUri);
+			}
+		}
+		if (element instanceof SpdxPackage) {
+			SpdxPackage pkg = (SpdxPackage)element;
+			addLicenses(pkg.getLicenseDeclared(), objectUri);
+			for (Checksum checksum:pkg.getChecksums()) {
+				add(byChecksum, checksum.getValue().toLowerCase(Locale.ROOT), objectUri);
+			}
+			for (ExternalRef externalRef:pkg.getExternalRefs()) {
+				add(byExternalRefLocator, externalRef.getReferenceLocator(), objectUri);
+			}
+		} else if (element instanceof SpdxFile) {
+			SpdxFile file = (SpdxFile)element;
+			for (Checksum checksum:file.getChecksums()) {
+				add(byChecksum, checksum.getValue().toLowerCase(Locale.ROOT), objectUri);
+			}
+			Optional<String> name = file.getName();
+			if (name.isPresent()) {
+				add(byFileName, name.get(), objectUri);
+			}
+		}
+	}
+	
+	private void addLicenses(@Nullable AnyLicenseInfo license, String objectUri) throws InvalidSPDXAnalysisException {
+		if (license instanceof SimpleLicensingInfo) {
+			add(byLicenseId, ((SimpleLicensingInfo)license).getLicenseId().toLowerCase(Locale.ROOT), objectUri);
+		} else if (license instanceof LicenseSet) {
+			for (AnyLicenseInfo member:((LicenseSet)license).getMembers()) {
+				addLicenses(member, objectUri);
+			}
+		} else if (license instanceof WithExceptionOperator) {
+			addLicenses(((WithExceptionOperator)license).getLicense(), objectUri);
+		} else if (license instanceof OrLaterOperator) {
+			addLicenses(((OrLaterOperator)license).getLicense(), objectUri);
+		}
+	}
+	
+	private void add(Map<String, Set<String>> index, @Nullable String key, String objectUri) {
+		if (Objects.nonNull(key)) {
+			index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(objectUri);
+			postingsByDocument.computeIfAbsent(namespace(objectUri), ns -> new ConcurrentHashMap<>())
+					.computeIfAbsent(objectUri, uri -> ConcurrentHashMap.newKeySet()).add(new Posting(index, key));
+		}
+	}
+	
+	private static String namespace(String objectUri) {
+		int hashIndex = objectUri.indexOf('#');
+		return hashIndex < 0 ? objectUri : objectUri.substring(0, hashIndex);
+	}
+	
+	private static void remove(String objectUri, @Nullable Set<Posting> postings) {
+		if (Objects.nonNull(postings)) {
+			for (Posting posting:postings) {
+				posting.index.computeIfPresent(posting.key, (String key, Set<String> objectUris) -> {
+					objectUris.remove(objectUri);
+					return objectUris.isEmpty() ? null : objectUris;
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Remove all elements for a document from the indexes
+	 * @param documentUri document namespace
+	 */
+	void removeDocument(String documentUri) {
+		Map<String, Set<Posting>> elements = postingsByDocument.remove(documentUri);
+		if (Objects.nonNull(elements)) {
+			elements.forEach(ElementIndex::remove);
+		}
+	}
+	
+	/**
+	 * Remove elements from the indexes
+	 * @param objectUris object URIs of the elements to remove
+	 */
+	void removeElements(Set<String> objectUris) {
+		for (String objectUri:objectUris) {
+			Map<String, Set<Posting>> elements = postingsByDocument.get(namespace(objectUri));
+			if (Objects.nonNull(elements)) {
+				remove(objectUri, elements.remove(objectUri));
+			}
+		}
+	}
+	
+	private static Set<String> get(Map<String, Set<String>> index, String key) {
+		Set<String> objectUris = index.get(key);
+		return Objects.isNull(objectUris) ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(objectUris));
+	}
+	
+	/**
+	 * @param checksumValue checksum value
+	 * @return object URIs of the packages and files with a checksum matching the value
+	 */
+	public Set<String> getElementsByChecksum(String checksumValue) {
+		return get(byChecksum, checksumValue.toLowerCase(Locale.ROOT));
+	}
+	
+	/**
+	 * @param licenseId listed license or extracted license ID
+	 * @return object URIs of the packages, files and snippets whose declared, concluded or seen licenses include the license
+	 */
+	public Set<String> getElementsByLicenseId(String licenseId) {
+		return get(byLicenseId, licenseId.toLowerCase(Locale.ROOT));
+	}
+	
+	/**
+	 * @param locator external reference locator such as a package URL
+	 * @return object URIs of the packages with an external reference to the locator
+	 */
+	public Set<String> getPackagesByExternalRef(String locator) {
+		return get(byExternalRefLocator, locator);
+	}
+	
+	/**
+	 * @param fileName file name
+	 * @return object URIs of the files with the name
+	 */
+	public Set<String> getFilesByName(String fileName) {
+		return get(byFileName, fileName);
+	}
+}
@@ -0,0 +1,421 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.TypedValue;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.storage.IModelStore;
+import org.spdx.storage.PropertyDescriptor;
+import org.spdx.tag.BuildDocument;
+import org.spdx.tag.CommonCode;
+import org.spdx.tag.HandBuiltParser;
+import org.spdx.tag.InvalidFileFormatException;
+import org.spdx.tag.InvalidSpdxTagFileException;
+import org.spdx.tag.NoCommentInputStream;
+import org.spdx.tag.RecognitionException;
+import org.spdx.tag.TagValueIndex;
+
+/**
+ * Tag/value store which loads the packages, files and snippets of a document when they are first accessed.
+ * <p>
+ * Opening a document scans the file to index the byte range of each element definition and parses
+ * only the document level properties and extracted licenses.  The element properties are parsed into the
+ * base store the first time they are accessed through the <code>IModelStore</code> interface, so memory
+ * use follows the elements actually used rather than the size of the document.  Elements which have not
+ * been loaded are still returned by <code>getAllItems</code> and <code>exists</code>.
+ * <p>
+ * The file must not be modified while the document is open.  Element verification warnings are not
+ * produced for lazily loaded elements - call <code>verify()</code> on the document to check the elements.
+ * Line numbers in any warnings produced when an element is loaded are relative to the element definition.
+ * Deprecated file dependencies are only resolved against files which have already been loaded.
+ * When element indexing is enabled, only the elements which have been loaded are indexed.
+ * Journaling is not supported since elements are loaded from the file rather than recorded as mutations.
+ *
+ * @author Gary O'Neall
+ */
+public class LazyTagValueStore extends TagValueStore {
+	
+	private final IModelStore baseStore;
+	private volatile Properties constants = null;
+	
+	/**
+	 * Index for each open document by document namespace
+	 */
+	private final Map<String, TagValueIndex> indexes = new ConcurrentHashMap<>();
+	
+	/**
+	 * Warnings for each open document by document namespace
+	 */
+	private final Map<String, List<String>> documentWarnings = new ConcurrentHashMap<>();
+	
+	/**
+	 * Index for each element which has not been loaded by object URI
+	 */
+	private final Map<String, TagValueIndex> pending = new ConcurrentHashMap<>();
+	
+	/**
+	 * Held while loading elements into the base store
+	 */
+	private final Object loadLock = new Object();
+
+	/**
+	 * @param baseStore store for the loaded elements
+	 */
+	public LazyTagValueStore(IModelStore baseStore) {
+		super(baseStore);
+		this.baseStore = baseStore;
+	}
+	
+	/**
+	 * Index a tag/value file and load the document level properties.  Elements are loaded when first accessed.
+	 * The file remains open until this store is closed.
+	 * @param tagValueFile tag/value file
+	 * @return the SPDX document
+	 * @throws InvalidSPDXAnalysisException if the file is not a valid tag/value file or the document is already in the store
+	 * @throws IOException on errors reading the file
+	 */
+	public SpdxDocument open(File tagValueFile) throws InvalidSPDXAnalysisException, IOException {
+		if (Objects.isNull(constants)) {
+			constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		}
+		TagValueIndex index = new TagValueIndex(tagValueFile, constants);
+		String documentUri = index.getDocumentNamespace();
+		if (Objects.nonNull(indexes.putIfAbsent(documentUri, index))) {
+			index.close();
+			throw new InvalidSPDXAnalysisException("Document "+documentUri+" is already open");
+		}
+		try {
+			if (baseStore.exists(documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID)) {
+				throw new InvalidSPDXAnalysisException("Document "+documentUri+" already exists in the store");
+			}
+			List<String> loadWarnings = Collections.synchronizedList(new ArrayList<>());
+			documentWarnings.put(documentUri, loadWarnings);
+			this.warnings = loadWarnings;
+			for (String id:index.getElementIds()) {
+				pending.put(documentUri + "#" + id, index);
+			}
+			synchronized(loadLock) {
+				try (InputStream header = index.openHeader()) {
+					parseFragment(header, index, SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, loadWarnings);
+				}
+			}
+			return inflateDocument(documentUri);
+		} catch (InvalidSPDXAnalysisException | IOException | RuntimeException e) {
+			closeDocument(documentUri);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Stop loading elements for a document and close the tag/value file.  Elements which have not been
+	 * loaded are no longer in the store.
+	 * @param documentUri document namespace
+	 * @throws IOException on errors closing the file
+	 */
+	public void closeDocument(String documentUri) throws IOException {
+		TagValueIndex index = indexes.remove(documentUri);
+		if (Objects.nonNull(index)) {
+			pending.values().removeIf(pendingIndex -> pendingIndex == index);
+			documentWarnings.remove(documentUri);
+			index.close();
+		}
+	}
+	
+	/**
+	 * @param objectUri object URI of an element
+	 * @return true if the element has been loaded or is not from an open document
+	 */
+	public boolean isLoaded(String objectUri) {
+		return !pending.containsKey(objectUri);
+	}
+	
+	/**
+	 * @return number of elements in the open documents which have not been loaded
+	 */
+	public int getPendingCount() {
+		return pending.size();
+	}
+	
+	/**
+	 * Parse a tag/value fragment into the base store
+	 * @param fragment tag/value fragment
+	 * @param index index of the document containing the fragment
+	 * @param sourceId ID of the element defined by the fragment
+	 * @param loadWarnings warnings for the document
+	 * @throws InvalidSPDXAnalysisException on invalid tag/value content
+	 * @throws IOException on errors reading the fragment
+	 */
+	private void parseFragment(InputStream fragment, TagValueIndex index, String sourceId, 
+			List<String> loadWarnings) throws InvalidSPDXAnalysisException, IOException {
+		String documentUri = index.getDocumentNamespace();
+		NoCommentInputStream nci = new NoCommentInputStream(fragment);
+		try {
+			HandBuiltParser parser = new HandBuiltParser(nci);
+			BuildDocument buildDocument = new BuildDocument(baseStore, constants, loadWarnings);
+			buildDocument.setFragment(Collections.singleton(sourceId), id -> {
+				return pending.containsKey(documentUri + "#" + id) ? index.getElementType(id) : Optional.empty();
+			});
+			ElementIndex elementIndex = getElementIndex();
+			if (Objects.nonNull(elementIndex)) {
+				buildDocument.setElementListener(elementIndex::addElement);
+			}
+			buildDocument.setStringPool(getStringPool());
+			buildDocument.setMetricsListener(getMetricsListener());
+			parser.setMetricsListener(getMetricsListener());
+			parser.setBehavior(buildDocument);
+			parser.data();
+		} catch (RecognitionException e) {
+			// error in tag value file
+			throw(new InvalidSpdxTagFileException(e.getMessage()));
+		} catch (InvalidFileFormatException e) {
+			// invalid spdx file format
+			throw(new InvalidFileFormatException(e.getMessage()));
+		} catch (InvalidSPDXAnalysisException e) {
+			throw(e);
+		} catch (Exception e){
+			throw(new InvalidSPDXAnalysisException("Unexpected Error: "+e.getMessage(), e));
+		}
+	}
+	
+	/**
+	 * Load an element into the base store if it has not already been loaded
+	 * @param objectUri object URI of the element
+	 * @throws InvalidSPDXAnalysisException on errors parsing the element
+	 */
+	private void load(String objectUri) throws InvalidSPDXAnalysisException {
+		if (!pending.containsKey(objectUri)) {
+			return;
+		}
+		synchronized(loadLock) {
+			TagValueIndex index = pending.remove(objectUri);
+			if (Objects.isNull(index)) {
+				return;
+			}
+			String documentUri = index.getDocumentNamespace();
+			String id = objectUri.substring(documentUri.length() + 1);
+			List<String> loadWarnings = documentWarnings.get(documentUri);
+			try (InputStream fragment = index.openElement(id)) {
+				parseFragment(fragment, index, id, loadWarnings);
+			} catch (IOException e) {
+				throw new InvalidSPDXAnalysisException("I/O error loading element "+objectUri, e);
+			}
+		}
+	}
+	
+	/**
+	 * Make sure an element which has not been loaded is in the base store before it is referenced
+	 * @param value property value
+	 * @throws InvalidSPDXAnalysisException on errors creating the element
+	 */
+	private void createIfPending(Object value) throws InvalidSPDXAnalysisException {
+		if (value instanceof TypedValue && pending.containsKey(((TypedValue)value).getObjectUri())) {
+			synchronized(loadLock) {
+				if (!baseStore.exists(((TypedValue)value).getObjectUri())) {
+					baseStore.create((TypedValue)value);
+				}
+			}
+		}
+	}
+	
+	@Override
+	public boolean exists(String objectUri) {
+		return pending.containsKey(objectUri) || super.exists(objectUri);
+	}
+	
+	@Override
+	public Optional<TypedValue> getTypedValue(String objectUri) throws InvalidSPDXAnalysisException {
+		Optional<TypedValue> retval = super.getTypedValue(objectUri);
+		if (!retval.isPresent()) {
+			TagValueIndex index = pending.get(objectUri);
+			if (Objects.nonNull(index)) {
+				Optional<String> type = index.getElementType(objectUri.substring(index.getDocumentNamespace().length() + 1));
+				if (type.isPresent()) {
+					retval = Optional.of(new TypedValue(objectUri, type.get(), SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION));
+				}
+			}
+		}
+		return retval;
+	}
+	
+	@Override
+	public Stream<TypedValue> getAllItems(String nameSpace, String typeFilter) throws InvalidSPDXAnalysisException {
+		List<TypedValue> items;
+		try (Stream<TypedValue> loaded = super.getAllItems(nameSpace, typeFilter)) {
+			items = loaded.collect(Collectors.toList());
+		}
+		Iterator<Entry<String, TagValueIndex>> iter = pending.entrySet().iterator();
+		while (iter.hasNext()) {
+			Entry<String, TagValueIndex> entry = iter.next();
+			String objectUri = entry.getKey();
+			if ((Objects.isNull(nameSpace) || objectUri.startsWith(nameSpace)) && !super.exists(objectUri)) {
+				Optional<String> type = entry.getValue().getElementType(
+						objectUri.substring(entry.getValue().getDocumentNamespace().length() + 1));
+				if (type.isPresent() && (Objects.isNull(typeFilter) || typeFilter.equals(type.get()))) {
+					items.add(new TypedValue(objectUri, type.get(), SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION));
+				}
+			}
+		}
+		return items.stream();
+	}
+	
+	@Override
+	public List<PropertyDescriptor> getPropertyValueDescriptors(String objectUri) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.getPropertyValueDescriptors(objectUri);
+	}
+	
+	@Override
+	public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		createIfPending(value);
+		super.setValue(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public Optional<Object> getValue(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.getValue(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public void removeProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		super.removeProperty(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean removeValueFromCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.removeValueFromCollection(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public int collectionSize(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.collectionSize(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean collectionContains(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.collectionContains(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public void clearValueCollection(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		super.clearValueCollection(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean addValueToCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		createIfPending(value);
+		return super.addValueToCollection(objectUri, propertyDescriptor, value);
+	}
+	
+	@Override
+	public Iterator<Object> listValues(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.listValues(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public boolean isCollectionMembersAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.isCollectionMembersAssignableTo(objectUri, propertyDescriptor, clazz);
+	}
+	
+	@Override
+	public boolean isPropertyValueAssignableTo(String objectUri, PropertyDescriptor propertyDescriptor, Class<?> clazz, String specVersion) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.isPropertyValueAssignableTo(objectUri, propertyDescriptor, clazz, specVersion);
+	}
+	
+	@Override
+	public boolean isCollectionProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		return super.isCollectionProperty(objectUri, propertyDescriptor);
+	}
+	
+	@Override
+	public void delete(String objectUri) throws InvalidSPDXAnalysisException {
+		load(objectUri);
+		super.delete(objectUri);
+	}
+	
+	@Override
+	public synchronized StoreJournal openJournal(File directory, long commitIntervalMillis, 
+			long compactionThreshold) throws InvalidSPDXAnalysisException, IOException {
+		throw new InvalidSPDXAnalysisException("Journaling is not supported for lazily loaded documents");
+	}
+	
+	/**
+	 * Close the indexes of all open documents and the base store.  All documents are closed even if
+	 * closing one of the indexes fails.
+	 * @throws IOException on errors closing the indexes or the base store
+	 */
+	@Override
+	public void close() throws IOException {
+		IOException failure = null;
+		for (String documentUri:new ArrayList<>(indexes.keySet())) {
+			try {
+				closeDocument(documentUri);
+			} catch (IOException e) {
+				if (Objects.isNull(failure)) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		try {
+			super.close();
+		} catch (Exception e) {
+			IOException storeFailure = e instanceof IOException ? (IOException)e : 
+				new IOException("Unable to close the base store", e);
+			if (Objects.isNull(failure)) {
+				failure = storeFailure;
+			} else {
+				failure.addSuppressed(storeFailure);
+			}
+		}
+		if (Objects.nonNull(failure)) {
+			throw failure;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+import org.spdx.tag.TagValuePhase;
+
+/**
+ * Breakdown of the time and the elements for a single deserialization.
+ * <p>
+ * Phases which did not run, for example when the document was returned from the cache, have a time of zero.
+ * 
+ * @author Gary O'Neall
+ */
+public class LoadStats {
+	
+	private final @Nullable String documentUri;
+	private final long totalNanos;
+	private final long bytesRead;
+	private final long linesRead;
+	private final long tagCount;
+	private final long warningCount;
+	private final long peakStagedObjects;
+	private final boolean cached;
+	private final Map<TagValuePhase, Long> phaseNanos;
+	private final Map<String, Long> elementCounts;
+	
+	LoadStats(@Nullable String documentUri, long totalNanos, long bytesRead, long linesRead, long tagCount,
+			long warningCount, long peakStagedObjects, boolean cached, Map<TagValuePhase, Long> phaseNanos, 
+			Map<String, Long> elementCounts) {
+		this.documentUri = documentUri;
+		this.totalNanos = totalNanos;
+		this.bytesRead = bytesRead;
+		this.linesRead = linesRead;
+		this.tagCount = tagCount;
+		this.warningCount = warningCount;
+		this.peakStagedObjects = peakStagedObjects;
+		this.cached = cached;
+		this.phaseNanos = Collections.unmodifiableMap(new EnumMap<>(phaseNanos));
+		this.elementCounts = Collections.unmodifiableMap(new TreeMap<>(elementCounts));
+	}
+	
+	/**
+	 * @return namespace of the document deserialized or null if the deserialization failed before the namespace was read
+	 */
+	public @Nullable String getDocumentUri() {
+		return documentUri;
+	}
+	
+	/**
+	 * @return elapsed time for the whole deserialization in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+	
+	/**
+	 * @param phase processing phase
+	 * @return time spent in the phase in nanoseconds
+	 */
+	public long getPhaseNanos(TagValuePhase phase) {
+		Long nanos = phaseNanos.get(phase);
+		return nanos == null ? 0 : nanos;
+	}
+	
+	/**
+	 * @return time spent in each phase which ran in nanoseconds
+	 */
+	public Map<TagValuePhase, Long> getPhaseNanos() {
+		return phaseNanos;
+	}
+	
+	/**
+	 * @return number of bytes of tag/value content read
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+	
+	/**
+	 * @return number of lines of tag/value content read
+	 */
+	public long getLinesRead() {
+		return linesRead;
+	}
+	
+	/**
+	 * @return number of tags processed
+	 */
+	public long getTagCount() {
+		return tagCount;
+	}
+	
+	/**
+	 * @param kind SPDX class name of the element, license, annotation or relationship
+	 * @return number of the kind created
+	 */
+	public long getElementCount(String kind) {
+		Long count = elementCounts.get(kind);
+		return count == null ? 0 : count;
+	}
+	
+	/**
+	 * @return number of elements created by SPDX class name
+	 */
+	public Map<String, Long> getElementCounts() {
+		return elementCounts;
+	}
+	
+	/**
+	 * @return number of warnings reported
+	 */
+	public long getWarningCount() {
+		return warningCount;
+	}
+	
+	/**
+	 * @return largest number of relationships, annotations, file dependencies and snippet ranges held until all elements were defined
+	 */
+	public long getPeakStagedObjects() {
+		return peakStagedObjects;
+	}
+	
+	/**
+	 * @return true if the document was returned from the document cache or a snapshot rather than parsed
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("documentUri=");
+		sb.append(documentUri);
+		sb.append(", totalMillis=");
+		sb.append(totalNanos / 1000000);
+		sb.append(", bytes=");
+		sb.append(bytesRead);
+		sb.append(", lines=");
+		sb.append(linesRead);
+		sb.append(", tags=");
+		sb.append(tagCount);
+		sb.append(", elements=");
+		sb.append(elementCounts);
+		sb.append(", peakStagedObjects=");
+		sb.append(peakStagedObjects);
+		sb.append(", warnings=");
+		sb.append(warningCount);
+		sb.append(", cached=");
+		sb.append(cached);
+		for (Map.Entry<TagValuePhase, Long> phase:phaseNanos.entrySet()) {
+			sb.append(", ");
+			sb.append(phase.getKey().name().toLowerCase());
+			sb.append("Millis=");
+			sb.append(phase.getValue() / 1000000);
+		}
+		return sb.toString();
+	}
+}
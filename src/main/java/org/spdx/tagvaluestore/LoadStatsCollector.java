@@ -0,0 +1,121 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.spdx.tag.TagValueMetricsListener;
+import org.spdx.tag.TagValuePhase;
+
+/**
+ * Metrics listener which collects the <code>LoadStats</code> for a single deserialization and passes 
+ * the metrics on to another listener.
+ * <p>
+ * This class is not thread safe - a collector is only used by the thread deserializing the document.
+ * 
+ * @author Gary O'Neall
+ */
+class LoadStatsCollector implements TagValueMetricsListener {
+	
+	private final TagValueMetricsListener delegate;
+	private final long start = System.nanoTime();
+	private long bytes = 0;
+	private long lines = 0;
+	private long tags = 0;
+	private long warnings = 0;
+	private long peakStaged = 0;
+	private boolean cached = false;
+	private final Map<TagValuePhase, Long> phaseNanos = new EnumMap<>(TagValuePhase.class);
+	private final Map<String, Long> elements = new HashMap<>();
+	
+	/**
+	 * @param delegate listener the metrics are passed on to
+	 */
+	LoadStatsCollector(TagValueMetricsListener delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void bytesRead(long bytes) {
+		this.bytes += bytes;
+		delegate.bytesRead(bytes);
+	}
+
+	@Override
+	public void linesRead(long lines) {
+		this.lines += lines;
+		delegate.linesRead(lines);
+	}
+
+	@Override
+	public void tagProcessed(String tag) {
+		tags++;
+		delegate.tagProcessed(tag);
+	}
+
+	@Override
+	public void elementCreated(String kind) {
+		elements.merge(kind, 1L, Long::sum);
+		delegate.elementCreated(kind);
+	}
+
+	@Override
+	public void licenseExpressionParsed() {
+		delegate.licenseExpressionParsed();
+	}
+
+	@Override
+	public void cacheHit(String cache) {
+		if ("document".equals(cache) || "snapshot".equals(cache)) {
+			cached = true;
+		}
+		delegate.cacheHit(cache);
+	}
+
+	@Override
+	public void warningEmitted(String warning) {
+		warnings++;
+		delegate.warningEmitted(warning);
+	}
+
+	@Override
+	public void objectsStaged(long count) {
+		peakStaged = Math.max(peakStaged, count);
+		delegate.objectsStaged(count);
+	}
+
+	@Override
+	public void phaseCompleted(TagValuePhase phase, long nanos) {
+		phaseNanos.merge(phase, nanos, Long::sum);
+		delegate.phaseCompleted(phase, nanos);
+	}
+	
+	/**
+	 * @param documentUri namespace of the document deserialized or null if not known
+	 * @return the statistics collected so far
+	 */
+	LoadStats toLoadStats(@Nullable String documentUri) {
+		return new LoadStats(documentUri, System.nanoTime() - start, bytes, lines, tags, warnings, 
+				peakStaged, cached, phaseNanos, elements);
+	}
+}
@@ -0,0 +1,84 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks for document namespaces.  Locks are created on demand and removed once no thread holds
+ * or is waiting for the lock.
+ * 
+ * @author Gary O'Neall
+ */
+class NamespaceLockRegistry {
+	
+	private static class NamespaceLock {
+		final ReentrantLock lock = new ReentrantLock();
+		int users = 0;
+	}
+	
+	private final Map<String, NamespaceLock> locks = new ConcurrentHashMap<>();
+	
+	/**
+	 * Acquire the lock for a namespace, waiting if another thread holds the lock
+	 * @param namespace document namespace
+	 */
+	void lock(String namespace) {
+		NamespaceLock namespaceLock = locks.compute(namespace, (String ns, NamespaceLock existing) -> {
+			NamespaceLock retval = existing == null ? new NamespaceLock() : existing;
+			retval.users++;
+			return retval;
+		});
+		namespaceLock.lock.lock();
+	}
+	
+	/**
+	 * Release the lock for a namespace
+	 * @param namespace document namespace
+	 */
+	void unlock(String namespace) {
+		NamespaceLock namespaceLock = locks.get(namespace);
+		if (namespaceLock == null) {
+			throw new IllegalStateException("Namespace "+namespace+" is not locked");
+		}
+		namespaceLock.lock.unlock();
+		locks.computeIfPresent(namespace, (String ns, NamespaceLock existing) -> {
+			existing.users--;
+			return existing.users == 0 ? null : existing;
+		});
+	}
+	
+	/**
+	 * @param namespace document namespace
+	 * @return true if the current thread holds the lock for the namespace
+	 */
+	boolean isHeldByCurrentThread(String namespace) {
+		NamespaceLock namespaceLock = locks.get(namespace);
+		return namespaceLock != null && namespaceLock.lock.isHeldByCurrentThread();
+	}
+	
+	/**
+	 * @return number of namespaces with a lock held or waited for
+	 */
+	int size() {
+		return locks.size();
+	}
+}
@@ -0,0 +1,367 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Storage for large text values outside of the Java heap.
+ * <p>
+ * Texts are encoded as UTF-8 into blocks allocated from segments of direct buffers or, if a directory is
+ * provided, from segments of a memory mapped temporary file.  Each text is identified by a <code>long</code>
+ * handle and is only decoded to a <code>String</code> when it is read.  Blocks are allocated in power of
+ * two size classes and freed blocks are reused for later texts of the same size class.  Texts larger than a
+ * segment are stored in a dedicated segment which is released when the text is freed.  In a memory mapped
+ * arena, the file region of a released segment is reused for later segments, so the file only grows when
+ * no freed region is large enough.
+ * <p>
+ * Not thread safe for updates - callers must synchronize access.  Concurrent reads are supported.
+ * 
+ * @author Gary O'Neall
+ */
+public class OffHeapTextArena implements Closeable {
+	
+	/**
+	 * Size in bytes of each segment
+	 */
+	static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+	
+	/**
+	 * Smallest block size in bytes
+	 */
+	static final int MIN_BLOCK_SIZE = 64;
+	
+	/**
+	 * Number of bytes at the start of each block holding the length of the text
+	 */
+	private static final int HEADER_SIZE = 4;
+	private static final int OFFSET_BITS = 32;
+	private static final int MAX_SEGMENTS = 1 << 27;
+	
+	private final File directory;
+	private File mappedFile = null;
+	private RandomAccessFile mappedAccess = null;
+	private long mappedLength = 0;
+	/**
+	 * File offset of each segment in a memory mapped arena
+	 */
+	private long[] segmentFileOffsets = new long[16];
+	/**
+	 * Sizes of the freed regions of the memory mapped file by file offset - adjacent regions are merged
+	 */
+	private final TreeMap<Long, Long> freeFileRegions = new TreeMap<>();
+	
+	private final List<ByteBuffer> segments = new ArrayList<>();
+	private int[] freeSegments = new int[16];
+	private int freeSegmentCount = 0;
+	private int currentSegment = -1;
+	private int currentOffset = SEGMENT_SIZE;
+	/**
+	 * Stack of free block handles indexed by size class
+	 */
+	private final long[][] freeBlocks = new long[Integer.numberOfTrailingZeros(SEGMENT_SIZE) + 1][];
+	private final int[] freeBlockCounts = new int[freeBlocks.length];
+	
+	private long capacity = 0;
+	private long usedBytes = 0;
+	private int textCount = 0;
+	
+	/**
+	 * @param directory directory for the memory mapped arena file - if null, direct buffers are used
+	 */
+	public OffHeapTextArena(@Nullable File directory) {
+		this.directory = directory;
+	}
+	
+	/**
+	 * Store a text in the arena
+	 * @param text text to store
+	 * @return handle for the stored text
+	 * @throws IOException on errors extending the memory mapped file
+	 */
+	long store(String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int blockSize = blockSize(bytes.length);
+		long handle;
+		if (blockSize > SEGMENT_SIZE) {
+			int segment = addSegment(blockSize);
+			handle = (long)segment << OFFSET_BITS;
+		} else {
+			handle = allocate(blockSize);
+		}
+		ByteBuffer buffer = segments.get(segment(handle)).duplicate();
+		buffer.position(offset(handle));
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+		usedBytes += blockSize;
+		textCount++;
+		return handle;
+	}
+	
+	/**
+	 * @param handle handle returned by <code>store</code>
+	 * @return the stored text
+	 */
+	String read(long handle) {
+		ByteBuffer buffer = segments.get(segment(handle)).duplicate();
+		int offset = offset(handle);
+		byte[] bytes = new byte[buffer.getInt(offset)];
+		buffer.position(offset + HEADER_SIZE);
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Free the storage for a text
+	 * @param handle handle returned by <code>store</code>
+	 */
+	void free(long handle) {
+		int segment = segment(handle);
+		ByteBuffer buffer = segments.get(segment);
+		int blockSize = blockSize(buffer.getInt(offset(handle)));
+		usedBytes -= blockSize;
+		textCount--;
+		if (blockSize > SEGMENT_SIZE) {
+			capacity -= buffer.capacity();
+			segments.set(segment, null);
+			if (directory != null) {
+				freeFileRegion(segmentFileOffsets[segment], buffer.capacity());
+			}
+			if (freeSegmentCount == freeSegments.length) {
+				freeSegments = Arrays.copyOf(freeSegments, freeSegmentCount * 2);
+			}
+			freeSegments[freeSegmentCount++] = segment;
+		} else {
+			pushFreeBlock(sizeClass(blockSize), handle);
+		}
+	}
+	
+	/**
+	 * @return number of bytes reserved for the arena segments
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * @return number of bytes in the blocks holding texts
+	 */
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+	
+	/**
+	 * @return number of texts stored
+	 */
+	public int getTextCount() {
+		return textCount;
+	}
+	
+	/**
+	 * @return number of bytes in the memory mapped file - 0 if the arena is not memory mapped
+	 */
+	public long getMappedLength() {
+		return mappedLength;
+	}
+	
+	/**
+	 * @return true if the arena is backed by a memory mapped file
+	 */
+	public boolean isMapped() {
+		return directory != null;
+	}
+	
+	private long allocate(int blockSize) throws IOException {
+		int sizeClass = sizeClass(blockSize);
+		if (freeBlockCounts[sizeClass] > 0) {
+			return freeBlocks[sizeClass][--freeBlockCounts[sizeClass]];
+		}
+		if (currentOffset + blockSize > SEGMENT_SIZE) {
+			// the rest of the current segment is split into free blocks
+			while (currentSegment >= 0 && SEGMENT_SIZE - currentOffset >= MIN_BLOCK_SIZE) {
+				int remainderSize = Integer.highestOneBit(SEGMENT_SIZE - currentOffset);
+				pushFreeBlock(sizeClass(remainderSize), handle(currentSegment, currentOffset));
+				currentOffset += remainderSize;
+			}
+			currentSegment = addSegment(SEGMENT_SIZE);
+			currentOffset = 0;
+		}
+		long handle = handle(currentSegment, currentOffset);
+		currentOffset += blockSize;
+		return handle;
+	}
+	
+	private int addSegment(int size) throws IOException {
+		ByteBuffer buffer;
+		long fileOffset = 0;
+		if (directory == null) {
+			buffer = ByteBuffer.allocateDirect(size);
+		} else {
+			if (mappedAccess == null) {
+				mappedFile = File.createTempFile("spdx-text", ".arena", directory);
+				mappedFile.deleteOnExit();
+				mappedAccess = new RandomAccessFile(mappedFile, "rw");
+			}
+			fileOffset = allocateFileRegion(size);
+			buffer = mappedAccess.getChannel().map(FileChannel.MapMode.READ_WRITE, fileOffset, size);
+		}
+		capacity += size;
+		int segment;
+		if (freeSegmentCount > 0) {
+			segment = freeSegments[--freeSegmentCount];
+			segments.set(segment, buffer);
+		} else {
+			if (segments.size() == MAX_SEGMENTS) {
+				throw new IOException("Maximum number of off heap text segments exceeded");
+			}
+			segments.add(buffer);
+			segment = segments.size() - 1;
+		}
+		if (directory != null) {
+			if (segment >= segmentFileOffsets.length) {
+				segmentFileOffsets = Arrays.copyOf(segmentFileOffsets, Math.max(segment + 1, segmentFileOffsets.length * 2));
+			}
+			segmentFileOffsets[segment] = fileOffset;
+		}
+		return segment;
+	}
+	
+	/**
+	 * Allocate a region of the memory mapped file, reusing the first freed region large enough
+	 * @param size size of the region
+	 * @return file offset of the region
+	 */
+	private long allocateFileRegion(long size) {
+		for (Map.Entry<Long, Long> region:freeFileRegions.entrySet()) {
+			if (region.getValue() >= size) {
+				long offset = region.getKey();
+				freeFileRegions.remove(offset);
+				if (region.getValue() > size) {
+					freeFileRegions.put(offset + size, region.getValue() - size);
+				}
+				return offset;
+			}
+		}
+		long offset = mappedLength;
+		mappedLength += size;
+		return offset;
+	}
+	
+	/**
+	 * Return a region of the memory mapped file for reuse, merging it with any adjacent free regions
+	 * @param offset file offset of the region
+	 * @param size size of the region
+	 */
+	private void freeFileRegion(long offset, long size) {
+		Map.Entry<Long, Long> previous = freeFileRegions.floorEntry(offset);
+		if (previous != null && previous.getKey() + previous.getValue() == offset) {
+			freeFileRegions.remove(previous.getKey());
+			offset = previous.getKey();
+			size += previous.getValue();
+		}
+		Long next = freeFileRegions.remove(offset + size);
+		if (next != null) {
+			size += next;
+		}
+		freeFileRegions.put(offset, size);
+	}
+	
+	private void pushFreeBlock(int sizeClass, long handle) {
+		if (freeBlocks[sizeClass] == null) {
+			freeBlocks[sizeClass] = new long[16];
+		} else if (freeBlockCounts[sizeClass] == freeBlocks[sizeClass].length) {
+			freeBlocks[sizeClass] = Arrays.copyOf(freeBlocks[sizeClass], freeBlockCounts[sizeClass] * 2);
+		}
+		freeBlocks[sizeClass][freeBlockCounts[sizeClass]++] = handle;
+	}
+	
+	/**
+	 * @param textLength length of the UTF-8 encoded text
+	 * @return size of the block holding the text
+	 */
+	private static int blockSize(int textLength) {
+		int size = textLength + HEADER_SIZE;
+		if (size <= MIN_BLOCK_SIZE) {
+			return MIN_BLOCK_SIZE;
+		}
+		if (size > SEGMENT_SIZE) {
+			return size;
+		}
+		return Integer.highestOneBit(size - 1) << 1;
+	}
+	
+	private static int sizeClass(int blockSize) {
+		return Integer.numberOfTrailingZeros(blockSize);
+	}
+	
+	private static long handle(int segment, int offset) {
+		return ((long)segment << OFFSET_BITS) | offset;
+	}
+	
+	private static int segment(long handle) {
+		return (int)(handle >>> OFFSET_BITS);
+	}
+	
+	private static int offset(long handle) {
+		return (int)handle;
+	}
+	
+	/**
+	 * Release all the segments and delete any memory mapped file
+	 */
+	@Override
+	public void close() {
+		segments.clear();
+		Arrays.fill(freeBlockCounts, 0);
+		freeSegmentCount = 0;
+		freeFileRegions.clear();
+		currentSegment = -1;
+		currentOffset = SEGMENT_SIZE;
+		capacity = 0;
+		usedBytes = 0;
+		textCount = 0;
+		if (mappedAccess != null) {
+			try {
+				mappedAccess.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				mappedAccess = null;
+				mappedLength = 0;
+				if (!mappedFile.delete()) {
+					mappedFile.deleteOnExit();
+				}
+			}
+		}
+	}
+}
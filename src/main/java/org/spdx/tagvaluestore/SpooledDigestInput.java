@@ -0,0 +1,155 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.annotation.Nullable;
+
+import org.spdx.tag.ProgressMonitor;
+import org.spdx.tag.TagValueCancelledException;
+import org.spdx.tag.TagValuePhase;
+
+/**
+ * Copies an input stream while computing the SHA-256 digest of the content so that the content
+ * can be read again once the digest is known.  Content up to the memory threshold is held in memory,
+ * larger content is written to a temporary file which is deleted on close.
+ * <p>
+ * The progress is reported and cancellation checked for each block read.  The parser limits are only
+ * applied once the spooled content is parsed - the spool itself holds at most the memory threshold in memory.
+ * 
+ * @author Gary O'Neall
+ */
+class SpooledDigestInput implements Closeable {
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	/**
+	 * Number of bytes read between progress reports
+	 */
+	private static final int BLOCK_SIZE = 64 * 1024;
+	
+	private byte[] content = null;
+	private File spoolFile = null;
+	private final String digest;
+	private long length = 0;
+
+	/**
+	 * @param in stream to spool - the stream is read to the end but not closed
+	 * @param memoryThreshold maximum number of bytes to hold in memory
+	 * @param tempDirectory directory for the temporary file - if null, the system temporary directory is used
+	 * @param progress monitor for the progress and cancellation while the stream is read
+	 * @throws IOException on errors reading the stream or writing the temporary file
+	 * @throws TagValueCancelledException if the deserialization is cancelled while the stream is read
+	 */
+	SpooledDigestInput(InputStream in, int memoryThreshold, @Nullable File tempDirectory, 
+			ProgressMonitor progress) throws IOException, TagValueCancelledException {
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("SHA-256 is not supported by this JVM", e);
+		}
+		ByteArrayOutputStream memory = new ByteArrayOutputStream();
+		OutputStream out = memory;
+		byte[] buffer = new byte[BLOCK_SIZE];
+		progress = progress.forInput(() -> length);
+		try {
+			progress.phaseStarted(TagValuePhase.SPOOL);
+			int count;
+			while ((count = in.read(buffer)) >= 0) {
+				progress.contentRead();
+				md.update(buffer, 0, count);
+				length += count;
+				if (spoolFile == null && length > memoryThreshold) {
+					spoolFile = File.createTempFile("spdx-spool", ".spdx", tempDirectory);
+					out = new FileOutputStream(spoolFile);
+					memory.writeTo(out);
+					memory = null;
+				}
+				out.write(buffer, 0, count);
+			}
+		} catch (IOException | TagValueCancelledException e) {
+			close();
+			throw e;
+		} finally {
+			if (spoolFile != null) {
+				out.close();
+			}
+		}
+		if (spoolFile == null) {
+			content = memory.toByteArray();
+		}
+		this.digest = toHex(md.digest());
+	}
+	
+	/**
+	 * @return hex encoded SHA-256 digest of the content
+	 */
+	String getDigest() {
+		return digest;
+	}
+	
+	/**
+	 * @return number of bytes in the content
+	 */
+	long getLength() {
+		return length;
+	}
+	
+	/**
+	 * @return a new stream over the content
+	 * @throws IOException on errors opening the temporary file
+	 */
+	InputStream openStream() throws IOException {
+		if (spoolFile != null) {
+			return new BufferedInputStream(new FileInputStream(spoolFile));
+		} else {
+			return new ByteArrayInputStream(content);
+		}
+	}
+	
+	static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+
+	@Override
+	public void close() {
+		content = null;
+		if (spoolFile != null && !spoolFile.delete()) {
+			spoolFile.deleteOnExit();
+		}
+	}
+}
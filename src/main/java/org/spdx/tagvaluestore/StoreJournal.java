@@ -0,0 +1,694 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.TypedValue;
+import org.spdx.storage.IModelStore.IdType;
+import org.spdx.storage.PropertyDescriptor;
+
+/**
+ * Append-only journal of the mutations to a <code>TagValueStore</code> used to recover the store after a restart.
+ * <p>
+ * Each mutation is applied to the store and then appended to the current journal file as a record with a
+ * length and CRC32.  Mutations are journaled one at a time so that replay applies them in the same order.
+ * Records are buffered and forced to disk by a group commit - a single <code>fsync</code> covers all records
+ * appended since the previous commit.  Commits are made periodically by a background thread, or for every mutation
+ * if the commit interval is zero.
+ * <p>
+ * A checkpoint compacts the journal by writing a binary snapshot of all items in the store and starting
+ * a new journal file.  Journal files covered by the checkpoint are then deleted.  Recovery loads the
+ * latest valid checkpoint and replays the journal files written after it, stopping at any incomplete
+ * record at the end of a file.
+ * 
+ * @author Gary O'Neall
+ */
+public class StoreJournal implements Closeable {
+	
+	static final String JOURNAL_PREFIX = "journal-";
+	static final String JOURNAL_EXTENSION = ".log";
+	static final String CHECKPOINT_PREFIX = "checkpoint-";
+	
+	private static final Pattern JOURNAL_FILE_PATTERN = Pattern.compile("journal-(\\d+)\\.log");
+	private static final Pattern CHECKPOINT_FILE_PATTERN = Pattern.compile("checkpoint-(\\d+)\\.snapshot");
+	
+	/**
+	 * Trailing number of IDs generated by a model store
+	 */
+	private static final Pattern GENERATED_ID_PATTERN = Pattern.compile("gnrtd(\\d+)$");
+	
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+	
+	private static final byte OP_CREATE = 1;
+	private static final byte OP_SET_VALUE = 2;
+	private static final byte OP_REMOVE_PROPERTY = 3;
+	private static final byte OP_CLEAR_COLLECTION = 4;
+	private static final byte OP_ADD_VALUE = 5;
+	private static final byte OP_REMOVE_VALUE = 6;
+	private static final byte OP_DELETE = 7;
+	private static final byte OP_CLEAR = 8;
+	
+	/**
+	 * Store mutation recorded in the journal
+	 */
+	@FunctionalInterface
+	interface Mutation<T> {
+		T apply() throws InvalidSPDXAnalysisException;
+	}
+	
+	/**
+	 * Writes the record for a mutation
+	 */
+	@FunctionalInterface
+	interface RecordWriter {
+		void write(DataOutputStream out, DocumentSnapshot.StringTableWriter strings) throws IOException, InvalidSPDXAnalysisException;
+	}
+	
+	private final TagValueStore store;
+	private final File directory;
+	private final long commitIntervalMillis;
+	private final long compactionThreshold;
+	
+	/**
+	 * Mutations hold the read lock while updating the store and appending the record - a checkpoint
+	 * holds the write lock so that the snapshot matches the start of the new journal file
+	 */
+	private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+	
+	/**
+	 * Held by the thread forcing the journal to disk
+	 */
+	private final Object syncLock = new Object();
+	
+	private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+	private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+	private final CRC32 crc = new CRC32();
+	
+	private long generation;
+	private FileOutputStream fileOut;
+	private FileChannel channel;
+	private DataOutputStream out;
+	private long fileSize = 0;
+	private long appended = 0;
+	private volatile long durable = 0;
+	private volatile long syncCount = 0;
+	private volatile long checkpointCount = 0;
+	private volatile IOException failure = null;
+	private volatile boolean closed = false;
+	private final ScheduledExecutorService committer;
+	
+	private StoreJournal(TagValueStore store, File directory, long generation, 
+			long commitIntervalMillis, long compactionThreshold) throws IOException {
+		this.store = store;
+		this.directory = directory;
+		this.commitIntervalMillis = commitIntervalMillis;
+		this.compactionThreshold = compactionThreshold;
+		openJournalFile(generation);
+		if (commitIntervalMillis > 0) {
+			committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "spdx-journal-commit");
+				thread.setDaemon(true);
+				return thread;
+			});
+			committer.scheduleWithFixedDelay(this::periodicCommit, commitIntervalMillis, 
+					commitIntervalMillis, TimeUnit.MILLISECONDS);
+		} else {
+			committer = null;
+		}
+	}
+	
+	/**
+	 * Recover the store from any checkpoint and journal files in the directory and start journaling
+	 * @param store store to recover - must be empty if the directory contains a checkpoint or journal
+	 * @param directory directory for the journal and checkpoint files
+	 * @param commitIntervalMillis interval between group commits - if 0, every mutation is committed before it returns
+	 * @param compactionThreshold size in bytes of the current journal file which triggers a checkpoint - if 0, checkpoints are only written on request
+	 * @return the journal
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 * @throws IOException on errors reading the journal or checkpoint files
+	 */
+	static StoreJournal open(TagValueStore store, File directory, long commitIntervalMillis, 
+			long compactionThreshold) throws InvalidSPDXAnalysisException, IOException {
+		if (!directory.isDirectory()) {
+			throw new IllegalArgumentException(directory.toString()+" is not a directory");
+		}
+		if (commitIntervalMillis < 0 || compactionThreshold < 0) {
+			throw new IllegalArgumentException("Journal commit interval and compaction threshold can not be negative");
+		}
+		TreeMap<Long, File> journals = new TreeMap<>();
+		TreeMap<Long, File> checkpoints = new TreeMap<>();
+		File[] files = directory.listFiles();
+		if (Objects.nonNull(files)) {
+			for (File file:files) {
+				Matcher journalMatch = JOURNAL_FILE_PATTERN.matcher(file.getName());
+				Matcher checkpointMatch = CHECKPOINT_FILE_PATTERN.matcher(file.getName());
+				if (journalMatch.matches()) {
+					journals.put(Long.parseLong(journalMatch.group(1)), file);
+				} else if (checkpointMatch.matches()) {
+					checkpoints.put(Long.parseLong(checkpointMatch.group(1)), file);
+				} else if (file.getName().startsWith(CHECKPOINT_PREFIX) && file.getName().endsWith(".tmp")) {
+					// incomplete checkpoint
+					file.delete();
+				}
+			}
+		}
+		long covered = 0;
+		boolean empty;
+		try (Stream<TypedValue> items = store.getAllItems(null, null)) {
+			empty = !items.findAny().isPresent();
+		}
+		if (!empty && (!journals.isEmpty() || !checkpoints.isEmpty())) {
+			throw new InvalidSPDXAnalysisException("The store must be empty to recover from the journal in "+directory);
+		}
+		for (Map.Entry<Long, File> checkpoint:checkpoints.descendingMap().entrySet()) {
+			if (DocumentSnapshot.isValid(checkpoint.getValue())) {
+				try (InputStream in = new BufferedInputStream(new FileInputStream(checkpoint.getValue()))) {
+					DocumentSnapshot.read(store, in, false, null);
+				}
+				covered = checkpoint.getKey();
+				break;
+			} else {
+				TagValueStore.logger.warn("Ignoring invalid journal checkpoint "+checkpoint.getValue());
+			}
+		}
+		long lastGeneration = covered;
+		for (Map.Entry<Long, File> journal:journals.entrySet()) {
+			if (journal.getKey() > covered) {
+				replay(store, journal.getValue());
+			}
+			lastGeneration = Math.max(lastGeneration, journal.getKey());
+		}
+		advanceGeneratedIds(store);
+		StoreJournal retval = new StoreJournal(store, directory, lastGeneration + 1, commitIntervalMillis, compactionThreshold);
+		if (!empty) {
+			// the existing content of the store is only recoverable from a checkpoint
+			retval.checkpoint();
+		}
+		return retval;
+	}
+	
+	/**
+	 * Apply the records in a journal file to the store
+	 * @param store store to update
+	 * @param journalFile journal file
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 * @throws IOException on errors reading the journal file
+	 */
+	private static void replay(TagValueStore store, File journalFile) throws InvalidSPDXAnalysisException, IOException {
+		CRC32 checksum = new CRC32();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+			long remaining = journalFile.length();
+			while (remaining >= 8) {
+				int length = in.readInt();
+				int expectedCrc = in.readInt();
+				remaining -= 8;
+				if (length <= 0 || length > remaining) {
+					break;
+				}
+				byte[] record = new byte[length];
+				in.readFully(record);
+				remaining -= length;
+				checksum.reset();
+				checksum.update(record, 0, length);
+				if ((int)checksum.getValue() != expectedCrc) {
+					break;
+				}
+				apply(store, new DataInputStream(new ByteArrayInputStream(record)));
+			}
+			if (remaining > 0) {
+				TagValueStore.logger.warn("Ignoring incomplete records at the end of journal file "+journalFile);
+			}
+		}
+	}
+	
+	private static void apply(TagValueStore store, DataInputStream in) throws InvalidSPDXAnalysisException, IOException {
+		DocumentSnapshot.StringTableReader strings = new DocumentSnapshot.StringTableReader(in);
+		Map<String, String> noAnonIds = Collections.emptyMap();
+		byte op = in.readByte();
+		if (op == OP_CLEAR) {
+			store.clear();
+			return;
+		}
+		String objectUri = strings.read();
+		switch (op) {
+			case OP_CREATE: store.create(new TypedValue(objectUri, strings.read(), strings.read())); break;
+			case OP_DELETE: store.delete(objectUri); break;
+			case OP_SET_VALUE: store.setValue(objectUri, readProperty(strings), 
+					DocumentSnapshot.readValue(in, strings, noAnonIds)); break;
+			case OP_REMOVE_PROPERTY: store.removeProperty(objectUri, readProperty(strings)); break;
+			case OP_CLEAR_COLLECTION: store.clearValueCollection(objectUri, readProperty(strings)); break;
+			case OP_ADD_VALUE: store.addValueToCollection(objectUri, readProperty(strings), 
+					DocumentSnapshot.readValue(in, strings, noAnonIds)); break;
+			case OP_REMOVE_VALUE: store.removeValueFromCollection(objectUri, readProperty(strings), 
+					DocumentSnapshot.readValue(in, strings, noAnonIds)); break;
+			default: throw new IOException("Invalid journal operation "+op);
+		}
+	}
+	
+	private static PropertyDescriptor readProperty(DocumentSnapshot.StringTableReader strings) throws IOException {
+		return new PropertyDescriptor(strings.read(), strings.read());
+	}
+	
+	/**
+	 * Advance the IDs generated by the store past any generated IDs of the recovered items so that new
+	 * items do not collide with the recovered items
+	 * @param store recovered store
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	private static void advanceGeneratedIds(TagValueStore store) throws InvalidSPDXAnalysisException {
+		Map<IdType, Long> maxIds = new EnumMap<>(IdType.class);
+		try (Stream<TypedValue> items = store.getAllItems(null, null)) {
+			Iterator<TypedValue> iter = items.iterator();
+			while (iter.hasNext()) {
+				String objectUri = iter.next().getObjectUri();
+				int hashIndex = objectUri.lastIndexOf('#');
+				String id = hashIndex < 0 ? objectUri : objectUri.substring(hashIndex + 1);
+				long number = generatedIdNumber(id);
+				if (number >= 0) {
+					IdType idType = store.isAnon(objectUri) ? IdType.Anonymous : store.getIdType(id);
+					Long max = maxIds.get(idType);
+					if (max == null || number > max) {
+						maxIds.put(idType, number);
+					}
+				}
+			}
+		}
+		for (Map.Entry<IdType, Long> maxId:maxIds.entrySet()) {
+			IdType idType = maxId.getKey();
+			if (idType != IdType.Anonymous && idType != IdType.LicenseRef && 
+					idType != IdType.SpdxId && idType != IdType.DocumentRef) {
+				continue;
+			}
+			long number = -1;
+			for (long i = 0; i <= maxId.getValue() && number < maxId.getValue(); i++) {
+				number = generatedIdNumber(store.getNextId(idType));
+				if (number < 0) {
+					// the store does not generate numbered IDs
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param id ID
+	 * @return the number of an ID generated by a model store or -1 if the ID was not generated
+	 */
+	static long generatedIdNumber(String id) {
+		Matcher matcher = GENERATED_ID_PATTERN.matcher(id);
+		if (!matcher.find()) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(matcher.group(1));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+	
+	private void openJournalFile(long newGeneration) throws IOException {
+		File journalFile = journalFile(newGeneration);
+		fileOut = new FileOutputStream(journalFile, true);
+		channel = fileOut.getChannel();
+		out = new DataOutputStream(new BufferedOutputStream(fileOut, WRITE_BUFFER_SIZE));
+		fileSize = journalFile.length();
+		generation = newGeneration;
+	}
+	
+	private File journalFile(long journalGeneration) {
+		return new File(directory, String.format("%s%019d%s", JOURNAL_PREFIX, journalGeneration, JOURNAL_EXTENSION));
+	}
+	
+	private File checkpointFile(long journalGeneration) {
+		return new File(directory, String.format("%s%019d%s", CHECKPOINT_PREFIX, journalGeneration, 
+				TagValueStore.SNAPSHOT_FILE_EXTENSION));
+	}
+	
+	/**
+	 * Apply a mutation to the store and append its record to the journal.  The record is only appended once
+	 * the mutation succeeds, and the journal monitor is held across both so that the records are in the
+	 * same order as the mutations were applied to the store.
+	 * @param mutation mutation of the store
+	 * @param op journal operation
+	 * @param record writes the operands of the record
+	 * @return the result of the mutation
+	 * @throws InvalidSPDXAnalysisException on errors updating the store or writing the journal
+	 */
+	<T> T apply(Mutation<T> mutation, byte op, RecordWriter record) throws InvalidSPDXAnalysisException {
+		T retval;
+		checkpointLock.readLock().lock();
+		try {
+			synchronized (this) {
+				retval = mutation.apply();
+				append(op, record);
+			}
+		} finally {
+			checkpointLock.readLock().unlock();
+		}
+		if (commitIntervalMillis == 0) {
+			try {
+				commit();
+			} catch (IOException e) {
+				throw new InvalidSPDXAnalysisException("Unable to commit the store journal", e);
+			}
+		}
+		return retval;
+	}
+	
+	private synchronized void append(byte op, RecordWriter record) throws InvalidSPDXAnalysisException {
+		try {
+			checkOpen();
+			recordBuffer.reset();
+			recordOut.writeByte(op);
+			record.write(recordOut, new DocumentSnapshot.StringTableWriter(recordOut));
+			recordOut.flush();
+			crc.reset();
+			crc.update(recordBuffer.toByteArray(), 0, recordBuffer.size());
+			out.writeInt(recordBuffer.size());
+			out.writeInt((int)crc.getValue());
+			recordBuffer.writeTo(out);
+			fileSize += 8 + recordBuffer.size();
+			appended++;
+		} catch (IOException e) {
+			failure = e;
+			throw new InvalidSPDXAnalysisException("Unable to write to the store journal", e);
+		}
+	}
+	
+	private void checkOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Store journal is closed");
+		}
+		if (Objects.nonNull(failure)) {
+			throw new IOException("Store journal failed", failure);
+		}
+	}
+	
+	<T> T create(Mutation<T> mutation, TypedValue typedValue) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_CREATE, (out, strings) -> {
+			strings.write(typedValue.getObjectUri());
+			strings.write(typedValue.getType());
+			strings.write(typedValue.getSpecVersion());
+		});
+	}
+	
+	<T> T delete(Mutation<T> mutation, String objectUri) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_DELETE, (out, strings) -> strings.write(objectUri));
+	}
+	
+	<T> T clear(Mutation<T> mutation) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_CLEAR, (out, strings) -> {});
+	}
+	
+	<T> T setValue(Mutation<T> mutation, String objectUri, PropertyDescriptor property, 
+			Object value) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_SET_VALUE, propertyRecord(objectUri, property, value));
+	}
+	
+	<T> T removeProperty(Mutation<T> mutation, String objectUri, PropertyDescriptor property) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_REMOVE_PROPERTY, propertyRecord(objectUri, property, null));
+	}
+	
+	<T> T clearValueCollection(Mutation<T> mutation, String objectUri, PropertyDescriptor property) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_CLEAR_COLLECTION, propertyRecord(objectUri, property, null));
+	}
+	
+	<T> T addValueToCollection(Mutation<T> mutation, String objectUri, PropertyDescriptor property, 
+			Object value) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_ADD_VALUE, propertyRecord(objectUri, property, value));
+	}
+	
+	<T> T removeValueFromCollection(Mutation<T> mutation, String objectUri, PropertyDescriptor property, 
+			Object value) throws InvalidSPDXAnalysisException {
+		return apply(mutation, OP_REMOVE_VALUE, propertyRecord(objectUri, property, value));
+	}
+	
+	private static RecordWriter propertyRecord(String objectUri, PropertyDescriptor property, Object value) {
+		return (out, strings) -> {
+			strings.write(objectUri);
+			strings.write(property.getName());
+			strings.write(property.getNameSpace());
+			if (Objects.nonNull(value)) {
+				DocumentSnapshot.writeValue(out, strings, value);
+			}
+		};
+	}
+	
+	/**
+	 * Force all records appended before this call to disk.  Concurrent callers share a single <code>fsync</code>.
+	 * @throws IOException on errors writing the journal
+	 */
+	public void commit() throws IOException {
+		long target;
+		synchronized (this) {
+			checkOpen();
+			target = appended;
+		}
+		synchronized (syncLock) {
+			if (durable >= target) {
+				return;
+			}
+			FileChannel toSync;
+			long upTo;
+			synchronized (this) {
+				checkOpen();
+				try {
+					out.flush();
+				} catch (IOException e) {
+					failure = e;
+					throw e;
+				}
+				toSync = channel;
+				upTo = appended;
+			}
+			try {
+				toSync.force(false);
+			} catch (IOException e) {
+				failure = e;
+				throw e;
+			}
+			durable = upTo;
+			syncCount++;
+		}
+	}
+	
+	private void periodicCommit() {
+		try {
+			commit();
+			long size;
+			synchronized (this) {
+				size = fileSize;
+			}
+			if (compactionThreshold > 0 && size > compactionThreshold) {
+				checkpoint();
+			}
+		} catch (IOException | InvalidSPDXAnalysisException e) {
+			if (!closed) {
+				TagValueStore.logger.warn("Unable to commit the store journal in "+directory, e);
+			}
+		}
+	}
+	
+	/**
+	 * Compact the journal by writing a checkpoint of all items in the store.  Mutations wait until the
+	 * checkpoint is written.
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 * @throws IOException on errors writing the checkpoint
+	 */
+	public void checkpoint() throws InvalidSPDXAnalysisException, IOException {
+		checkpointLock.writeLock().lock();
+		try {
+			long covered;
+			synchronized (syncLock) {
+				synchronized (this) {
+					checkOpen();
+					out.flush();
+					channel.force(false);
+					durable = appended;
+					out.close();
+					covered = generation;
+					openJournalFile(generation + 1);
+				}
+			}
+			File checkpointFile = checkpointFile(covered);
+			File tempFile = File.createTempFile(CHECKPOINT_PREFIX, ".tmp", directory);
+			try {
+				try (FileOutputStream checkpointOut = new FileOutputStream(tempFile)) {
+					BufferedOutputStream buffered = new BufferedOutputStream(checkpointOut, WRITE_BUFFER_SIZE);
+					Map<String, TypedValue> items = new LinkedHashMap<>();
+					try (Stream<TypedValue> allItems = store.getAllItems(null, null)) {
+						allItems.forEach(item -> items.put(item.getObjectUri(), item));
+					}
+					DocumentSnapshot.write(store, "", items, new ArrayList<>(), buffered);
+					buffered.flush();
+					checkpointOut.getFD().sync();
+				}
+				try {
+					Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				tempFile.delete();
+			}
+			checkpointCount++;
+			deleteCovered(covered);
+		} finally {
+			checkpointLock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * Delete the journal files and older checkpoints covered by a checkpoint
+	 * @param covered generation of the last journal file included in the checkpoint
+	 */
+	private void deleteCovered(long covered) {
+		File[] files = directory.listFiles();
+		if (Objects.isNull(files)) {
+			return;
+		}
+		List<File> toDelete = new ArrayList<>();
+		for (File file:files) {
+			Matcher journalMatch = JOURNAL_FILE_PATTERN.matcher(file.getName());
+			Matcher checkpointMatch = CHECKPOINT_FILE_PATTERN.matcher(file.getName());
+			if ((journalMatch.matches() && Long.parseLong(journalMatch.group(1)) <= covered) ||
+					(checkpointMatch.matches() && Long.parseLong(checkpointMatch.group(1)) < covered)) {
+				toDelete.add(file);
+			}
+		}
+		for (File file:toDelete) {
+			if (!file.delete()) {
+				TagValueStore.logger.warn("Unable to delete journal file "+file);
+			}
+		}
+	}
+	
+	/**
+	 * @return the directory containing the journal and checkpoint files
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+	
+	/**
+	 * @return generation of the current journal file
+	 */
+	public synchronized long getGeneration() {
+		return generation;
+	}
+	
+	/**
+	 * @return number of records appended since the journal was opened
+	 */
+	public synchronized long getRecordCount() {
+		return appended;
+	}
+	
+	/**
+	 * @return number of records appended since the journal was opened which have been forced to disk
+	 */
+	public long getCommittedRecordCount() {
+		return durable;
+	}
+	
+	/**
+	 * @return number of times the journal has been forced to disk by a commit
+	 */
+	public long getSyncCount() {
+		return syncCount;
+	}
+	
+	/**
+	 * @return number of checkpoints written since the journal was opened
+	 */
+	public long getCheckpointCount() {
+		return checkpointCount;
+	}
+	
+	/**
+	 * @return size in bytes of the current journal file
+	 */
+	public synchronized long getJournalSize() {
+		return fileSize;
+	}
+	
+	/**
+	 * Commit any remaining records and close the journal file
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (Objects.nonNull(committer)) {
+			committer.shutdown();
+			try {
+				committer.awaitTermination(commitIntervalMillis + 1000, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		try {
+			if (Objects.isNull(failure)) {
+				commit();
+			}
+		} finally {
+			synchronized (syncLock) {
+				synchronized (this) {
+					closed = true;
+					out.close();
+				}
+			}
+		}
+	}
+}
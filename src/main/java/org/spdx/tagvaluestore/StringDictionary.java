@@ -0,0 +1,123 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.util.Arrays;
+
+/**
+ * Append-only dictionary assigning a dense integer ID to each distinct string.
+ * <p>
+ * Each string is stored once and located through an open addressing table of IDs, so no map
+ * entries or boxed keys are allocated.  Not thread safe - callers must synchronize access.
+ * 
+ * @author Gary O'Neall
+ */
+class StringDictionary {
+	
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	private String[] strings = new String[INITIAL_CAPACITY];
+	/**
+	 * Open addressing table of ID + 1 with 0 for an empty slot
+	 */
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+	private int size = 0;
+	
+	/**
+	 * @param s string to add
+	 * @return the ID for the string, adding the string if it is not already in the dictionary
+	 */
+	int intern(String s) {
+		int mask = slots.length - 1;
+		int i = mix(s.hashCode()) & mask;
+		while (slots[i] != 0) {
+			int id = slots[i] - 1;
+			if (strings[id].equals(s)) {
+				return id;
+			}
+			i = (i + 1) & mask;
+		}
+		if (size == strings.length) {
+			strings = Arrays.copyOf(strings, size * 2);
+		}
+		strings[size] = s;
+		slots[i] = size + 1;
+		size++;
+		if (size * 2 > slots.length) {
+			rehash();
+		}
+		return size - 1;
+	}
+	
+	/**
+	 * @param s string to find
+	 * @return the ID for the string or -1 if the string is not in the dictionary
+	 */
+	int find(String s) {
+		int mask = slots.length - 1;
+		int i = mix(s.hashCode()) & mask;
+		while (slots[i] != 0) {
+			int id = slots[i] - 1;
+			if (strings[id].equals(s)) {
+				return id;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * @param id ID returned by <code>intern</code>
+	 * @return the string for the ID
+	 */
+	String get(int id) {
+		return strings[id];
+	}
+	
+	/**
+	 * @return number of strings in the dictionary
+	 */
+	int size() {
+		return size;
+	}
+	
+	private void rehash() {
+		int[] newSlots = new int[slots.length * 2];
+		int mask = newSlots.length - 1;
+		for (int id = 0; id < size; id++) {
+			int i = mix(strings[id].hashCode()) & mask;
+			while (newSlots[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			newSlots[i] = id + 1;
+		}
+		slots = newSlots;
+	}
+	
+	/**
+	 * Spread the bits of a hash code so that similar strings do not cluster in the table
+	 * @param hash hash code
+	 * @return mixed hash code
+	 */
+	static int mix(int hash) {
+		int h = hash ^ (hash >>> 16);
+		h *= 0x85ebca6b;
+		return h ^ (h >>> 13);
+	}
+}
@@ -18,50 +18,749 @@
  */
 package org.spdx.tagvaluestore;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.spdx.core.CoreModelObject;
+import org.spdx.core.DuplicateSpdxIdException;
 import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.TypedValue;
 import org.spdx.library.ModelCopyManager;
 import org.spdx.library.SpdxModelFactory;
 import org.spdx.library.model.v2.SpdxConstantsCompatV2;
 import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.library.model.v2.SpdxElement;
+import org.spdx.library.model.v2.SpdxFile;
+import org.spdx.library.model.v2.SpdxPackage;
 import org.spdx.storage.IModelStore;
 import org.spdx.storage.ISerializableModelStore;
+import org.spdx.storage.PropertyDescriptor;
 import org.spdx.storage.simple.ExtendedSpdxStore;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.AsyncChannelOutputStream;
 import org.spdx.tag.BuildDocument;
+import org.spdx.tag.CancellationToken;
+import org.spdx.tag.ChannelOutputStream;
 import org.spdx.tag.CommonCode;
+import org.spdx.tag.ElementOutputCache;
 import org.spdx.tag.HandBuiltParser;
 import org.spdx.tag.InvalidFileFormatException;
 import org.spdx.tag.InvalidSpdxTagFileException;
+import org.spdx.tag.LineTooLongException;
 import org.spdx.tag.NoCommentInputStream;
+import org.spdx.tag.ParserLimitExceededException;
+import org.spdx.tag.ParserLimits;
+import org.spdx.tag.ProgressMonitor;
 import org.spdx.tag.RecognitionException;
+import org.spdx.tag.StringPool;
+import org.spdx.tag.TagValueCancelledException;
+import org.spdx.tag.TagValueEvents;
+import org.spdx.tag.TagValueMetricsListener;
+import org.spdx.tag.TagValuePhase;
+import org.spdx.tag.TagValueProgressListener;
+import org.spdx.tag.VersionedModelStore;
 
 /**
  * SPDX Store implementing serializers and deserializers for the Tag/Value format
  * 
  * @author Gary O'Neall
  */
-public class TagValueStore extends ExtendedSpdxStore implements ISerializableModelStore {
+public class TagValueStore extends ExtendedSpdxStore implements ISerializableModelStore, VersionedModelStore {
 	
-	List<String> warnings = new ArrayList<String>();
+	static final Logger logger = LoggerFactory.getLogger(TagValueStore.class);
+	
+	static final String SNAPSHOT_FILE_EXTENSION = ".snapshot";
+	
+	/**
+	 * Time in seconds an idle serialization thread is kept before it ends
+	 */
+	static final long SERIALIZATION_THREAD_KEEP_ALIVE_SECONDS = 60;
+	
+	/**
+	 * Tag/value documents up to this size are held in memory while computing the digest for the snapshot
+	 */
+	static final int SPOOL_MEMORY_THRESHOLD = 16 * 1024 * 1024;
+	
+	/**
+	 * Maximum number of times the items are scanned when the base store is modified during the scan
+	 */
+	static final int MAX_ITEM_SCAN_ATTEMPTS = 100;
+	
+	volatile List<String> warnings = new ArrayList<String>();
+	
+	/**
+	 * Locks held while a document namespace is being deserialized or deleted and while an item in the
+	 * namespace is created or deleted
+	 */
+	private final NamespaceLockRegistry namespaceLocks = new NamespaceLockRegistry();
+	
+	/**
+	 * Held while a shared item outside any document namespace, such as a listed license, is created or deleted
+	 */
+	private final ReentrantLock sharedItemsLock = new ReentrantLock();
+	
+	/**
+	 * Directory for binary snapshots of deserialized documents - null if snapshots are not used
+	 */
+	private volatile File snapshotDirectory = null;
+	
+	/**
+	 * Cache of deserialized documents keyed by content digest - null if the cache is not enabled
+	 */
+	private volatile DocumentCache documentCache = null;
+	
+	/**
+	 * If true, documents evicted from the document cache are deleted from the store
+	 */
+	private volatile boolean deleteEvictedDocuments = false;
+	
+	/**
+	 * Secondary indexes of the deserialized elements - null if element indexing is not enabled
+	 */
+	private volatile ElementIndex elementIndex = null;
+	
+	/**
+	 * Pool used to share equal values across deserialized documents - null if values are not pooled
+	 */
+	private volatile StringPool stringPool = null;
+	
+	/**
+	 * Receives the parse and serialize metrics
+	 */
+	private volatile TagValueMetricsListener metricsListener = TagValueMetricsListener.NO_OP;
+	
+	/**
+	 * Limits on the tag/value input accepted
+	 */
+	private volatile ParserLimits parserLimits = new ParserLimits();
+	
+	/**
+	 * Journal of the mutations to the store - null if journaling is not enabled
+	 */
+	private volatile StoreJournal journal = null;
+	
+	/**
+	 * Element stamps by document namespace and element ID - null if delta tracking is not enabled
+	 */
+	private volatile Map<String, Map<String, byte[]>> elementStamps = null;
+	
+	/**
+	 * Cache of previously serialized element output - null if incremental serialization is not enabled
+	 */
+	private volatile ElementOutputCache elementOutputCache = null;
+	
+	/**
+	 * Modification count for an item namespace
+	 */
+	private static class NamespaceVersion {
+		final String namespace;
+		final AtomicLong version;
+		
+		NamespaceVersion(String namespace, AtomicLong version) {
+			this.namespace = namespace;
+			this.version = version;
+		}
+	}
+	
+	/**
+	 * Modification counts for each document namespace
+	 */
+	private final Map<String, AtomicLong> namespaceVersions = new ConcurrentHashMap<>();
+	
+	/**
+	 * Modification count for the items outside any document namespace
+	 */
+	private final AtomicLong sharedVersion = new AtomicLong(0);
+	
+	/**
+	 * Namespace most recently modified - the modifications made while loading a document are all in the same namespace
+	 */
+	private volatile NamespaceVersion lastModified = null;
+	
+	/**
+	 * Statistics for the most recently completed deserialization
+	 */
+	private volatile LoadStats lastLoadStats = null;
+	
+	/**
+	 * Number of documents rendered concurrently when serializing all documents in the store
+	 */
+	private int serializationParallelism = 1;
+	
+	/**
+	 * Threads rendering the documents for parallel serialization - created when first used
+	 */
+	private ThreadPoolExecutor serializationExecutor = null;
+	
+	/**
+	 * If greater than zero, documents are serialized using at most this number of bytes for sorting elements
+	 */
+	private long serializationMemoryBudget = 0;
+	
+	/**
+	 * Directory for the sorted runs when the serialization memory budget is exceeded
+	 */
+	private File serializationTempDirectory = null;
+	
+	static final Comparator<SpdxDocument> DOCUMENT_URI_COMPARATOR = new Comparator<SpdxDocument>() {
+
+		@Override
+		public int compare(SpdxDocument o1, SpdxDocument o2) {
+			return o1.getDocumentUri().compareTo(o2.getDocumentUri());
+		}
+		
+	};
 
 	public TagValueStore(IModelStore baseStore) {
 		super(baseStore);
 	}
 	
+	/**
+	 * Release any item referenced by the previous value before setting the new value.  Some stores only
+	 * release a referenced item when the property is removed, which would leave replaced values in use
+	 * and prevent the document from being deleted.
+	 */
+	@Override
+	public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		if (Objects.nonNull(elementOutputCache) && !(value instanceof TypedValue)) {
+			// some model objects set the same property values each time they are constructed, which would
+			// otherwise count as modifications and disable the reuse of unmodified documents
+			Optional<Object> current = super.getValue(objectUri, propertyDescriptor);
+			if (current.isPresent() && current.get().equals(value)) {
+				return;
+			}
+		}
+		StoreJournal.Mutation<Void> mutation = () -> {
+			if (value instanceof TypedValue) {
+				// the base store does not release a replaced reference - only references replace references
+				Optional<Object> previous = super.getValue(objectUri, propertyDescriptor);
+				if (previous.isPresent() && previous.get() instanceof TypedValue) {
+					super.removeProperty(objectUri, propertyDescriptor);
+				}
+			}
+			super.setValue(objectUri, propertyDescriptor, value);
+			return null;
+		};
+		invalidateElementStamp(objectUri);
+		invalidateCachedDocument(objectUri);
+		countModification(objectUri);
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			mutation.apply();
+		} else {
+			j.setValue(mutation, objectUri, propertyDescriptor, value);
+		}
+	}
+	
+	@Override
+	public void create(TypedValue typedValue) throws InvalidSPDXAnalysisException {
+		invalidateElementStamp(typedValue.getObjectUri());
+		invalidateCachedDocument(typedValue.getObjectUri());
+		countModification(typedValue.getObjectUri());
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			createItem(typedValue);
+		} else {
+			j.create(() -> {
+				createItem(typedValue);
+				return null;
+			}, typedValue);
+		}
+	}
+	
+	/**
+	 * Create an item.  Shared items outside any document namespace, such as listed licenses, may be created
+	 * by documents deserialized concurrently - an item which was created by another document is used as is.
+	 * @param typedValue item to create
+	 * @throws InvalidSPDXAnalysisException on errors creating the item
+	 */
+	private void createItem(TypedValue typedValue) throws InvalidSPDXAnalysisException {
+		String objectUri = typedValue.getObjectUri();
+		Runnable unlock = lockItemScope(objectUri);
+		try {
+			super.create(typedValue);
+		} catch (DuplicateSpdxIdException e) {
+			Optional<TypedValue> existing = super.getTypedValue(objectUri);
+			if (objectUri.indexOf('#') >= 0 || isAnon(objectUri) || !existing.isPresent() || 
+					!existing.get().getType().equals(typedValue.getType())) {
+				throw e;
+			}
+		} finally {
+			unlock.run();
+		}
+	}
+	
+	/**
+	 * Lock the scope of an item while it is created or deleted - the namespace of a document item or the shared
+	 * items lock for an item outside any namespace.  Anonymous items have unique IDs and are not locked.
+	 * @param objectUri URI of the item
+	 * @return releases the lock
+	 */
+	private Runnable lockItemScope(String objectUri) {
+		int hashIndex = objectUri.indexOf('#');
+		if (hashIndex >= 0) {
+			String namespace = objectUri.substring(0, hashIndex);
+			if (namespaceLocks.isHeldByCurrentThread(namespace)) {
+				// the document is being deserialized or deleted by this thread
+				return () -> {};
+			}
+			namespaceLocks.lock(namespace);
+			return () -> namespaceLocks.unlock(namespace);
+		} else if (isAnon(objectUri)) {
+			return () -> {};
+		} else {
+			sharedItemsLock.lock();
+			return sharedItemsLock::unlock;
+		}
+	}
+	
+	/**
+	 * Delete an item from the base store
+	 * @param objectUri URI of the item to delete
+	 * @throws InvalidSPDXAnalysisException on errors deleting the item
+	 */
+	private void deleteItem(String objectUri) throws InvalidSPDXAnalysisException {
+		Runnable unlock = lockItemScope(objectUri);
+		try {
+			super.delete(objectUri);
+		} finally {
+			unlock.run();
+		}
+	}
+	
+	/**
+	 * Item creation only locks the item's namespace, so a base store scan may see an item created in another
+	 * namespace by a document deserialized concurrently.  The scan is retried when the base store is modified
+	 * during the scan.
+	 */
+	@Override
+	public Stream<TypedValue> getAllItems(String nameSpace, String typeFilter) throws InvalidSPDXAnalysisException {
+		for (int attempt = 1; ; attempt++) {
+			try (Stream<TypedValue> items = super.getAllItems(nameSpace, typeFilter)) {
+				return items.collect(Collectors.toList()).stream();
+			} catch (ConcurrentModificationException e) {
+				if (attempt >= MAX_ITEM_SCAN_ATTEMPTS) {
+					throw e;
+				}
+			}
+		}
+	}
+	
+	@Override
+	public void delete(String objectUri) throws InvalidSPDXAnalysisException {
+		invalidateElementStamp(objectUri);
+		invalidateCachedDocument(objectUri);
+		countModification(objectUri);
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			deleteItem(objectUri);
+		} else {
+			j.delete(() -> {
+				deleteItem(objectUri);
+				return null;
+			}, objectUri);
+		}
+	}
+	
+	@Override
+	protected void clear() throws InvalidSPDXAnalysisException {
+		// every document depends on the shared items
+		sharedVersion.incrementAndGet();
+		Map<String, Map<String, byte[]>> stamps = this.elementStamps;
+		if (Objects.nonNull(stamps)) {
+			stamps.clear();
+		}
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			super.clear();
+		} else {
+			j.clear(() -> {
+				super.clear();
+				return null;
+			});
+		}
+	}
+	
+	@Override
+	public void removeProperty(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		invalidateElementStamp(objectUri);
+		invalidateCachedDocument(objectUri);
+		countModification(objectUri);
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			super.removeProperty(objectUri, propertyDescriptor);
+		} else {
+			j.removeProperty(() -> {
+				super.removeProperty(objectUri, propertyDescriptor);
+				return null;
+			}, objectUri, propertyDescriptor);
+		}
+	}
+	
+	@Override
+	public void clearValueCollection(String objectUri, PropertyDescriptor propertyDescriptor) throws InvalidSPDXAnalysisException {
+		invalidateElementStamp(objectUri);
+		invalidateCachedDocument(objectUri);
+		countModification(objectUri);
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			super.clearValueCollection(objectUri, propertyDescriptor);
+		} else {
+			j.clearValueCollection(() -> {
+				super.clearValueCollection(objectUri, propertyDescriptor);
+				return null;
+			}, objectUri, propertyDescriptor);
+		}
+	}
+	
+	@Override
+	public boolean addValueToCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		invalidateElementStamp(objectUri);
+		invalidateCachedDocument(objectUri);
+		countModification(objectUri);
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			return super.addValueToCollection(objectUri, propertyDescriptor, value);
+		} else {
+			return j.addValueToCollection(() -> super.addValueToCollection(objectUri, propertyDescriptor, value), 
+					objectUri, propertyDescriptor, value);
+		}
+	}
+	
+	@Override
+	public boolean removeValueFromCollection(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+		invalidateElementStamp(objectUri);
+		invalidateCachedDocument(objectUri);
+		countModification(objectUri);
+		StoreJournal j = this.journal;
+		if (Objects.isNull(j)) {
+			return super.removeValueFromCollection(objectUri, propertyDescriptor, value);
+		} else {
+			return j.removeValueFromCollection(() -> super.removeValueFromCollection(objectUri, propertyDescriptor, value), 
+					objectUri, propertyDescriptor, value);
+		}
+	}
+	
+	/**
+	 * Enable a journal of the mutations to this store.  Any checkpoint and journal files already in the directory
+	 * are first loaded into the store, recovering the store as of the last commit.  If the store is not empty,
+	 * the directory must not contain a journal and a checkpoint of the current content is written.
+	 * @param directory directory for the journal and checkpoint files
+	 * @param commitIntervalMillis interval between group commits which force the journal to disk - if 0, every mutation 
+	 * is committed before it returns
+	 * @param compactionThreshold size in bytes of the journal file which triggers a checkpoint - if 0, 
+	 * checkpoints are only written by <code>StoreJournal.checkpoint()</code>
+	 * @return the journal
+	 * @throws InvalidSPDXAnalysisException on errors recovering the store
+	 * @throws IOException on errors reading or writing the journal files
+	 */
+	public synchronized StoreJournal openJournal(File directory, long commitIntervalMillis, 
+			long compactionThreshold) throws InvalidSPDXAnalysisException, IOException {
+		if (Objects.nonNull(journal)) {
+			throw new InvalidSPDXAnalysisException("A journal is already open for this store");
+		}
+		journal = StoreJournal.open(this, directory, commitIntervalMillis, compactionThreshold);
+		return journal;
+	}
+	
+	/**
+	 * Commit and close the journal.  Subsequent mutations are not journaled.
+	 * @throws IOException on errors writing the journal
+	 */
+	public synchronized void closeJournal() throws IOException {
+		StoreJournal j = this.journal;
+		if (Objects.nonNull(j)) {
+			journal = null;
+			j.close();
+		}
+	}
+	
+	/**
+	 * @return the journal or null if journaling is not enabled
+	 */
+	public @Nullable StoreJournal getJournal() {
+		return journal;
+	}
+	
+	/**
+	 * Enable or disable delta tracking.  When enabled, a stamp of the properties of each element is recorded once
+	 * each document has been deserialized so that <code>computeDelta</code> only needs to compute stamps for the
+	 * new version.  The stamp of an element is discarded when the element is modified and recomputed when needed.
+	 * Changes made directly to anonymous values, such as the value of an existing checksum, are not detected
+	 * until the element itself is modified.
+	 * @param tracking true to enable delta tracking
+	 */
+	public void setDeltaTracking(boolean tracking) {
+		if (tracking) {
+			if (Objects.isNull(elementStamps)) {
+				elementStamps = new ConcurrentHashMap<>();
+			}
+		} else {
+			elementStamps = null;
+		}
+	}
+	
+	/**
+	 * @return true if delta tracking is enabled
+	 */
+	public boolean isDeltaTracking() {
+		return Objects.nonNull(elementStamps);
+	}
+	
+	/**
+	 * Parse a new version of a document and compute the differences from the document in this store.
+	 * Elements are matched by SPDX ID, so the new version may have a different document namespace.
+	 * @param documentUri namespace of the document in this store
+	 * @param stream stream containing the new version in tag/value format
+	 * @param apply if true, the document in this store is updated to match the new version keeping its namespace - 
+	 * only the added, removed and changed elements are updated
+	 * @return the differences between the document and the new version
+	 * @throws InvalidSPDXAnalysisException if the document is not in the store or on invalid tag/value documents
+	 * @throws IOException on errors reading the stream
+	 */
+	public DocumentDelta computeDelta(String documentUri, InputStream stream, boolean apply) throws InvalidSPDXAnalysisException, IOException {
+		if (!exists(documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID)) {
+			throw new InvalidSPDXAnalysisException("Document "+documentUri+" is not in the store");
+		}
+		try (TagValueStore newVersion = new TagValueStore(new InMemSpdxStore())) {
+			newVersion.setStringPool(stringPool);
+			DeserializationResult parsed = newVersion.deSerializeWithResult(stream, false);
+			String newDocumentUri = parsed.getDocumentUri();
+			Map<String, byte[]> newStamps = DocumentDelta.computeElementStamps(newVersion, newDocumentUri);
+			namespaceLocks.lock(documentUri);
+			try {
+				DocumentDelta delta = DocumentDelta.compute(this, documentUri, getElementStamps(documentUri), 
+						newVersion, newDocumentUri, newStamps, parsed.getWarnings());
+				if (apply) {
+					delta.apply(this, newVersion);
+					Set<String> updatedIds = new HashSet<>(delta.getAddedElements());
+					updatedIds.addAll(delta.getChangedElements().keySet());
+					Map<String, Map<String, byte[]>> stamps = this.elementStamps;
+					if (Objects.nonNull(stamps)) {
+						Map<String, byte[]> documentStamps = stamps.computeIfAbsent(documentUri, uri -> new ConcurrentHashMap<>());
+						for (String id:updatedIds) {
+							documentStamps.put(id, newStamps.get(id));
+						}
+					}
+					DocumentCache cache = this.documentCache;
+					if (Objects.nonNull(cache)) {
+						cache.remove(documentUri);
+					}
+					ElementIndex index = this.elementIndex;
+					if (Objects.nonNull(index)) {
+						Set<String> objectUris = new HashSet<>();
+						for (String id:updatedIds) {
+							objectUris.add(documentUri + "#" + id);
+						}
+						for (String id:delta.getRemovedElements()) {
+							objectUris.add(documentUri + "#" + id);
+						}
+						index.removeElements(objectUris);
+						indexElements(index, documentUri, updatedIds);
+					}
+				}
+				return delta;
+			} finally {
+				namespaceLocks.unlock(documentUri);
+			}
+		} catch (InvalidSPDXAnalysisException | IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Unable to close the store for the new version", e);
+		}
+	}
+	
+	/**
+	 * @param documentUri document namespace
+	 * @return the stamps for the elements in the document, computing any stamps which have not been recorded
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	private Map<String, byte[]> getElementStamps(String documentUri) throws InvalidSPDXAnalysisException {
+		Map<String, Map<String, byte[]>> stamps = this.elementStamps;
+		Map<String, byte[]> recorded = Objects.isNull(stamps) ? null : 
+			stamps.computeIfAbsent(documentUri, uri -> new ConcurrentHashMap<>());
+		Map<String, byte[]> retval = new LinkedHashMap<>();
+		for (String id:DocumentDelta.getElementIds(this, documentUri)) {
+			byte[] stamp = Objects.isNull(recorded) ? null : recorded.get(id);
+			if (Objects.isNull(stamp)) {
+				stamp = ElementOutputCache.computeStamp(this, documentUri + "#" + id, documentUri);
+				if (Objects.nonNull(recorded)) {
+					recorded.put(id, stamp);
+				}
+			}
+			retval.put(id, stamp);
+		}
+		return retval;
+	}
+	
+	/**
+	 * Record the element stamps for a document if delta tracking is enabled
+	 * @param documentUri document namespace
+	 * @throws InvalidSPDXAnalysisException on errors reading the store
+	 */
+	private void recordElementStamps(String documentUri) throws InvalidSPDXAnalysisException {
+		Map<String, Map<String, byte[]>> stamps = this.elementStamps;
+		if (Objects.nonNull(stamps)) {
+			stamps.put(documentUri, new ConcurrentHashMap<>(DocumentDelta.computeElementStamps(this, documentUri)));
+		}
+	}
+	
+	/**
+	 * Discard the recorded stamp for an element which is being modified
+	 * @param objectUri object URI of the element
+	 */
+	private void invalidateElementStamp(String objectUri) {
+		Map<String, Map<String, byte[]>> stamps = this.elementStamps;
+		if (Objects.nonNull(stamps)) {
+			int hashIndex = objectUri.indexOf('#');
+			if (hashIndex > 0) {
+				Map<String, byte[]> documentStamps = stamps.get(objectUri.substring(0, hashIndex));
+				if (Objects.nonNull(documentStamps)) {
+					documentStamps.remove(objectUri.substring(hashIndex + 1));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Count a modification to an item for the namespace containing the item
+	 * @param objectUri object URI of the modified item
+	 */
+	private void countModification(String objectUri) {
+		int hashIndex = objectUri.indexOf('#');
+		if (hashIndex <= 0) {
+			sharedVersion.incrementAndGet();
+			return;
+		}
+		NamespaceVersion last = this.lastModified;
+		if (Objects.nonNull(last) && last.namespace.length() == hashIndex && objectUri.startsWith(last.namespace)) {
+			last.version.incrementAndGet();
+			return;
+		}
+		String namespace = objectUri.substring(0, hashIndex);
+		AtomicLong version = namespaceVersions.computeIfAbsent(namespace, ns -> new AtomicLong(0));
+		version.incrementAndGet();
+		this.lastModified = new NamespaceVersion(namespace, version);
+	}
+	
+	@Override
+	public long getNamespaceVersion(String documentUri) {
+		AtomicLong version = namespaceVersions.get(documentUri);
+		return Objects.isNull(version) ? 0 : version.get();
+	}
+	
+	@Override
+	public long getSharedVersion() {
+		return sharedVersion.get();
+	}
+	
+	/**
+	 * Remove the document cache entry for a document which is being modified so that deserializing the
+	 * same content again does not return the modified document
+	 * @param objectUri object URI of the modified item
+	 */
+	private void invalidateCachedDocument(String objectUri) {
+		DocumentCache cache = this.documentCache;
+		if (Objects.nonNull(cache)) {
+			int hashIndex = objectUri.indexOf('#');
+			if (hashIndex > 0) {
+				cache.remove(objectUri.substring(0, hashIndex));
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws Exception {
+		closeJournal();
+		synchronized (this) {
+			if (Objects.nonNull(serializationExecutor)) {
+				serializationExecutor.shutdownNow();
+				serializationExecutor = null;
+			}
+		}
+		super.close();
+	}
+	
+	/**
+	 * Enable or disable incremental serialization.  When enabled, the output for each file, snippet, package
+	 * and extracted license is cached along with a stamp of the element properties.  Subsequent serializations
+	 * reuse the cached output for any elements which have not changed.
+	 * @param incremental true to enable incremental serialization
+	 */
+	public void setIncrementalSerialization(boolean incremental) {
+		if (incremental) {
+			if (Objects.isNull(elementOutputCache)) {
+				elementOutputCache = new ElementOutputCache();
+			}
+		} else {
+			elementOutputCache = null;
+		}
+	}
+	
+	/**
+	 * @return true if incremental serialization is enabled
+	 */
+	public boolean isIncrementalSerialization() {
+		return Objects.nonNull(elementOutputCache);
+	}
+	
+	/**
+	 * @return the cache used for incremental serialization or null if incremental serialization is not enabled
+	 */
+	public @Nullable ElementOutputCache getElementOutputCache() {
+		return elementOutputCache;
+	}
+	
 	@Override
 	public void serialize(OutputStream stream) throws InvalidSPDXAnalysisException, IOException {
 		serialize(stream, null);
@@ -72,15 +771,40 @@ public class TagValueStore extends ExtendedSpdxStore implements ISerializableMod
 	 */
 	@Override
 	public void serialize(OutputStream stream, @Nullable CoreModelObject modelObject) throws InvalidSPDXAnalysisException, IOException {
+		Object event = TagValueEvents.get().beginSerialize();
+		if (Objects.isNull(event)) {
+			serializeDocuments(stream, modelObject);
+			return;
+		}
+		CountingOutputStream counted = new CountingOutputStream(stream);
+		int documents = 0;
+		try {
+			documents = serializeDocuments(counted, modelObject);
+		} finally {
+			String documentUri = modelObject instanceof SpdxDocument ? ((SpdxDocument)modelObject).getDocumentUri() : null;
+			TagValueEvents.get().endSerialize(event, documentUri, counted.getCount(), documents);
+		}
+	}
+	
+	/**
+	 * @param stream stream to write the tag/value output to
+	 * @param modelObject document to serialize - if null, all documents in the store are serialized
+	 * @return number of documents serialized
+	 * @throws InvalidSPDXAnalysisException on errors reading the documents
+	 * @throws IOException on errors writing the output
+	 */
+	private int serializeDocuments(OutputStream stream, @Nullable CoreModelObject modelObject) throws InvalidSPDXAnalysisException, IOException {
 		Properties constants = CommonCode
 				.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		ElementOutputCache cache = elementOutputCache;
 		if (Objects.nonNull(modelObject)) {
 			if (modelObject instanceof SpdxDocument) {
 				try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
 				stream, StandardCharsets.UTF_8), true)) {
-					CommonCode.printDoc((SpdxDocument)modelObject, writer, constants);
+					printDocument((SpdxDocument)modelObject, writer, constants, cache);
 					writer.flush();
 				}
+				return 1;
 			} else {
 				throw new InvalidSPDXAnalysisException("Can not serialize "+modelObject.getClass().toString()+".  Only SpdxDocument is supported");
 			}
@@ -88,14 +812,316 @@ public class TagValueStore extends ExtendedSpdxStore implements ISerializableMod
 			@SuppressWarnings("unchecked")
 			List<SpdxDocument> allDocs = (List<SpdxDocument>)SpdxModelFactory.getSpdxObjects(this, null, 
 					SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, null, null).collect(Collectors.toList());
-			try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
-					stream, StandardCharsets.UTF_8), true)) {
-				for (SpdxDocument doc:allDocs) {
-					CommonCode.printDoc(doc, writer, constants);
+			// sort for a stable output order independent of the store and the parallelism
+			Collections.sort(allDocs, DOCUMENT_URI_COMPARATOR);
+			if (serializationParallelism > 1 && allDocs.size() > 1) {
+				serializeParallel(stream, allDocs, constants, cache);
+			} else {
+				try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+						stream, StandardCharsets.UTF_8), true)) {
+					for (SpdxDocument doc:allDocs) {
+						printDocument(doc, writer, constants, cache);
+					}
+					writer.flush();
+				}
+			}
+			return allDocs.size();
+		}
+	}
+	
+	/**
+	 * Serialize to a channel.  If the channel is a non-blocking selectable channel, the serializer waits on a
+	 * selector while the channel can not accept more data.  The channel is not closed.
+	 * @param channel channel to write the tag/value output to
+	 * @param modelObject document to serialize - if null, all documents in the store are serialized
+	 * @return number of bytes written
+	 * @throws InvalidSPDXAnalysisException on errors reading the documents
+	 * @throws IOException on errors writing to the channel
+	 */
+	public long serialize(WritableByteChannel channel, @Nullable CoreModelObject modelObject) throws InvalidSPDXAnalysisException, IOException {
+		ChannelOutputStream stream = new ChannelOutputStream(channel);
+		serialize(stream, modelObject);
+		// the print writer does not report errors on close
+		stream.close();
+		return stream.getBytesWritten();
+	}
+	
+	/**
+	 * Serialize to an asynchronous channel.  The output is rendered on the executor into a spool - memory, then
+	 * a temporary file in the serialization temp directory - and written to the channel from the write completion
+	 * handlers, so a slow channel does not hold the executor thread.  The channel is not closed.
+	 * @param channel channel to write the tag/value output to
+	 * @param modelObject document to serialize - if null, all documents in the store are serialized
+	 * @param executor executor used to render the documents
+	 * @return future completed with the number of bytes written once all output has been written to the channel
+	 */
+	public CompletableFuture<Long> serializeAsync(AsynchronousByteChannel channel, 
+			@Nullable CoreModelObject modelObject, Executor executor) {
+		return serializeAsync(AsyncChannelOutputStream.forChannel(channel, serializationTempDirectory), modelObject, executor);
+	}
+	
+	/**
+	 * Serialize to an asynchronous file channel.  The output is rendered on the executor into a spool - memory,
+	 * then a temporary file in the serialization temp directory - and written to the channel from the write
+	 * completion handlers, so a slow channel does not hold the executor thread.  The channel is not closed.
+	 * @param channel file channel to write the tag/value output to
+	 * @param position file position to start writing at
+	 * @param modelObject document to serialize - if null, all documents in the store are serialized
+	 * @param executor executor used to render the documents
+	 * @return future completed with the number of bytes written once all output has been written to the file
+	 */
+	public CompletableFuture<Long> serializeAsync(AsynchronousFileChannel channel, long position,
+			@Nullable CoreModelObject modelObject, Executor executor) {
+		return serializeAsync(AsyncChannelOutputStream.forFile(channel, position, serializationTempDirectory), modelObject, executor);
+	}
+	
+	private CompletableFuture<Long> serializeAsync(AsyncChannelOutputStream stream, 
+			@Nullable CoreModelObject modelObject, Executor executor) {
+		CompletableFuture<Long> result = new CompletableFuture<>();
+		executor.execute(() -> {
+			try {
+				serialize(stream, modelObject);
+			} catch (Throwable e) {
+				// release the spool once the output rendered so far is written
+				stream.closeAsync();
+				result.completeExceptionally(e);
+				return;
+			}
+			// completes once all the spooled output is written to the channel
+			stream.closeAsync().whenComplete((Long bytesWritten, Throwable e) -> {
+				if (e != null) {
+					result.completeExceptionally(e);
+				} else {
+					result.complete(bytesWritten);
 				}
-				writer.flush();
+			});
+		});
+		return result;
+	}
+	
+	/**
+	 * Serialize a subset of a document containing the packages with the given IDs and the elements reachable
+	 * from them - package files, related elements and snippets of included files - along with the relationships
+	 * between the included elements and any extracted licenses referenced
+	 * @param stream stream to write the tag/value output to
+	 * @param document document containing the packages
+	 * @param packageIds SPDX IDs of the packages to include
+	 * @throws InvalidSPDXAnalysisException if any of the IDs are not packages in the document
+	 * @throws IOException on errors writing the output
+	 */
+	public void serialize(OutputStream stream, SpdxDocument document, Collection<String> packageIds) throws InvalidSPDXAnalysisException, IOException {
+		Objects.requireNonNull(document, "Document can not be null");
+		Objects.requireNonNull(packageIds, "Package IDs can not be null");
+		IModelStore docStore = document.getModelStore();
+		List<SpdxPackage> packages = new ArrayList<>();
+		for (String packageId:packageIds) {
+			String objectUri = document.getDocumentUri() + "#" + packageId;
+			Optional<TypedValue> typedValue = docStore.getTypedValue(objectUri);
+			if (!typedValue.isPresent() || !SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE.equals(typedValue.get().getType())) {
+				throw new InvalidSPDXAnalysisException("Package "+packageId+" not found in document "+document.getDocumentUri());
 			}
+			packages.add(new SpdxPackage(docStore, document.getDocumentUri(), packageId, document.getCopyManager(), false));
+		}
+		serializeSubset(stream, document, packages);
+	}
+	
+	/**
+	 * Serialize a subset of a document containing the packages matching the filter and the elements reachable
+	 * from them - package files, related elements and snippets of included files - along with the relationships
+	 * between the included elements and any extracted licenses referenced
+	 * @param stream stream to write the tag/value output to
+	 * @param document document containing the packages
+	 * @param packageFilter returns true for packages to be included
+	 * @throws InvalidSPDXAnalysisException on errors reading the packages
+	 * @throws IOException on errors writing the output
+	 */
+	public void serialize(OutputStream stream, SpdxDocument document, Predicate<SpdxPackage> packageFilter) throws InvalidSPDXAnalysisException, IOException {
+		Objects.requireNonNull(document, "Document can not be null");
+		Objects.requireNonNull(packageFilter, "Package filter can not be null");
+		List<SpdxPackage> packages;
+		try (@SuppressWarnings("unchecked")
+			Stream<SpdxPackage> allPackages = (Stream<SpdxPackage>)SpdxModelFactory.getSpdxObjects(document.getModelStore(), 
+					document.getCopyManager(), SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, document.getDocumentUri(), 
+					document.getDocumentUri() + "#")) {
+			packages = allPackages.filter(packageFilter).collect(Collectors.toList());
 		}
+		serializeSubset(stream, document, packages);
+	}
+	
+	private void serializeSubset(OutputStream stream, SpdxDocument document, List<SpdxPackage> packages) throws InvalidSPDXAnalysisException, IOException {
+		Properties constants = CommonCode
+				.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		long start = System.nanoTime();
+		Object event = TagValueEvents.get().beginSerialize();
+		CountingOutputStream counted = Objects.isNull(event) ? null : new CountingOutputStream(stream);
+		try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+				Objects.isNull(counted) ? stream : counted, StandardCharsets.UTF_8), true)) {
+			CommonCode.printDocSubset(document, packages, writer, constants);
+			writer.flush();
+		} finally {
+			if (Objects.nonNull(counted)) {
+				TagValueEvents.get().endSerialize(event, document.getDocumentUri(), counted.getCount(), 1);
+			}
+		}
+		metricsListener.phaseCompleted(TagValuePhase.PRINT, System.nanoTime() - start);
+	}
+	
+	/**
+	 * Print a document using the bounded memory serialization if a memory budget is set
+	 */
+	private void printDocument(SpdxDocument doc, PrintWriter writer, Properties constants,
+			@Nullable ElementOutputCache cache) throws InvalidSPDXAnalysisException, IOException {
+		long start = System.nanoTime();
+		if (serializationMemoryBudget > 0) {
+			CommonCode.printDocBounded(doc, writer, constants, cache, serializationMemoryBudget, serializationTempDirectory);
+		} else {
+			CommonCode.printDoc(doc, writer, constants, cache);
+		}
+		metricsListener.phaseCompleted(TagValuePhase.PRINT, System.nanoTime() - start);
+	}
+	
+	/**
+	 * Render the documents concurrently, writing the output in the order of the documents.  At most
+	 * <code>serializationParallelism</code> documents are rendered or waiting to be written at any time.
+	 * The stream is closed once the documents are written.
+	 * @param stream stream to write the documents to
+	 * @param docs documents in the order they are to be written
+	 * @param constants tag/value constants
+	 * @param cache cache for incremental serialization or null
+	 * @throws InvalidSPDXAnalysisException on errors rendering a document
+	 * @throws IOException on errors writing the output
+	 */
+	private void serializeParallel(OutputStream stream, List<SpdxDocument> docs, Properties constants,
+			@Nullable ElementOutputCache cache) throws InvalidSPDXAnalysisException, IOException {
+		ExecutorService executor = getSerializationExecutor();
+		Deque<Future<byte[]>> pending = new ArrayDeque<>();
+		try (OutputStream out = stream) {
+			for (SpdxDocument doc:docs) {
+				if (pending.size() >= serializationParallelism) {
+					out.write(waitForDocument(pending.removeFirst()));
+				}
+				pending.addLast(executor.submit(() -> {
+					ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+					try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+							buffer, StandardCharsets.UTF_8), true)) {
+						printDocument(doc, writer, constants, cache);
+						writer.flush();
+					}
+					return buffer.toByteArray();
+				}));
+			}
+			while (!pending.isEmpty()) {
+				out.write(waitForDocument(pending.removeFirst()));
+			}
+			out.flush();
+		} finally {
+			for (Future<byte[]> future:pending) {
+				future.cancel(true);
+			}
+		}
+	}
+	
+	/**
+	 * @return the executor rendering the documents for parallel serialization
+	 */
+	private synchronized ExecutorService getSerializationExecutor() {
+		if (Objects.isNull(serializationExecutor)) {
+			serializationExecutor = new ThreadPoolExecutor(serializationParallelism, serializationParallelism, 
+					SERIALIZATION_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+				Thread t = new Thread(r, "tag-value-serializer");
+				t.setDaemon(true);
+				return t;
+			});
+			serializationExecutor.allowCoreThreadTimeOut(true);
+		}
+		return serializationExecutor;
+	}
+	
+	/**
+	 * @param future future for a document being rendered
+	 * @return the rendered document
+	 * @throws InvalidSPDXAnalysisException on errors rendering the document
+	 * @throws IOException on IO errors rendering the document
+	 */
+	private static byte[] waitForDocument(Future<byte[]> future) throws InvalidSPDXAnalysisException, IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InvalidSPDXAnalysisException("Interrupted serializing documents", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof InvalidSPDXAnalysisException) {
+				throw (InvalidSPDXAnalysisException)cause;
+			} else if (cause instanceof IOException) {
+				throw (IOException)cause;
+			} else {
+				throw new InvalidSPDXAnalysisException("Unexpected Error serializing document: "+cause.getMessage(), cause);
+			}
+		}
+	}
+	
+	/**
+	 * Set the number of documents rendered concurrently when serializing all documents in the store
+	 * @param parallelism number of documents to render concurrently - 1 renders the documents sequentially
+	 */
+	public synchronized void setSerializationParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Serialization parallelism must be at least 1");
+		}
+		this.serializationParallelism = parallelism;
+		if (Objects.nonNull(serializationExecutor)) {
+			// the core pool size can not exceed the maximum pool size
+			if (parallelism > serializationExecutor.getMaximumPoolSize()) {
+				serializationExecutor.setMaximumPoolSize(parallelism);
+				serializationExecutor.setCorePoolSize(parallelism);
+			} else {
+				serializationExecutor.setCorePoolSize(parallelism);
+				serializationExecutor.setMaximumPoolSize(parallelism);
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of documents rendered concurrently when serializing all documents in the store
+	 */
+	public int getSerializationParallelism() {
+		return serializationParallelism;
+	}
+	
+	/**
+	 * Set a memory budget for serialization.  When set, the files, snippets, packages and extracted licenses are
+	 * ordered using an external merge sort which writes sorted runs to disk once the budget is exceeded, and
+	 * each element is read from the store only when it is written.
+	 * @param memoryBudget estimated bytes of memory used for sorting each document's elements - 0 to sort in memory
+	 */
+	public void setSerializationMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("Serialization memory budget can not be negative");
+		}
+		this.serializationMemoryBudget = memoryBudget;
+	}
+	
+	/**
+	 * @return the memory budget for serialization - 0 if the elements are sorted in memory
+	 */
+	public long getSerializationMemoryBudget() {
+		return serializationMemoryBudget;
+	}
+	
+	/**
+	 * @param tempDirectory directory used for the sorted runs when the serialization memory budget is exceeded - 
+	 * if null, the system temporary directory is used
+	 */
+	public void setSerializationTempDirectory(@Nullable File tempDirectory) {
+		this.serializationTempDirectory = tempDirectory;
+	}
+	
+	/**
+	 * @return directory used for the sorted runs when the serialization memory budget is exceeded
+	 */
+	public @Nullable File getSerializationTempDirectory() {
+		return serializationTempDirectory;
 	}
 
 	/* (non-Javadoc)
@@ -103,18 +1129,434 @@ public class TagValueStore extends ExtendedSpdxStore implements ISerializableMod
 	 */
 	@Override
 	public SpdxDocument deSerialize(InputStream stream, boolean overwrite) throws InvalidSPDXAnalysisException, IOException {
-		warnings.clear();
+		return deSerializeWithResult(stream, overwrite).getDocument();
+	}
+	
+	/**
+	 * Deserialize a tag/value document returning the document along with any warnings.  Documents
+	 * with different namespaces may be deserialized concurrently into the same store.
+	 * @param stream stream containing the tag/value document
+	 * @param overwrite currently ignored
+	 * @return the document and any warnings found while deserializing the document
+	 * @throws InvalidSPDXAnalysisException on invalid tag/value documents
+	 * @throws IOException on errors reading the stream
+	 */
+	public DeserializationResult deSerializeWithResult(InputStream stream, boolean overwrite) throws InvalidSPDXAnalysisException, IOException {
+		return deSerializeWithResult(stream, ProgressMonitor.NONE);
+	}
+	
+	/**
+	 * Deserialize a tag/value document reporting the progress and checking for cancellation.  If the 
+	 * deserialization is cancelled or a parser limit is exceeded, the partially built document is deleted from the store.
+	 * @param stream stream containing the tag/value document
+	 * @param totalBytes total number of bytes in the stream or -1 if not known
+	 * @param progressListener listener for the progress or null if progress is not reported
+	 * @param cancellation token used to cancel the deserialization or null if it can not be cancelled
+	 * @return the document and any warnings found while deserializing the document
+	 * @throws TagValueCancelledException if the deserialization was cancelled
+	 * @throws InvalidSPDXAnalysisException on invalid tag/value documents
+	 * @throws IOException on errors reading the stream
+	 */
+	public DeserializationResult deSerializeWithResult(InputStream stream, long totalBytes, 
+			@Nullable TagValueProgressListener progressListener, @Nullable CancellationToken cancellation) throws InvalidSPDXAnalysisException, IOException {
+		return deSerializeWithResult(stream, new ProgressMonitor(progressListener, cancellation, totalBytes));
+	}
+	
+	private DeserializationResult deSerializeWithResult(InputStream stream, ProgressMonitor progress) throws InvalidSPDXAnalysisException, IOException {
+		TagValueMetricsListener metrics = TagValueEvents.get().beginDeserialize(this.metricsListener);
+		LoadStatsCollector collector = new LoadStatsCollector(metrics);
+		CountingInputStream counted = new CountingInputStream(stream);
+		String documentUri = null;
+		boolean completed = false;
+		try {
+			DeserializationResult result = deSerializeWithResult(counted, collector, progress);
+			documentUri = result.getDocumentUri();
+			for (String warning:result.getWarnings()) {
+				collector.warningEmitted(warning);
+			}
+			collector.bytesRead(counted.getCount());
+			completed = true;
+			LoadStats stats = collector.toLoadStats(documentUri);
+			this.lastLoadStats = stats;
+			return new DeserializationResult(result.getDocument(), result.getWarnings(), stats);
+		} finally {
+			if (!completed) {
+				// the statistics of a failed load are kept to help find the cause
+				collector.bytesRead(counted.getCount());
+				this.lastLoadStats = collector.toLoadStats(documentUri);
+			}
+			TagValueEvents.get().endDeserialize(metrics, documentUri);
+		}
+	}
+	
+	private DeserializationResult deSerializeWithResult(InputStream stream, TagValueMetricsListener metrics, 
+			ProgressMonitor progress) throws InvalidSPDXAnalysisException, IOException {
+		List<String> loadWarnings = Collections.synchronizedList(new ArrayList<>());
+		this.warnings = loadWarnings;
+		String[] lockedNamespace = new String[1];
+		// only one load at a time may modify a namespace
+		Consumer<String> namespaceListener = (String namespace) -> {
+			namespaceLocks.lock(namespace);
+			lockedNamespace[0] = namespace;
+		};
+		List<DocumentCache.Entry> evicted = Collections.emptyList();
+		try {
+			File snapshotDir = this.snapshotDirectory;
+			DocumentCache cache = this.documentCache;
+			if (Objects.isNull(snapshotDir) && Objects.isNull(cache)) {
+				return parse(stream, loadWarnings, namespaceListener, metrics, progress);
+			}
+			long spoolStart = System.nanoTime();
+			try (SpooledDigestInput spool = new SpooledDigestInput(stream, SPOOL_MEMORY_THRESHOLD, snapshotDir, progress)) {
+				metrics.phaseCompleted(TagValuePhase.SPOOL, System.nanoTime() - spoolStart);
+				String digest = spool.getDigest();
+				if (Objects.nonNull(cache)) {
+					DocumentCache.Entry cached = cache.get(digest);
+					if (Objects.nonNull(cached)) {
+						if (exists(cached.documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID)) {
+							metrics.cacheHit("document");
+							loadWarnings.addAll(cached.warnings);
+							return new DeserializationResult(inflateDocument(cached.documentUri), loadWarnings);
+						} else {
+							// the document has been removed from the store
+							cache.invalidate(digest);
+						}
+					}
+				}
+				DeserializationResult result = null;
+				if (Objects.nonNull(snapshotDir)) {
+					File snapshotFile = new File(snapshotDir, digest + SNAPSHOT_FILE_EXTENSION);
+					if (snapshotFile.isFile() && DocumentSnapshot.isValid(snapshotFile)) {
+						try (InputStream snapshotInput = new BufferedInputStream(new FileInputStream(snapshotFile))) {
+							DocumentSnapshot snapshot = DocumentSnapshot.read(this, snapshotInput, true, namespaceListener);
+							metrics.cacheHit("snapshot");
+							recordElementStamps(snapshot.getDocumentUri());
+							loadWarnings.addAll(snapshot.getWarnings());
+							ElementIndex index = this.elementIndex;
+							if (Objects.nonNull(index)) {
+								indexDocument(index, snapshot.getDocumentUri());
+							}
+							result = new DeserializationResult(inflateDocument(snapshot.getDocumentUri()), loadWarnings);
+						}
+					} else {
+						try (InputStream spooledInput = spool.openStream()) {
+							result = parse(spooledInput, loadWarnings, namespaceListener, metrics, progress);
+						}
+						writeSnapshot(snapshotFile, result);
+					}
+				} else {
+					try (InputStream spooledInput = spool.openStream()) {
+						result = parse(spooledInput, loadWarnings, namespaceListener, metrics, progress);
+					}
+				}
+				if (Objects.nonNull(cache)) {
+					List<DocumentCache.Entry> evictedEntries = cache.put(digest, new DocumentCache.Entry(result.getDocumentUri(), 
+							result.getWarnings(), spool.getLength()));
+					if (deleteEvictedDocuments) {
+						evicted = evictedEntries;
+					}
+				}
+				return result;
+			}
+		} finally {
+			if (lockedNamespace[0] != null) {
+				namespaceLocks.unlock(lockedNamespace[0]);
+			}
+			// evicted documents are deleted once this namespace is unlocked to avoid lock ordering issues
+			for (DocumentCache.Entry entry:evicted) {
+				try {
+					deleteDocument(entry.documentUri);
+				} catch (InvalidSPDXAnalysisException e) {
+					logger.warn("Unable to delete evicted document "+entry.documentUri, e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Delete all items for a document along with any anonymous items referenced by the document
+	 * @param documentUri namespace of the document to delete
+	 * @return the number of items deleted
+	 * @throws InvalidSPDXAnalysisException on errors updating the store
+	 */
+	public int deleteDocument(String documentUri) throws InvalidSPDXAnalysisException {
+		namespaceLocks.lock(documentUri);
+		try {
+			DocumentCache cache = this.documentCache;
+			if (Objects.nonNull(cache)) {
+				cache.remove(documentUri);
+			}
+			ElementIndex index = this.elementIndex;
+			if (Objects.nonNull(index)) {
+				index.removeDocument(documentUri);
+			}
+			Map<String, Map<String, byte[]>> stamps = this.elementStamps;
+			if (Objects.nonNull(stamps)) {
+				stamps.remove(documentUri);
+			}
+			return DocumentItems.delete(this, documentUri);
+		} finally {
+			namespaceLocks.unlock(documentUri);
+		}
+	}
+	
+	/**
+	 * Set the maximum size of the document cache.  When enabled, deserializing tag/value content identical
+	 * to a previously deserialized document returns the document already in the store.  When the total size
+	 * of the tag/value content for the cached documents exceeds the maximum, the least recently used documents
+	 * are evicted from the cache and left in the store - see <code>setDeleteEvictedDocuments</code> to also
+	 * delete them from the store.  Modifying an item in the namespace of a cached document removes the document
+	 * from the cache and leaves it in the store.
+	 * @param maxBytes maximum total size in bytes of the tag/value content for cached documents - 0 to disable the cache
+	 */
+	public void setDocumentCacheSize(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("Document cache size can not be negative");
+		}
+		this.documentCache = maxBytes == 0 ? null : new DocumentCache(maxBytes);
+	}
+	
+	/**
+	 * @return the document cache or null if the document cache is not enabled
+	 */
+	public @Nullable DocumentCache getDocumentCache() {
+		return documentCache;
+	}
+	
+	/**
+	 * Set whether documents evicted from the document cache are deleted from the store, which bounds the store
+	 * memory used by documents loaded through the cache.  Deleted documents are deleted even if they were 
+	 * obtained from the cache by other callers.
+	 * @param deleteEvictedDocuments true to delete evicted documents from the store
+	 */
+	public void setDeleteEvictedDocuments(boolean deleteEvictedDocuments) {
+		this.deleteEvictedDocuments = deleteEvictedDocuments;
+	}
+	
+	/**
+	 * @return true if documents evicted from the document cache are deleted from the store
+	 */
+	public boolean isDeleteEvictedDocuments() {
+		return deleteEvictedDocuments;
+	}
+	
+	/**
+	 * Enable or disable the secondary element indexes.  When enabled, the packages, files and snippets of each
+	 * document subsequently deserialized are indexed by checksum, license ID, external reference locator and file name.
+	 * @param indexing true to enable the element indexes
+	 */
+	public void setElementIndexing(boolean indexing) {
+		if (indexing) {
+			if (Objects.isNull(elementIndex)) {
+				elementIndex = new ElementIndex();
+			}
+		} else {
+			elementIndex = null;
+		}
+	}
+	
+	/**
+	 * @return the element indexes or null if element indexing is not enabled
+	 */
+	public @Nullable ElementIndex getElementIndex() {
+		return elementIndex;
+	}
+	
+	/**
+	 * Set the pool used to share a single instance of equal values across the documents subsequently deserialized.
+	 * Only the values of tags with few distinct values, such as creators, suppliers and license expressions, are pooled.
+	 * The same pool, such as <code>StringPool.getGlobal()</code>, may be shared by several stores.
+	 * @param stringPool string pool - if null, values are not pooled
+	 */
+	public void setStringPool(@Nullable StringPool stringPool) {
+		this.stringPool = stringPool;
+	}
+	
+	/**
+	 * @return the string pool or null if values are not pooled
+	 */
+	public @Nullable StringPool getStringPool() {
+		return stringPool;
+	}
+	
+	/**
+	 * Set the limits on the line length, text block length, element count and estimated retained size
+	 * for subsequent deserializations.  A document exceeding a limit fails with a <code>ParserLimitExceededException</code>
+	 * and the partially built document is deleted from the store.
+	 * @param parserLimits parser limits - if null, the input is not limited
+	 */
+	public void setParserLimits(@Nullable ParserLimits parserLimits) {
+		this.parserLimits = Objects.isNull(parserLimits) ? new ParserLimits() : parserLimits;
+	}
+	
+	/**
+	 * @return the limits on the tag/value input accepted
+	 */
+	public ParserLimits getParserLimits() {
+		return parserLimits;
+	}
+	
+	/**
+	 * Set the listener for the metrics of subsequent deserializations and serializations
+	 * @param metricsListener metrics listener - if null, metrics are not reported
+	 */
+	public void setMetricsListener(@Nullable TagValueMetricsListener metricsListener) {
+		this.metricsListener = Objects.isNull(metricsListener) ? TagValueMetricsListener.NO_OP : metricsListener;
+	}
+	
+	/**
+	 * @return the metrics listener - <code>TagValueMetricsListener.NO_OP</code> if metrics are not reported
+	 */
+	public TagValueMetricsListener getMetricsListener() {
+		return metricsListener;
+	}
+	
+	/**
+	 * @param checksumValue checksum value
+	 * @return packages and files with a checksum matching the value
+	 * @throws InvalidSPDXAnalysisException if element indexing is not enabled
+	 */
+	public List<SpdxElement> findElementsByChecksum(String checksumValue) throws InvalidSPDXAnalysisException {
+		return inflateElements(requireElementIndex().getElementsByChecksum(checksumValue), SpdxElement.class);
+	}
+	
+	/**
+	 * @param licenseId listed license or extracted license ID
+	 * @return packages, files and snippets whose declared, concluded or seen licenses include the license
+	 * @throws InvalidSPDXAnalysisException if element indexing is not enabled
+	 */
+	public List<SpdxElement> findElementsByLicenseId(String licenseId) throws InvalidSPDXAnalysisException {
+		return inflateElements(requireElementIndex().getElementsByLicenseId(licenseId), SpdxElement.class);
+	}
+	
+	/**
+	 * @param locator external reference locator such as a package URL
+	 * @return packages with an external reference to the locator
+	 * @throws InvalidSPDXAnalysisException if element indexing is not enabled
+	 */
+	public List<SpdxPackage> findPackagesByExternalRef(String locator) throws InvalidSPDXAnalysisException {
+		return inflateElements(requireElementIndex().getPackagesByExternalRef(locator), SpdxPackage.class);
+	}
+	
+	/**
+	 * @param fileName file name
+	 * @return files with the name
+	 * @throws InvalidSPDXAnalysisException if element indexing is not enabled
+	 */
+	public List<SpdxFile> findFilesByName(String fileName) throws InvalidSPDXAnalysisException {
+		return inflateElements(requireElementIndex().getFilesByName(fileName), SpdxFile.class);
+	}
+	
+	private ElementIndex requireElementIndex() throws InvalidSPDXAnalysisException {
+		ElementIndex index = this.elementIndex;
+		if (Objects.isNull(index)) {
+			throw new InvalidSPDXAnalysisException("Element indexing is not enabled");
+		}
+		return index;
+	}
+	
+	/**
+	 * @param objectUris object URIs of elements
+	 * @param elementClass class of the elements
+	 * @return the elements which are still in the store
+	 * @throws InvalidSPDXAnalysisException on errors inflating the elements
+	 */
+	private <T extends SpdxElement> List<T> inflateElements(Collection<String> objectUris, 
+			Class<T> elementClass) throws InvalidSPDXAnalysisException {
+		List<T> retval = new ArrayList<>();
+		ModelCopyManager copyManager = new ModelCopyManager();
+		for (String objectUri:objectUris) {
+			Optional<TypedValue> typedValue = getTypedValue(objectUri);
+			if (typedValue.isPresent()) {
+				retval.add(elementClass.cast(SpdxModelFactory.inflateModelObject(this, objectUri, typedValue.get().getType(), 
+						copyManager, SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION, false, 
+						objectUri.substring(0, objectUri.indexOf('#')))));
+			}
+		}
+		return retval;
+	}
+	
+	/**
+	 * Add the packages, files and snippets of a document to the element indexes
+	 * @param index element indexes
+	 * @param documentUri document namespace
+	 * @throws InvalidSPDXAnalysisException on errors reading the elements
+	 */
+	private void indexDocument(ElementIndex index, String documentUri) throws InvalidSPDXAnalysisException {
+		indexElements(index, documentUri, null);
+	}
+	
+	/**
+	 * Add the packages, files and snippets of a document to the element indexes
+	 * @param index element indexes
+	 * @param documentUri document namespace
+	 * @param ids IDs of the elements to index - if null, all elements in the document are indexed
+	 * @throws InvalidSPDXAnalysisException on errors reading the elements
+	 */
+	private void indexElements(ElementIndex index, String documentUri, @Nullable Set<String> ids) throws InvalidSPDXAnalysisException {
+		for (String type:new String[] {SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE, SpdxConstantsCompatV2.CLASS_SPDX_FILE, 
+				SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET}) {
+			List<String> objectUris;
+			try (Stream<TypedValue> items = getAllItems(documentUri + "#", type)) {
+				objectUris = items.map(TypedValue::getObjectUri)
+						.filter(objectUri -> Objects.isNull(ids) || ids.contains(objectUri.substring(objectUri.indexOf('#') + 1)))
+						.collect(Collectors.toList());
+			}
+			for (SpdxElement element:inflateElements(objectUris, SpdxElement.class)) {
+				index.addElement(element);
+			}
+		}
+	}
+	
+	/**
+	 * Parse a tag/value document into this store
+	 * @param stream stream containing the tag/value document
+	 * @param loadWarnings list to add any warnings to
+	 * @param namespaceListener notified with the document namespace before any elements are created
+	 * @param metrics listener for the parse metrics
+	 * @param progress monitor for the progress and cancellation
+	 * @return the document and any warnings
+	 * @throws InvalidSPDXAnalysisException on invalid tag/value documents
+	 * @throws IOException on errors reading the stream
+	 */
+	private DeserializationResult parse(InputStream stream, List<String> loadWarnings, 
+			Consumer<String> namespaceListener, TagValueMetricsListener metrics, 
+			ProgressMonitor progress) throws InvalidSPDXAnalysisException, IOException {
 		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
-		NoCommentInputStream nci = new NoCommentInputStream(stream);
+		CountingInputStream counted = new CountingInputStream(stream);
+		progress = progress.forInput(counted::getCount);
+		ParserLimits limits = this.parserLimits;
+		NoCommentInputStream nci;
+		try {
+			nci = new NoCommentInputStream(counted, limits.getMaxLineLength());
+		} catch (LineTooLongException e) {
+			throw new ParserLimitExceededException(e.getMessage(), e);
+		}
+		BuildDocument buildDocument = new BuildDocument(this, constants, loadWarnings);
 		try{
 			HandBuiltParser parser = new HandBuiltParser(nci);
-			BuildDocument buildDocument = new BuildDocument(this, constants, warnings);
+			buildDocument.setNamespaceListener(namespaceListener);
+			ElementIndex index = this.elementIndex;
+			if (Objects.nonNull(index)) {
+				buildDocument.setElementListener(index::addElement);
+			}
+			buildDocument.setStringPool(stringPool);
+			buildDocument.setMetricsListener(metrics);
+			parser.setMetricsListener(metrics);
+			buildDocument.setProgressMonitor(progress);
+			parser.setProgressMonitor(progress);
+			buildDocument.setLimits(limits);
+			parser.setLimits(limits);
 			parser.setBehavior(buildDocument);
 			parser.data();
-			String documentUri = buildDocument.getDocumentUri();
-			return (SpdxDocument)SpdxModelFactory.inflateModelObject(this, documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, 
-					SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, new ModelCopyManager(), 
-					SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION, false, documentUri);
+			recordElementStamps(buildDocument.getDocumentUri());
+			return new DeserializationResult(inflateDocument(buildDocument.getDocumentUri()), loadWarnings);
+		} catch (TagValueCancelledException | ParserLimitExceededException e) {
+			if (Objects.nonNull(buildDocument.getDocumentUri())) {
+				// the namespace lock is held by this thread, so the partial document can be deleted
+				deleteDocument(buildDocument.getDocumentUri());
+			}
+			throw e;
 		} catch (RecognitionException e) {
 			// error in tag value file
 			throw(new InvalidSpdxTagFileException(e.getMessage()));
@@ -129,6 +1571,70 @@ public class TagValueStore extends ExtendedSpdxStore implements ISerializableMod
 		}
 	}
 	
+	SpdxDocument inflateDocument(String documentUri) throws InvalidSPDXAnalysisException {
+		return (SpdxDocument)SpdxModelFactory.inflateModelObject(this, documentUri + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID, 
+				SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, new ModelCopyManager(), 
+				SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION, false, documentUri);
+	}
+	
+	/**
+	 * Write a snapshot of a parsed document.  Any errors are logged and ignored since the snapshot is only a cache.
+	 * @param snapshotFile file to write the snapshot to
+	 * @param result result of parsing the document
+	 */
+	private void writeSnapshot(File snapshotFile, DeserializationResult result) {
+		File tempFile = null;
+		try {
+			tempFile = File.createTempFile("snapshot", ".tmp", snapshotFile.getParentFile());
+			try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile))) {
+				DocumentSnapshot.write(this, result.getDocumentUri(), result.getWarnings(), out);
+			}
+			try {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException | InvalidSPDXAnalysisException e) {
+			logger.warn("Unable to write snapshot for document "+result.getDocumentUri(), e);
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Set a directory for binary snapshots of deserialized documents.  When set, each deserialized document
+	 * is saved as a snapshot named by the SHA-256 digest of the tag/value content.  Deserializing the same content
+	 * again loads the snapshot rather than parsing the tag/value document.
+	 * @param snapshotDirectory directory for the snapshots - if null, snapshots are not used
+	 */
+	public void setSnapshotDirectory(@Nullable File snapshotDirectory) {
+		if (Objects.nonNull(snapshotDirectory) && !snapshotDirectory.isDirectory()) {
+			throw new IllegalArgumentException(snapshotDirectory.toString()+" is not a directory");
+		}
+		this.snapshotDirectory = snapshotDirectory;
+	}
+	
+	/**
+	 * @return directory for binary snapshots of deserialized documents or null if snapshots are not used
+	 */
+	public @Nullable File getSnapshotDirectory() {
+		return snapshotDirectory;
+	}
+	
+	/**
+	 * @return the statistics for the most recently completed deserialization, successful or not, or null if no 
+	 * document has been deserialized - use <code>DeserializationResult.getLoadStats()</code> for the statistics 
+	 * of a specific deserialization
+	 */
+	public @Nullable LoadStats getLastLoadStats() {
+		return lastLoadStats;
+	}
+	
+	/**
+	 * @return the warnings from the most recently started deserialization - use 
+	 * <code>deSerializeWithResult</code> for the warnings of a specific deserialization
+	 */
 	public List<String> getWarnings() {
 		return this.warnings;
 	}
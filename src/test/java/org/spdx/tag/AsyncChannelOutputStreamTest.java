@@ -0,0 +1,108 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.CompletionHandler;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.spdx.tag.AsyncChannelOutputStream.PendingWrite;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class AsyncChannelOutputStreamTest extends TestCase {
+	
+	/**
+	 * Channel which only completes writes when asked to
+	 */
+	static class StalledChannel {
+		final Deque<PendingWrite> pending = new ArrayDeque<>();
+		final Deque<CompletionHandler<Integer, PendingWrite>> handlers = new ArrayDeque<>();
+		final ByteArrayOutputStream written = new ByteArrayOutputStream();
+		
+		void write(PendingWrite write, CompletionHandler<Integer, PendingWrite> handler) {
+			pending.addLast(write);
+			handlers.addLast(handler);
+		}
+		
+		/**
+		 * Complete the outstanding write, writing at most maxBytes
+		 */
+		void completeOne(int maxBytes) {
+			PendingWrite write = pending.pollFirst();
+			CompletionHandler<Integer, PendingWrite> handler = handlers.pollFirst();
+			assertEquals(written.size(), write.position);
+			int count = Math.min(maxBytes, write.buffer.remaining());
+			byte[] bytes = new byte[count];
+			write.buffer.get(bytes);
+			written.write(bytes, 0, count);
+			handler.completed(count, write);
+		}
+	}
+
+	public void testSlowChannel() throws Exception {
+		StalledChannel channel = new StalledChannel();
+		byte[] expected = new byte[10000];
+		new Random(7).nextBytes(expected);
+		AsyncChannelOutputStream stream = new AsyncChannelOutputStream(channel::write, 16, 64, 0, null);
+		// the writer is not held by the channel - the output beyond the memory spool goes to the spool file
+		stream.write(expected, 0, 5000);
+		for (int i = 5000; i < expected.length; i++) {
+			stream.write(expected[i]);
+		}
+		CompletableFuture<Long> completion = stream.closeAsync();
+		assertEquals(1, channel.pending.size());
+		assertFalse(completion.isDone());
+		while (!channel.pending.isEmpty()) {
+			// partial writes are continued from where the channel left off
+			channel.completeOne(10);
+		}
+		assertEquals(expected.length, completion.get().longValue());
+		assertEquals(expected.length, stream.getBytesWritten());
+		assertTrue(Arrays.equals(expected, channel.written.toByteArray()));
+	}
+	
+	public void testChannelFailure() throws Exception {
+		IOException failure = new IOException("Channel failed");
+		AsyncChannelOutputStream stream = new AsyncChannelOutputStream(
+				(PendingWrite pending, CompletionHandler<Integer, PendingWrite> handler) -> handler.failed(failure, pending), 
+				16, 64, 0, null);
+		try {
+			stream.write(new byte[100]);
+			fail("Channel failure should be reported to the writer");
+		} catch (IOException e) {
+			assertSame(failure, e);
+		}
+		try {
+			stream.closeAsync().get();
+			fail("Channel failure should be reported on completion");
+		} catch (ExecutionException e) {
+			assertSame(failure, e.getCause());
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class ChannelOutputStreamTest extends TestCase {
+
+	public void testNonBlockingChannel() throws Exception {
+		byte[] expected = new byte[1024 * 1024];
+		new Random(11).nextBytes(expected);
+		Pipe pipe = Pipe.open();
+		pipe.sink().configureBlocking(false);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<byte[]> received = executor.submit(() -> {
+				ByteArrayOutputStream result = new ByteArrayOutputStream();
+				ByteBuffer buffer = ByteBuffer.allocate(1024);
+				while (pipe.source().read(buffer) >= 0) {
+					buffer.flip();
+					result.write(buffer.array(), 0, buffer.limit());
+					buffer.clear();
+					// a slow reader fills the pipe so the writer has to wait for the channel
+					Thread.sleep(0, 1000);
+				}
+				return result.toByteArray();
+			});
+			ChannelOutputStream stream = new ChannelOutputStream(pipe.sink(), 4096);
+			stream.write(expected);
+			stream.close();
+			assertEquals(expected.length, stream.getBytesWritten());
+			pipe.sink().close();
+			assertTrue(Arrays.equals(expected, received.get()));
+		} finally {
+			executor.shutdown();
+			pipe.source().close();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class ExternalSorterTest extends TestCase {
+
+	public void testInMemory() throws IOException {
+		try (ExternalSorter sorter = new ExternalSorter(String.CASE_INSENSITIVE_ORDER, 1024 * 1024, null)) {
+			sorter.add("b", "2");
+			sorter.add("A", "1");
+			sorter.add("a", "0");
+			assertEquals(0, sorter.getRunCount());
+			Iterator<ExternalSorter.Entry> iter = sorter.sorted();
+			assertEquals("0", iter.next().getValue());
+			assertEquals("1", iter.next().getValue());
+			ExternalSorter.Entry last = iter.next();
+			assertEquals("b", last.getKey());
+			assertFalse(iter.hasNext());
+		}
+	}
+
+	public void testMultiPassMerge() throws IOException {
+		Random random = new Random(42);
+		List<String> expected = new ArrayList<>();
+		// small budget to produce more runs than can be merged in a single pass
+		try (ExternalSorter sorter = new ExternalSorter(CommonCode.NATURAL_ORDER, 
+				ExternalSorter.ENTRY_OVERHEAD * 10, null)) {
+			for (int i = 0; i < ExternalSorter.MIN_RUN_SIZE * (ExternalSorter.MAX_FAN_IN + 4); i++) {
+				String key = Integer.toHexString(random.nextInt()) + "é\n";
+				expected.add(key);
+				sorter.add(key, "");
+			}
+			assertTrue(sorter.getRunCount() > ExternalSorter.MAX_FAN_IN);
+			Collections.sort(expected);
+			Iterator<ExternalSorter.Entry> iter = sorter.sorted();
+			for (String key:expected) {
+				assertEquals(key, iter.next().getKey());
+			}
+			assertFalse(iter.hasNext());
+			// the runs consumed by the intermediate merge pass are deleted
+			assertTrue(sorter.getRunCount() <= ExternalSorter.MAX_FAN_IN);
+		}
+	}
+
+	public void testMinimumRunSize() throws IOException {
+		try (ExternalSorter sorter = new ExternalSorter(CommonCode.NATURAL_ORDER, 1, null)) {
+			for (int i = 0; i < ExternalSorter.MIN_RUN_SIZE * 3; i++) {
+				sorter.add(Integer.toString(i), "");
+			}
+			assertEquals(3, sorter.getRunCount());
+		}
+	}
+}
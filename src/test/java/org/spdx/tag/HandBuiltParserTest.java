@@ -0,0 +1,119 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class HandBuiltParserTest extends TestCase {
+	
+	/**
+	 * Bytes allowed for each line in addition to the value string, covering the alignment of the value and the
+	 * buffers created for each parse
+	 */
+	static final int LINE_GARBAGE = 16;
+	
+	/**
+	 * Counts the tags and the characters of the values without keeping them
+	 */
+	static class CountingBehavior implements TagValueBehavior {
+		int tags = 0;
+		long valueChars = 0;
+
+		@Override
+		public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+			tags++;
+			valueChars += value.length();
+		}
+
+		@Override
+		public void enter() throws Exception {
+			// nothing to do
+		}
+
+		@Override
+		public void exit() throws Exception {
+			// nothing to do
+		}
+	}
+	
+	private static CountingBehavior parse(byte[] document) throws Exception {
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream(document)));
+		CountingBehavior behavior = new CountingBehavior();
+		parser.setBehavior(behavior);
+		parser.data();
+		return behavior;
+	}
+	
+	public void testParse() throws Exception {
+		String document = "SPDXVersion: SPDX-2.3\r\n# comment\nDataLicense:  CC0-1.0 \n not a tag: x\n" +
+				"DocumentComment: <text>first\n\n  indented  \n# not a comment\nlast </text> ignored\n" +
+				"Empty:\nOneLine: <text> one </text>\nText: <text>\u00A0inner\n</text>\nLast: no newline";
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8))));
+		StringBuilder sb = new StringBuilder();
+		parser.setBehavior(new CountingBehavior() {
+			@Override
+			public void buildDocument(String tag, String value, int lineNumber) throws Exception {
+				sb.append(lineNumber).append('|').append(tag).append('|').append(value).append('\n');
+			}
+		});
+		parser.data();
+		assertEquals("1|SPDXVersion:|SPDX-2.3\n3|DataLicense:|CC0-1.0\n9|DocumentComment:|first\n\n  indented  \n# not a comment\nlast\n" +
+				"10|Empty:|\n11|OneLine:|one\n13|Text:|\u00A0inner\n\n14|Last:|no newline\n", sb.toString());
+		try {
+			parser = new HandBuiltParser(new NoCommentInputStream(new ByteArrayInputStream("Text: <text>\nX: <text>\n".getBytes(StandardCharsets.UTF_8))));
+			parser.setBehavior(new CountingBehavior());
+			parser.data();
+			fail("Expected nested text block error");
+		} catch (RecognitionException e) {
+			assertTrue(e.getMessage().contains("line 2"));
+		}
+	}
+	
+	public void testSimpleTagAllocation() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		int files = 5000;
+		for (int i = 0; i < files; i++) {
+			sb.append("FileName: ./src/file").append(i).append(".c\n");
+			sb.append("SPDXID: SPDXRef-File").append(i).append('\n');
+			sb.append("FileChecksum: SHA1: ").append(String.format("%040x", i)).append('\n');
+			sb.append("LicenseConcluded: Apache-2.0\n");
+		}
+		byte[] document = sb.toString().getBytes(StandardCharsets.UTF_8);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocated = Long.MAX_VALUE;
+		CountingBehavior behavior = null;
+		for (int i = 0; i < 5; i++) {
+			long before = threads.getThreadAllocatedBytes(threadId);
+			behavior = parse(document);
+			allocated = Math.min(allocated, threads.getThreadAllocatedBytes(threadId) - before);
+		}
+		assertEquals(4 * files, behavior.tags);
+		// apart from the value strings only a small amount of garbage is created for each line
+		long valueBytes = behavior.tags * (StringPool.STRING_OVERHEAD + LINE_GARBAGE) + 2 * behavior.valueChars;
+		assertTrue("Allocated " + allocated + " bytes for " + behavior.tags + " lines", allocated <= valueBytes);
+	}
+}
@@ -125,4 +125,62 @@ public class NoCommentInputStreamTest extends TestCase {
 		assertFalse(nci.markSupported());
 		nci.close();
 	}
+
+	public void testReadLineTerminators() throws IOException {
+		// lines longer than the read buffer and line terminators split across reads
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			longLine.append((char)('a' + i % 26));
+		}
+		String inputString = "first\r\nsecond\rthird\n\n" + longLine + "\r\n" + longLine + "\rlast\r";
+		NoCommentInputStream nci = new NoCommentInputStream(new ByteArrayInputStream(inputString.getBytes()));
+		assertEquals("first", nci.readLine());
+		assertEquals("second", nci.readLine());
+		assertEquals("third", nci.readLine());
+		assertEquals(longLine.toString(), nci.readLine());
+		assertEquals(longLine.toString(), nci.readLine());
+		assertEquals("last", nci.readLine());
+		assertNull(nci.readLine());
+		assertEquals(7, nci.getCurrentLineNo());
+		nci.close();
+	}
+
+	public void testNextLine() throws IOException {
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			longLine.append((char)('a' + i % 26));
+		}
+		String inputString = "#comment\nfirst\r\n\nText: <text>\n\n# kept\n</text>\n" + longLine + "\rlast";
+		NoCommentInputStream nci = new NoCommentInputStream(new ByteArrayInputStream(inputString.getBytes()));
+		NoCommentInputStream expected = new NoCommentInputStream(new ByteArrayInputStream(inputString.getBytes()));
+		String line = expected.readLine();
+		while (line != null) {
+			assertTrue(nci.nextLine());
+			assertEquals(line, new String(nci.getLine(), 0, nci.getLineLength()));
+			assertEquals(expected.getCurrentLineNo(), nci.getCurrentLineNo());
+			line = expected.readLine();
+		}
+		assertFalse(nci.nextLine());
+		assertEquals(9, nci.getCurrentLineNo());
+		assertEquals(5, NoCommentInputStream.indexOf("Text: <text>".toCharArray(), 12, " <"));
+		assertEquals(-1, NoCommentInputStream.indexOf("Text: <text>".toCharArray(), 6, "<text>"));
+		nci.close();
+		expected.close();
+	}
+
+	public void testMaxLineLength() throws IOException {
+		StringBuilder input = new StringBuilder("short\n");
+		for (int i = 0; i < 20000; i++) {
+			input.append('x');
+		}
+		NoCommentInputStream nci = new NoCommentInputStream(new ByteArrayInputStream(input.toString().getBytes()), 100);
+		assertEquals("short", nci.readLine());
+		try {
+			nci.readLine();
+			fail("Expected line too long");
+		} catch (LineTooLongException e) {
+			assertTrue(e.getMessage().contains("Line 2"));
+		}
+		nci.close();
+	}
 }
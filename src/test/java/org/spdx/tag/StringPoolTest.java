@@ -0,0 +1,63 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class StringPoolTest extends TestCase {
+
+	public void testIntern() {
+		StringPool pool = new StringPool(100, 10);
+		assertEquals(128, pool.getCapacity());
+		String first = new String("NOASSERTION");
+		String value = new String("Apache-2.0");
+		assertSame(value, pool.intern(value));
+		String duplicate = new String("Apache-2.0");
+		assertSame(value, pool.intern(duplicate));
+		assertSame(value, pool.intern(value));
+		assertEquals(2, pool.getHitCount());
+		assertEquals(1, pool.getMissCount());
+		assertEquals(StringPool.STRING_OVERHEAD + 10, pool.getBytesSaved());
+		// characters outside of Latin-1 use two bytes
+		String copyright = new String("\u00a9 \u2117");
+		pool.intern(copyright);
+		pool.intern(new String(copyright));
+		assertEquals(2 * StringPool.STRING_OVERHEAD + 10 + 6, pool.getBytesSaved());
+		// longer than the maximum length
+		assertSame(first, pool.intern(first));
+		assertNotSame(first, pool.intern(new String("NOASSERTION")));
+		assertNull(pool.intern(null));
+		pool.clear();
+		assertSame(duplicate, pool.intern(duplicate));
+		assertEquals(0, pool.getHitCount());
+	}
+	
+	public void testBounded() {
+		StringPool pool = new StringPool(16, StringPool.DEFAULT_MAX_LENGTH);
+		for (int i = 0; i < 1000; i++) {
+			String value = "value" + i;
+			assertEquals(value, pool.intern(value));
+		}
+		assertEquals(1000, pool.getMissCount() + pool.getHitCount());
+		assertEquals(16, pool.getCapacity());
+	}
+}
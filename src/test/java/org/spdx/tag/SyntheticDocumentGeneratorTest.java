@@ -0,0 +1,93 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.ModelRegistry;
+import org.spdx.core.TypedValue;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tagvaluestore.DeserializationResult;
+import org.spdx.tagvaluestore.TagValueStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class SyntheticDocumentGeneratorTest extends TestCase {
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+	}
+	
+	private static SyntheticDocumentGenerator generator(long seed) {
+		SyntheticDocumentGenerator generator = new SyntheticDocumentGenerator(seed);
+		generator.setPackageCount(3);
+		generator.setFilesPerPackage(20);
+		generator.setRelationshipsPerFile(2);
+		generator.setSnippetRatio(0.25);
+		generator.setAnnotationRatio(0.25);
+		return generator;
+	}
+	
+	public void testDeterministic() throws Exception {
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		ByteArrayOutputStream other = new ByteArrayOutputStream();
+		SyntheticDocumentGenerator generator = generator(42);
+		long elements = generator.generate(first);
+		assertEquals(elements, generator.generate(second));
+		generator(43).generate(other);
+		assertTrue(Arrays.equals(first.toByteArray(), second.toByteArray()));
+		assertFalse(Arrays.equals(first.toByteArray(), other.toByteArray()));
+		try {
+			generator.setSnippetRatio(1.5);
+			fail("Invalid ratio accepted");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	public void testGenerate() throws Exception {
+		SyntheticDocumentGenerator generator = generator(7);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long elements = generator.generate(out);
+		// document, packages and files plus the snippets
+		assertTrue(elements > 1 + 3 + 60);
+		try (TagValueStore store = new TagValueStore(new InMemSpdxStore())) {
+			DeserializationResult result = store.deSerializeWithResult(new ByteArrayInputStream(out.toByteArray()), false);
+			assertEquals(generator.getDocumentUri(), result.getDocument().getDocumentUri());
+			assertTrue(result.getWarnings().toString(), result.getWarnings().isEmpty());
+			try (Stream<TypedValue> items = store.getAllItems(generator.getDocumentUri() + "#", null)) {
+				assertEquals(elements + generator.getExtractedLicenseCount(), items.count());
+			}
+		}
+	}
+}
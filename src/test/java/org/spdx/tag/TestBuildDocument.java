@@ -623,5 +623,26 @@ public class TestBuildDocument extends TestCase {
 		expected.setLineRange(SNIPPET_LIB_LINE_START, SNIPPET_LIB_LINE_END);
 		assertTrue(expected.equivalent(snippets.get(0)));
 	}
+	
+	public void testSnippetEndingDocument() throws Exception {
+		String snippetLast = DOC_LEVEL_TAGS + "\n" + EXTERNAL_DOC_REF_TAGS + "\n" +
+				CREATOR_TAGS + "\n" + DOC_ANNOTATION_TAGS + "\n" + DOC_RELATIONSHIP_TAGS + "\n" +
+				PACKAGE_TAGS + "\n" + FILE_LIB_TAGS + "\n" + LICENSE_REF1_TAGS + "\n" + LICENSE_REF2_TAGS + "\n" +
+				SNIPPET_LIB_TAGS;
+		InputStream bais = new ByteArrayInputStream(snippetLast.getBytes());
+		HandBuiltParser parser = new HandBuiltParser(new NoCommentInputStream(bais));
+		List<String> warnings = new ArrayList<>();
+		Properties constants = CommonCode.getTextFromProperties("org/spdx/tag/SpdxTagValueConstants.properties");
+		IModelStore modelStore = new InMemSpdxStore();
+		BuildDocument buildDocument = new BuildDocument(modelStore, constants, warnings);
+		List<String> added = new ArrayList<>();
+		buildDocument.setElementListener((SpdxElement element) -> added.add(element.getId()));
+		parser.setBehavior(buildDocument);
+		parser.data();
+		// the snippet which ends the document is reported to the listener without adding any warnings - it is
+		// already verified from the line number recorded with its SPDX ID
+		assertEquals(0, warnings.size());
+		assertEquals(1, added.stream().filter(id -> id.equals(SNIPPET_LIB_ID)).count());
+	}
 
 }
@@ -0,0 +1,61 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class WarningIndexTest extends TestCase {
+	
+	public void testContains() {
+		List<String> warnings = new ArrayList<>();
+		WarningIndex index = new WarningIndex(warnings);
+		assertFalse(index.contains("File at line 3 invalid: Missing checksum"));
+		warnings.add("File at line 3 invalid: Missing checksum");
+		assertTrue(index.contains("File at line 3 invalid: Missing checksum"));
+		assertFalse(index.contains("Missing checksum"));
+	}
+	
+	public void testContainsSubstring() {
+		List<String> warnings = new ArrayList<>();
+		WarningIndex index = new WarningIndex(warnings);
+		assertFalse(index.containsSubstring("Missing"));
+		warnings.add("File at line 3 invalid: Missing required checksum for ./file0.c");
+		warnings.add("Package at line 9 invalid: Relationship error: Missing required checksum for ./file1.c in package");
+		// the first and last words of the target may be part of a longer word
+		assertTrue(index.containsSubstring("quired checksum for ./fi"));
+		assertTrue(index.containsSubstring("Relationship error: Missing required checksum for ./file1.c"));
+		assertTrue(index.containsSubstring("Missing"));
+		assertTrue(index.containsSubstring(""));
+		assertFalse(index.containsSubstring("Missing required checksum for ./file2.c"));
+		assertFalse(index.containsSubstring("Missing required checksum for ./file0.c in package"));
+		// warnings added after a lookup are indexed
+		warnings.add("Relationship error: Missing required checksum for ./file0.c in package in document");
+		assertTrue(index.containsSubstring("Missing required checksum for ./file0.c in package"));
+		// words separated by more than one space
+		warnings.add("Double  spaced  warning");
+		assertTrue(index.containsSubstring("e  spaced  w"));
+		assertFalse(index.containsSubstring("e spaced w"));
+	}
+}
@@ -0,0 +1,236 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.ModelRegistry;
+import org.spdx.core.SimpleUriValue;
+import org.spdx.core.SpdxIdInUseException;
+import org.spdx.core.TypedValue;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.IModelStore.IdType;
+import org.spdx.storage.PropertyDescriptor;
+import org.spdx.storage.simple.InMemSpdxStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class CompactSpdxStoreTest extends TestCase {
+	
+	static final String NAMESPACE = "https://spdx.org/spdxdocs/compact";
+	static final PropertyDescriptor NAME = new PropertyDescriptor("name", SpdxConstantsCompatV2.SPDX_NAMESPACE);
+	static final PropertyDescriptor CHECKSUM_VALUE = new PropertyDescriptor("checksumValue", SpdxConstantsCompatV2.SPDX_NAMESPACE);
+	static final PropertyDescriptor CHECKSUM = new PropertyDescriptor("checksum", SpdxConstantsCompatV2.SPDX_NAMESPACE);
+	static final PropertyDescriptor ALGORITHM = new PropertyDescriptor("algorithm", SpdxConstantsCompatV2.SPDX_NAMESPACE);
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+	
+	public void testDeserializeSerialize() throws Exception {
+		TagValueStore compactStore = new TagValueStore(new CompactSpdxStore());
+		TagValueStore inMemStore = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TagValueStoreTest.TAG_VALUE_FILE_PATH))) {
+			doc = compactStore.deSerialize(tagValueInput, false);
+		}
+		SpdxDocument expectedDoc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TagValueStoreTest.TAG_VALUE_FILE_PATH))) {
+			expectedDoc = inMemStore.deSerialize(tagValueInput, false);
+		}
+		assertEquals(inMemStore.getWarnings(), compactStore.getWarnings());
+		assertTrue(doc.equivalent(expectedDoc));
+		assertEquals(expectedDoc.verify(), doc.verify());
+		String expected;
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			inMemStore.serialize(bas);
+			expected = bas.toString("UTF-8");
+		}
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			compactStore.serialize(bas);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+		assertEquals(inMemStore.getAllItems(null, null).count(), compactStore.getAllItems(null, null).count());
+		assertEquals(inMemStore.deleteDocument(doc.getDocumentUri()), compactStore.deleteDocument(doc.getDocumentUri()));
+		assertEquals(0, compactStore.getAllItems(doc.getDocumentUri(), null).count());
+	}
+	
+	public void testValues() throws Exception {
+		try (CompactSpdxStore store = new CompactSpdxStore()) {
+			String fileUri = NAMESPACE + "#SPDXRef-File";
+			String checksumUri = store.getNextId(IdType.Anonymous);
+			store.create(new TypedValue(fileUri, SpdxConstantsCompatV2.CLASS_SPDX_FILE, SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION));
+			store.create(new TypedValue(checksumUri, SpdxConstantsCompatV2.CLASS_SPDX_CHECKSUM, SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION));
+			assertTrue(store.exists(NAMESPACE.toUpperCase() + "#spdxref-file"));
+			assertEquals("SPDXRef-File", store.getCaseSensitiveId(NAMESPACE, "spdxref-FILE").get());
+			assertFalse(store.exists(NAMESPACE + "#SPDXRef-File2"));
+			assertEquals(1, store.getAllItems(NAMESPACE + "#", SpdxConstantsCompatV2.CLASS_SPDX_FILE).count());
+			assertEquals(2, store.getAllItems(null, null).count());
+			
+			String lowerHex = "2fd4e1c67a2d28fced849ee1bb76e7391b93eb12";
+			String upperHex = lowerHex.toUpperCase();
+			String longText = String.join("", Collections.nCopies(CompactSpdxStore.MAX_INTERNED_LENGTH, "text "));
+			store.setValue(checksumUri, CHECKSUM_VALUE, upperHex);
+			assertEquals(upperHex, store.getValue(checksumUri, CHECKSUM_VALUE).get());
+			store.setValue(checksumUri, CHECKSUM_VALUE, lowerHex);
+			assertEquals(lowerHex, store.getValue(checksumUri, CHECKSUM_VALUE).get());
+			store.setValue(checksumUri, CHECKSUM_VALUE, "12ab3C");
+			assertEquals("12ab3C", store.getValue(checksumUri, CHECKSUM_VALUE).get());
+			store.setValue(checksumUri, ALGORITHM, new SimpleUriValue(SpdxConstantsCompatV2.SPDX_NAMESPACE + "checksumAlgorithm_sha1"));
+			assertEquals(new SimpleUriValue(SpdxConstantsCompatV2.SPDX_NAMESPACE + "checksumAlgorithm_sha1"), 
+					store.getValue(checksumUri, ALGORITHM).get());
+			store.setValue(fileUri, NAME, longText);
+			assertEquals(longText, store.getValue(fileUri, NAME).get());
+			store.setValue(fileUri, NAME, Integer.valueOf(-7));
+			assertEquals(Integer.valueOf(-7), store.getValue(fileUri, NAME).get());
+			store.setValue(fileUri, NAME, Boolean.TRUE);
+			assertEquals(Boolean.TRUE, store.getValue(fileUri, NAME).get());
+			store.setValue(fileUri, NAME, "./file.c");
+			assertEquals("./file.c", store.getValue(fileUri, NAME).get());
+			assertEquals(Arrays.asList(NAME), store.getPropertyValueDescriptors(fileUri));
+			
+			TypedValue checksum = store.getTypedValue(checksumUri).get();
+			assertTrue(store.addValueToCollection(fileUri, CHECKSUM, checksum));
+			assertTrue(store.addValueToCollection(fileUri, CHECKSUM, "b"));
+			assertTrue(store.isCollectionProperty(fileUri, CHECKSUM));
+			assertFalse(store.isCollectionProperty(fileUri, NAME));
+			assertEquals(2, store.collectionSize(fileUri, CHECKSUM));
+			assertTrue(store.collectionContains(fileUri, CHECKSUM, checksum));
+			List<Object> values = new ArrayList<>();
+			Iterator<Object> iter = store.listValues(fileUri, CHECKSUM);
+			while (iter.hasNext()) {
+				values.add(iter.next());
+			}
+			assertEquals(Arrays.asList(checksum, "b"), values);
+			try {
+				store.delete(checksumUri);
+				fail("Deleted an item in use");
+			} catch (SpdxIdInUseException e) {
+				// expected
+			}
+			assertTrue(store.removeValueFromCollection(fileUri, CHECKSUM, checksum));
+			assertFalse(store.collectionContains(fileUri, CHECKSUM, checksum));
+			store.delete(checksumUri);
+			assertFalse(store.exists(checksumUri));
+			assertEquals(1, store.size());
+			store.removeProperty(fileUri, NAME);
+			assertFalse(store.getValue(fileUri, NAME).isPresent());
+			
+			// generated IDs do not collide with created IDs
+			store.create(new TypedValue(NAMESPACE + "#SPDXRef-gnrtd20", SpdxConstantsCompatV2.CLASS_SPDX_FILE, 
+					SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION));
+			assertEquals("SPDXRef-gnrtd21", store.getNextId(IdType.SpdxId));
+		}
+	}
+	
+	public void testOffHeapText() throws Exception {
+		File arenaDirectory = Files.createTempDirectory("spdx-arena").toFile();
+		try {
+			for (File directory:new File[] {null, arenaDirectory}) {
+				CompactSpdxStore compactStore = new CompactSpdxStore(100, directory);
+				TagValueStore store = new TagValueStore(compactStore);
+				TagValueStore inMemStore = new TagValueStore(new InMemSpdxStore());
+				try (InputStream tagValueInput = new FileInputStream(new File(TagValueStoreTest.TAG_VALUE_FILE_PATH))) {
+					store.deSerialize(tagValueInput, false);
+				}
+				try (InputStream tagValueInput = new FileInputStream(new File(TagValueStoreTest.TAG_VALUE_FILE_PATH))) {
+					inMemStore.deSerialize(tagValueInput, false);
+				}
+				OffHeapTextArena arena = compactStore.getTextArena();
+				assertEquals(directory != null, arena.isMapped());
+				assertTrue(arena.getTextCount() > 0);
+				String expected;
+				try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+					inMemStore.serialize(bas);
+					expected = bas.toString("UTF-8");
+				}
+				try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+					store.serialize(bas);
+					assertEquals(expected, bas.toString("UTF-8"));
+				}
+				
+				// replaced texts are freed and the blocks reused
+				String fileUri = NAMESPACE + "#SPDXRef-File";
+				compactStore.create(new TypedValue(fileUri, SpdxConstantsCompatV2.CLASS_SPDX_FILE, SpdxConstantsCompatV2.SPEC_TWO_POINT_THREE_VERSION));
+				String largeText = String.join("\n", Collections.nCopies(OffHeapTextArena.SEGMENT_SIZE / 10, "\u00a9 text"));
+				compactStore.setValue(fileUri, NAME, largeText);
+				assertEquals(largeText, compactStore.getValue(fileUri, NAME).get());
+				int textCount = arena.getTextCount();
+				long usedBytes = arena.getUsedBytes();
+				String text = String.join(" ", Collections.nCopies(50, "notice"));
+				compactStore.setValue(fileUri, NAME, text);
+				assertEquals(textCount, arena.getTextCount());
+				assertTrue(arena.getUsedBytes() < usedBytes);
+				compactStore.setValue(fileUri, NAME, text + "-");
+				long capacity = arena.getCapacity();
+				for (int i = 0; i < 100; i++) {
+					compactStore.setValue(fileUri, NAME, text + i);
+				}
+				assertEquals(text + "99", compactStore.getValue(fileUri, NAME).get());
+				assertEquals(capacity, arena.getCapacity());
+				
+				// the file regions of freed dedicated segments are reused
+				String oversizedText = largeText + "\n" + largeText;
+				compactStore.setValue(fileUri, NAME, oversizedText);
+				long mappedLength = arena.getMappedLength();
+				for (int i = 0; i < 10; i++) {
+					compactStore.setValue(fileUri, NAME, text);
+					compactStore.setValue(fileUri, NAME, oversizedText.substring(i));
+				}
+				assertEquals(oversizedText.substring(9), compactStore.getValue(fileUri, NAME).get());
+				assertEquals(mappedLength, arena.getMappedLength());
+				compactStore.close();
+				assertEquals(0, arena.getTextCount());
+			}
+			assertEquals(0, arenaDirectory.listFiles().length);
+		} finally {
+			arenaDirectory.delete();
+		}
+	}
+}
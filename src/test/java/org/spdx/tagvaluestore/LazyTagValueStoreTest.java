@@ -0,0 +1,103 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxConstantsCompatV2;
+import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.library.model.v2.SpdxElement;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v2.SpdxPackage;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+
+import junit.framework.TestCase;
+
+/**
+ * @author Gary O'Neall
+ */
+public class LazyTagValueStoreTest extends TestCase {
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#setUp()
+	 */
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+	}
+
+	/* (non-Javadoc)
+	 * @see junit.framework.TestCase#tearDown()
+	 */
+	protected void tearDown() throws Exception {
+		super.tearDown();
+	}
+	
+	public void testLoadOnAccess() throws Exception {
+		try (LazyTagValueStore lazyStore = new LazyTagValueStore(new InMemSpdxStore())) {
+			SpdxDocument doc = lazyStore.open(new File(TagValueStoreTest.TAG_VALUE_FILE_PATH));
+			String documentUri = doc.getDocumentUri();
+			int pendingCount = lazyStore.getPendingCount();
+			assertTrue(pendingCount > 0);
+			assertEquals(pendingCount, lazyStore.getAllItems(documentUri, SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE).count() +
+					lazyStore.getAllItems(documentUri, SpdxConstantsCompatV2.CLASS_SPDX_FILE).count() +
+					lazyStore.getAllItems(documentUri, SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET).count());
+			
+			TagValueStore eagerStore = new TagValueStore(new InMemSpdxStore());
+			try (InputStream tagValueInput = new FileInputStream(new File(TagValueStoreTest.TAG_VALUE_FILE_PATH))) {
+				eagerStore.deSerialize(tagValueInput, false);
+			}
+			String packageUri = documentUri + "#SPDXRef-Package";
+			assertFalse(lazyStore.isLoaded(packageUri));
+			SpdxPackage pkg = new SpdxPackage(lazyStore, documentUri, "SPDXRef-Package", null, false);
+			SpdxPackage eagerPkg = new SpdxPackage(eagerStore, documentUri, "SPDXRef-Package", null, false);
+			assertEquals(eagerPkg.getName(), pkg.getName());
+			assertTrue(lazyStore.isLoaded(packageUri));
+			assertTrue(lazyStore.getPendingCount() < pendingCount);
+			assertTrue(lazyStore.getPendingCount() > 0);
+			
+			for (SpdxElement described:doc.getDocumentDescribes()) {
+				assertTrue(described.getName().isPresent());
+			}
+			
+			// loading the remaining elements produces the same document
+			String expected;
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				eagerStore.serialize(bas);
+				expected = bas.toString("UTF-8");
+			}
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				lazyStore.serialize(bas);
+				assertEquals(expected, bas.toString("UTF-8"));
+			}
+			assertEquals(0, lazyStore.getPendingCount());
+			assertEquals(eagerStore.getWarnings(), lazyStore.getWarnings());
+			assertTrue(doc.equivalent(new SpdxDocument(eagerStore, documentUri, null, false)));
+		}
+	}
+}
@@ -0,0 +1,260 @@
+/**
+ * SPDX-FileContributor: Gary O'Neall
+ * SPDX-FileCopyrightText: Copyright (c) 2026 Source Auditor Inc.
+ * SPDX-FileType: SOURCE
+ * SPDX-License-Identifier: Apache-2.0
+ * <p>
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ * <p>
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package org.spdx.tagvaluestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import org.spdx.core.DefaultModelStore;
+import org.spdx.core.InvalidSPDXAnalysisException;
+import org.spdx.core.ModelRegistry;
+import org.spdx.library.ModelCopyManager;
+import org.spdx.library.model.v2.SpdxModelInfoV2_X;
+import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.SyntheticDocumentGenerator;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that the deserialization and serialization costs grow linearly with the size of the document.
+ * <p>
+ * Each case is measured at sizes n, 2n, 4n and 8n.  The allocated bytes and the best elapsed time of
+ * several runs for the largest size must be within a bounded factor of 8 times the cost for the smallest size.
+ * A quadratic algorithm grows by a factor of 64.
+ * <p>
+ * These tests are excluded from the default build - run them with <code>mvn test -Pscaling</code>.
+ * 
+ * @author Gary O'Neall
+ */
+public class ScalingTest extends TestCase {
+	
+	static final int[] MULTIPLIERS = new int[] {1, 2, 4, 8};
+	
+	/**
+	 * Maximum growth in allocated bytes from n to 8n
+	 */
+	static final double MAX_ALLOCATION_GROWTH = 16;
+	
+	/**
+	 * Maximum growth in elapsed time from n to 8n - more tolerant than the allocation since the timings are noisy
+	 */
+	static final double MAX_TIME_GROWTH = 24;
+	
+	static final int RUNS = 3;
+	
+	static final String HEADER = "SPDXVersion: SPDX-2.3\n" +
+			"DataLicense: CC0-1.0\n" +
+			"DocumentNamespace: https://spdx.org/spdxdocs/scaling-%d\n" +
+			"DocumentName: scaling-%d\n" +
+			"SPDXID: SPDXRef-DOCUMENT\n" +
+			"Creator: Tool: scaling-test\n" +
+			"Created: 2010-01-29T18:30:22Z\n" +
+			"Relationship: SPDXRef-DOCUMENT DESCRIBES SPDXRef-Package\n";
+	
+	static final String PACKAGE = "PackageName: package\n" +
+			"SPDXID: SPDXRef-Package\n" +
+			"PackageDownloadLocation: NOASSERTION\n" +
+			"FilesAnalyzed: false\n" +
+			"PackageLicenseConcluded: NOASSERTION\n" +
+			"PackageLicenseDeclared: NOASSERTION\n" +
+			"PackageCopyrightText: NOASSERTION\n";
+	
+	/**
+	 * Cost of processing a document
+	 */
+	static class Cost {
+		long allocatedBytes = Long.MAX_VALUE;
+		long nanos = Long.MAX_VALUE;
+	}
+	
+	/**
+	 * Operation on a serialized document
+	 */
+	@FunctionalInterface
+	interface Operation {
+		void run(byte[] document) throws Exception;
+	}
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV2_X());
+		ModelRegistry.getModelRegistry().registerModel(new SpdxModelInfoV3_0());
+		DefaultModelStore.initialize(new InMemSpdxStore(), "https://default.doc", new ModelCopyManager());
+	}
+	
+	private static void deserialize(byte[] document) throws Exception {
+		try (TagValueStore store = new TagValueStore(new InMemSpdxStore())) {
+			store.deSerialize(new ByteArrayInputStream(document), false);
+		}
+	}
+	
+	private static Operation serialize(byte[] document) throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore store = new TagValueStore(new InMemSpdxStore());
+		store.deSerialize(new ByteArrayInputStream(document), false);
+		return (byte[] ignored) -> store.serialize(new ByteArrayOutputStream());
+	}
+	
+	/**
+	 * @param operation operation to measure
+	 * @param document document the operation is run on
+	 * @return the lowest allocated bytes and elapsed time over the runs
+	 */
+	private static Cost measure(Operation operation, byte[] document) throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		Cost cost = new Cost();
+		for (int i = 0; i < RUNS; i++) {
+			long allocated = threads.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			operation.run(document);
+			cost.nanos = Math.min(cost.nanos, System.nanoTime() - start);
+			cost.allocatedBytes = Math.min(cost.allocatedBytes, threads.getThreadAllocatedBytes(threadId) - allocated);
+		}
+		return cost;
+	}
+	
+	/**
+	 * Measure the cost of the deserialization and the serialization for the document sizes and check the growth
+	 * @param name name of the case for the failure messages
+	 * @param n smallest size
+	 * @param documentForSize generates the document for a size
+	 */
+	private static void assertLinear(String name, int n, IntFunction<byte[]> documentForSize) throws Exception {
+		// warm up the JIT so that the first size is not penalized
+		byte[] smallest = documentForSize.apply(n);
+		measure(ScalingTest::deserialize, smallest);
+		measure(serialize(smallest), smallest);
+		Cost[] deserializeCosts = new Cost[MULTIPLIERS.length];
+		Cost[] serializeCosts = new Cost[MULTIPLIERS.length];
+		for (int i = 0; i < MULTIPLIERS.length; i++) {
+			byte[] document = documentForSize.apply(n * MULTIPLIERS[i]);
+			deserializeCosts[i] = measure(ScalingTest::deserialize, document);
+			serializeCosts[i] = measure(serialize(document), document);
+		}
+		assertGrowth(name + " deserialize", deserializeCosts);
+		assertGrowth(name + " serialize", serializeCosts);
+	}
+	
+	private static void assertGrowth(String name, Cost[] costs) {
+		StringBuilder sb = new StringBuilder(name);
+		for (int i = 0; i < costs.length; i++) {
+			sb.append(String.format(" %dn: %d bytes %d us;", MULTIPLIERS[i], costs[i].allocatedBytes, costs[i].nanos / 1000));
+		}
+		Cost first = costs[0];
+		Cost last = costs[costs.length - 1];
+		// the allocation is only measured when supported by the JVM
+		if (first.allocatedBytes > 0) {
+			assertTrue(sb.toString(), (double)last.allocatedBytes / first.allocatedBytes <= MAX_ALLOCATION_GROWTH);
+		}
+		assertTrue(sb.toString(), (double)last.nanos / Math.max(1, first.nanos) <= MAX_TIME_GROWTH);
+	}
+	
+	private static byte[] generated(int files) {
+		SyntheticDocumentGenerator generator = new SyntheticDocumentGenerator(files);
+		generator.setPackageCount(1);
+		generator.setFilesPerPackage(files);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			generator.generate(out);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * @param size size of the document
+	 * @param body writes the content following the header and the package
+	 * @return tag/value document
+	 */
+	private static byte[] document(int size, Consumer<PrintWriter> body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+			writer.print(String.format(HEADER, size, size));
+			writer.print(PACKAGE);
+			body.accept(writer);
+		}
+		return out.toByteArray();
+	}
+	
+	private static void printFile(PrintWriter writer, int i, boolean withChecksum) {
+		writer.print("FileName: ./file" + i + ".c\n");
+		writer.print("SPDXID: SPDXRef-File" + i + "\n");
+		if (withChecksum) {
+			writer.print(String.format("FileChecksum: SHA1: %040x\n", i));
+		}
+		writer.print("LicenseConcluded: NOASSERTION\n");
+		writer.print("FileCopyrightText: NOASSERTION\n");
+	}
+	
+	public void testGeneratedDocuments() throws Exception {
+		assertLinear("generated", 100, ScalingTest::generated);
+	}
+	
+	public void testGiantTextBlock() throws Exception {
+		assertLinear("text block", 5000, (int lines) -> document(lines, (PrintWriter writer) -> {
+			writer.print("PackageComment: <text>first line\n");
+			for (int i = 0; i < lines; i++) {
+				writer.print("line " + i + " of a giant text block\n");
+			}
+			writer.print("last line</text>\n");
+		}));
+	}
+	
+	public void testRelationshipFanOut() throws Exception {
+		assertLinear("fan-out", 250, (int files) -> document(files, (PrintWriter writer) -> {
+			for (int i = 0; i < files; i++) {
+				printFile(writer, i, true);
+			}
+			for (int i = 0; i < files; i++) {
+				writer.print("Relationship: SPDXRef-Package CONTAINS SPDXRef-File" + i + "\n");
+			}
+		}));
+	}
+	
+	public void testManyWarnings() throws Exception {
+		List<String> warnings = new TagValueStore(new InMemSpdxStore()).deSerializeWithResult(
+				new ByteArrayInputStream(document(2, (PrintWriter writer) -> {
+					printFile(writer, 0, false);
+					printFile(writer, 1, false);
+					writer.print("Relationship: SPDXRef-Package CONTAINS SPDXRef-File0\n");
+				})), false).getWarnings();
+		// the document verification messages are added to the element verification warnings
+		assertTrue(warnings.toString(), warnings.contains("File at line 16 invalid: Missing required SHA1 hashcode value for ./file0.c"));
+		assertTrue(warnings.toString(), warnings.stream().anyMatch((String warning) -> warning.endsWith(" in scaling-2")));
+		// files without checksums each add verification warnings which are checked against the document verification
+		assertLinear("warnings", 250, (int files) -> document(files, (PrintWriter writer) -> {
+			for (int i = 0; i < files; i++) {
+				printFile(writer, i, false);
+			}
+			for (int i = 0; i < files; i++) {
+				writer.print("Relationship: SPDXRef-Package CONTAINS SPDXRef-File" + i + "\n");
+			}
+		}));
+	}
+}
@@ -18,6 +18,7 @@
  */
 package org.spdx.tagvaluestore;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -25,7 +26,23 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.spdx.core.DefaultModelStore;
@@ -36,14 +53,32 @@ import org.spdx.library.SpdxModelFactory;
 import org.spdx.library.model.v2.Relationship;
 import org.spdx.library.model.v2.SpdxConstantsCompatV2;
 import org.spdx.library.model.v2.SpdxDocument;
+import org.spdx.library.model.v2.SpdxElement;
 import org.spdx.library.model.v2.SpdxFile;
 import org.spdx.library.model.v2.SpdxModelInfoV2_X;
 import org.spdx.library.model.v2.SpdxPackage;
 import org.spdx.library.model.v2.enumerations.RelationshipType;
 import org.spdx.library.model.v3_0_1.SpdxModelInfoV3_0;
+import org.spdx.storage.IModelStore.IdType;
+import org.spdx.storage.PropertyDescriptor;
 import org.spdx.storage.simple.InMemSpdxStore;
+import org.spdx.tag.AggregatingMetricsListener;
+import org.spdx.tag.CancellationToken;
+import org.spdx.tag.FootprintEstimator;
+import org.spdx.tag.InvalidSpdxTagFileException;
+import org.spdx.tag.ParserLimitExceededException;
+import org.spdx.tag.ParserLimits;
+import org.spdx.tag.StringPool;
+import org.spdx.tag.SyntheticDocumentGenerator;
+import org.spdx.tag.TagValueCancelledException;
+import org.spdx.tag.TagValueEvents;
+import org.spdx.tag.TagValueMetricsListener;
+import org.spdx.tag.TagValuePhase;
 import org.spdx.utility.compare.SpdxCompareException;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import junit.framework.TestCase;
 
 /**
@@ -168,4 +203,966 @@ public class TagValueStoreTest extends TestCase {
 		assertEquals(0, tvs.getWarnings().size());
 	}
 
+	public void testIncrementalSerialization() throws InvalidSPDXAnalysisException, IOException {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		int[] descriptorReads = new int[1];
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore() {
+			@Override
+			public List<PropertyDescriptor> getPropertyValueDescriptors(String objectUri) throws InvalidSPDXAnalysisException {
+				descriptorReads[0]++;
+				return super.getPropertyValueDescriptors(objectUri);
+			}
+		});
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			doc = tvs.deSerialize(tagValueInput, false);
+		}
+		String expected;
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			expected = bas.toString("UTF-8");
+		}
+		tvs.setIncrementalSerialization(true);
+		assertTrue(tvs.isIncrementalSerialization());
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+		assertEquals(0, tvs.getElementOutputCache().getHitCount());
+		long misses = tvs.getElementOutputCache().getMissCount();
+		assertTrue(misses > 0);
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+		assertEquals(misses, tvs.getElementOutputCache().getHitCount());
+		// the stamps are not computed when the document has not been modified
+		int reads = descriptorReads[0];
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+		assertEquals(2 * misses, tvs.getElementOutputCache().getHitCount());
+		int unmodifiedReads = descriptorReads[0] - reads;
+		// change a single package
+		SpdxPackage pkg = new SpdxPackage(tvs, doc.getDocumentUri(), "SPDXRef-Package", null, false);
+		pkg.setVersionInfo("2.11.2");
+		tvs.setIncrementalSerialization(false);
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			expected = bas.toString("UTF-8");
+		}
+		assertTrue(expected.contains("PackageVersion: 2.11.2"));
+		tvs.setIncrementalSerialization(true);
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+		}
+		long hits = tvs.getElementOutputCache().getHitCount();
+		misses = tvs.getElementOutputCache().getMissCount();
+		pkg.setVersionInfo("2.11.1");
+		reads = descriptorReads[0];
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			String result = bas.toString("UTF-8");
+			assertTrue(result.contains("PackageVersion: 2.11.1"));
+			assertFalse(result.contains("PackageVersion: 2.11.2"));
+		}
+		assertEquals(misses + 1, tvs.getElementOutputCache().getMissCount());
+		assertTrue(tvs.getElementOutputCache().getHitCount() > hits);
+		// the stamps of the elements are computed once the document has been modified
+		assertTrue(descriptorReads[0] - reads > 2 * unmodifiedReads);
+	}
+	
+	public void testParallelSerialization() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		for (String path:new String[] {TAG_VALUE_FILE_PATH, CASE_FILE_PATH, ARTIFACT_OF_FILE_PATH}) {
+			try (InputStream tagValueInput = new FileInputStream(new File(path))) {
+				tvs.deSerialize(tagValueInput, false);
+			}
+		}
+		String expected;
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas);
+			expected = bas.toString("UTF-8");
+		}
+		tvs.setSerializationParallelism(4);
+		assertEquals(4, tvs.getSerializationParallelism());
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+		tvs.setSerializationParallelism(2);
+		// the stream is closed as it is for sequential serialization
+		boolean[] closed = new boolean[1];
+		ByteArrayOutputStream bas = new ByteArrayOutputStream() {
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+				super.close();
+			}
+		};
+		tvs.serialize(bas);
+		assertEquals(expected, bas.toString("UTF-8"));
+		assertTrue(closed[0]);
+		try {
+			tvs.setSerializationParallelism(0);
+			fail("Parallelism must be positive");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+	
+	public void testSerializeSubset() throws InvalidSPDXAnalysisException, IOException {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			doc = tvs.deSerialize(tagValueInput, false);
+		}
+		String result;
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc, Arrays.asList(new String[] {"SPDXRef-Package"}));
+			result = bas.toString("UTF-8");
+		}
+		assertTrue(result.contains("PackageName: glibc"));
+		assertTrue(result.contains("FileName: ./lib-source/jena-2.6.3-sources.jar"));
+		assertTrue(result.contains("Relationship: SPDXRef-DOCUMENT DESCRIBES SPDXRef-Package"));
+		assertTrue(result.contains("Relationship: SPDXRef-Package CONTAINS SPDXRef-JenaLib"));
+		// elements reachable through relationships and the snippets of included files are included
+		assertTrue(result.contains("Relationship: SPDXRef-Package DYNAMIC_LINK SPDXRef-Saxon"));
+		assertTrue(result.contains("PackageName: Saxon"));
+		assertTrue(result.contains("PackageName: Jena"));
+		assertTrue(result.contains("SnippetSPDXID: SPDXRef-Snippet"));
+		assertFalse(result.contains("FileName: ./package/foo.c"));
+		// the subset must be a valid document
+		TagValueStore subsetStore = new TagValueStore(new InMemSpdxStore());
+		try (InputStream is = new ByteArrayInputStream(result.getBytes(StandardCharsets.UTF_8))) {
+			SpdxDocument subsetDoc = subsetStore.deSerialize(is, false);
+			assertEquals(doc.getDocumentUri(), subsetDoc.getDocumentUri());
+		}
+		
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc, (SpdxPackage pkg) -> {
+				try {
+					return pkg.getName().isPresent() && pkg.getName().get().startsWith("Sax");
+				} catch (InvalidSPDXAnalysisException e) {
+					return false;
+				}
+			});
+			result = bas.toString("UTF-8");
+		}
+		assertTrue(result.contains("PackageName: Saxon"));
+		assertFalse(result.contains("PackageName: glibc"));
+		assertFalse(result.contains("PackageName: Jena"));
+		
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc, Arrays.asList(new String[] {"SPDXRef-File"}));
+			fail("Non-package ID should fail");
+		} catch (InvalidSPDXAnalysisException e) {
+			// expected
+		}
+	}
+	
+	public void testBoundedMemorySerialization() throws InvalidSPDXAnalysisException, IOException {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		for (String path:new String[] {TAG_VALUE_FILE_PATH, CASE_FILE_PATH}) {
+			try (InputStream tagValueInput = new FileInputStream(new File(path))) {
+				tvs.deSerialize(tagValueInput, false);
+			}
+		}
+		// snippets with the same name and file are ordered by byte range
+		String snippets = new String(Files.readAllBytes(new File(TAG_VALUE_FILE_PATH).toPath()), StandardCharsets.UTF_8)
+				.replace("spdx-example-444504E0-4F89-41D3-9A0C-0305E82C3301", "spdx-example-snippets")
+				.replace("## Snippet Information\n", "## Snippet Information\n" + 
+						"SnippetSPDXID: SPDXRef-Snippet2\nSnippetFromFileSPDXID: SPDXRef-DoapSource\n" +
+						"SnippetByteRange: 20:30\nSnippetLicenseConcluded: GPL-2.0-only\n" +
+						"SnippetCopyrightText: NOASSERTION\nSnippetName: from linux kernel\n\n" +
+						"SnippetSPDXID: SPDXRef-Snippet3\nSnippetFromFileSPDXID: SPDXRef-DoapSource\n" +
+						"SnippetByteRange: 1000:1100\nSnippetLicenseConcluded: GPL-2.0-only\n" +
+						"SnippetCopyrightText: NOASSERTION\nSnippetName: from linux kernel\n\n");
+		try (InputStream tagValueInput = new ByteArrayInputStream(snippets.getBytes(StandardCharsets.UTF_8))) {
+			tvs.deSerialize(tagValueInput, false);
+		}
+		String expected;
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas);
+			expected = bas.toString("UTF-8");
+		}
+		String snippetsOutput = expected.substring(expected.indexOf("spdx-example-snippets"));
+		assertTrue(snippetsOutput.indexOf("SPDXRef-Snippet2") < snippetsOutput.indexOf("SPDXRef-Snippet\n"));
+		assertTrue(snippetsOutput.indexOf("SPDXRef-Snippet\n") < snippetsOutput.indexOf("SPDXRef-Snippet3"));
+		// a tiny budget writes runs of the minimum run size to disk
+		tvs.setSerializationMemoryBudget(1);
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+		tvs.setSerializationMemoryBudget(1024 * 1024);
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas);
+			assertEquals(expected, bas.toString("UTF-8"));
+		}
+	}
+	
+	public void testChannelSerialization() throws Exception {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			doc = tvs.deSerialize(tagValueInput, false);
+		}
+		byte[] expected;
+		try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+			tvs.serialize(bas, doc);
+			expected = bas.toByteArray();
+		}
+		ByteArrayOutputStream channelOutput = new ByteArrayOutputStream();
+		try (WritableByteChannel channel = Channels.newChannel(channelOutput)) {
+			assertEquals(expected.length, tvs.serialize(channel, doc));
+		}
+		assertTrue(Arrays.equals(expected, channelOutput.toByteArray()));
+		
+		File asyncFile = File.createTempFile("spdx-test", ".spdx");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(asyncFile.toPath(), 
+					StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				CompletableFuture<Long> result = tvs.serializeAsync(channel, 0, doc, executor);
+				assertEquals(expected.length, result.get().longValue());
+			}
+			assertTrue(Arrays.equals(expected, Files.readAllBytes(asyncFile.toPath())));
+		} finally {
+			executor.shutdown();
+			asyncFile.delete();
+		}
+	}
+	
+	public void testConcurrentDeserialization() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int i = 0; i < 5; i++) {
+				TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+				Future<DeserializationResult> exampleResult = executor.submit(() -> {
+					try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+						return tvs.deSerializeWithResult(tagValueInput, false);
+					}
+				});
+				Future<DeserializationResult> caseResult = executor.submit(() -> {
+					try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+						return tvs.deSerializeWithResult(tagValueInput, false);
+					}
+				});
+				assertEquals(0, exampleResult.get().getWarnings().size());
+				assertEquals(1, caseResult.get().getWarnings().size());
+				assertFalse(exampleResult.get().getDocumentUri().equals(caseResult.get().getDocumentUri()));
+				assertTrue(exampleResult.get().getDocument().verify().isEmpty());
+				@SuppressWarnings("unchecked")
+				List<SpdxDocument> docs = (List<SpdxDocument>)SpdxModelFactory.getSpdxObjects(tvs, null, 
+						SpdxConstantsCompatV2.CLASS_SPDX_DOCUMENT, null, null)
+						.collect(Collectors.toList());
+				assertEquals(2, docs.size());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	public void testSnapshot() throws Exception {
+		File snapshotDir = Files.createTempDirectory("spdx-snapshot").toFile();
+		try {
+			TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+			tvs.setSnapshotDirectory(snapshotDir);
+			DeserializationResult parsed;
+			try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+				parsed = tvs.deSerializeWithResult(tagValueInput, false);
+			}
+			File[] snapshots = snapshotDir.listFiles();
+			assertEquals(1, snapshots.length);
+			assertTrue(snapshots[0].getName().endsWith(TagValueStore.SNAPSHOT_FILE_EXTENSION));
+			assertTrue(DocumentSnapshot.isValid(snapshots[0]));
+			
+			TagValueStore snapshotStore = new TagValueStore(new InMemSpdxStore());
+			snapshotStore.setSnapshotDirectory(snapshotDir);
+			DeserializationResult loaded;
+			try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+				loaded = snapshotStore.deSerializeWithResult(tagValueInput, false);
+			}
+			assertEquals(parsed.getWarnings(), loaded.getWarnings());
+			assertEquals(1, snapshotStore.getWarnings().size());
+			assertTrue(parsed.getDocument().equivalent(loaded.getDocument()));
+			String expected;
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				tvs.serialize(bas, parsed.getDocument());
+				expected = bas.toString("UTF-8");
+			}
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				snapshotStore.serialize(bas, loaded.getDocument());
+				assertEquals(expected, bas.toString("UTF-8"));
+			}
+			
+			// a truncated snapshot is ignored and replaced
+			byte[] snapshotBytes = Files.readAllBytes(snapshots[0].toPath());
+			Files.write(snapshots[0].toPath(), Arrays.copyOf(snapshotBytes, snapshotBytes.length / 2));
+			assertFalse(DocumentSnapshot.isValid(snapshots[0]));
+			TagValueStore reparseStore = new TagValueStore(new InMemSpdxStore());
+			reparseStore.setSnapshotDirectory(snapshotDir);
+			try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+				reparseStore.deSerializeWithResult(tagValueInput, false);
+			}
+			assertTrue(DocumentSnapshot.isValid(snapshots[0]));
+		} finally {
+			for (File file:snapshotDir.listFiles()) {
+				file.delete();
+			}
+			snapshotDir.delete();
+		}
+	}
+	
+	public void testDocumentCache() throws Exception {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		tvs.setDocumentCacheSize(4000);
+		DocumentCache cache = tvs.getDocumentCache();
+		DeserializationResult first;
+		try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+			first = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		DeserializationResult second;
+		try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+			second = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		assertEquals(1, cache.getHitCount());
+		assertEquals(first.getDocumentUri(), second.getDocumentUri());
+		assertEquals(first.getWarnings(), second.getWarnings());
+		assertEquals(1, tvs.getWarnings().size());
+		
+		// modifying a cached document removes it from the cache
+		second.getDocument().setName("Modified name");
+		assertEquals(0, cache.size());
+		try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+			second = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(1, cache.size());
+		assertFalse("Modified name".equals(second.getDocument().getName().get()));
+		
+		// loading a second document exceeds the cache size and evicts the first document from the cache only
+		DeserializationResult other;
+		try (InputStream tagValueInput = new FileInputStream(new File(ARTIFACT_OF_FILE_PATH))) {
+			other = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(1, cache.size());
+		assertTrue(tvs.exists(first.getDocumentUri() + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID));
+		assertTrue(tvs.exists(other.getDocumentUri() + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID));
+		
+		// evicted documents are deleted from the store when requested
+		tvs.setDeleteEvictedDocuments(true);
+		try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+			first = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		assertEquals(4, cache.getMissCount());
+		assertEquals(2, cache.getEvictionCount());
+		assertTrue(tvs.exists(first.getDocumentUri() + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID));
+		assertFalse(tvs.exists(other.getDocumentUri() + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID));
+		assertEquals(0, tvs.getAllItems(other.getDocumentUri(), null).count());
+		
+		// a deleted document is reloaded
+		tvs.deleteDocument(first.getDocumentUri());
+		assertEquals(0, cache.size());
+		try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+			first = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		assertEquals(5, cache.getMissCount());
+		assertEquals(1, cache.size());
+		assertTrue(tvs.exists(first.getDocumentUri() + "#" + SpdxConstantsCompatV2.SPDX_DOCUMENT_ID));
+	}
+	
+	public void testElementIndex() throws Exception {
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		tvs.setElementIndexing(true);
+		SpdxDocument doc;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			doc = tvs.deSerialize(tagValueInput, false);
+		}
+		List<String> ids = new ArrayList<>();
+		for (SpdxElement element:tvs.findElementsByChecksum("624C1ABB3664F4B35547E7C73864AD24")) {
+			ids.add(element.getId());
+		}
+		Collections.sort(ids);
+		assertEquals(Arrays.asList("SPDXRef-File", "SPDXRef-Package"), ids);
+		assertEquals(2, tvs.findElementsByChecksum("85ed0817af83a24ad8da68c2b5094de69833983c").size());
+		assertTrue(tvs.findElementsByChecksum("0000").isEmpty());
+		
+		List<SpdxPackage> packages = tvs.findPackagesByExternalRef("pkg:maven/org.apache.jena/apache-jena@3.12.0");
+		assertEquals(1, packages.size());
+		assertEquals("SPDXRef-fromDoap-0", packages.get(0).getId());
+		
+		List<SpdxFile> files = tvs.findFilesByName("./docs/myspec.pdf");
+		assertEquals(1, files.size());
+		assertEquals("SPDXRef-Specification", files.get(0).getId());
+		
+		ids.clear();
+		for (SpdxElement element:tvs.findElementsByLicenseId("apache-2.0")) {
+			ids.add(element.getId());
+		}
+		assertTrue(ids.contains("SPDXRef-CommonsLangSrc"));
+		assertTrue(ids.contains("SPDXRef-DoapSource"));
+		ids.clear();
+		for (SpdxElement element:tvs.findElementsByLicenseId("LicenseRef-3")) {
+			ids.add(element.getId());
+		}
+		assertTrue(ids.contains("SPDXRef-Package"));
+		
+		tvs.deleteDocument(doc.getDocumentUri());
+		assertTrue(tvs.findElementsByChecksum("624c1abb3664f4b35547e7c73864ad24").isEmpty());
+		assertTrue(tvs.findFilesByName("./docs/myspec.pdf").isEmpty());
+		
+		TagValueStore notIndexed = new TagValueStore(new InMemSpdxStore());
+		try {
+			notIndexed.findFilesByName("./docs/myspec.pdf");
+			fail("Expected an exception when indexing is not enabled");
+		} catch (InvalidSPDXAnalysisException e) {
+			// expected
+		}
+	}
+	
+	public void testStringPool() throws Exception {
+		StringPool pool = new StringPool(1024, StringPool.DEFAULT_MAX_LENGTH);
+		TagValueStore tvs1 = new TagValueStore(new InMemSpdxStore());
+		tvs1.setStringPool(pool);
+		TagValueStore tvs2 = new TagValueStore(new InMemSpdxStore());
+		tvs2.setStringPool(pool);
+		SpdxDocument doc1;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			doc1 = tvs1.deSerialize(tagValueInput, false);
+		}
+		long bytesSaved = pool.getBytesSaved();
+		SpdxDocument doc2;
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			doc2 = tvs2.deSerialize(tagValueInput, false);
+		}
+		// only values of tags with few distinct values are pooled
+		assertEquals(doc1.getName().get(), doc2.getName().get());
+		assertNotSame(doc1.getName().get(), doc2.getName().get());
+		assertSame(doc1.getCreationInfo().getCreators().iterator().next(), doc2.getCreationInfo().getCreators().iterator().next());
+		assertSame(doc1.getCreationInfo().getLicenseListVersion().get(), doc2.getCreationInfo().getLicenseListVersion().get());
+		assertTrue(pool.getBytesSaved() > bytesSaved);
+		assertTrue(pool.getHitCount() > 0);
+	}
+	
+	public void testJournal() throws Exception {
+		File journalDir = Files.createTempDirectory("spdx-journal").toFile();
+		try {
+			TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+			StoreJournal journal = tvs.openJournal(journalDir, 0, 0);
+			SpdxDocument doc;
+			try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+				doc = tvs.deSerialize(tagValueInput, false);
+			}
+			doc.setName("Journaled name");
+			assertTrue(journal.getRecordCount() > 0);
+			assertEquals(journal.getRecordCount(), journal.getCommittedRecordCount());
+			String expected;
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				tvs.serialize(bas);
+				expected = bas.toString("UTF-8");
+			}
+			
+			// recover without closing the journal
+			TagValueStore recovered = new TagValueStore(new InMemSpdxStore());
+			StoreJournal recoveredJournal = recovered.openJournal(journalDir, 0, 0);
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				recovered.serialize(bas);
+				assertEquals(expected, bas.toString("UTF-8"));
+			}
+			String anonId = recovered.getNextId(IdType.Anonymous);
+			assertFalse(recovered.exists(anonId));
+			
+			// compact the journal then make further changes
+			recoveredJournal.checkpoint();
+			assertEquals(1, recoveredJournal.getCheckpointCount());
+			SpdxDocument recoveredDoc = new SpdxDocument(recovered, doc.getDocumentUri(), null, false);
+			recoveredDoc.setName("Name after checkpoint");
+			recovered.closeJournal();
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				recovered.serialize(bas);
+				expected = bas.toString("UTF-8");
+			}
+			File[] files = journalDir.listFiles();
+			assertEquals(2, files.length);
+			// an incomplete record at the end of the journal is ignored
+			for (File file:files) {
+				if (file.getName().startsWith(StoreJournal.JOURNAL_PREFIX)) {
+					Files.write(file.toPath(), new byte[] {0, 0, 0, 100, 1, 2}, StandardOpenOption.APPEND);
+				}
+			}
+			TagValueStore fromCheckpoint = new TagValueStore(new InMemSpdxStore());
+			fromCheckpoint.openJournal(journalDir, 100, 0);
+			try (ByteArrayOutputStream bas = new ByteArrayOutputStream()) {
+				fromCheckpoint.serialize(bas);
+				assertEquals(expected, bas.toString("UTF-8"));
+			}
+			assertEquals("Name after checkpoint", new SpdxDocument(fromCheckpoint, doc.getDocumentUri(), null, false).getName().get());
+			fromCheckpoint.close();
+			
+			TagValueStore notEmpty = new TagValueStore(new InMemSpdxStore());
+			try (InputStream tagValueInput = new FileInputStream(new File(CASE_FILE_PATH))) {
+				notEmpty.deSerialize(tagValueInput, false);
+			}
+			try {
+				notEmpty.openJournal(journalDir, 0, 0);
+				fail("Expected an exception recovering into a store which is not empty");
+			} catch (InvalidSPDXAnalysisException e) {
+				// expected
+			}
+		} finally {
+			for (File file:journalDir.listFiles()) {
+				file.delete();
+			}
+			journalDir.delete();
+		}
+	}
+	
+	public void testJournalConcurrentWriters() throws Exception {
+		File journalDir = Files.createTempDirectory("spdx-journal").toFile();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch slowApplied = new CountDownLatch(1);
+			TagValueStore tvs = new TagValueStore(new InMemSpdxStore() {
+				@Override
+				public void setValue(String objectUri, PropertyDescriptor propertyDescriptor, Object value) throws InvalidSPDXAnalysisException {
+					super.setValue(objectUri, propertyDescriptor, value);
+					if ("slow".equals(value)) {
+						// give another writer time to apply and journal its mutation
+						slowApplied.countDown();
+						try {
+							Thread.sleep(200);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				}
+			});
+			tvs.openJournal(journalDir, 50, 0);
+			SpdxDocument doc;
+			try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+				doc = tvs.deSerialize(tagValueInput, false);
+			}
+			String docUri = doc.getObjectUri();
+			PropertyDescriptor values = new PropertyDescriptor("testValue", SpdxConstantsCompatV2.SPDX_NAMESPACE);
+			List<Future<Void>> writers = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int writer = t;
+				writers.add(executor.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						tvs.setValue(docUri, SpdxConstantsCompatV2.PROP_NAME, "name-" + writer + "-" + i);
+						tvs.addValueToCollection(docUri, values, "value-" + writer + "-" + i);
+						if (i > 0) {
+							tvs.removeValueFromCollection(docUri, values, "value-" + writer + "-" + (i - 1));
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<Void> writer:writers) {
+				writer.get();
+			}
+			// a mutation applied after another must also be journaled after it
+			Future<Void> slowWriter = executor.submit(() -> {
+				tvs.setValue(docUri, SpdxConstantsCompatV2.PROP_NAME, "slow");
+				return null;
+			});
+			slowApplied.await();
+			tvs.setValue(docUri, SpdxConstantsCompatV2.PROP_NAME, "fast");
+			slowWriter.get();
+			assertEquals("fast", tvs.getValue(docUri, SpdxConstantsCompatV2.PROP_NAME).get());
+			Object expectedName = tvs.getValue(docUri, SpdxConstantsCompatV2.PROP_NAME).get();
+			List<Object> expectedValues = new ArrayList<>();
+			tvs.listValues(docUri, values).forEachRemaining(expectedValues::add);
+			assertEquals(4, expectedValues.size());
+			tvs.closeJournal();
+			
+			TagValueStore recovered = new TagValueStore(new InMemSpdxStore());
+			recovered.openJournal(journalDir, 0, 0);
+			assertEquals(expectedName, recovered.getValue(docUri, SpdxConstantsCompatV2.PROP_NAME).get());
+			List<Object> recoveredValues = new ArrayList<>();
+			recovered.listValues(docUri, values).forEachRemaining(recoveredValues::add);
+			assertEquals(expectedValues.size(), recoveredValues.size());
+			assertTrue(recoveredValues.containsAll(expectedValues));
+			recovered.close();
+		} finally {
+			executor.shutdown();
+			for (File file:journalDir.listFiles()) {
+				file.delete();
+			}
+			journalDir.delete();
+		}
+	}
+	
+	public void testComputeDelta() throws Exception {
+		String original = new String(Files.readAllBytes(new File(TAG_VALUE_FILE_PATH).toPath()), StandardCharsets.UTF_8);
+		String oldNamespace = "http://spdx.org/spdxdocs/spdx-example-444504E0-4F89-41D3-9A0C-0305E82C3301";
+		String newNamespace = "http://spdx.org/spdxdocs/spdx-example-version2";
+		String updated = original.replace(oldNamespace, newNamespace)
+				.replace("PackageVersion: 2.11.1", "PackageVersion: 2.12.0")
+				.replace("SnippetSPDXID: SPDXRef-Snippet", "SnippetSPDXID: SPDXRef-Snippet2");
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		tvs.setDeltaTracking(true);
+		tvs.setElementIndexing(true);
+		try (InputStream tagValueInput = new FileInputStream(new File(TAG_VALUE_FILE_PATH))) {
+			tvs.deSerialize(tagValueInput, false);
+		}
+		DocumentDelta delta = tvs.computeDelta(oldNamespace, 
+				new ByteArrayInputStream(updated.getBytes(StandardCharsets.UTF_8)), false);
+		assertFalse(delta.isApplied());
+		assertEquals(newNamespace, delta.getNewDocumentUri());
+		assertEquals(Arrays.asList("SPDXRef-Snippet2"), delta.getAddedElements());
+		assertEquals(Arrays.asList("SPDXRef-Snippet"), delta.getRemovedElements());
+		assertEquals(Collections.singleton("SPDXRef-Package"), delta.getChangedElements().keySet());
+		assertEquals(Arrays.asList(SpdxConstantsCompatV2.PROP_PACKAGE_VERSION_INFO), delta.getChangedElements().get("SPDXRef-Package"));
+		assertTrue(delta.getUnchangedCount() > 5);
+		// the store is unchanged
+		assertTrue(tvs.exists(oldNamespace + "#SPDXRef-Snippet"));
+		
+		delta = tvs.computeDelta(oldNamespace, new ByteArrayInputStream(updated.getBytes(StandardCharsets.UTF_8)), true);
+		assertTrue(delta.isApplied());
+		assertFalse(tvs.exists(oldNamespace + "#SPDXRef-Snippet"));
+		assertTrue(tvs.exists(oldNamespace + "#SPDXRef-Snippet2"));
+		assertEquals("2.12.0", new SpdxPackage(tvs, oldNamespace, "SPDXRef-Package", null, false).getVersionInfo().get());
+		assertEquals(1, tvs.findElementsByChecksum("624C1ABB3664F4B35547E7C73864AD24").stream()
+				.filter(element -> element.getId().equals("SPDXRef-Package")).count());
+		
+		// the updated document matches the new version
+		TagValueStore expectedStore = new TagValueStore(new InMemSpdxStore());
+		try (InputStream tagValueInput = new ByteArrayInputStream(updated.getBytes(StandardCharsets.UTF_8))) {
+			expectedStore.deSerialize(tagValueInput, false);
+		}
+		try (ByteArrayOutputStream expected = new ByteArrayOutputStream();
+				ByteArrayOutputStream actual = new ByteArrayOutputStream()) {
+			expectedStore.serialize(expected);
+			tvs.serialize(actual);
+			assertEquals(expected.toString("UTF-8").replace(newNamespace, oldNamespace), actual.toString("UTF-8"));
+		}
+		assertTrue(tvs.computeDelta(oldNamespace, new ByteArrayInputStream(updated.getBytes(StandardCharsets.UTF_8)), false).isEmpty());
+	}
+	
+	public void testMetricsListener() throws Exception {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		assertSame(TagValueMetricsListener.NO_OP, tvs.getMetricsListener());
+		AggregatingMetricsListener metrics = new AggregatingMetricsListener();
+		tvs.setMetricsListener(metrics);
+		tvs.setDocumentCacheSize(1024 * 1024);
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			tvs.deSerialize(tagValueInput, false);
+		}
+		assertEquals(tagValueFile.length(), metrics.getBytesRead());
+		assertTrue(metrics.getLinesRead() > 300);
+		assertEquals(Long.valueOf(4), metrics.getTagCounts().get("PackageName:"));
+		assertEquals(Long.valueOf(4), metrics.getElementCounts().get(SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE));
+		assertEquals(Long.valueOf(5), metrics.getElementCounts().get(SpdxConstantsCompatV2.CLASS_SPDX_FILE));
+		assertEquals(Long.valueOf(1), metrics.getElementCounts().get(SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET));
+		assertTrue(metrics.getLicenseExpressionCount() > 10);
+		for (TagValuePhase phase:TagValuePhase.values()) {
+			assertEquals(phase.toString(), phase == TagValuePhase.PRINT ? 0 : 1, metrics.getPhaseCount(phase));
+		}
+		assertTrue(metrics.getPhaseNanos(TagValuePhase.BUILD) > 0);
+		
+		// the second deserialization is returned from the document cache
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			tvs.deSerialize(tagValueInput, false);
+		}
+		assertEquals(Long.valueOf(1), metrics.getCacheHits().get("document"));
+		assertEquals(2 * tagValueFile.length(), metrics.getBytesRead());
+		assertEquals(1, metrics.getPhaseCount(TagValuePhase.BUILD));
+		
+		tvs.serialize(new ByteArrayOutputStream());
+		assertEquals(1, metrics.getPhaseCount(TagValuePhase.PRINT));
+		metrics.reset();
+		assertEquals(0, metrics.getBytesRead());
+		assertTrue(metrics.getElementCounts().isEmpty());
+		tvs.setMetricsListener(null);
+		assertSame(TagValueMetricsListener.NO_OP, tvs.getMetricsListener());
+	}
+	
+	public void testLoadStats() throws Exception {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		assertNull(tvs.getLastLoadStats());
+		tvs.setDocumentCacheSize(1024 * 1024);
+		DeserializationResult result;
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			result = tvs.deSerializeWithResult(tagValueInput, false);
+		}
+		LoadStats stats = result.getLoadStats();
+		assertNotNull(stats);
+		assertSame(stats, tvs.getLastLoadStats());
+		assertEquals(result.getDocumentUri(), stats.getDocumentUri());
+		assertFalse(stats.isCached());
+		assertEquals(tagValueFile.length(), stats.getBytesRead());
+		assertTrue(stats.getLinesRead() > 300);
+		assertTrue(stats.getTagCount() > 100);
+		assertEquals(4, stats.getElementCount(SpdxConstantsCompatV2.CLASS_SPDX_PACKAGE));
+		assertEquals(5, stats.getElementCount(SpdxConstantsCompatV2.CLASS_SPDX_FILE));
+		assertEquals(1, stats.getElementCount(SpdxConstantsCompatV2.CLASS_SPDX_SNIPPET));
+		assertTrue(stats.getElementCount(SpdxConstantsCompatV2.CLASS_RELATIONSHIP) > 0);
+		assertEquals(0, stats.getElementCount("Unknown"));
+		assertEquals(result.getWarnings().size(), stats.getWarningCount());
+		// the relationships and annotations are held until all elements are defined
+		assertTrue(stats.getPeakStagedObjects() >= stats.getElementCount(SpdxConstantsCompatV2.CLASS_ANNOTATION));
+		assertTrue(stats.getPeakStagedObjects() > 0);
+		long phaseTotal = 0;
+		for (TagValuePhase phase:TagValuePhase.values()) {
+			if (phase == TagValuePhase.PRINT) {
+				assertFalse(stats.getPhaseNanos().containsKey(phase));
+			} else {
+				assertTrue(phase.toString(), stats.getPhaseNanos().containsKey(phase));
+			}
+			phaseTotal += stats.getPhaseNanos(phase);
+		}
+		assertTrue(stats.getPhaseNanos(TagValuePhase.VERIFICATION) > 0);
+		assertTrue(stats.getPhaseNanos(TagValuePhase.DOCUMENT_VERIFICATION) > 0);
+		assertTrue(phaseTotal <= stats.getTotalNanos());
+		assertTrue(stats.toString().contains("document_verificationMillis="));
+		
+		// the second deserialization is returned from the document cache
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			stats = tvs.deSerializeWithResult(tagValueInput, false).getLoadStats();
+		}
+		assertTrue(stats.isCached());
+		assertEquals(0, stats.getPhaseNanos(TagValuePhase.BUILD));
+		assertTrue(stats.getElementCounts().isEmpty());
+		
+		// statistics are kept for failed deserializations
+		try {
+			tvs.deSerialize(new ByteArrayInputStream("PackageName: <text>unterminated".getBytes(StandardCharsets.UTF_8)), false);
+			fail("Expected an invalid document");
+		} catch (InvalidSPDXAnalysisException e) {
+			// expected
+		}
+		assertNull(tvs.getLastLoadStats().getDocumentUri());
+		assertEquals(31, tvs.getLastLoadStats().getBytesRead());
+	}
+	
+	public void testFlightRecorderEvents() throws Exception {
+		assertTrue(TagValueEvents.get().isAvailable());
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		AggregatingMetricsListener metrics = new AggregatingMetricsListener();
+		tvs.setMetricsListener(metrics);
+		Path recordingFile = Files.createTempFile("tagvalue", ".jfr");
+		try {
+			String documentUri;
+			try (Recording recording = new Recording()) {
+				for (String eventName:new String[] {"org.spdx.TagValueDeserialize", "org.spdx.TagValueSection", 
+						"org.spdx.TagValueVerify", "org.spdx.TagValueSerialize"}) {
+					recording.enable(eventName).withThreshold(Duration.ZERO);
+				}
+				recording.start();
+				try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+					documentUri = tvs.deSerialize(tagValueInput, false).getDocumentUri();
+				}
+				tvs.serialize(new ByteArrayOutputStream());
+				recording.stop();
+				recording.dump(recordingFile);
+			}
+			List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+			List<String> sections = new ArrayList<>();
+			int found = 0;
+			for (RecordedEvent event:events) {
+				switch (event.getEventType().getName()) {
+					case "org.spdx.TagValueDeserialize":
+						assertEquals(documentUri, event.getString("documentUri"));
+						assertEquals(tagValueFile.length(), event.getLong("bytesRead"));
+						assertEquals(metrics.getLinesRead(), event.getLong("linesRead"));
+						assertTrue(event.getLong("elements") > 10);
+						assertFalse(event.getBoolean("cached"));
+						found++;
+						break;
+					case "org.spdx.TagValueSection":
+						sections.add(event.getString("phase"));
+						break;
+					case "org.spdx.TagValueVerify":
+						assertEquals(documentUri, event.getString("documentUri"));
+						assertTrue(event.getLong("elements") > 10);
+						found++;
+						break;
+					case "org.spdx.TagValueSerialize":
+						assertTrue(event.getLong("bytesWritten") > 1000);
+						assertEquals(1, event.getInt("documents"));
+						found++;
+						break;
+					default:
+						fail("Unexpected event " + event.getEventType().getName());
+				}
+			}
+			assertEquals(3, found);
+			assertEquals(Arrays.asList("BUILD", "DEPENDENCY_FIXUP", "RELATIONSHIPS", "SINGLE_PACKAGE_DEFAULT", "ANNOTATIONS"), sections);
+		} finally {
+			Files.delete(recordingFile);
+		}
+		
+		// no events are created when there is no recording
+		assertNull(TagValueEvents.get().beginSection());
+		assertSame(metrics, TagValueEvents.get().beginDeserialize(metrics));
+	}
+	
+	public void testProgressAndCancellation() throws Exception {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		List<TagValuePhase> phases = new ArrayList<>();
+		long[] lastBytesRead = new long[1];
+		String documentUri;
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			documentUri = tvs.deSerializeWithResult(tagValueInput, tagValueFile.length(), 
+					(long bytesRead, long totalBytes, int lineNumber, TagValuePhase phase) -> {
+				assertEquals(tagValueFile.length(), totalBytes);
+				assertTrue(bytesRead >= lastBytesRead[0] && bytesRead <= totalBytes);
+				lastBytesRead[0] = bytesRead;
+				if (phases.isEmpty() || phases.get(phases.size() - 1) != phase) {
+					phases.add(phase);
+				}
+			}, new CancellationToken()).getDocumentUri();
+		}
+		assertEquals(Arrays.asList(TagValuePhase.BUILD, TagValuePhase.DEPENDENCY_FIXUP, TagValuePhase.RELATIONSHIPS,
+				TagValuePhase.SINGLE_PACKAGE_DEFAULT, TagValuePhase.ANNOTATIONS, TagValuePhase.VERIFICATION, 
+				TagValuePhase.DOCUMENT_VERIFICATION), phases);
+		assertEquals(tagValueFile.length(), lastBytesRead[0]);
+		
+		// cancelled after the elements are built
+		tvs = new TagValueStore(new InMemSpdxStore());
+		CancellationToken token = new CancellationToken();
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			tvs.deSerializeWithResult(tagValueInput, -1, 
+					(long bytesRead, long totalBytes, int lineNumber, TagValuePhase phase) -> {
+				if (phase == TagValuePhase.RELATIONSHIPS) {
+					token.cancel();
+				}
+			}, token);
+			fail("Expected cancellation");
+		} catch (TagValueCancelledException e) {
+			assertTrue(e.getMessage().contains("RELATIONSHIPS"));
+		}
+		assertEquals(0, tvs.getAllItems(documentUri + "#", null).count());
+		// the namespace can be loaded again
+		try (InputStream tagValueInput = new FileInputStream(tagValueFile)) {
+			assertEquals(documentUri, tvs.deSerialize(tagValueInput, false).getDocumentUri());
+		}
+		
+		// cancelled while reading the lines
+		SyntheticDocumentGenerator generator = new SyntheticDocumentGenerator(3);
+		generator.setFilesPerPackage(2000);
+		ByteArrayOutputStream generated = new ByteArrayOutputStream();
+		generator.generate(generated);
+		tvs = new TagValueStore(new InMemSpdxStore());
+		CancellationToken lineToken = new CancellationToken();
+		int[] cancelledAt = new int[1];
+		try {
+			tvs.deSerializeWithResult(new ByteArrayInputStream(generated.toByteArray()), generated.size(), 
+					(long bytesRead, long totalBytes, int lineNumber, TagValuePhase phase) -> {
+				if (lineNumber > 5000 && !lineToken.isCancelled()) {
+					cancelledAt[0] = lineNumber;
+					lineToken.cancel();
+				}
+			}, lineToken);
+			fail("Expected cancellation");
+		} catch (TagValueCancelledException e) {
+			assertTrue(e.getMessage().contains("BUILD"));
+		}
+		assertTrue(cancelledAt[0] > 0);
+		assertEquals(0, tvs.getAllItems(generator.getDocumentUri() + "#", null).count());
+		
+		// cancelled while the content is spooled for the document cache
+		tvs.setDocumentCacheSize(64 * 1024 * 1024);
+		CancellationToken spoolToken = new CancellationToken();
+		long[] spooledBytes = new long[1];
+		try {
+			tvs.deSerializeWithResult(new ByteArrayInputStream(generated.toByteArray()), generated.size(), 
+					(long bytesRead, long totalBytes, int lineNumber, TagValuePhase phase) -> {
+				assertEquals(TagValuePhase.SPOOL, phase);
+				spooledBytes[0] = bytesRead;
+				if (bytesRead > 0) {
+					spoolToken.cancel();
+				}
+			}, spoolToken);
+			fail("Expected cancellation");
+		} catch (TagValueCancelledException e) {
+			assertTrue(e.getMessage().contains("SPOOL"));
+		}
+		assertTrue(spooledBytes[0] > 0 && spooledBytes[0] < generated.size());
+	}
+	
+	public void testParserLimits() throws Exception {
+		File tagValueFile = new File(TAG_VALUE_FILE_PATH);
+		byte[] content = Files.readAllBytes(tagValueFile.toPath());
+		FootprintEstimator estimate = FootprintEstimator.scan(new ByteArrayInputStream(content), new ParserLimits());
+		TagValueStore tvs = new TagValueStore(new InMemSpdxStore());
+		AggregatingMetricsListener metrics = new AggregatingMetricsListener();
+		tvs.setMetricsListener(metrics);
+		ParserLimits limits = new ParserLimits();
+		limits.setMaxLineLength(1000);
+		limits.setMaxTextBlockLength(10000);
+		limits.setMaxElementCount(estimate.getElementCount());
+		limits.setMaxRetainedBytes(estimate.getEstimatedRetainedBytes());
+		tvs.setParserLimits(limits);
+		String documentUri = tvs.deSerialize(new ByteArrayInputStream(content), false).getDocumentUri();
+		long elements = 0;
+		for (long count:metrics.getElementCounts().values()) {
+			elements += count;
+		}
+		long tags = 0;
+		for (long count:metrics.getTagCounts().values()) {
+			tags += count;
+		}
+		assertEquals(tags, estimate.getTagCount());
+		assertTrue(elements <= estimate.getElementCount());
+		assertTrue(estimate.getEstimatedRetainedBytes() > 5 * content.length);
+		assertTrue(estimate.getLineCount() > 300);
+		
+		String[] limitNames = new String[] {"line length", "text block length", "element count", "retained"};
+		for (int i = 0; i < limitNames.length; i++) {
+			ParserLimits exceeded = new ParserLimits();
+			switch (i) {
+				case 0: exceeded.setMaxLineLength(100); break;
+				case 1: exceeded.setMaxTextBlockLength(100); break;
+				case 2: exceeded.setMaxElementCount(10); break;
+				default: exceeded.setMaxRetainedBytes(content.length);
+			}
+			tvs = new TagValueStore(new InMemSpdxStore());
+			tvs.setParserLimits(exceeded);
+			try {
+				tvs.deSerialize(new ByteArrayInputStream(content), false);
+				fail("Expected the " + limitNames[i] + " limit to be exceeded");
+			} catch (ParserLimitExceededException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains(limitNames[i]));
+			}
+			// the partially built document is deleted
+			assertEquals(0, tvs.getAllItems(documentUri + "#", null).count());
+			tvs.setParserLimits(null);
+			assertEquals(documentUri, tvs.deSerialize(new ByteArrayInputStream(content), false).getDocumentUri());
+		}
+		try {
+			FootprintEstimator.scan(new ByteArrayInputStream(content), tvs.getParserLimits());
+		} catch (InvalidSpdxTagFileException e) {
+			fail("The scan does not apply the element or retained size limits");
+		}
+		
+		// an unterminated text block fails once it exceeds the text block limit
+		StringBuilder unterminated = new StringBuilder(new String(content, StandardCharsets.UTF_8));
+		unterminated.append("\nPackageComment: <text>");
+		for (int i = 0; i < 1000; i++) {
+			unterminated.append("more text\n");
+		}
+		ParserLimits textLimit = new ParserLimits();
+		textLimit.setMaxTextBlockLength(5000);
+		try {
+			FootprintEstimator.scan(new ByteArrayInputStream(unterminated.toString().getBytes(StandardCharsets.UTF_8)), textLimit);
+			fail("Expected the text block limit to be exceeded");
+		} catch (InvalidSpdxTagFileException e) {
+			assertTrue(e.getMessage().contains("PackageComment:"));
+		}
+	}
 }